@@ -3,6 +3,7 @@ package com.hoteltaskmanager.config;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +24,18 @@ public class JwtConfig {
     @Value("${jwt.expirationTime}")
     private long expirationTime;
 
+    /** Klucz podpisu i parser są niezmienne i bezpieczne wątkowo - budowane raz przy starcie. */
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     /**
      * Generuje token JWT dla podanego użytkownika.
      * 
@@ -30,13 +43,11 @@ public class JwtConfig {
      * @return Wygenerowany token JWT.
      */
     public String generateToken(String username) {
-        Key key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -47,13 +58,7 @@ public class JwtConfig {
      * @return Informacje zapisane w tokenie.
      */
     public Claims validateToken(String token) {
-        Key key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
-
-        JwtParser parser = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build();
-
-        return parser
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,75 @@
+package com.hoteltaskmanager.config;
+
+import com.hoteltaskmanager.util.BoundedTtlCache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Konfiguracja pamięci podręcznej wyników raportów JSON.
+ * <p>
+ * Każdy typ raportu ma osobną pamięć ({@link BoundedTtlCache}) kluczowaną parametrami wywołania
+ * (zakres dat, okres). Wpisy są usuwane po {@link #TTL_MS}, przy przekroczeniu
+ * {@link #MAX_ENTRIES} oraz po zmianie danych w tabelach, z których raport korzysta
+ * ({@link #TABLES_BY_CACHE}, patrz {@code ReportCacheInvalidator}).
+ */
+@Configuration
+@EnableCaching
+public class ReportCacheConfig {
+
+    public static final String STAFF_PERFORMANCE = "report-staff-performance";
+    public static final String ROOM_STATUS = "report-room-status";
+    public static final String MAINTENANCE_ISSUES = "report-maintenance-issues";
+    public static final String HOUSEKEEPING_EFFICIENCY = "report-housekeeping-efficiency";
+    public static final String RESERVATIONS = "report-reservations";
+    public static final String FINANCIAL = "report-financial";
+
+    /** Maksymalna liczba zapamiętanych wyników jednego typu raportu. */
+    static final int MAX_ENTRIES = 64;
+
+    /** Czas życia wyniku raportu. */
+    static final long TTL_MS = 5 * 60 * 1000L;
+
+    /**
+     * Tabele, z których korzysta zapytanie każdego raportu.
+     */
+    public static final Map<String, Set<String>> TABLES_BY_CACHE = Map.of(
+            STAFF_PERFORMANCE, Set.of("employee", "roles", "housekeeping_tasks", "maintenance_requests"),
+            ROOM_STATUS, Set.of("rooms", "maintenance_requests", "employee", "reservations", "reservation_rooms"),
+            MAINTENANCE_ISSUES, Set.of("maintenance_requests"),
+            HOUSEKEEPING_EFFICIENCY, Set.of("housekeeping_tasks", "employee", "rooms"),
+            RESERVATIONS, Set.of("reservations", "reservation_rooms", "rooms"),
+            FINANCIAL, Set.of("reservations", "reservation_rooms", "rooms", "invoices")
+    );
+
+    /**
+     * Pamięć podręczna odpowiadająca każdej sekcji raportu PDF ({@code ReportJobType#getSections()}).
+     */
+    public static final Map<String, String> CACHE_BY_SECTION = Map.of(
+            "staffPerformance", STAFF_PERFORMANCE,
+            "housekeepingEfficiency", HOUSEKEEPING_EFFICIENCY,
+            "roomStatus", ROOM_STATUS,
+            "maintenanceIssues", MAINTENANCE_ISSUES,
+            "reservations", RESERVATIONS,
+            "financial", FINANCIAL
+    );
+
+    @Bean
+    public CacheManager cacheManager() {
+        List<BoundedTtlCache> caches = new ArrayList<>();
+        for (String name : TABLES_BY_CACHE.keySet()) {
+            caches.add(new BoundedTtlCache(name, MAX_ENTRIES, TTL_MS));
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+}
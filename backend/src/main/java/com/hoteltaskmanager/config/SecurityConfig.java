@@ -1,6 +1,7 @@
 package com.hoteltaskmanager.config;
 
 import com.hoteltaskmanager.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,6 +17,13 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Endpointy dostępne bez autoryzacji. Filtr JWT jest dla nich pomijany.
+     */
+    public static final String[] PUBLIC_PATHS = {
+            "/error", "/api/auth/**", "/reset-password.html", "/hotel.png", "/hotel.ico", "/avatars/**", "/actuator/**"
+    };
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
@@ -33,7 +41,9 @@ public class SecurityConfig {
 
             // Konfiguracja żądań - które endpointy są dostępne bez autoryzacji
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/error", "/api/auth/**", "/reset-password.html", "/hotel.png","/hotel.ico", "/avatars/**", "/actuator/**").permitAll() // publiczne
+                // Asynchroniczne dokończenie żądań (np. strumień SSE) - żądanie zostało już autoryzowane
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers(PUBLIC_PATHS).permitAll() // publiczne
                 .anyRequest().authenticated() // reszta wymaga autoryzacji
             )
 
@@ -0,0 +1,57 @@
+package com.hoteltaskmanager.controller;
+
+import com.hoteltaskmanager.service.FileServingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Udostępnianie zdjęć profilowych pracowników z katalogu uploads/avatars.
+ *
+ * Dostępne endpointy:
+ *
+ * GET    /avatars/{fileName}          - Pobierz zdjęcie profilowe
+ *
+ * Pliki są wysyłane przez {@link FileServingService} (ETag, Last-Modified, zakresy bajtów),
+ * więc przeglądarka nie pobiera ponownie niezmienionego zdjęcia.
+ */
+@RestController
+@RequestMapping("/avatars")
+public class AvatarController {
+
+    private final FileServingService fileServingService;
+    private final Path avatarDir = Paths.get("uploads", "avatars").toAbsolutePath().normalize();
+
+    public AvatarController(FileServingService fileServingService) {
+        this.fileServingService = fileServingService;
+    }
+
+    /**
+     * GET /avatars/{fileName}
+     * Pobierz zdjęcie profilowe
+     */
+    @GetMapping("/{fileName:.+}")
+    public void getAvatar(@PathVariable String fileName, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        Path file = avatarDir.resolve(fileName).normalize();
+
+        // Ochrona przed wyjściem poza katalog zdjęć (np. "../")
+        if (!file.getParent().equals(avatarDir)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        fileServingService.serve(file, mediaType, null, request, response);
+    }
+}
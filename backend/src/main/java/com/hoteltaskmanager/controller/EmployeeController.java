@@ -1,16 +1,21 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.KeysetPageDTO;
 import com.hoteltaskmanager.model.*;
 import com.hoteltaskmanager.repository.EmployeeRepository;
 import com.hoteltaskmanager.repository.HousekeepingTaskRepository;
 import com.hoteltaskmanager.repository.MaintenanceRequestRepository;
 import com.hoteltaskmanager.repository.RoleRepository;
+import com.hoteltaskmanager.security.EmployeePrincipalCache;
 import com.hoteltaskmanager.security.PasswordHasher;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.RoomStatusManagerService;
+import com.hoteltaskmanager.service.TaskEventService;
+import com.hoteltaskmanager.util.KeysetPaging;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.hoteltaskmanager.config.JwtConfig;
@@ -27,6 +32,7 @@ import java.util.*;
  * Dostępne endpointy:
  * <p>
  * GET    /api/employees                        - Pobierz wszystkich pracowników (z opcją filtrowania po roli)
+ * GET    /api/employees?limit={n}&cursor={id}  - Strona pracowników (keyset) z filtrami: roleName, search
  * GET    /api/employees/{id}                   - Pobierz pracownika po ID
  * POST   /api/employees                        - Dodaj nowego pracownika
  * PUT    /api/employees/{id}                   - Zaktualizuj dane pracownika
@@ -56,6 +62,18 @@ public class EmployeeController {
     @Autowired
     private JwtConfig jwtConfig;
 
+    @Autowired
+    private EmployeePrincipalCache employeePrincipalCache;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
+    @Autowired
+    private TaskEventService taskEventService;
+
+    @Autowired
+    private RoomStatusManagerService roomStatusManagerService;
+
     /**
      * GET /api/employees
      * Pobiera listę wszystkich pracowników. Jeśli zostanie podany parametr `roleName`,
@@ -79,6 +97,27 @@ public class EmployeeController {
         return ResponseEntity.ok(filteredEmployees);
     }
 
+    /**
+     * GET /api/employees?limit={n}&cursor={id}
+     * Pobiera stronę pracowników (stronicowanie kluczem, malejąco po ID).
+     *
+     * @param limit    rozmiar strony (maks. {@value KeysetPaging#MAX_LIMIT})
+     * @param cursor   kursor z poprzedniej strony (opcjonalny)
+     * @param roleName rola (opcjonalna)
+     * @param search   fragment imienia, nazwiska lub e-maila (opcjonalny)
+     * @return Strona pracowników z kursorem następnej strony
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<KeysetPageDTO<Employee>> getPage(@RequestParam Integer limit,
+                                                           @RequestParam(required = false) Long cursor,
+                                                           @RequestParam(required = false) RoleName roleName,
+                                                           @RequestParam(required = false) String search) {
+        int pageSize = KeysetPaging.clampLimit(limit);
+        List<Employee> rows = employeeRepository.findPage(cursor, roleName,
+                KeysetPaging.likePattern(search), KeysetPaging.probe(pageSize));
+        return ResponseEntity.ok(KeysetPaging.page(rows, pageSize, Employee::getId));
+    }
+
     /**
      * GET /api/employees/{id}
      * Pobierz jednego pracownika po ID
@@ -188,6 +227,7 @@ public class EmployeeController {
         existing.setRole(role);
 
         Employee updated = employeeRepository.save(existing);
+        employeePrincipalCache.invalidate(updated.getId());
 
         return ResponseEntity.ok(updated);
     }
@@ -224,11 +264,14 @@ public class EmployeeController {
             System.out.println("[DEBUG] Awatar jest domyślny lub null - pomijam usuwanie.");
         }
 
+        // Zgłoszenia do usunięcia według ID - konserwator mógł też sam zgłosić przypisane mu zgłoszenie
+        Map<Long, MaintenanceRequest> requestsToDelete = new LinkedHashMap<>();
+
         // Usuwanie przypisanych zadań serwisowych (konserwator)
         if (employee.getRole().getName() == RoleName.MAINTENANCE) {
             List<MaintenanceRequest> assignedRequests = maintenanceRequestRepository.findByAssigneeId(id);
             System.out.println("[DEBUG] Ilość przypisanych zgłoszeń serwisowych do usunięcia: " + assignedRequests.size());
-            maintenanceRequestRepository.deleteAll(assignedRequests);
+            assignedRequests.forEach(request -> requestsToDelete.put(request.getId(), request));
         }
 
         // Usuwanie przypisanych zadań sprzątania (pokojówka)
@@ -236,15 +279,33 @@ public class EmployeeController {
             List<HousekeepingTask> assignedTasks = housekeepingTaskRepository.findByEmployeeId(id);
             System.out.println("[DEBUG] Ilość przypisanych zadań housekeeping do usunięcia: " + assignedTasks.size());
             housekeepingTaskRepository.deleteAll(assignedTasks);
+            // Ślady usunięcia i zdarzenia jak przy DELETE /api/housekeeping-tasks/{id}
+            for (HousekeepingTask task : assignedTasks) {
+                changeSyncService.recordDeletion(ChangeSyncService.HOUSEKEEPING_TASK, task.getId());
+                taskEventService.publishHousekeepingTask("DELETED", task, null);
+            }
         }
 
         // Usuwanie zgłoszeń gdzie był zgłaszającym (requester)
         List<MaintenanceRequest> reportedRequests = maintenanceRequestRepository.findByRequesterId(id);
         System.out.println("[DEBUG] Ilość zgłoszeń zgłoszonych przez pracownika do usunięcia: " + reportedRequests.size());
-        maintenanceRequestRepository.deleteAll(reportedRequests);
+        reportedRequests.forEach(request -> requestsToDelete.put(request.getId(), request));
+
+        maintenanceRequestRepository.deleteAll(requestsToDelete.values());
+        // Ślady usunięcia, zdarzenia i statusy pokoi jak przy DELETE /api/maintenance-requests/{id}
+        Set<Long> affectedRoomIds = new HashSet<>();
+        for (MaintenanceRequest request : requestsToDelete.values()) {
+            changeSyncService.recordDeletion(ChangeSyncService.MAINTENANCE_REQUEST, request.getId());
+            taskEventService.publishMaintenanceRequest("DELETED", request, null);
+            if (request.getRoom() != null) {
+                affectedRoomIds.add(request.getRoom().getId());
+            }
+        }
+        roomStatusManagerService.refreshRoomStatuses(affectedRoomIds);
 
         // Na końcu usuń pracownika
         employeeRepository.deleteById(id);
+        employeePrincipalCache.invalidate(id);
         System.out.println("[DEBUG] Pracownik został usunięty.");
 
         return ResponseEntity.noContent().build();
@@ -264,19 +325,11 @@ public class EmployeeController {
     /**
      * GET /api/employee/me
      * Pobierz dane zalogowanego użytkownika na podstawie tokena JWT
+     * (pracownik jest już wczytany przez filtr JWT, bez zapytania do bazy)
      */
     @GetMapping("/me")
     public ResponseEntity<Employee> getCurrentUser() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
-        String email;
-        if (principal instanceof org.springframework.security.core.userdetails.User userDetails) {
-            email = userDetails.getUsername();
-        } else {
-            email = principal.toString();
-        }
-
-        return employeeRepository.findByEmail(email)
+        return employeePrincipalCache.currentEmployee()
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -332,7 +385,7 @@ public class EmployeeController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Użytkownik nie istnieje.");
         }
 
-        Optional<Employee> currentEmployee = employeeRepository.findByEmail(currentUserEmail);
+        Optional<Employee> currentEmployee = employeePrincipalCache.currentEmployee(authentication);
         if (currentEmployee.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Brak autoryzacji.");
         }
@@ -351,6 +404,7 @@ public class EmployeeController {
 
         targetEmployee.setEmail(newEmail);
         employeeRepository.save(targetEmployee);
+        employeePrincipalCache.invalidate(targetEmployee.getId());
 
         if (isOwnAccount) {
             String newToken = jwtConfig.generateToken(newEmail);
@@ -411,6 +465,7 @@ public class EmployeeController {
 
             employee.setAvatarFilename(uniqueFilename);
             employeeRepository.save(employee);
+            employeePrincipalCache.invalidate(id);
 
             return ResponseEntity.ok("Zdjęcie profilowe zostało zapisane.");
         } catch (IOException e) {
@@ -446,6 +501,7 @@ public class EmployeeController {
 
             employee.setAvatarFilename(null);
             employeeRepository.save(employee);
+            employeePrincipalCache.invalidate(id);
         }
 
         return ResponseEntity.ok("Zdjęcie profilowe zostało usunięte.");
@@ -460,9 +516,9 @@ public class EmployeeController {
      */
     @PutMapping("/me/notifications")
     public ResponseEntity<?> updateNotificationPreference(@RequestBody Map<String, Boolean> body) {
-        String email = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
-        Optional<Employee> optionalEmployee = employeeRepository.findByEmail(email);
+        // Pracownik z pamięci podręcznej jest współdzielony między żądaniami - zmieniana jest świeża kopia z bazy
+        Optional<Employee> optionalEmployee = employeePrincipalCache.currentEmployee()
+                .flatMap(principal -> employeeRepository.findById(principal.getId()));
         if (optionalEmployee.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Użytkownik nie istnieje.");
         }
@@ -474,9 +530,10 @@ public class EmployeeController {
         }
 
         employee.setNotificationsEnabled(notificationsEnabled);
-        employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        employeePrincipalCache.invalidate(employee.getId());
 
-        return ResponseEntity.ok(employee);
+        return ResponseEntity.ok(saved);
     }
 
 }
@@ -0,0 +1,76 @@
+package com.hoteltaskmanager.controller;
+
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.security.EmployeePrincipalCache;
+import com.hoteltaskmanager.security.StreamTicketService;
+import com.hoteltaskmanager.service.TaskEventService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST API kanału zdarzeń (Server-Sent Events) dla pulpitów pracowników.
+ *
+ * Dostępne endpointy:
+ *
+ * POST   /api/events/ticket           - Jednorazowy bilet do otwarcia strumienia
+ * GET    /api/events/stream           - Strumień zmian zadań sprzątania i zgłoszeń serwisowych
+ *
+ * Klient EventSource nie może ustawić nagłówka Authorization, dlatego strumień otwiera się
+ * krótkotrwałym biletem w parametrze {@code ticket} (token JWT w adresie trafiałby do logów).
+ * Bilet pobiera się z nagłówkiem Authorization. Wznowienie od ostatniego zdarzenia odbywa się
+ * przez nagłówek {@code Last-Event-ID} (wysyłany automatycznie przez EventSource)
+ * lub parametr {@code lastEventId}.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventStreamController {
+
+    private final TaskEventService taskEventService;
+    private final EmployeePrincipalCache employeePrincipalCache;
+    private final StreamTicketService streamTicketService;
+
+    public EventStreamController(TaskEventService taskEventService,
+                                 EmployeePrincipalCache employeePrincipalCache,
+                                 StreamTicketService streamTicketService) {
+        this.taskEventService = taskEventService;
+        this.employeePrincipalCache = employeePrincipalCache;
+        this.streamTicketService = streamTicketService;
+    }
+
+    /**
+     * POST /api/events/ticket
+     * Wystaw jednorazowy bilet do otwarcia strumienia zdarzeń
+     */
+    @PostMapping("/ticket")
+    public ResponseEntity<Map<String, String>> ticket(Authentication authentication) {
+        Optional<Employee> employee = employeePrincipalCache.currentEmployee(authentication);
+        if (employee.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(Map.of("ticket", streamTicketService.issue(employee.get().getEmail())));
+    }
+
+    /**
+     * GET /api/events/stream
+     * Otwórz strumień zdarzeń dla zalogowanego pracownika
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Authentication authentication,
+                                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                             @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        Optional<Employee> employee = employeePrincipalCache.currentEmployee(authentication);
+        if (employee.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return ResponseEntity.ok(taskEventService.subscribe(employee.get(), lastEventId));
+    }
+}
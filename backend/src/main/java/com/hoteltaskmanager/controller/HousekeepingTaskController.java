@@ -1,11 +1,20 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.HousekeepingTaskSummaryDTO;
+import com.hoteltaskmanager.dto.KeysetPageDTO;
+import com.hoteltaskmanager.dto.SyncDeltaDTO;
+import com.hoteltaskmanager.model.Employee;
 import com.hoteltaskmanager.model.HousekeepingStatus;
 import com.hoteltaskmanager.model.HousekeepingTask;
 import com.hoteltaskmanager.repository.HousekeepingTaskRepository;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.TaskEventService;
+import com.hoteltaskmanager.util.KeysetPaging;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +24,9 @@ import java.util.Optional;
  * Dostępne endpointy:
  *
  * GET    /api/housekeeping-tasks                           - Pobierz wszystkie zadania
+ * GET    /api/housekeeping-tasks?view=summary              - Pobierz skrócone dane zadań (projekcja dla tabel i pulpitów)
+ * GET    /api/housekeeping-tasks?since={version}           - Pobierz zadania zmienione lub usunięte od podanej wersji (synchronizacja przyrostowa)
+ * GET    /api/housekeeping-tasks?limit={n}&cursor={id}     - Strona zadań (keyset) z filtrami: status, employeeId, roomId, from, to
  * GET    /api/housekeeping-tasks/{id}                      - Pobierz zadanie po ID
  * POST   /api/housekeeping-tasks                           - Dodaj nowe zadanie
  * PUT    /api/housekeeping-tasks/{id}                      - Zaktualizuj istniejące zadanie
@@ -27,9 +39,15 @@ import java.util.Optional;
 public class HousekeepingTaskController {
 
     private final HousekeepingTaskRepository taskRepository;
+    private final TaskEventService taskEventService;
+    private final ChangeSyncService changeSyncService;
 
-    public HousekeepingTaskController(HousekeepingTaskRepository taskRepository) {
+    public HousekeepingTaskController(HousekeepingTaskRepository taskRepository,
+                                      TaskEventService taskEventService,
+                                      ChangeSyncService changeSyncService) {
         this.taskRepository = taskRepository;
+        this.taskEventService = taskEventService;
+        this.changeSyncService = changeSyncService;
     }
 
     /**
@@ -38,15 +56,47 @@ public class HousekeepingTaskController {
      */
     @GetMapping
     public List<HousekeepingTask> getAll() {
-        List<HousekeepingTask> tasks = taskRepository.findAll();
+        return taskRepository.findAll();
+    }
+
+    /**
+     * GET /api/housekeeping-tasks?view=summary
+     * Pobierz wszystkie zadania w postaci skróconej: pokój (ID, numer) i pracownik
+     * (ID, imię, nazwisko, avatar) zamiast pełnych encji z rolą.
+     */
+    @GetMapping(params = "view=summary")
+    public List<HousekeepingTaskSummaryDTO> getAllSummaries() {
+        return taskRepository.findAllSummaries();
+    }
 
-        tasks.forEach(task -> {
-            if (task.getEmployee() != null) {
-                task.getEmployee().getAvatarUrl();
-            }
-        });
+    /**
+     * GET /api/housekeeping-tasks?since={version}
+     * Pobierz zadania zmienione lub usunięte od podanej wersji.
+     * Dla {@code since=0} (pierwsza synchronizacja) zwraca pełną listę.
+     */
+    @GetMapping(params = "since")
+    public SyncDeltaDTO<HousekeepingTask> getChangedSince(@RequestParam long since) {
+        return changeSyncService.changesSince(ChangeSyncService.HOUSEKEEPING_TASK, since,
+                taskRepository::findAll, taskRepository::findByChangeVersionGreaterThan);
+    }
 
-        return tasks;
+    /**
+     * GET /api/housekeeping-tasks?limit={n}&cursor={id}
+     * Pobierz stronę zadań (stronicowanie kluczem, od najnowszych).
+     * Opcjonalne filtry: status, pracownik (employeeId), pokój (roomId), zakres dat zlecenia (from, to).
+     */
+    @GetMapping(params = "limit")
+    public KeysetPageDTO<HousekeepingTask> getPage(@RequestParam Integer limit,
+                                                   @RequestParam(required = false) Long cursor,
+                                                   @RequestParam(required = false) HousekeepingStatus status,
+                                                   @RequestParam(required = false) Long employeeId,
+                                                   @RequestParam(required = false) Long roomId,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPaging.clampLimit(limit);
+        List<HousekeepingTask> rows = taskRepository.findPage(cursor, status, employeeId, roomId,
+                KeysetPaging.startOfDay(from), KeysetPaging.endOfDay(to), KeysetPaging.probe(pageSize));
+        return KeysetPaging.page(rows, pageSize, HousekeepingTask::getId);
     }
 
 
@@ -67,7 +117,9 @@ public class HousekeepingTaskController {
      */
     @PostMapping
     public ResponseEntity<HousekeepingTask> create(@RequestBody HousekeepingTask task) {
-        return ResponseEntity.ok(taskRepository.save(task));
+        HousekeepingTask saved = taskRepository.save(task);
+        taskEventService.publishHousekeepingTask("CREATED", saved, null);
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -83,6 +135,7 @@ public class HousekeepingTaskController {
         }
 
         HousekeepingTask existing = optional.get();
+        Employee previousEmployee = existing.getEmployee();
         existing.setEmployee(updatedTask.getEmployee());
         existing.setRoom(updatedTask.getRoom());
         existing.setRequestDate(updatedTask.getRequestDate());
@@ -90,7 +143,9 @@ public class HousekeepingTaskController {
         existing.setStatus(updatedTask.getStatus());
         existing.setDescription(updatedTask.getDescription());
 
-        return ResponseEntity.ok(taskRepository.save(existing));
+        HousekeepingTask saved = taskRepository.save(existing);
+        taskEventService.publishHousekeepingTask("UPDATED", saved, previousEmployee);
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -99,11 +154,14 @@ public class HousekeepingTaskController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!taskRepository.existsById(id)) {
+        Optional<HousekeepingTask> optional = taskRepository.findById(id);
+        if (optional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         taskRepository.deleteById(id);
+        changeSyncService.recordDeletion(ChangeSyncService.HOUSEKEEPING_TASK, id);
+        taskEventService.publishHousekeepingTask("DELETED", optional.get(), null);
         return ResponseEntity.noContent().build();
     }
 
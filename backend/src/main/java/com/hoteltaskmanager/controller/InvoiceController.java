@@ -1,12 +1,19 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.BulkInvoiceRequestDTO;
+import com.hoteltaskmanager.dto.BulkInvoiceResultDTO;
 import com.hoteltaskmanager.model.Invoice;
+import com.hoteltaskmanager.service.BulkInvoiceService;
+import com.hoteltaskmanager.service.FileServingService;
 import com.hoteltaskmanager.service.InvoiceService;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import com.hoteltaskmanager.service.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +27,7 @@ import java.util.Optional;
  *  * GET    /api/invoices/reservation/{id}         - Pobierz fakturę przypisaną do rezerwacji
  *  * GET    /api/invoices/{id}/pdf                 - Pobierz plik PDF faktury
  *  * POST   /api/invoices/reservation/{id}         - Wygeneruj fakturę dla rezerwacji
+ *  * POST   /api/invoices/bulk                     - Wygeneruj faktury dla wielu rezerwacji
  *  * DELETE /api/invoices/{id}                     - Usuń fakturę po ID
  *  * PUT    /api/invoices/{id}                     - Modyfikuje fakturę w systemie
  */
@@ -28,9 +36,14 @@ import java.util.Optional;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final BulkInvoiceService bulkInvoiceService;
+    private final FileServingService fileServingService;
 
-    public InvoiceController(InvoiceService invoiceService) {
+    public InvoiceController(InvoiceService invoiceService, BulkInvoiceService bulkInvoiceService,
+                             FileServingService fileServingService) {
         this.invoiceService = invoiceService;
+        this.bulkInvoiceService = bulkInvoiceService;
+        this.fileServingService = fileServingService;
     }
 
     /**
@@ -60,6 +73,19 @@ public class InvoiceController {
         }
     }
 
+    /**
+     * POST /api/invoices/bulk
+     * Wystawia faktury dla wielu rezerwacji - wskazanych listą ID albo filtrem
+     * (np. zakończone w danym przedziale dat, bez faktury). Zwraca wynik dla każdej rezerwacji.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkInvoiceResultDTO> generateBulk(@RequestBody BulkInvoiceRequestDTO request) {
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bulkInvoiceService.generateInvoices(request));
+    }
+
     /**
      * GET /api/invoices
      * Pobierz listę wszystkich faktur
@@ -96,16 +122,12 @@ public class InvoiceController {
      * Pobierz plik PDF faktury
      */
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<Resource> downloadPdf(@PathVariable Long id) {
-        Resource pdfResource = invoiceService.getInvoicePdf(id);
-        if (pdfResource == null) {
-            return ResponseEntity.notFound().build();
-        }
+    public void downloadPdf(@PathVariable Long id, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        StoredFile pdf = invoiceService.getInvoicePdf(id).orElse(null);
+        String contentDisposition = pdf != null ? "attachment; filename=" + pdf.fileName() : null;
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + pdfResource.getFilename())
-                .body(pdfResource);
+        fileServingService.serve(pdf, MediaType.APPLICATION_PDF, contentDisposition, request, response);
     }
 
     /**
@@ -1,11 +1,22 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.KeysetPageDTO;
+import com.hoteltaskmanager.dto.MaintenanceRequestSummaryDTO;
+import com.hoteltaskmanager.dto.SyncDeltaDTO;
+import com.hoteltaskmanager.model.Employee;
 import com.hoteltaskmanager.model.MaintenanceRequest;
 import com.hoteltaskmanager.model.MaintenanceStatus;
 import com.hoteltaskmanager.repository.MaintenanceRequestRepository;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.RoomStatusManagerService;
+import com.hoteltaskmanager.service.TaskEventService;
+import com.hoteltaskmanager.util.KeysetPaging;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +26,9 @@ import java.util.Optional;
  * Dostępne endpointy:
  *
  * GET    /api/maintenance-requests                   - Pobierz wszystkie zgłoszenia
+ * GET    /api/maintenance-requests?view=summary      - Pobierz skrócone dane zgłoszeń (projekcja dla tabel i pulpitów)
+ * GET    /api/maintenance-requests?since={version}   - Pobierz zgłoszenia zmienione lub usunięte od podanej wersji (synchronizacja przyrostowa)
+ * GET    /api/maintenance-requests?limit={n}&cursor={id} - Strona zgłoszeń (keyset) z filtrami: status, assigneeId, requesterId, roomId, from, to
  * GET    /api/maintenance-requests/{id}              - Pobierz zgłoszenie po ID
  * POST   /api/maintenance-requests                   - Dodaj nowe zgłoszenie
  * PUT    /api/maintenance-requests/{id}              - Zaktualizuj istniejące zgłoszenie
@@ -28,9 +42,18 @@ import java.util.Optional;
 public class MaintenanceRequestController {
 
     private final MaintenanceRequestRepository requestRepository;
-
-    public MaintenanceRequestController(MaintenanceRequestRepository requestRepository) {
+    private final RoomStatusManagerService roomStatusManagerService;
+    private final TaskEventService taskEventService;
+    private final ChangeSyncService changeSyncService;
+
+    public MaintenanceRequestController(MaintenanceRequestRepository requestRepository,
+                                        RoomStatusManagerService roomStatusManagerService,
+                                        TaskEventService taskEventService,
+                                        ChangeSyncService changeSyncService) {
         this.requestRepository = requestRepository;
+        this.roomStatusManagerService = roomStatusManagerService;
+        this.taskEventService = taskEventService;
+        this.changeSyncService = changeSyncService;
     }
 
     /**
@@ -42,6 +65,48 @@ public class MaintenanceRequestController {
         return requestRepository.findAll();
     }
 
+    /**
+     * GET /api/maintenance-requests?view=summary
+     * Pobierz wszystkie zgłoszenia w postaci skróconej: pokój (ID, numer), zgłaszający
+     * i przypisany pracownik (ID, imię, nazwisko, avatar) zamiast pełnych encji.
+     */
+    @GetMapping(params = "view=summary")
+    public List<MaintenanceRequestSummaryDTO> getAllSummaries() {
+        return requestRepository.findAllSummaries();
+    }
+
+    /**
+     * GET /api/maintenance-requests?since={version}
+     * Pobierz zgłoszenia zmienione lub usunięte od podanej wersji.
+     * Dla {@code since=0} (pierwsza synchronizacja) zwraca pełną listę.
+     */
+    @GetMapping(params = "since")
+    public SyncDeltaDTO<MaintenanceRequest> getChangedSince(@RequestParam long since) {
+        return changeSyncService.changesSince(ChangeSyncService.MAINTENANCE_REQUEST, since,
+                requestRepository::findAll, requestRepository::findByChangeVersionGreaterThan);
+    }
+
+    /**
+     * GET /api/maintenance-requests?limit={n}&cursor={id}
+     * Pobierz stronę zgłoszeń (stronicowanie kluczem, od najnowszych).
+     * Opcjonalne filtry: status, przypisany pracownik (assigneeId), zgłaszający (requesterId),
+     * pokój (roomId), zakres dat zgłoszenia (from, to).
+     */
+    @GetMapping(params = "limit")
+    public KeysetPageDTO<MaintenanceRequest> getPage(@RequestParam Integer limit,
+                                                     @RequestParam(required = false) Long cursor,
+                                                     @RequestParam(required = false) MaintenanceStatus status,
+                                                     @RequestParam(required = false) Long assigneeId,
+                                                     @RequestParam(required = false) Long requesterId,
+                                                     @RequestParam(required = false) Long roomId,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPaging.clampLimit(limit);
+        List<MaintenanceRequest> rows = requestRepository.findPage(cursor, status, assigneeId, requesterId, roomId,
+                KeysetPaging.startOfDay(from), KeysetPaging.endOfDay(to), KeysetPaging.probe(pageSize));
+        return KeysetPaging.page(rows, pageSize, MaintenanceRequest::getId);
+    }
+
     /**
      * GET /api/maintenance-requests/{id}
      * Pobierz jedno zgłoszenie serwisowe po ID
@@ -59,7 +124,10 @@ public class MaintenanceRequestController {
      */
     @PostMapping
     public ResponseEntity<MaintenanceRequest> create(@RequestBody MaintenanceRequest request) {
-        return ResponseEntity.ok(requestRepository.save(request));
+        MaintenanceRequest saved = requestRepository.save(request);
+        roomStatusManagerService.refreshRoomStatus(roomIdOf(saved)); // Odśwież status pokoju ze zgłoszenia
+        taskEventService.publishMaintenanceRequest("CREATED", saved, null);
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -75,6 +143,8 @@ public class MaintenanceRequestController {
         }
 
         MaintenanceRequest existing = optional.get();
+        Long previousRoomId = roomIdOf(existing);
+        Employee previousAssignee = existing.getAssignee();
         existing.setRoom(updated.getRoom());
         existing.setRequester(updated.getRequester());
         existing.setAssignee(updated.getAssignee());
@@ -84,7 +154,11 @@ public class MaintenanceRequestController {
         existing.setDescription(updated.getDescription());
         existing.setServiceSummary(updated.getServiceSummary());
 
-        return ResponseEntity.ok(requestRepository.save(existing));
+        MaintenanceRequest saved = requestRepository.save(existing);
+        // Przelicz status pokoju poprzednio i obecnie wskazanego w zgłoszeniu
+        roomStatusManagerService.refreshRoomStatuses(Arrays.asList(previousRoomId, roomIdOf(saved)));
+        taskEventService.publishMaintenanceRequest("UPDATED", saved, previousAssignee);
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -93,11 +167,15 @@ public class MaintenanceRequestController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!requestRepository.existsById(id)) {
+        Optional<MaintenanceRequest> optional = requestRepository.findById(id);
+        if (optional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         requestRepository.deleteById(id);
+        changeSyncService.recordDeletion(ChangeSyncService.MAINTENANCE_REQUEST, id);
+        roomStatusManagerService.refreshRoomStatus(roomIdOf(optional.get()));
+        taskEventService.publishMaintenanceRequest("DELETED", optional.get(), null);
         return ResponseEntity.noContent().build();
     }
 
@@ -127,4 +205,8 @@ public class MaintenanceRequestController {
     public List<MaintenanceRequest> getByAssignee(@PathVariable Long id) {
         return requestRepository.findByAssigneeId(id);
     }
+
+    private static Long roomIdOf(MaintenanceRequest request) {
+        return request != null && request.getRoom() != null ? request.getRoom().getId() : null;
+    }
 }
@@ -2,8 +2,10 @@ package com.hoteltaskmanager.controller;
 
 import com.hoteltaskmanager.model.Employee;
 import com.hoteltaskmanager.repository.EmployeeRepository;
+import com.hoteltaskmanager.security.EmployeePrincipalCache;
 import com.hoteltaskmanager.security.PasswordHasher;
 import com.hoteltaskmanager.service.EmailService;
+import com.hoteltaskmanager.service.PasswordResetTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +28,12 @@ public class PasswordResetController {
     @Autowired
     private PasswordHasher passwordHasher;
 
+    @Autowired
+    private PasswordResetTokenService passwordResetTokenService;
+
+    @Autowired
+    private EmployeePrincipalCache employeePrincipalCache;
+
     /**
      * Endpoint do wysłania żądania resetu hasła.
      *
@@ -34,7 +42,7 @@ public class PasswordResetController {
      *     "email": "user@example.com"
      * }
      *
-     * Generuje unikalny token resetujący, zapisuje go w bazie danych
+     * Generuje unikalny token resetujący, zapisuje jego skrót w bazie danych
      * i wysyła link resetujący na podany adres e-mail.
      *
      * @param request Mapa zawierająca pole "email" z żądania JSON
@@ -54,13 +62,7 @@ public class PasswordResetController {
             return ResponseEntity.badRequest().body("Nie znaleziono użytkownika.");
         }
 
-        Employee employee = employeeOptional.get();
-        String token = UUID.randomUUID().toString();
-
-        employee.setResetToken(token);
-        employee.setResetTokenExpiry(LocalDateTime.now().plusHours(24));
-
-        employeeRepository.save(employee);
+        String token = passwordResetTokenService.issueToken(employeeOptional.get());
 
         emailService.sendPasswordResetEmail(email, token);
         return ResponseEntity.ok("Link do resetu hasła został wysłany.");
@@ -69,6 +71,7 @@ public class PasswordResetController {
     /**
      * Endpoint do ustawienia nowego hasła na podstawie tokenu.
      * Przyjmuje JSON w formacie: {"token": "xxx", "newPassword": "xxx"}
+     * Token jest wyszukiwany po skrócie w indeksowanej kolumnie.
      *
      * @return komunikat o powodzeniu lub błędzie operacji
      */
@@ -76,9 +79,7 @@ public class PasswordResetController {
     public ResponseEntity<?> resetPassword(@RequestBody Map<String, String> request) {
         String token = request.get("token");
 
-        Optional<Employee> employeeOptional = employeeRepository.findAll().stream()
-                .filter(emp -> token.equals(emp.getResetToken()))
-                .findFirst();
+        Optional<Employee> employeeOptional = passwordResetTokenService.findByToken(token);
 
         if (employeeOptional.isEmpty()) {
             return ResponseEntity.badRequest().body("Nieprawidłowy token.");
@@ -96,9 +97,9 @@ public class PasswordResetController {
         }
 
         employee.setPassword(passwordHasher.hashPassword(newPassword));
-        employee.setResetToken(null); // unieważnienie tokenu
-        employee.setResetTokenExpiry(null);
+        passwordResetTokenService.clearToken(employee); // unieważnienie tokenu
         employeeRepository.save(employee);
+        employeePrincipalCache.invalidate(employee.getId());
 
         return ResponseEntity.ok("Hasło zostało zaktualizowane.");
     }
@@ -1,26 +1,39 @@
 package com.hoteltaskmanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoteltaskmanager.dto.KeysetPageDTO;
+import com.hoteltaskmanager.dto.ReportJobDTO;
 import com.hoteltaskmanager.model.Report;
+import com.hoteltaskmanager.model.ReportJobStatus;
+import com.hoteltaskmanager.model.ReportJobType;
 import com.hoteltaskmanager.model.ReportType;
+import com.hoteltaskmanager.repository.ReportRepository;
 import com.hoteltaskmanager.service.*;
+import com.hoteltaskmanager.util.KeysetPaging;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Kontroler REST do generowania i zarządzania raportami w systemie zarządzania hotelem.
  * Umożliwia tworzenie raportów w formacie JSON oraz PDF, pobieranie zapisanych raportów,
- * ich usuwanie i filtrowanie według typu.
+ * ich usuwanie i filtrowanie według typu, a także zlecanie generowania raportów PDF w tle.
  */
 @RestController
 @RequestMapping("/api/reports")
@@ -50,6 +63,21 @@ public class ReportController {
     @Autowired
     private ReportStorageService reportStorageService;
 
+    @Autowired
+    private ReportSectionGenerator reportSectionGenerator;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private FileServingService fileServingService;
+
+    @Autowired
+    private ReportDeduplicationService reportDeduplicationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Generuje raport dotyczący wydajności personelu w zadanym zakresie dat.
      *
@@ -186,14 +214,9 @@ public class ReportController {
             endDate = LocalDate.now();
         }
 
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("staffPerformance", staffPerformanceService.generateStaffPerformanceReport(startDate, endDate));
-        reportData.put("housekeepingEfficiency", housekeepingService.generateHousekeepingEfficiencyReport(startDate, endDate));
-
-        Report savedReport = pdfReportGeneratorService.generateAndSaveStaffReport(reportData, startDate, endDate);
+        Report savedReport = findOrGenerateReport(ReportJobType.STAFF, null, startDate, endDate);
 
-        byte[] reportBytes = reportStorageService.getReportFile(savedReport.getId());
-        ByteArrayResource resource = new ByteArrayResource(reportBytes);
+        Resource resource = new FileSystemResource(reportStorageService.getReportPath(savedReport.getId()));
 
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=staff-report.pdf");
@@ -229,13 +252,9 @@ public class ReportController {
             period = "week";
         }
 
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("financial", financialService.generateFinancialReport(period, startDate, endDate));
+        Report savedReport = findOrGenerateReport(ReportJobType.FINANCIAL, period, startDate, endDate);
 
-        Report savedReport = pdfReportGeneratorService.generateAndSaveFinancialReport(reportData, period, startDate, endDate);
-
-        byte[] reportBytes = reportStorageService.getReportFile(savedReport.getId());
-        ByteArrayResource resource = new ByteArrayResource(reportBytes);
+        Resource resource = new FileSystemResource(reportStorageService.getReportPath(savedReport.getId()));
 
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=financial-report.pdf");
@@ -267,15 +286,9 @@ public class ReportController {
             endDate = LocalDate.now();
         }
 
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("roomStatus", roomStatusService.generateRoomStatusReport());
-        reportData.put("maintenanceIssues", maintenanceIssuesService.generateMaintenanceIssuesReport(startDate, endDate));
-        reportData.put("reservations", reservationService.generateReservationManagementReport(startDate, endDate));
-
-        Report savedReport = pdfReportGeneratorService.generateAndSaveRoomsReport(reportData, startDate, endDate);
+        Report savedReport = findOrGenerateReport(ReportJobType.ROOMS, null, startDate, endDate);
 
-        byte[] reportBytes = reportStorageService.getReportFile(savedReport.getId());
-        ByteArrayResource resource = new ByteArrayResource(reportBytes);
+        Resource resource = new FileSystemResource(reportStorageService.getReportPath(savedReport.getId()));
 
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=rooms-report.pdf");
@@ -312,18 +325,9 @@ public class ReportController {
             period = "week";
         }
 
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("staffPerformance", staffPerformanceService.generateStaffPerformanceReport(startDate, endDate));
-        reportData.put("housekeepingEfficiency", housekeepingService.generateHousekeepingEfficiencyReport(startDate, endDate));
-        reportData.put("roomStatus", roomStatusService.generateRoomStatusReport());
-        reportData.put("maintenanceIssues", maintenanceIssuesService.generateMaintenanceIssuesReport(startDate, endDate));
-        reportData.put("reservations", reservationService.generateReservationManagementReport(startDate, endDate));
-        reportData.put("financial", financialService.generateFinancialReport(period, startDate, endDate));
-
-        Report savedReport = pdfReportGeneratorService.generateAndSaveCompleteReport(reportData, period, startDate, endDate);
+        Report savedReport = findOrGenerateReport(ReportJobType.COMPLETE, period, startDate, endDate);
 
-        byte[] reportBytes = reportStorageService.getReportFile(savedReport.getId());
-        ByteArrayResource resource = new ByteArrayResource(reportBytes);
+        Resource resource = new FileSystemResource(reportStorageService.getReportPath(savedReport.getId()));
 
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=hotel-complete-report.pdf");
@@ -336,54 +340,129 @@ public class ReportController {
     }
 
     /**
-     * Pobiera wcześniej zapisany raport PDF na podstawie identyfikatora.
+     * Zleca wygenerowanie raportu PDF w tle. Zwraca od razu identyfikator zadania -
+     * stan można odpytywać pod {@code /jobs/{jobId}}, a gotowy plik pobrać z {@code /jobs/{jobId}/file}.
      *
-     * @param reportId ID raportu do pobrania
-     * @return PDF jako zasób HTTP lub 404 jeśli raport nie istnieje
+     * @param type      Rodzaj raportu (STAFF, FINANCIAL, ROOMS, COMPLETE)
+     * @param period    Okres raportu finansowego
+     * @param startDate Data początkowa (opcjonalna)
+     * @param endDate   Data końcowa (opcjonalna)
+     * @return 202 ze stanem zadania lub 503, jeśli kolejka raportów jest pełna
      */
-    @GetMapping(value = "/saved/{reportId}", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<Resource> getSavedReport(@PathVariable Long reportId) {
-        try {
-            byte[] reportData = reportStorageService.getReportFile(reportId);
-
-            if (reportData == null || reportData.length == 0) {
-                System.out.println("Brak danych dla raportu ID: " + reportId);
-                return ResponseEntity.notFound().build();
-            }
-
-            System.out.println("Odczytano " + reportData.length + " bajtów dla raportu ID: " + reportId);
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(
+            @RequestParam ReportJobType type,
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Authentication authentication) {
 
-            if (reportData.length >= 5) {
-                String pdfHeader = new String(reportData, 0, 5, "ASCII");
-                System.out.println("Nagłówek pliku: " + pdfHeader);
-            }
+        if (startDate == null) {
+            startDate = LocalDate.now().minusDays(30);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        if (period == null) {
+            period = "week";
+        }
 
-            ByteArrayResource resource = new ByteArrayResource(reportData);
+        try {
+            ReportJobDTO job = reportJobService.submit(type, period, startDate, endDate, authentication);
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/reports/jobs/" + job.getId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Zbyt wiele raportów w kolejce. Spróbuj ponownie później.");
+        }
+    }
 
-            ContentDisposition contentDisposition = ContentDisposition.builder("inline")
-                    .filename("report-" + reportId + ".pdf")
-                    .build();
+    /**
+     * Zwraca stan zadania generowania raportu.
+     *
+     * @param jobId ID zadania
+     * @return stan zadania lub 404
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable String jobId) {
+        return reportJobService.find(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentLength(reportData.length);
-            headers.setContentDisposition(contentDisposition);
+    /**
+     * Strumień SSE ze zdarzeniami {@code progress} zadania - zamykany po jego zakończeniu.
+     *
+     * @param jobId ID zadania
+     * @return emiter SSE lub 404
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamReportJob(@PathVariable String jobId) {
+        return reportJobService.subscribe(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-            headers.add("Access-Control-Allow-Origin", "*");
-            headers.add("Access-Control-Expose-Headers", "Content-Disposition, Content-Type, Content-Length");
+    /**
+     * Pobiera raport PDF wygenerowany przez zadanie. Jeśli raport nie jest jeszcze gotowy,
+     * odpowiada 409 ze stanem zadania, a dla nieznanego zadania 404.
+     *
+     * @param jobId ID zadania
+     */
+    @GetMapping("/jobs/{jobId}/file")
+    public void getReportJobFile(@PathVariable String jobId, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Optional<ReportJobDTO> job = reportJobService.find(jobId);
+        if (job.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (job.get().getStatus() != ReportJobStatus.DONE) {
+            response.setStatus(HttpStatus.CONFLICT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getWriter(), job.get());
+            return;
+        }
+        getSavedReport(job.get().getReportId(), request, response);
+    }
 
-            return ResponseEntity
-                    .ok()
-                    .headers(headers)
-                    .body(resource);
+    /**
+     * Pobiera wcześniej zapisany raport PDF na podstawie identyfikatora - także zarchiwizowany.
+     * Obsługuje żądania warunkowe (ETag, Last-Modified) i zakresy bajtów ({@link FileServingService}).
+     *
+     * @param reportId ID raportu do pobrania
+     */
+    @GetMapping(value = "/saved/{reportId}", produces = MediaType.APPLICATION_PDF_VALUE)
+    public void getSavedReport(@PathVariable Long reportId, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        StoredFile reportFile;
+        try {
+            reportFile = reportStorageService.getReportFile(reportId);
         } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+            System.out.println("[ERROR] Nie można odczytać raportu ID " + reportId + ": " + e.getMessage());
+            response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
         }
+
+        ContentDisposition contentDisposition = ContentDisposition.builder("inline")
+                .filename("report-" + reportId + ".pdf")
+                .build();
+
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.setHeader("Access-Control-Expose-Headers",
+                "Content-Disposition, Content-Type, Content-Length, Content-Range, Accept-Ranges, ETag, Last-Modified");
+
+        fileServingService.serve(reportFile, MediaType.APPLICATION_PDF, contentDisposition.toString(), request, response);
     }
 
     /**
-     * Usuwa zapisany raport z systemu plików i bazy danych.
+     * Usuwa zapisany raport. Raport od razu znika z list i nie można go pobrać,
+     * a jego plik jest usuwany w tle ({@link ReportStorageService#purgeDeletedReports()}).
      *
      * @param reportId ID raportu do usunięcia
      * @return Informacja o sukcesie lub błędzie operacji
@@ -391,22 +470,10 @@ public class ReportController {
     @DeleteMapping("/saved/{reportId}")
     public ResponseEntity<?> deleteReport(@PathVariable Long reportId) {
         try {
-            Report report = reportStorageService.getReportRepository()
-                    .findById(reportId)
-                    .orElseThrow(() -> new RuntimeException("Raport o ID " + reportId + " nie istnieje"));
-
-            String fileName = report.getReportFile();
-
-            Path filePath = Paths.get(reportStorageService.getReportsStorageLocation()).resolve(fileName);
-
-            boolean fileDeleted = Files.deleteIfExists(filePath);
-
-            if (!fileDeleted) {
-                System.out.println("Plik nie istnieje lub nie mógł zostać usunięty: " + filePath);
+            if (!reportStorageService.deleteReport(reportId)) {
+                throw new RuntimeException("Raport o ID " + reportId + " nie istnieje");
             }
 
-            reportStorageService.getReportRepository().delete(report);
-
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Raport został pomyślnie usunięty",
@@ -426,23 +493,82 @@ public class ReportController {
     }
 
     /**
-     * Zwraca listę wszystkich zapisanych raportów lub filtruje je
-     * według podanego typu raportu.
+     * Zwraca liczbę zapisanych raportów, opcjonalnie danego typu.
      *
      * @param reportType Typ raportu do filtrowania (opcjonalny)
-     * @return Lista raportów
+     * @return Liczba raportów
      */
-    @GetMapping("/saved")
-    public ResponseEntity<List<Report>> getSavedReports(
+    @GetMapping("/saved/count")
+    public ResponseEntity<Map<String, Long>> countSavedReports(
             @RequestParam(required = false) ReportType reportType) {
-        List<Report> reports;
+        long count = reportType != null
+                ? reportStorageService.getReportRepository().countByReportType(reportType)
+                : reportStorageService.getReportRepository().count();
+        return ResponseEntity.ok(Map.of("count", count));
+    }
 
-        if (reportType != null) {
-            reports = reportStorageService.getReportRepository().findByReportType(reportType);
-        } else {
-            reports = reportStorageService.getReportRepository().findAll();
-        }
+    /**
+     * Zwraca stronę zapisanych raportów (stronicowanie kluczem, od najnowszych),
+     * opcjonalnie filtrowaną po typie, autorze i dacie utworzenia. Zakres dat jest
+     * zamieniany na zakres ID, więc koszt strony nie zależy od liczby raportów.
+     *
+     * @param limit      Rozmiar strony (domyślnie {@link KeysetPaging#DEFAULT_LIMIT})
+     * @param cursor     Kursor z poprzedniej strony (opcjonalny)
+     * @param reportType Typ raportu do filtrowania (opcjonalny)
+     * @param createdBy  ID pracownika, który utworzył raport (opcjonalny)
+     * @param from       Najwcześniejsza data utworzenia (opcjonalna)
+     * @param to         Najpóźniejsza data utworzenia (opcjonalna)
+     * @return Strona raportów z kursorem następnej strony
+     */
+    @GetMapping("/saved")
+    public ResponseEntity<KeysetPageDTO<Report>> getSavedReports(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) ReportType reportType,
+            @RequestParam(required = false) Long createdBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPaging.clampLimit(limit);
+        ReportRepository reportRepository = reportStorageService.getReportRepository();
+
+        // Brak raportów w zakresie dat daje pusty zakres ID
+        Long minId = from == null ? null : reportRepository
+                .findIdsCreatedFrom(KeysetPaging.startOfDay(from), PageRequest.of(0, 1))
+                .stream().findFirst().orElse(Long.MAX_VALUE);
+        Long maxId = to == null ? null : reportRepository
+                .findIdsCreatedTo(KeysetPaging.endOfDay(to), PageRequest.of(0, 1))
+                .stream().findFirst().orElse(0L);
+
+        List<Report> rows = reportRepository.findPage(cursor, reportType, createdBy, minId, maxId,
+                KeysetPaging.probe(pageSize));
+        return ResponseEntity.ok(KeysetPaging.page(rows, pageSize, Report::getId));
+    }
 
-        return ResponseEntity.ok(reports);
+    /**
+     * Zwraca zapisany raport PDF o tych samych parametrach, jeśli dane źródłowe się nie zmieniły,
+     * a w przeciwnym razie zbiera dane i generuje nowy raport.
+     *
+     * @param type      rodzaj raportu
+     * @param period    okres raportu finansowego
+     * @param startDate data początkowa
+     * @param endDate   data końcowa
+     * @return zapisany raport
+     */
+    private Report findOrGenerateReport(ReportJobType type, String period, LocalDate startDate, LocalDate endDate) {
+        return reportDeduplicationService.findOrGenerate(type, period, startDate, endDate, fingerprint -> {
+            // Sekcje są niezależne - generowane równolegle, czas zbliża się do czasu najwolniejszej z nich
+            ReportSections reportData = reportSectionGenerator.generate(type.getSections(), period, startDate, endDate);
+
+            return switch (type) {
+                case STAFF -> pdfReportGeneratorService.generateAndSaveStaffReport(
+                        reportData, startDate, endDate, fingerprint);
+                case FINANCIAL -> pdfReportGeneratorService.generateAndSaveFinancialReport(
+                        reportData, period, startDate, endDate, fingerprint);
+                case ROOMS -> pdfReportGeneratorService.generateAndSaveRoomsReport(
+                        reportData, startDate, endDate, fingerprint);
+                case COMPLETE -> pdfReportGeneratorService.generateAndSaveCompleteReport(
+                        reportData, period, startDate, endDate, fingerprint);
+            };
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,25 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.KeysetPageDTO;
+import com.hoteltaskmanager.dto.ReservationSummaryDTO;
+import com.hoteltaskmanager.dto.SyncDeltaDTO;
 import com.hoteltaskmanager.model.Invoice;
 import com.hoteltaskmanager.model.Reservation;
 import com.hoteltaskmanager.model.ReservationStatus;
 import com.hoteltaskmanager.repository.ReservationRepository;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.RoomAvailabilityIndex;
 import com.hoteltaskmanager.service.RoomStatusManagerService;
 import com.hoteltaskmanager.service.InvoiceService;
+import com.hoteltaskmanager.util.KeysetPaging;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST API dla zarządzania rezerwacjami (Reservation).
@@ -19,6 +27,9 @@ import java.util.Optional;
  * Dostępne endpointy:
  *
  * GET    /api/reservations                          - Pobierz wszystkie rezerwacje
+ * GET    /api/reservations?view=summary             - Pobierz skrócone dane rezerwacji (bez pokoi, z ich liczbą)
+ * GET    /api/reservations?since={version}          - Pobierz rezerwacje zmienione lub usunięte od podanej wersji (synchronizacja przyrostowa)
+ * GET    /api/reservations?limit={n}&cursor={id}    - Strona rezerwacji (keyset) z filtrami: status, from, to, guest, roomId
  * GET    /api/reservations/{id}                     - Pobierz rezerwację po ID
  * POST   /api/reservations                          - Dodaj nową rezerwację
  * PUT    /api/reservations/{id}                     - Zaktualizuj istniejącą rezerwację
@@ -33,13 +44,19 @@ public class ReservationController {
     private final ReservationRepository reservationRepository;
     private final InvoiceService invoiceService;
     private final RoomStatusManagerService roomStatusManagerService;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final ChangeSyncService changeSyncService;
 
     public ReservationController(ReservationRepository reservationRepository,
                                  InvoiceService invoiceService,
-                                 RoomStatusManagerService roomStatusManagerService) {
+                                 RoomStatusManagerService roomStatusManagerService,
+                                 RoomAvailabilityIndex roomAvailabilityIndex,
+                                 ChangeSyncService changeSyncService) {
         this.reservationRepository = reservationRepository;
         this.invoiceService = invoiceService;
         this.roomStatusManagerService = roomStatusManagerService;
+        this.roomAvailabilityIndex = roomAvailabilityIndex;
+        this.changeSyncService = changeSyncService;
     }
 
     /**
@@ -51,6 +68,46 @@ public class ReservationController {
         return reservationRepository.findAll();
     }
 
+    /**
+     * GET /api/reservations?view=summary
+     * Pobierz wszystkie rezerwacje w postaci skróconej: dane gościa, daty, status,
+     * ID faktury i liczba pokoi zamiast pełnej listy przypisanych pokoi.
+     */
+    @GetMapping(params = "view=summary")
+    public List<ReservationSummaryDTO> getAllSummaries() {
+        return reservationRepository.findAllSummaries();
+    }
+
+    /**
+     * GET /api/reservations?since={version}
+     * Pobierz rezerwacje zmienione lub usunięte od podanej wersji.
+     * Dla {@code since=0} (pierwsza synchronizacja) zwraca pełną listę.
+     */
+    @GetMapping(params = "since")
+    public SyncDeltaDTO<Reservation> getChangedSince(@RequestParam long since) {
+        return changeSyncService.changesSince(ChangeSyncService.RESERVATION, since,
+                reservationRepository::findAll, reservationRepository::findByChangeVersionGreaterThan);
+    }
+
+    /**
+     * GET /api/reservations?limit={n}&cursor={id}
+     * Pobierz stronę rezerwacji (stronicowanie kluczem, od najnowszych).
+     * Opcjonalne filtry: status, zakres dat pobytu (from, to), imię/nazwisko gościa (guest), pokój (roomId).
+     */
+    @GetMapping(params = "limit")
+    public KeysetPageDTO<Reservation> getPage(@RequestParam Integer limit,
+                                              @RequestParam(required = false) Long cursor,
+                                              @RequestParam(required = false) ReservationStatus status,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @RequestParam(required = false) String guest,
+                                              @RequestParam(required = false) Long roomId) {
+        int pageSize = KeysetPaging.clampLimit(limit);
+        List<Reservation> rows = reservationRepository.findPage(cursor, status, from, to,
+                KeysetPaging.likePattern(guest), roomId, KeysetPaging.probe(pageSize));
+        return KeysetPaging.page(rows, pageSize, Reservation::getId);
+    }
+
     /**
      * GET /api/reservations/{id}
      * Pobierz jedną rezerwację po ID
@@ -69,7 +126,8 @@ public class ReservationController {
     @PostMapping
     public ResponseEntity<Reservation> create(@RequestBody Reservation reservation) {
         Reservation saved = reservationRepository.save(reservation);
-        roomStatusManagerService.refreshRoomStatuses(); // Odśwież statusy pokoi po dodaniu rezerwacji
+        roomStatusManagerService.refreshRoomStatusesForReservation(saved.getId()); // Odśwież statusy pokoi z tej rezerwacji
+        roomAvailabilityIndex.refreshReservation(saved.getId());
         return ResponseEntity.ok(saved);
     }
 
@@ -99,7 +157,8 @@ public class ReservationController {
         existing.setInvoice(updated.getInvoice());
 
         Reservation saved = reservationRepository.save(existing);
-        roomStatusManagerService.refreshRoomStatuses(); // Odśwież statusy pokoi po edycji rezerwacji
+        roomStatusManagerService.refreshRoomStatusesForReservation(saved.getId()); // Odśwież statusy pokoi z tej rezerwacji
+        roomAvailabilityIndex.refreshReservation(saved.getId());
         return ResponseEntity.ok(saved);
     }
 
@@ -115,6 +174,8 @@ public class ReservationController {
         }
 
         Reservation reservation = reservationOpt.get();
+        Set<Long> roomIds = roomStatusManagerService.findRoomIdsForReservation(id);
+
         if (reservation.getInvoice() != null) {
             Invoice invoice = reservation.getInvoice();
             reservation.setInvoice(null);
@@ -124,7 +185,9 @@ public class ReservationController {
         }
 
         reservationRepository.deleteById(id);
-        roomStatusManagerService.refreshRoomStatuses(); // Odśwież statusy pokoi po usunięciu rezerwacji
+        changeSyncService.recordDeletion(ChangeSyncService.RESERVATION, id);
+        roomStatusManagerService.refreshRoomStatuses(roomIds); // Odśwież statusy pokoi zwolnionych przez rezerwację
+        roomAvailabilityIndex.removeReservation(id);
         return ResponseEntity.noContent().build();
     }
 
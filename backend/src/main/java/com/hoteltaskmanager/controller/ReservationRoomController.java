@@ -4,10 +4,13 @@ import com.hoteltaskmanager.model.Reservation;
 import com.hoteltaskmanager.model.ReservationRoom;
 import com.hoteltaskmanager.repository.ReservationRepository;
 import com.hoteltaskmanager.repository.ReservationRoomRepository;
+import com.hoteltaskmanager.service.RoomAvailabilityIndex;
 import com.hoteltaskmanager.service.RoomStatusManagerService;
+import com.hoteltaskmanager.util.ChangeVersion;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,13 +30,16 @@ public class ReservationRoomController {
     private final ReservationRoomRepository reservationRoomRepository;
     private final ReservationRepository reservationRepository;
     private final RoomStatusManagerService roomStatusManagerService;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
 
     public ReservationRoomController(ReservationRoomRepository reservationRoomRepository,
                                      ReservationRepository reservationRepository,
-                                     RoomStatusManagerService roomStatusManagerService) {
+                                     RoomStatusManagerService roomStatusManagerService,
+                                     RoomAvailabilityIndex roomAvailabilityIndex) {
         this.reservationRoomRepository = reservationRoomRepository;
         this.reservationRepository = reservationRepository;
         this.roomStatusManagerService = roomStatusManagerService;
+        this.roomAvailabilityIndex = roomAvailabilityIndex;
     }
 
     /**
@@ -72,7 +78,9 @@ public ResponseEntity<ReservationRoom> addRoom(@PathVariable Long reservationId,
     Reservation reservation = reservationOpt.get();
     requestReservationRoom.setReservation(reservation);
     ReservationRoom savedReservationRoom = reservationRoomRepository.save(requestReservationRoom);
-    roomStatusManagerService.refreshRoomStatuses();
+    roomStatusManagerService.refreshRoomStatus(savedReservationRoom.getRoom().getId());
+    roomAvailabilityIndex.refreshReservation(reservationId);
+    reservationRepository.touchChangeVersion(reservationId, ChangeVersion.next()); // Lista pokoi jest częścią rezerwacji
 
     return ResponseEntity.ok(savedReservationRoom);
 }
@@ -100,11 +108,15 @@ public ResponseEntity<ReservationRoom> addRoom(@PathVariable Long reservationId,
             return ResponseEntity.badRequest().build(); // Zwracamy 400, jeśli pokój jest null
         }
     
+        Long previousRoomId = existing.getRoom() != null ? existing.getRoom().getId() : null;
         existing.setRoom(updated.getRoom());
         existing.setGuestCount(updated.getGuestCount());
     
         ReservationRoom saved = reservationRoomRepository.save(existing);
-        roomStatusManagerService.refreshRoomStatuses();
+        // Przelicz status pokoju poprzednio i obecnie przypisanego
+        roomStatusManagerService.refreshRoomStatuses(Arrays.asList(previousRoomId, saved.getRoom().getId()));
+        roomAvailabilityIndex.refreshReservation(reservationId);
+        reservationRepository.touchChangeVersion(reservationId, ChangeVersion.next());
         return ResponseEntity.ok(saved);
     }
     
@@ -125,7 +137,11 @@ public ResponseEntity<ReservationRoom> addRoom(@PathVariable Long reservationId,
         }
 
         reservationRoomRepository.deleteById(id);
-        roomStatusManagerService.refreshRoomStatuses();
+        if (existing.getRoom() != null) {
+            roomStatusManagerService.refreshRoomStatus(existing.getRoom().getId());
+        }
+        roomAvailabilityIndex.refreshReservation(reservationId);
+        reservationRepository.touchChangeVersion(reservationId, ChangeVersion.next());
         return ResponseEntity.noContent().build();
     }
 }
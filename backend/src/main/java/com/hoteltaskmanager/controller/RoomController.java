@@ -1,13 +1,29 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.KeysetPageDTO;
+import com.hoteltaskmanager.dto.RoomOccupancyMatrixDTO;
+import com.hoteltaskmanager.dto.SyncDeltaDTO;
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.model.RoleName;
 import com.hoteltaskmanager.model.Room;
 import com.hoteltaskmanager.model.RoomStatus;
 import com.hoteltaskmanager.repository.RoomRepository;
+import com.hoteltaskmanager.security.EmployeePrincipalCache;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.RoomAvailabilityIndex;
+import com.hoteltaskmanager.service.RoomOccupancyService;
+import com.hoteltaskmanager.service.RoomStatusManagerService;
+import com.hoteltaskmanager.util.KeysetPaging;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,13 +32,17 @@ import java.util.Optional;
  * Dostępne endpointy:
  *
  * GET    /api/rooms                   - Pobierz wszystkie pokoje
- * GET    /api/rooms/rooms/available   - Pobierz pokoje dostępne w danym okresie czasu
+ * GET    /api/rooms?since={version}   - Pobierz pokoje zmienione lub usunięte od podanej wersji (synchronizacja przyrostowa)
+ * GET    /api/rooms?limit={n}&cursor={id} - Strona pokoi (keyset) z filtrami: status, floor, minBeds
+ * GET    /api/rooms/rooms/available   - Pobierz pokoje dostępne w danym okresie czasu (opcjonalne filtry: minBeds, floor, maxPrice)
+ * GET    /api/rooms/occupancy         - Macierz zajętości pokoi (pokój × dzień) w zakresie dat
  * GET    /api/rooms/{id}              - Pobierz pokój po ID
  * POST   /api/rooms                   - Dodaj nowy pokój
  * PUT    /api/rooms/{id}              - Zaktualizuj dane pokoju
  * DELETE /api/rooms/{id}              - Usuń pokój
  * GET    /api/rooms/status/{status}   - Pokoje według statusu (np. AVAILABLE)
  * GET    /api/rooms/exists/{number}   - Sprawdź, czy istnieje pokój o danym numerze
+ * POST   /api/rooms/status/rebuild    - Przebuduj statusy wszystkich pokoi (tylko kierownik)
  */
 
 @RestController
@@ -30,9 +50,24 @@ import java.util.Optional;
 public class RoomController {
 
     private final RoomRepository roomRepository;
+    private final EmployeePrincipalCache employeePrincipalCache;
+    private final RoomStatusManagerService roomStatusManagerService;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final RoomOccupancyService roomOccupancyService;
+    private final ChangeSyncService changeSyncService;
 
-    public RoomController(RoomRepository roomRepository) {
+    public RoomController(RoomRepository roomRepository,
+                          EmployeePrincipalCache employeePrincipalCache,
+                          RoomStatusManagerService roomStatusManagerService,
+                          RoomAvailabilityIndex roomAvailabilityIndex,
+                          RoomOccupancyService roomOccupancyService,
+                          ChangeSyncService changeSyncService) {
         this.roomRepository = roomRepository;
+        this.employeePrincipalCache = employeePrincipalCache;
+        this.roomStatusManagerService = roomStatusManagerService;
+        this.roomAvailabilityIndex = roomAvailabilityIndex;
+        this.roomOccupancyService = roomOccupancyService;
+        this.changeSyncService = changeSyncService;
     }
 
     /**
@@ -44,12 +79,45 @@ public class RoomController {
         return roomRepository.findAll();
     }
 
+    /**
+     * GET /api/rooms?since={version}
+     * Pobierz pokoje zmienione lub usunięte od podanej wersji.
+     * Dla {@code since=0} (pierwsza synchronizacja) zwraca pełną listę.
+     */
+    @GetMapping(params = "since")
+    public SyncDeltaDTO<Room> getChangedSince(@RequestParam long since) {
+        return changeSyncService.changesSince(ChangeSyncService.ROOM, since,
+                roomRepository::findAll, roomRepository::findByChangeVersionGreaterThan);
+    }
+
+    /**
+     * GET /api/rooms?limit={n}&cursor={id}
+     * Pobierz stronę pokoi (stronicowanie kluczem, malejąco po ID).
+     * Opcjonalne filtry: status, piętro (floor), minimalna liczba łóżek (minBeds).
+     */
+    @GetMapping(params = "limit")
+    public KeysetPageDTO<Room> getRoomsPage(@RequestParam Integer limit,
+                                            @RequestParam(required = false) Long cursor,
+                                            @RequestParam(required = false) RoomStatus status,
+                                            @RequestParam(required = false) Integer floor,
+                                            @RequestParam(required = false) Integer minBeds) {
+        int pageSize = KeysetPaging.clampLimit(limit);
+        List<Room> rows = roomRepository.findPage(cursor, status, floor, minBeds, KeysetPaging.probe(pageSize));
+        return KeysetPaging.page(rows, pageSize, Room::getId);
+    }
+
     /**
      * GET /api/rooms/rooms/available
-     * Pobierz wszystkie pokoje
+     * Pobierz pokoje wolne w podanym zakresie dat.
+     * Odpowiedź pochodzi z indeksu dostępności w pamięci, opcjonalnie filtrowana
+     * po minimalnej liczbie łóżek, piętrze i maksymalnej cenie za noc.
      */
     @GetMapping("/rooms/available")
-    public ResponseEntity<List<Room>> getAvailableRooms(@RequestParam("from") String from, @RequestParam("to") String to) {
+    public ResponseEntity<List<Room>> getAvailableRooms(@RequestParam("from") String from,
+                                                        @RequestParam("to") String to,
+                                                        @RequestParam(required = false) Integer minBeds,
+                                                        @RequestParam(required = false) Integer floor,
+                                                        @RequestParam(required = false) BigDecimal maxPrice) {
 
         LocalDate startDate = LocalDate.parse(from);
         LocalDate endDate = LocalDate.parse(to);
@@ -58,8 +126,41 @@ public class RoomController {
             return ResponseEntity.badRequest().build();
         }
 
-        List<Room> availableRooms = roomRepository.findAvailableRoomsBetweenDates(startDate, endDate);
-        return ResponseEntity.ok(availableRooms);
+        if (!roomAvailabilityIndex.isReady()) {
+            // Indeks jeszcze się buduje - odpowiedz bezpośrednio z bazy
+            List<Room> availableRooms = roomRepository.findAvailableRoomsBetweenDates(startDate, endDate).stream()
+                    .filter(room -> minBeds == null || room.getBedCount() >= minBeds)
+                    .filter(room -> floor == null || room.getFloor().equals(floor))
+                    .filter(room -> maxPrice == null || room.getPricePerNight().compareTo(maxPrice) <= 0)
+                    .toList();
+            return ResponseEntity.ok(availableRooms);
+        }
+
+        List<Long> roomIds = roomAvailabilityIndex.findAvailableRoomIds(startDate, endDate, minBeds, floor, maxPrice);
+        if (roomIds.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(roomRepository.findAllById(roomIds));
+    }
+
+    /**
+     * GET /api/rooms/occupancy?from=YYYY-MM-DD&to=YYYY-MM-DD&encoding=bitset|rle
+     * Pobierz macierz zajętości wszystkich pokoi w zakresie dat w jednej, zwartej odpowiedzi.
+     * Zakres może obejmować maksymalnie {@value RoomOccupancyService#MAX_DAYS} dni.
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<RoomOccupancyMatrixDTO> getOccupancyMatrix(@RequestParam("from") String from,
+                                                                     @RequestParam("to") String to,
+                                                                     @RequestParam(defaultValue = "bitset") String encoding) {
+        LocalDate startDate = LocalDate.parse(from);
+        LocalDate endDate = LocalDate.parse(to);
+
+        if (startDate.isAfter(endDate)
+                || ChronoUnit.DAYS.between(startDate, endDate) >= RoomOccupancyService.MAX_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(roomOccupancyService.buildMatrix(startDate, endDate, encoding));
     }
 
     /**
@@ -82,7 +183,9 @@ public class RoomController {
         if (roomRepository.existsByRoomNumber(room.getRoomNumber())) {
             return ResponseEntity.badRequest().body(null);
         }
-        return ResponseEntity.ok(roomRepository.save(room));
+        Room saved = roomRepository.save(room);
+        roomAvailabilityIndex.refreshRoom(saved);
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -104,7 +207,9 @@ public class RoomController {
         existingRoom.setPricePerNight(updatedRoom.getPricePerNight());
         existingRoom.setStatus(updatedRoom.getStatus());
 
-        return ResponseEntity.ok(roomRepository.save(existingRoom));
+        Room saved = roomRepository.save(existingRoom);
+        roomAvailabilityIndex.refreshRoom(saved);
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -118,6 +223,8 @@ public class RoomController {
         }
 
         roomRepository.deleteById(id);
+        changeSyncService.recordDeletion(ChangeSyncService.ROOM, id);
+        roomAvailabilityIndex.removeRoom(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -140,4 +247,24 @@ public class RoomController {
         return ResponseEntity.ok(exists);
     }
 
+    /**
+     * POST /api/rooms/status/rebuild
+     * Przebuduj statusy wszystkich pokoi na podstawie rezerwacji i zgłoszeń usterek.
+     * Operacja administracyjna - w normalnym trybie statusy przeliczane są tylko dla zmienionych pokoi.
+     */
+    @PostMapping("/status/rebuild")
+    public ResponseEntity<?> rebuildRoomStatuses(Authentication authentication) {
+        Optional<Employee> currentEmployee = employeePrincipalCache.currentEmployee(authentication);
+        if (currentEmployee.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Brak autoryzacji.");
+        }
+
+        if (currentEmployee.get().getRole().getName() != RoleName.MANAGER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Tylko kierownik może przebudować statusy pokoi.");
+        }
+
+        int changed = roomStatusManagerService.refreshRoomStatuses();
+        return ResponseEntity.ok(Map.of("changedRooms", changed));
+    }
 }
@@ -0,0 +1,44 @@
+package com.hoteltaskmanager.dto;
+
+import com.hoteltaskmanager.model.ReservationStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Żądanie hurtowego wystawienia faktur.
+ * <p>
+ * Rezerwacje są wskazywane listą ID albo filtrem: rezerwacje bez faktury o podanym statusie
+ * (domyślnie COMPLETED), zakończone w przedziale {@code from..to}. Dane firmy są wspólne dla
+ * wszystkich faktur - jeśli nie zostaną podane, nabywcą jest gość rezerwacji.
+ */
+@Data
+public class BulkInvoiceRequestDTO {
+
+    /** ID rezerwacji (jeśli podane, filtr jest pomijany). */
+    private List<Long> reservationIds;
+
+    /** Status rezerwacji dla filtra (domyślnie COMPLETED). */
+    private ReservationStatus status;
+
+    /** Najwcześniejsza data zakończenia pobytu (opcjonalnie). */
+    private LocalDate from;
+
+    /** Najpóźniejsza data zakończenia pobytu (opcjonalnie). */
+    private LocalDate to;
+
+    private String companyNip;
+
+    private String companyName;
+
+    private String companyStreet;
+
+    private String companyBuildingNo;
+
+    private String companyPostalCode;
+
+    private String companyCity;
+
+    private String companyCountry;
+}
@@ -0,0 +1,56 @@
+package com.hoteltaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Podsumowanie hurtowego wystawienia faktur - liczniki i wynik dla każdej rezerwacji.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInvoiceResultDTO {
+
+    /** Liczba wystawionych faktur. */
+    private int created;
+
+    /** Liczba rezerwacji pominiętych (nie istnieją lub mają już fakturę). */
+    private int skipped;
+
+    /** Liczba rezerwacji, dla których wystawienie faktury się nie powiodło. */
+    private int failed;
+
+    /** Wyniki w kolejności ID rezerwacji. */
+    private List<Item> results;
+
+    /**
+     * Wynik dla pojedynczej rezerwacji.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long reservationId;
+
+        private Outcome outcome;
+
+        /** ID wystawionej faktury (gdy outcome = CREATED). */
+        private Long invoiceId;
+
+        /** Powód pominięcia lub opis błędu. */
+        private String message;
+    }
+
+    /**
+     * Wynik wystawienia faktury dla rezerwacji.
+     */
+    public enum Outcome {
+        CREATED,
+        SKIPPED,
+        FAILED
+    }
+}
@@ -0,0 +1,16 @@
+package com.hoteltaskmanager.dto;
+
+import com.hoteltaskmanager.model.Employee;
+
+/**
+ * Skrócone dane pracownika używane w projekcjach list (bez roli, e-maila i danych logowania).
+ */
+public record EmployeeRefDTO(Long id, String firstName, String lastName, String avatarUrl) {
+
+    /**
+     * Zwraca null dla braku pracownika (LEFT JOIN bez dopasowania).
+     */
+    public static EmployeeRefDTO of(Long id, String firstName, String lastName, String avatarFilename) {
+        return id != null ? new EmployeeRefDTO(id, firstName, lastName, Employee.avatarUrlFor(avatarFilename)) : null;
+    }
+}
@@ -1,10 +1,11 @@
 package com.hoteltaskmanager.dto;
 
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 
 /**
  * DTO zawierające dane do raportu finansowego.
@@ -15,30 +16,58 @@ import java.util.Map;
 public class FinancialReportDTO {
     private List<PeriodRevenue> revenueByPeriod;
     private List<OccupancyRevenue> occupancyRevenueCorrelation;
-    private Map<String, Object> invoiceStatistics;
-    private Map<String, Object> financialSummary;
+    private InvoiceStatistics invoiceStatistics;
+    private FinancialSummary financialSummary;
 
     /**
-     * Klasa reprezentująca przychód za określony okres czasu.
+     * Przychód za określony okres czasu.
      */
-    @Data
-    public static class PeriodRevenue {
-        private String period;
-        private Integer reservationCount;
-        private BigDecimal totalRevenue;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record PeriodRevenue(
+            String period,
+            Long reservationCount,
+            BigDecimal totalRevenue) {
     }
 
     /**
-     * Klasa reprezentująca dane dotyczące korelacji obłożenia pokoi z przychodami.
+     * Dane dotyczące korelacji obłożenia pokoi z przychodami.
      */
-    @Data
-    public static class OccupancyRevenue {
-        private String period;
-        private Integer reservationCount;
-        private Integer totalNights;
-        private Integer uniqueRoomsUsed;
-        private BigDecimal totalRevenue;
-        private BigDecimal avgRevenuePerNight;
-        private BigDecimal roomUsagePercentage;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record OccupancyRevenue(
+            String period,
+            Long reservationCount,
+            Long totalNights,
+            Long uniqueRoomsUsed,
+            BigDecimal totalRevenue,
+            BigDecimal avgRevenuePerNight,
+            BigDecimal roomUsagePercentage) {
     }
-}
\ No newline at end of file
+
+    /**
+     * Statystyki wystawiania faktur w zakresie dat raportu.
+     */
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record InvoiceStatistics(
+            Long totalInvoices,
+            Long totalReservationsWithInvoices,
+            Long totalCompletedReservations,
+            BigDecimal invoiceCoveragePercentage,
+            Long companyInvoices,
+            Long individualInvoices) {
+    }
+
+    /**
+     * Ogólne podsumowanie przychodów z zakończonych rezerwacji.
+     */
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record FinancialSummary(
+            Long totalCompletedReservations,
+            Long totalNightsSold,
+            BigDecimal totalRevenue,
+            BigDecimal highestRoomRate,
+            BigDecimal lowestRoomRate,
+            BigDecimal avgRoomRate,
+            BigDecimal avgDailyRate,
+            BigDecimal avgRevenuePerDayOfPeriod) {
+    }
+}
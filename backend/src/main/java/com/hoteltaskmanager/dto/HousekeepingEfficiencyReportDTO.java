@@ -1,11 +1,12 @@
 package com.hoteltaskmanager.dto;
 
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Data Transfer Object służący do przesyłania danych raportu efektywności pracy personelu sprzątającego.
@@ -15,34 +16,42 @@ import java.util.Map;
 public class HousekeepingEfficiencyReportDTO {
     private List<EmployeeEfficiency> taskCompletionRate;
     private List<DeclinedTask> declinedTasks;
-    private Map<String, Object> declinedTasksAnalysis;
+    private DeclinedTasksAnalysis declinedTasksAnalysis;
 
     /**
      * Reprezentuje statystyki efektywności pracy pojedynczego pracownika sprzątającego.
      */
-    @Data
-    public static class EmployeeEfficiency {
-        private Long employeeId;
-        private String employeeName;
-        private Integer totalAssigned;
-        private Integer completed;
-        private Integer pending;
-        private Integer inProgress;
-        private Integer declined;
-        private BigDecimal completionRate;
-        private Double avgCompletionTimeMinutes;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record EmployeeEfficiency(
+            Long employeeId,
+            String employeeName,
+            Long totalAssigned,
+            Long completed,
+            Long pending,
+            Long inProgress,
+            Long declined,
+            BigDecimal completionRate,
+            BigDecimal avgCompletionTimeMinutes) {
     }
 
     /**
      * Reprezentuje szczegóły zadania sprzątania, które zostało odrzucone.
      */
-    @Data
-    public static class DeclinedTask {
-        private Long taskId;
-        private String roomNumber;
-        private String description;
-        private LocalDateTime requestDate;
-        private String employeeName;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record DeclinedTask(
+            Long taskId,
+            String roomNumber,
+            String description,
+            LocalDateTime requestDate,
+            String employeeName) {
     }
-}
 
+    /**
+     * Liczba i odsetek odrzuconych zadań w zakresie dat raportu.
+     */
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record DeclinedTasksAnalysis(
+            Long totalDeclined,
+            BigDecimal declinePercentage) {
+    }
+}
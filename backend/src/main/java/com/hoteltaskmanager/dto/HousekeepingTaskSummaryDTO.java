@@ -0,0 +1,32 @@
+package com.hoteltaskmanager.dto;
+
+import com.hoteltaskmanager.model.HousekeepingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projekcja zadania sprzątania dla list i pulpitów ({@code ?view=summary}).
+ * Zawiera tylko kolumny wyświetlane w tabeli zadań - pobierane jednym zapytaniem bez ładowania encji.
+ */
+public record HousekeepingTaskSummaryDTO(
+        Long id,
+        LocalDateTime requestDate,
+        LocalDateTime completionDate,
+        HousekeepingStatus status,
+        String description,
+        RoomRefDTO room,
+        EmployeeRefDTO employee) {
+
+    /**
+     * Konstruktor dla wyrażenia {@code SELECT new ...} w zapytaniu JPQL.
+     */
+    public HousekeepingTaskSummaryDTO(Long id, LocalDateTime requestDate, LocalDateTime completionDate,
+                                      HousekeepingStatus status, String description,
+                                      Long roomId, String roomNumber,
+                                      Long employeeId, String employeeFirstName, String employeeLastName,
+                                      String employeeAvatarFilename) {
+        this(id, requestDate, completionDate, status, description,
+                RoomRefDTO.of(roomId, roomNumber),
+                EmployeeRefDTO.of(employeeId, employeeFirstName, employeeLastName, employeeAvatarFilename));
+    }
+}
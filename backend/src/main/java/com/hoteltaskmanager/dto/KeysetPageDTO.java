@@ -0,0 +1,36 @@
+package com.hoteltaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Strona wyników stronicowania kluczem (keyset / seek).
+ * <p>
+ * Wyniki są posortowane malejąco po ID. Kolejną stronę pobiera się, przekazując
+ * {@code nextCursor} jako parametr {@code cursor}; {@code null} oznacza ostatnią stronę.
+ *
+ * @param <T> typ elementów
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageDTO<T> {
+
+    /**
+     * Elementy bieżącej strony.
+     */
+    private List<T> items;
+
+    /**
+     * Kursor następnej strony (ID ostatniego elementu) lub null, jeśli to ostatnia strona.
+     */
+    private Long nextCursor;
+
+    /**
+     * Zastosowany rozmiar strony.
+     */
+    private int limit;
+}
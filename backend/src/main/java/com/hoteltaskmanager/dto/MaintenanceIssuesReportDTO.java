@@ -1,10 +1,11 @@
 package com.hoteltaskmanager.dto;
 
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Data Transfer Object zawierający dane raportu dotyczącego problemów konserwacyjnych w hotelu.
@@ -12,30 +13,40 @@ import java.util.Map;
  */
 @Data
 public class MaintenanceIssuesReportDTO {
-    private Map<String, Object> avgResolutionTime;
+    private ResolutionTime avgResolutionTime;
     private List<RoomIssueCount> issuesByRoom;
     private List<FloorIssueCount> issuesByFloor;
 
+    /**
+     * Czas rozwiązania zakończonych zgłoszeń w godzinach (średni, minimalny i maksymalny).
+     */
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record ResolutionTime(
+            BigDecimal avgHoursToComplete,
+            Long minHoursToComplete,
+            Long maxHoursToComplete) {
+    }
+
     /**
      * Reprezentuje liczbę zgłoszonych problemów konserwacyjnych dla pojedynczego pokoju.
      */
-    @Data
-    public static class RoomIssueCount {
-        private Long roomId;
-        private String roomNumber;
-        private Integer floor;
-        private Integer issueCount;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record RoomIssueCount(
+            Long roomId,
+            String roomNumber,
+            Integer floor,
+            Long issueCount) {
     }
 
     /**
      * Reprezentuje statystyki dotyczące liczby problemów konserwacyjnych na danym piętrze,
      * łącznie z liczbą pokoi oraz średnią problemów na pokój.
      */
-    @Data
-    public static class FloorIssueCount {
-        private Integer floor;
-        private Integer issueCount;
-        private Integer roomCount;
-        private BigDecimal issuesPerRoom;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record FloorIssueCount(
+            Integer floor,
+            Long issueCount,
+            Long roomCount,
+            BigDecimal issuesPerRoom) {
     }
 }
@@ -0,0 +1,36 @@
+package com.hoteltaskmanager.dto;
+
+import com.hoteltaskmanager.model.MaintenanceStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projekcja zgłoszenia serwisowego dla list i pulpitów ({@code ?view=summary}).
+ * Zawiera tylko kolumny wyświetlane w tabeli zgłoszeń - pobierane jednym zapytaniem bez ładowania encji.
+ */
+public record MaintenanceRequestSummaryDTO(
+        Long id,
+        LocalDateTime requestDate,
+        LocalDateTime completionDate,
+        MaintenanceStatus status,
+        String description,
+        RoomRefDTO room,
+        EmployeeRefDTO requester,
+        EmployeeRefDTO assignee) {
+
+    /**
+     * Konstruktor dla wyrażenia {@code SELECT new ...} w zapytaniu JPQL.
+     */
+    public MaintenanceRequestSummaryDTO(Long id, LocalDateTime requestDate, LocalDateTime completionDate,
+                                        MaintenanceStatus status, String description,
+                                        Long roomId, String roomNumber,
+                                        Long requesterId, String requesterFirstName, String requesterLastName,
+                                        String requesterAvatarFilename,
+                                        Long assigneeId, String assigneeFirstName, String assigneeLastName,
+                                        String assigneeAvatarFilename) {
+        this(id, requestDate, completionDate, status, description,
+                RoomRefDTO.of(roomId, roomNumber),
+                EmployeeRefDTO.of(requesterId, requesterFirstName, requesterLastName, requesterAvatarFilename),
+                EmployeeRefDTO.of(assigneeId, assigneeFirstName, assigneeLastName, assigneeAvatarFilename));
+    }
+}
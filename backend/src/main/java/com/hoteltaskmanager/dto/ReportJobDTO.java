@@ -0,0 +1,40 @@
+package com.hoteltaskmanager.dto;
+
+import com.hoteltaskmanager.model.ReportJobStatus;
+import com.hoteltaskmanager.model.ReportJobType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object stanu zadania generowania raportu w tle.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+
+    /** Identyfikator zadania. */
+    private String id;
+
+    /** Rodzaj raportu. */
+    private ReportJobType type;
+
+    /** Status zadania. */
+    private ReportJobStatus status;
+
+    /** Postęp w procentach (0-100). */
+    private int progress;
+
+    /** ID zapisanego raportu (gdy status = DONE). */
+    private Long reportId;
+
+    /** Opis błędu (gdy status = FAILED). */
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
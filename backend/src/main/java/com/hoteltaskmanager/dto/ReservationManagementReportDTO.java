@@ -1,11 +1,12 @@
 package com.hoteltaskmanager.dto;
 
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Data Transfer Object zawierający dane raportu zarządzania rezerwacjami.
@@ -17,45 +18,56 @@ public class ReservationManagementReportDTO {
     private List<CheckInOut> upcomingCheckIns;
     private List<CheckInOut> upcomingCheckOuts;
     private List<DailyAvailability> roomAvailabilityForecast;
-    private Map<String, Object> cancellationRate;
+    private CancellationSummary cancellationRate;
     private List<MonthlyCancellation> cancellationsByMonth;
 
     /**
      * Reprezentuje informacje o nadchodzącym zameldowaniu lub wymeldowaniu.
+     * Wymeldowania nie zawierają życzeń specjalnych ani informacji o wyżywieniu.
      */
-    @Data
-    public static class CheckInOut {
-        private Long reservationId;
-        private String guestFirstName;
-        private String guestLastName;
-        private String guestPhone;
-        private LocalDate checkInDate;
-        private LocalDate checkOutDate;
-        private String rooms;
-        private String specialRequests;
-        private String catering;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record CheckInOut(
+            Long reservationId,
+            String guestFirstName,
+            String guestLastName,
+            String guestPhone,
+            LocalDate checkInDate,
+            LocalDate checkOutDate,
+            String rooms,
+            String specialRequests,
+            String catering) {
     }
 
     /**
      * Reprezentuje prognozę dostępności pokoi na konkretny dzień.
      */
-    @Data
-    public static class DailyAvailability {
-        private LocalDate date;
-        private Integer totalRooms;
-        private Integer availableRooms;
-        private Integer occupiedRooms;
-        private BigDecimal occupancyRate;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record DailyAvailability(
+            LocalDate date,
+            Long totalRooms,
+            Long availableRooms,
+            Long occupiedRooms,
+            BigDecimal occupancyRate) {
+    }
+
+    /**
+     * Ogólny wskaźnik anulowania rezerwacji w zakresie dat raportu.
+     */
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record CancellationSummary(
+            Long totalReservations,
+            Long cancelledReservations,
+            BigDecimal cancellationRate) {
     }
 
     /**
      * Reprezentuje dane dotyczące anulacji rezerwacji w danym miesiącu.
      */
-    @Data
-    public static class MonthlyCancellation {
-        private String month;
-        private Integer totalReservations;
-        private Integer cancelledReservations;
-        private BigDecimal cancellationRate;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record MonthlyCancellation(
+            String month,
+            Long totalReservations,
+            Long cancelledReservations,
+            BigDecimal cancellationRate) {
     }
 }
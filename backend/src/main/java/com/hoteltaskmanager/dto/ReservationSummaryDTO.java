@@ -0,0 +1,21 @@
+package com.hoteltaskmanager.dto;
+
+import com.hoteltaskmanager.model.ReservationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Projekcja rezerwacji dla list ({@code ?view=summary}).
+ * Zamiast listy przypisanych pokoi zawiera tylko ich liczbę.
+ */
+public record ReservationSummaryDTO(
+        Long id,
+        LocalDate startDate,
+        LocalDate endDate,
+        ReservationStatus status,
+        Boolean catering,
+        String guestFirstName,
+        String guestLastName,
+        Long invoiceId,
+        Long roomsCount) {
+}
@@ -0,0 +1,29 @@
+package com.hoteltaskmanager.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object z macierzą zajętości pokoi (pokój × dzień) w zakresie dat.
+ * <p>
+ * Pokoje są opisane równoległymi listami {@code roomIds} i {@code roomNumbers}.
+ * Zajętość jest zakodowana zależnie od parametru {@code encoding}:
+ * <ul>
+ *     <li>{@code bitset} - pole {@code occupancy} to Base64 jednej mapy bitowej, w której bit
+ *     {@code roomIndex * days + dayIndex} oznacza zajęty dzień (kolejność bitów jak w {@link java.util.BitSet#toByteArray()}),</li>
+ *     <li>{@code rle} - pole {@code runs} zawiera dla każdego pokoju pary [dzień początkowy, długość] kolejnych zajętych dni.</li>
+ * </ul>
+ */
+@Data
+public class RoomOccupancyMatrixDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private String encoding;
+    private List<Long> roomIds;
+    private List<String> roomNumbers;
+    private String occupancy;
+    private List<int[]> runs;
+}
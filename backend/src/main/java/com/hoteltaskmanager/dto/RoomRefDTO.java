@@ -0,0 +1,14 @@
+package com.hoteltaskmanager.dto;
+
+/**
+ * Skrócone dane pokoju używane w projekcjach list (ID i numer).
+ */
+public record RoomRefDTO(Long id, String roomNumber) {
+
+    /**
+     * Zwraca null dla braku pokoju (LEFT JOIN bez dopasowania).
+     */
+    public static RoomRefDTO of(Long id, String roomNumber) {
+        return id != null ? new RoomRefDTO(id, roomNumber) : null;
+    }
+}
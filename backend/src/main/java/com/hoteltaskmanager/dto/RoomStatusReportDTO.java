@@ -1,5 +1,7 @@
 package com.hoteltaskmanager.dto;
 
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -20,42 +22,42 @@ public class RoomStatusReportDTO {
     /**
      * Reprezentuje statystyki dotyczące statusu pokoi.
      */
-    @Data
-    public static class RoomStatusCount {
-        private String status;
-        private Integer count;
-        private BigDecimal percentage;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record RoomStatusCount(
+            String status,
+            Long count,
+            BigDecimal percentage) {
     }
 
     /**
      * Reprezentuje informacje o pokoju wymagającym konserwacji wraz ze szczegółami zgłoszenia.
      */
-    @Data
-    public static class MaintenanceRoom {
-        private Long roomId;
-        private String roomNumber;
-        private Integer floor;
-        private String status;
-        private Long maintenanceRequestId;
-        private String maintenanceIssue;
-        private LocalDateTime requestDate;
-        private String maintenanceStatus;
-        private String assignee;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record MaintenanceRoom(
+            Long roomId,
+            String roomNumber,
+            Integer floor,
+            String status,
+            Long maintenanceRequestId,
+            String maintenanceIssue,
+            LocalDateTime requestDate,
+            String maintenanceStatus,
+            String assignee) {
     }
 
     /**
      * Reprezentuje dane dotyczące przychodów generowanych przez pokój.
      */
-    @Data
-    public static class RoomRevenue {
-        private Long roomId;
-        private String roomNumber;
-        private Integer floor;
-        private Integer bedCount;
-        private BigDecimal pricePerNight;
-        private Integer totalReservations;
-        private Integer daysOccupied;
-        private BigDecimal totalRevenue;
-        private BigDecimal revenuePerDay;
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record RoomRevenue(
+            Long roomId,
+            String roomNumber,
+            Integer floor,
+            Integer bedCount,
+            BigDecimal pricePerNight,
+            Long totalReservations,
+            Long daysOccupied,
+            BigDecimal totalRevenue,
+            BigDecimal revenuePerDay) {
     }
 }
@@ -0,0 +1,40 @@
+package com.hoteltaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Odpowiedź synchronizacji przyrostowej ({@code GET ...?since=<version>}).
+ *
+ * @param <T> typ encji
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDeltaDTO<T> {
+
+    /**
+     * Wersja, którą klient przekazuje w kolejnym zapytaniu jako {@code since}.
+     */
+    private long version;
+
+    /**
+     * true, gdy {@code changed} zawiera pełną listę i klient powinien zastąpić nią lokalną kopię
+     * (pierwsza synchronizacja lub wersja starsza niż przechowywane ślady usunięć).
+     */
+    private boolean full;
+
+    /**
+     * Encje dodane lub zmienione od wersji {@code since}.
+     */
+    private List<T> changed;
+
+    /**
+     * ID encji usuniętych od wersji {@code since}.
+     */
+    private Set<Long> deleted;
+}
@@ -0,0 +1,30 @@
+package com.hoteltaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object zdarzenia wysyłanego kanałem SSE po zmianie zadania sprzątania
+ * lub zgłoszenia serwisowego.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEventDTO {
+
+    /** Kolejny numer zdarzenia, używany jako identyfikator SSE (Last-Event-ID). */
+    private long id;
+
+    /** Rodzaj encji: HOUSEKEEPING_TASK lub MAINTENANCE_REQUEST. */
+    private String entity;
+
+    /** Rodzaj zmiany: CREATED, UPDATED lub DELETED. */
+    private String type;
+
+    /** ID zmienionej encji. */
+    private Long entityId;
+
+    /** Aktualny stan encji (brak dla DELETED). */
+    private Object data;
+}
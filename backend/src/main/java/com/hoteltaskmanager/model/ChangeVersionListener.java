@@ -0,0 +1,17 @@
+package com.hoteltaskmanager.model;
+
+import com.hoteltaskmanager.util.ChangeVersion;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Nadaje nowy numer wersji przy każdym zapisie encji {@link Versioned}.
+ */
+public class ChangeVersionListener {
+
+    @PrePersist
+    @PreUpdate
+    public void touch(Versioned entity) {
+        entity.setChangeVersion(ChangeVersion.next());
+    }
+}
@@ -1,5 +1,6 @@
 package com.hoteltaskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -12,7 +13,8 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "employee")
+@Table(name = "employee",
+        indexes = @Index(name = "idx_employee_reset_token_hash", columnList = "reset_token_hash"))
 public class Employee {
 
     /**
@@ -74,20 +76,30 @@ public class Employee {
      */
     @Transient
     public String getAvatarUrl() {
+        return avatarUrlFor(this.avatarFilename);
+    }
+
+    /**
+     * Zwraca URL avatara dla podanej nazwy pliku (lub domyślnego avatara, jeśli jej brak).
+     * Używane także przez projekcje, które nie ładują całej encji.
+     */
+    public static String avatarUrlFor(String avatarFilename) {
         String baseUrl = "http://localhost:8080/avatars/";
-        if (this.avatarFilename != null && !this.avatarFilename.isEmpty()) {
-            return baseUrl + this.avatarFilename;
+        if (avatarFilename != null && !avatarFilename.isEmpty()) {
+            return baseUrl + avatarFilename;
         } else {
             return baseUrl + "default.png";
         }
     }
 
     /**
-     * Token wykorzystywany do resetowania hasła.
-     * Generowany losowo i przypisany tymczasowo do użytkownika.
+     * Skrót SHA-256 (hex) tokenu wykorzystywanego do resetowania hasła.
+     * Sam token trafia tylko do wiadomości e-mail - w bazie przechowywany jest jego skrót,
+     * po którym token jest wyszukiwany (kolumna indeksowana).
      */
-    @Column(name = "reset_token", length = 36)
-    private String resetToken;
+    @JsonIgnore
+    @Column(name = "reset_token_hash", length = 64)
+    private String resetTokenHash;
 
     /**
      * Data i godzina wygaśnięcia tokenu do resetowania hasła.
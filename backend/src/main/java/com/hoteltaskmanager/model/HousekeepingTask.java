@@ -10,8 +10,13 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "housekeeping_tasks")
-public class HousekeepingTask {
+@EntityListeners(ChangeVersionListener.class)
+@Table(name = "housekeeping_tasks",
+        indexes = {
+                @Index(name = "idx_housekeeping_tasks_change_version", columnList = "change_version"),
+                @Index(name = "idx_housekeeping_tasks_status_id", columnList = "status, id")
+        })
+public class HousekeepingTask implements Versioned {
 
     /**
      * Unikalny identyfikator zadania.
@@ -58,4 +63,10 @@ public class HousekeepingTask {
      */
     @Column(columnDefinition = "TEXT")
     private String description;
+
+    /**
+     * Wersja ostatniej zmiany zadania (synchronizacja przyrostowa, ustawiana automatycznie).
+     */
+    @Column(name = "change_version")
+    private Long changeVersion;
 }
@@ -10,7 +10,8 @@ import java.time.LocalDate;
  */
 @Data
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices",
+        indexes = @Index(name = "idx_invoices_pdf_file", columnList = "pdf_file"))
 public class Invoice {
 
     @Id
@@ -29,6 +30,19 @@ public class Invoice {
     @Column(name = "pdf_file")
     private String pdfFile;
 
+    /**
+     * Skrót SHA-256 danych drukowanych na fakturze - wyznacza nazwę pliku PDF.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * Archiwum ZIP zawierające plik PDF ({@code RetentionService}) - null, jeśli plik leży w katalogu faktur.
+     * Wpis w archiwum ma nazwę pliku z {@link #pdfFile}.
+     */
+    @Column(name = "archive_file")
+    private String archiveFile;
+
     /**
      * NIP firmy (jeśli faktura jest na firmę).
      */
@@ -0,0 +1,106 @@
+package com.hoteltaskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Wiadomość e-mail oczekująca na wysłanie (kolejka wychodząca).
+ * <p>
+ * Żądanie HTTP tylko zapisuje wiersz w tej tabeli - wysyłką w tle zajmuje się
+ * {@code MailOutboxDispatcher}, który ponawia nieudane próby z rosnącym odstępem.
+ * Treść jest czyszczona, gdy wiadomość zostanie wysłana lub oznaczona jako niewysłana,
+ * a wiadomości z terminem ważności (np. link z tokenem resetu hasła) są po nim usuwane.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "mail_outbox",
+        indexes = @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class MailOutboxMessage {
+
+    /**
+     * Unikalny identyfikator wiadomości.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Adres e-mail odbiorcy.
+     */
+    @Column(name = "recipient", nullable = false, length = 100)
+    private String recipient;
+
+    /**
+     * Temat wiadomości.
+     */
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    /**
+     * Treść wiadomości (tekst).
+     */
+    @Lob
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    /**
+     * Status wysyłki.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    /**
+     * Liczba nieudanych prób wysłania.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    /**
+     * Najwcześniejszy moment kolejnej próby wysłania.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Treść ostatniego błędu wysyłki.
+     */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Data dodania wiadomości do kolejki.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Data wysłania wiadomości.
+     */
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * Moment, po którym treść wiadomości jest nieaktualna - wiadomość nie jest już wysyłana
+     * i zostaje usunięta. Brak wartości oznacza wiadomość bez terminu ważności.
+     */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    public MailOutboxMessage(String recipient, String subject, String body) {
+        this(recipient, subject, body, null);
+    }
+
+    public MailOutboxMessage(String recipient, String subject, String body, LocalDateTime expiresAt) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+        this.expiresAt = expiresAt;
+    }
+}
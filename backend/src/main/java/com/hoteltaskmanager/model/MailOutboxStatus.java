@@ -0,0 +1,10 @@
+package com.hoteltaskmanager.model;
+
+/**
+ * Status wiadomości w kolejce wychodzącej poczty.
+ */
+public enum MailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -11,8 +11,13 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "maintenance_requests")
-public class MaintenanceRequest {
+@EntityListeners(ChangeVersionListener.class)
+@Table(name = "maintenance_requests",
+        indexes = {
+                @Index(name = "idx_maintenance_requests_change_version", columnList = "change_version"),
+                @Index(name = "idx_maintenance_requests_status_id", columnList = "status, id")
+        })
+public class MaintenanceRequest implements Versioned {
 
     /**
      * Unikalny identyfikator zgłoszenia.
@@ -72,4 +77,10 @@ public class MaintenanceRequest {
      */
     @Column(name = "completion_date")
     private LocalDateTime completionDate;
+
+    /**
+     * Wersja ostatniej zmiany zgłoszenia (synchronizacja przyrostowa, ustawiana automatycznie).
+     */
+    @Column(name = "change_version")
+    private Long changeVersion;
 }
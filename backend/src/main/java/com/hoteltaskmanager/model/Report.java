@@ -1,16 +1,30 @@
 package com.hoteltaskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 
 /**
  * Reprezentuje raport wygenerowany w systemie, np. statystyki pracowników lub ogólne podsumowanie.
+ * <p>
+ * Usunięty raport jest najpierw tylko oznaczany ({@link #deletedAt}) i przestaje być widoczny
+ * w zapytaniach JPA, a jego plik i wiersz usuwa później zadanie w tle
+ * ({@code ReportStorageService#purgeDeletedReports}).
  */
 @Data
 @Entity
-@Table(name = "reports")
+@Table(name = "reports",
+        indexes = {
+                @Index(name = "idx_reports_fingerprint", columnList = "fingerprint"),
+                @Index(name = "idx_reports_type_id", columnList = "report_type, id"),
+                @Index(name = "idx_reports_created_by_id", columnList = "created_by, id"),
+                @Index(name = "idx_reports_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_reports_deleted_at", columnList = "deleted_at")
+        })
+@SQLRestriction("deleted_at IS NULL")
 public class Report {
 
     /**
@@ -21,11 +35,30 @@ public class Report {
     private Long id;
 
     /**
-     * Nazwa lub ścieżka do pliku raportu.
+     * Ścieżka do pliku raportu względem katalogu raportów (np. {@code 2025/05/06/staff_report_....pdf}).
      */
     @Column(name = "report_file")
     private String reportFile;
 
+    /**
+     * Rozmiar pliku raportu w bajtach.
+     */
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    /**
+     * Skrót SHA-256 zawartości pliku raportu (szesnastkowo).
+     */
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    /**
+     * Archiwum ZIP zawierające plik raportu, względem katalogu raportów ({@code RetentionService}) -
+     * null, jeśli plik nie został zarchiwizowany. Wpis w archiwum ma nazwę {@link #reportFile}.
+     */
+    @Column(name = "archive_file")
+    private String archiveFile;
+
     /**
      * Data i czas utworzenia raportu.
      */
@@ -39,6 +72,20 @@ public class Report {
     @Column(name = "report_type", nullable = false)
     private ReportType reportType;
 
+    /**
+     * Skrót SHA-256 rodzaju raportu, jego parametrów i wersji danych źródłowych.
+     * Pozwala zwrócić zapisany raport zamiast generować identyczny ponownie.
+     */
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    /**
+     * Data i czas usunięcia raportu (null - raport aktywny).
+     */
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     /**
      * Pracownik, który utworzył raport.
      * Relacja wiele raportów do jednego pracownika.
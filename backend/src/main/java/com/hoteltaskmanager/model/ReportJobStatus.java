@@ -0,0 +1,11 @@
+package com.hoteltaskmanager.model;
+
+/**
+ * Status zadania asynchronicznego generowania raportu.
+ */
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,25 @@
+package com.hoteltaskmanager.model;
+
+import java.util.List;
+
+/**
+ * Rodzaje raportów PDF, które można zlecić do wygenerowania w tle,
+ * wraz z sekcjami danych potrzebnymi do ich zbudowania.
+ */
+public enum ReportJobType {
+    STAFF(List.of("staffPerformance", "housekeepingEfficiency")),
+    FINANCIAL(List.of("financial")),
+    ROOMS(List.of("roomStatus", "maintenanceIssues", "reservations")),
+    COMPLETE(List.of("staffPerformance", "housekeepingEfficiency", "roomStatus",
+            "maintenanceIssues", "reservations", "financial"));
+
+    private final List<String> sections;
+
+    ReportJobType(List<String> sections) {
+        this.sections = sections;
+    }
+
+    public List<String> getSections() {
+        return sections;
+    }
+}
@@ -3,6 +3,7 @@ package com.hoteltaskmanager.model;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,8 +15,13 @@ import java.util.List;
  */
 @Data
 @Entity
-@Table(name = "reservations")
-public class Reservation {
+@EntityListeners(ChangeVersionListener.class)
+@Table(name = "reservations",
+        indexes = {
+                @Index(name = "idx_reservations_change_version", columnList = "change_version"),
+                @Index(name = "idx_reservations_status_id", columnList = "status, id")
+        })
+public class Reservation implements Versioned {
 
     /**
      * Unikalny identyfikator rezerwacji.
@@ -90,8 +96,16 @@ public class Reservation {
 
     /**
      * Lista pokoi przypisanych do rezerwacji.
+     * Przy stronicowaniu ładowana wsadowo dla całej strony (maks. rozmiar strony + 1) jednym zapytaniem.
      */
+    @BatchSize(size = 256)
     @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<ReservationRoom> reservationRooms = new ArrayList<>();
+
+    /**
+     * Wersja ostatniej zmiany rezerwacji (synchronizacja przyrostowa, ustawiana automatycznie).
+     */
+    @Column(name = "change_version")
+    private Long changeVersion;
 }
@@ -10,8 +10,10 @@ import java.math.BigDecimal;
  */
 @Data
 @Entity
-@Table(name = "rooms")
-public class Room {
+@EntityListeners(ChangeVersionListener.class)
+@Table(name = "rooms",
+        indexes = @Index(name = "idx_rooms_change_version", columnList = "change_version"))
+public class Room implements Versioned {
 
     /**
      * Unikalny identyfikator pokoju.
@@ -50,4 +52,10 @@ public class Room {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private RoomStatus status;
+
+    /**
+     * Wersja ostatniej zmiany pokoju (synchronizacja przyrostowa, ustawiana automatycznie).
+     */
+    @Column(name = "change_version")
+    private Long changeVersion;
 }
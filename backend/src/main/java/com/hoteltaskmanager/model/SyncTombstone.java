@@ -0,0 +1,48 @@
+package com.hoteltaskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ślad po usuniętej encji, dzięki któremu klienci synchronizujący się przyrostowo
+ * ({@code ?since=}) dowiadują się o usunięciach.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "sync_tombstones",
+        indexes = @Index(name = "idx_sync_tombstones_type_version", columnList = "entity_type, change_version"))
+public class SyncTombstone {
+
+    /**
+     * Unikalny identyfikator wpisu.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Typ usuniętej encji (np. HOUSEKEEPING_TASK, ROOM).
+     */
+    @Column(name = "entity_type", nullable = false, length = 40)
+    private String entityType;
+
+    /**
+     * ID usuniętej encji.
+     */
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    /**
+     * Wersja, w której nastąpiło usunięcie.
+     */
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    public SyncTombstone(String entityType, Long entityId, Long changeVersion) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeVersion = changeVersion;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hoteltaskmanager.model;
+
+/**
+ * Encja posiadająca numer wersji ostatniej zmiany, wykorzystywany przez endpointy {@code ?since=}.
+ */
+public interface Versioned {
+
+    Long getChangeVersion();
+
+    void setChangeVersion(Long changeVersion);
+}
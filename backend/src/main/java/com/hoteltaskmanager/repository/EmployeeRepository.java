@@ -2,18 +2,50 @@ package com.hoteltaskmanager.repository;
 
 import com.hoteltaskmanager.model.Employee;
 import com.hoteltaskmanager.model.Role;
+import com.hoteltaskmanager.model.RoleName;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     /**
-     * Znajdź pracownika po adresie e-mail.
+     * Zwraca wszystkie encje wraz z powiązaniami serializowanymi do JSON w jednym zapytaniu.
      */
+    @Override
+    @EntityGraph(attributePaths = {"role"})
+    List<Employee> findAll();
+
+    /**
+     * Znajdź pracownika po adresie e-mail (razem z rolą).
+     */
+    @EntityGraph(attributePaths = {"role"})
     Optional<Employee> findByEmail(String email);
 
+    /**
+     * Znajdź pracownika po skrócie tokenu resetu hasła (wyszukiwanie po indeksie).
+     */
+    Optional<Employee> findByResetTokenHash(String resetTokenHash);
+
+    /**
+     * Usuwa wygasłe tokeny resetu hasła jednym zapytaniem.
+     *
+     * @return liczba wyczyszczonych tokenów
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Employee e SET e.resetTokenHash = null, e.resetTokenExpiry = null " +
+            "WHERE e.resetTokenHash IS NOT NULL AND e.resetTokenExpiry < :now")
+    int clearExpiredResetTokens(@Param("now") LocalDateTime now);
+
     /**
      * Sprawdź, czy istnieje pracownik z danym e-mailem.
      */
@@ -27,5 +59,29 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     /**
      * Znajdź wszystkich pracowników z daną rolą.
      */
+    @EntityGraph(attributePaths = {"role"})
     List<Employee> findAllByRole(Role role);
+
+    /**
+     * Strona pracowników (stronicowanie kluczem, malejąco po ID) z opcjonalnymi filtrami.
+     *
+     * @param cursor        ID ostatniego pracownika poprzedniej strony (null - pierwsza strona)
+     * @param roleName      rola (opcjonalnie)
+     * @param searchPattern wzorzec LIKE imienia, nazwiska lub e-maila, małymi literami (opcjonalnie)
+     * @param pageable      rozmiar strony
+     */
+    @EntityGraph(attributePaths = {"role"})
+    @Query("""
+        SELECT e FROM Employee e LEFT JOIN e.role ro
+        WHERE (:cursor IS NULL OR e.id < :cursor)
+          AND (:roleName IS NULL OR ro.name = :roleName)
+          AND (:searchPattern IS NULL
+               OR LOWER(CONCAT(e.firstName, ' ', e.lastName)) LIKE :searchPattern
+               OR LOWER(e.email) LIKE :searchPattern)
+        ORDER BY e.id DESC
+    """)
+    List<Employee> findPage(@Param("cursor") Long cursor,
+                            @Param("roleName") RoleName roleName,
+                            @Param("searchPattern") String searchPattern,
+                            Pageable pageable);
 }
@@ -1,20 +1,86 @@
 package com.hoteltaskmanager.repository;
 
-import com.hoteltaskmanager.model.HousekeepingTask;
+import com.hoteltaskmanager.dto.HousekeepingTaskSummaryDTO;
 import com.hoteltaskmanager.model.HousekeepingStatus;
+import com.hoteltaskmanager.model.HousekeepingTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface HousekeepingTaskRepository extends JpaRepository<HousekeepingTask, Long> {
 
+    /**
+     * Zwraca wszystkie encje wraz z powiązaniami serializowanymi do JSON w jednym zapytaniu.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"employee.role", "room"})
+    List<HousekeepingTask> findAll();
+
     /**
      * Znajduje zadania według statusu.
      */
+    @EntityGraph(attributePaths = {"employee.role", "room"})
     List<HousekeepingTask> findByStatus(HousekeepingStatus status);
 
     /**
      * Znajduje zadania przypisane do pracownika o podanym ID.
      */
+    @EntityGraph(attributePaths = {"employee.role", "room"})
     List<HousekeepingTask> findByEmployeeId(Long employeeId);
+
+    /**
+     * Znajduje zadania zmienione po podanej wersji (synchronizacja przyrostowa).
+     */
+    @EntityGraph(attributePaths = {"employee.role", "room"})
+    List<HousekeepingTask> findByChangeVersionGreaterThan(Long version);
+
+    /**
+     * Strona zadań (stronicowanie kluczem, malejąco po ID) z opcjonalnymi filtrami.
+     *
+     * @param cursor     ID ostatniego zadania poprzedniej strony (null - pierwsza strona)
+     * @param status     status zadania (opcjonalnie)
+     * @param employeeId ID przypisanego pracownika (opcjonalnie)
+     * @param roomId     ID pokoju (opcjonalnie)
+     * @param from       najwcześniejsza data zlecenia (opcjonalnie)
+     * @param to         najpóźniejsza data zlecenia (opcjonalnie)
+     * @param pageable   rozmiar strony
+     */
+    @EntityGraph(attributePaths = {"employee.role", "room"})
+    @Query("""
+        SELECT t FROM HousekeepingTask t
+        WHERE (:cursor IS NULL OR t.id < :cursor)
+          AND (:status IS NULL OR t.status = :status)
+          AND (:employeeId IS NULL OR t.employee.id = :employeeId)
+          AND (:roomId IS NULL OR t.room.id = :roomId)
+          AND (:from IS NULL OR t.requestDate >= :from)
+          AND (:to IS NULL OR t.requestDate <= :to)
+        ORDER BY t.id DESC
+    """)
+    List<HousekeepingTask> findPage(@Param("cursor") Long cursor,
+                                    @Param("status") HousekeepingStatus status,
+                                    @Param("employeeId") Long employeeId,
+                                    @Param("roomId") Long roomId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    Pageable pageable);
+
+    /**
+     * Zwraca projekcje wszystkich zadań (tylko kolumny potrzebne w tabeli zadań) jednym zapytaniem.
+     */
+    @Query("""
+        SELECT new com.hoteltaskmanager.dto.HousekeepingTaskSummaryDTO(
+            t.id, t.requestDate, t.completionDate, t.status, t.description,
+            r.id, r.roomNumber,
+            e.id, e.firstName, e.lastName, e.avatarFilename)
+        FROM HousekeepingTask t
+        LEFT JOIN t.room r
+        LEFT JOIN t.employee e
+        ORDER BY t.id
+    """)
+    List<HousekeepingTaskSummaryDTO> findAllSummaries();
 }
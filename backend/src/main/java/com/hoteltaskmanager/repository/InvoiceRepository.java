@@ -1,7 +1,65 @@
 package com.hoteltaskmanager.repository;
 
 import com.hoteltaskmanager.model.Invoice;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+
+    /**
+     * Sprawdza, czy któraś niezarchiwizowana faktura korzysta z pliku PDF w katalogu faktur
+     * (pliki identycznych faktur są współdzielone).
+     */
+    boolean existsByPdfFileAndArchiveFileIsNull(String pdfFile);
+
+    /**
+     * Sprawdza, czy któraś faktura wskazuje na dane archiwum.
+     */
+    boolean existsByArchiveFile(String archiveFile);
+
+    /**
+     * Zwraca niezarchiwizowane pliki PDF faktur wystawionych przed podaną datą
+     * (stronicowanie kluczem po ścieżce pliku).
+     *
+     * @param before   data wystawienia, przed którą pliki są archiwizowane
+     * @param after    ścieżka ostatniego pliku poprzedniej strony (null - pierwsza strona)
+     * @param pageable rozmiar strony
+     */
+    @Query("""
+        SELECT DISTINCT i.pdfFile AS pdfFile, i.issueDate AS issueDate FROM Invoice i
+        WHERE i.archiveFile IS NULL AND i.pdfFile IS NOT NULL
+          AND i.issueDate < :before
+          AND (:after IS NULL OR i.pdfFile > :after)
+        ORDER BY i.pdfFile
+    """)
+    List<ArchivableFile> findArchivable(@Param("before") LocalDate before,
+                                        @Param("after") String after,
+                                        Pageable pageable);
+
+    /**
+     * Zapisuje położenie archiwum faktur korzystających z podanych plików PDF.
+     *
+     * @return liczba zaktualizowanych faktur
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Invoice i SET i.archiveFile = :archiveFile WHERE i.pdfFile IN :pdfFiles AND i.archiveFile IS NULL")
+    int markArchived(@Param("pdfFiles") Collection<String> pdfFiles, @Param("archiveFile") String archiveFile);
+
+    /**
+     * Plik PDF faktury do zarchiwizowania.
+     */
+    interface ArchivableFile {
+        String getPdfFile();
+
+        LocalDate getIssueDate();
+    }
 }
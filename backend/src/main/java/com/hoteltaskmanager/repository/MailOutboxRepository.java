@@ -0,0 +1,46 @@
+package com.hoteltaskmanager.repository;
+
+import com.hoteltaskmanager.model.MailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    /**
+     * Zwraca wiadomości gotowe do wysłania (najstarsze najpierw), w liczbie ograniczonej przez {@code pageable}.
+     * Wiadomości po terminie ważności są pomijane.
+     */
+    @Query("SELECT m FROM MailOutboxMessage m " +
+            "WHERE m.status = com.hoteltaskmanager.model.MailOutboxStatus.PENDING AND m.nextAttemptAt <= :now " +
+            "AND (m.expiresAt IS NULL OR m.expiresAt > :now) " +
+            "ORDER BY m.id")
+    List<MailOutboxMessage> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Usuwa wysłane wiadomości starsze niż podana data.
+     *
+     * @return liczba usuniętych wiadomości
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MailOutboxMessage m " +
+            "WHERE m.status = com.hoteltaskmanager.model.MailOutboxStatus.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Usuwa wiadomości (w dowolnym statusie), których termin ważności minął.
+     *
+     * @return liczba usuniętych wiadomości
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MailOutboxMessage m WHERE m.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,30 +1,124 @@
 package com.hoteltaskmanager.repository;
 
+import com.hoteltaskmanager.dto.MaintenanceRequestSummaryDTO;
 import com.hoteltaskmanager.model.MaintenanceRequest;
 import com.hoteltaskmanager.model.MaintenanceStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, Long> {
 
+    /**
+     * Zwraca wszystkie encje wraz z powiązaniami serializowanymi do JSON w jednym zapytaniu.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"room", "requester.role", "assignee.role"})
+    List<MaintenanceRequest> findAll();
+
     /**
      * Znajduje zgłoszenia dla danego pokoju.
      */
+    @EntityGraph(attributePaths = {"room", "requester.role", "assignee.role"})
     List<MaintenanceRequest> findByRoomId(Long roomId);
 
     /**
      * Znajduje zgłoszenia według statusu.
      */
+    @EntityGraph(attributePaths = {"room", "requester.role", "assignee.role"})
     List<MaintenanceRequest> findByStatus(MaintenanceStatus status);
 
     /**
      * Znajduje zgłoszenia przypisane danemu pracownikowi.
      */
+    @EntityGraph(attributePaths = {"room", "requester.role", "assignee.role"})
     List<MaintenanceRequest> findByAssigneeId(Long assigneeId);
 
     /**
      * Znajduje zgłoszenia jakie zgłosił dany pracownik.
      */
+    @EntityGraph(attributePaths = {"room", "requester.role", "assignee.role"})
     List<MaintenanceRequest> findByRequesterId(Long requesterId);
+
+    /**
+     * Zwraca identyfikatory pokoi, dla których istnieją zgłoszenia o statusie innym niż podany.
+     */
+    @Query("SELECT DISTINCT m.room.id FROM MaintenanceRequest m WHERE m.status <> :status")
+    Set<Long> findRoomIdsByStatusNot(@Param("status") MaintenanceStatus status);
+
+    /**
+     * Zwraca te spośród wskazanych pokoi, dla których istnieją zgłoszenia o statusie innym niż podany.
+     */
+    @Query("""
+        SELECT DISTINCT m.room.id FROM MaintenanceRequest m
+        WHERE m.status <> :status
+        AND m.room.id IN :roomIds
+    """)
+    Set<Long> findRoomIdsByStatusNotAndRoomIdIn(
+            @Param("status") MaintenanceStatus status,
+            @Param("roomIds") Collection<Long> roomIds
+    );
+
+    /**
+     * Znajduje zgłoszenia zmienione po podanej wersji (synchronizacja przyrostowa).
+     */
+    @EntityGraph(attributePaths = {"room", "requester.role", "assignee.role"})
+    List<MaintenanceRequest> findByChangeVersionGreaterThan(Long version);
+
+    /**
+     * Strona zgłoszeń (stronicowanie kluczem, malejąco po ID) z opcjonalnymi filtrami.
+     *
+     * @param cursor      ID ostatniego zgłoszenia poprzedniej strony (null - pierwsza strona)
+     * @param status      status zgłoszenia (opcjonalnie)
+     * @param assigneeId  ID pracownika przypisanego do naprawy (opcjonalnie)
+     * @param requesterId ID zgłaszającego (opcjonalnie)
+     * @param roomId      ID pokoju (opcjonalnie)
+     * @param from        najwcześniejsza data zgłoszenia (opcjonalnie)
+     * @param to          najpóźniejsza data zgłoszenia (opcjonalnie)
+     * @param pageable    rozmiar strony
+     */
+    @EntityGraph(attributePaths = {"room", "requester.role", "assignee.role"})
+    @Query("""
+        SELECT m FROM MaintenanceRequest m
+        WHERE (:cursor IS NULL OR m.id < :cursor)
+          AND (:status IS NULL OR m.status = :status)
+          AND (:assigneeId IS NULL OR m.assignee.id = :assigneeId)
+          AND (:requesterId IS NULL OR m.requester.id = :requesterId)
+          AND (:roomId IS NULL OR m.room.id = :roomId)
+          AND (:from IS NULL OR m.requestDate >= :from)
+          AND (:to IS NULL OR m.requestDate <= :to)
+        ORDER BY m.id DESC
+    """)
+    List<MaintenanceRequest> findPage(@Param("cursor") Long cursor,
+                                      @Param("status") MaintenanceStatus status,
+                                      @Param("assigneeId") Long assigneeId,
+                                      @Param("requesterId") Long requesterId,
+                                      @Param("roomId") Long roomId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      Pageable pageable);
+
+    /**
+     * Zwraca projekcje wszystkich zgłoszeń (tylko kolumny potrzebne w tabeli zgłoszeń) jednym zapytaniem.
+     */
+    @Query("""
+        SELECT new com.hoteltaskmanager.dto.MaintenanceRequestSummaryDTO(
+            m.id, m.requestDate, m.completionDate, m.status, m.description,
+            r.id, r.roomNumber,
+            q.id, q.firstName, q.lastName, q.avatarFilename,
+            a.id, a.firstName, a.lastName, a.avatarFilename)
+        FROM MaintenanceRequest m
+        LEFT JOIN m.room r
+        LEFT JOIN m.requester q
+        LEFT JOIN m.assignee a
+        ORDER BY m.id
+    """)
+    List<MaintenanceRequestSummaryDTO> findAllSummaries();
 }
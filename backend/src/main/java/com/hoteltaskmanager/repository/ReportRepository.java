@@ -2,10 +2,19 @@ package com.hoteltaskmanager.repository;
 
 import com.hoteltaskmanager.model.Report;
 import com.hoteltaskmanager.model.ReportType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repozytorium JPA dla encji {@link Report}.
@@ -14,12 +23,20 @@ import java.util.List;
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
 
+    /**
+     * Zwraca wszystkie encje wraz z powiązaniami serializowanymi do JSON w jednym zapytaniu.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"createdBy.role"})
+    List<Report> findAll();
+
     /**
      * Zwraca listę raportów utworzonych przez danego pracownika.
      *
      * @param employeeId ID pracownika, który utworzył raporty
      * @return lista raportów utworzonych przez danego pracownika
      */
+    @EntityGraph(attributePaths = {"createdBy.role"})
     List<Report> findByCreatedById(Long employeeId);
 
     /**
@@ -28,5 +45,159 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
      * @param reportType typ raportu
      * @return lista raportów danego typu
      */
+    @EntityGraph(attributePaths = {"createdBy.role"})
     List<Report> findByReportType(ReportType reportType);
-}
\ No newline at end of file
+
+    /**
+     * Zwraca liczbę raportów o określonym typie.
+     *
+     * @param reportType typ raportu
+     * @return liczba raportów danego typu
+     */
+    long countByReportType(ReportType reportType);
+
+    /**
+     * Zwraca najnowszy raport o podanym odcisku (rodzaj, parametry i wersja danych).
+     *
+     * @param fingerprint odcisk raportu
+     * @return najnowszy pasujący raport, jeśli istnieje
+     */
+    Optional<Report> findFirstByFingerprintOrderByIdDesc(String fingerprint);
+
+    /**
+     * Zwraca stronę raportów (stronicowanie kluczem, malejąco po ID) z opcjonalnymi filtrami.
+     * Zakres dat utworzenia jest przekazywany jako zakres ID ({@link #findIdsCreatedFrom},
+     * {@link #findIdsCreatedTo}), więc strona to odczyt kolejnych wierszy indeksu zakończonego ID,
+     * bez sortowania całego zakresu dat.
+     *
+     * @param cursor     ID ostatniego raportu poprzedniej strony (null - pierwsza strona)
+     * @param reportType typ raportu (opcjonalnie)
+     * @param createdBy  ID pracownika, który utworzył raport (opcjonalnie)
+     * @param minId      najmniejsze ID raportu (opcjonalnie)
+     * @param maxId      największe ID raportu (opcjonalnie)
+     * @param pageable   rozmiar strony
+     * @return lista raportów bieżącej strony (o jeden więcej niż rozmiar strony, jeśli istnieje następna)
+     */
+    @EntityGraph(attributePaths = {"createdBy.role"})
+    @Query("""
+        SELECT r FROM Report r
+        WHERE (:cursor IS NULL OR r.id < :cursor)
+          AND (:reportType IS NULL OR r.reportType = :reportType)
+          AND (:createdBy IS NULL OR r.createdBy.id = :createdBy)
+          AND (:minId IS NULL OR r.id >= :minId)
+          AND (:maxId IS NULL OR r.id <= :maxId)
+        ORDER BY r.id DESC
+    """)
+    List<Report> findPage(@Param("cursor") Long cursor,
+                          @Param("reportType") ReportType reportType,
+                          @Param("createdBy") Long createdBy,
+                          @Param("minId") Long minId,
+                          @Param("maxId") Long maxId,
+                          Pageable pageable);
+
+    /**
+     * Zwraca ID pierwszego raportu utworzonego nie wcześniej niż podana chwila - jeden odczyt
+     * indeksu {@code (created_at, id)}. Raporty dostają ID w kolejności utworzenia, więc to
+     * najmniejsze ID w zakresie dat.
+     *
+     * @param from     najwcześniejsza data utworzenia
+     * @param pageable rozmiar wyniku (jeden wiersz)
+     */
+    @Query("SELECT r.id FROM Report r WHERE r.createdAt >= :from ORDER BY r.createdAt, r.id")
+    List<Long> findIdsCreatedFrom(@Param("from") LocalDateTime from, Pageable pageable);
+
+    /**
+     * Zwraca ID ostatniego raportu utworzonego nie później niż podana chwila (największe ID w zakresie dat).
+     *
+     * @param to       najpóźniejsza data utworzenia
+     * @param pageable rozmiar wyniku (jeden wiersz)
+     */
+    @Query("SELECT r.id FROM Report r WHERE r.createdAt <= :to ORDER BY r.createdAt DESC, r.id DESC")
+    List<Long> findIdsCreatedTo(@Param("to") LocalDateTime to, Pageable pageable);
+
+    /**
+     * Oznacza raport jako usunięty - znika z list i wyszukiwań, a plik usuwa później zadanie w tle.
+     *
+     * @param id  ID raportu
+     * @param now data i czas usunięcia
+     * @return 1, jeśli raport istniał i nie był wcześniej usunięty, w przeciwnym razie 0
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE reports SET deleted_at = :now WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int markDeleted(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Zwraca pliki raportów oznaczonych jako usunięte (najstarsze najpierw).
+     *
+     * @param limit maksymalna liczba wyników
+     * @return ID i ścieżki plików usuniętych raportów
+     */
+    @Query(value = "SELECT id, report_file AS reportFile FROM reports " +
+            "WHERE deleted_at IS NOT NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<DeletedReportFile> findDeletedFiles(@Param("limit") int limit);
+
+    /**
+     * Trwale usuwa wiersze raportów oznaczonych jako usunięte.
+     *
+     * @param ids ID raportów
+     * @return liczba usuniętych wierszy
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM reports WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sprawdza, czy któryś raport wskazuje na dane archiwum.
+     */
+    boolean existsByArchiveFile(String archiveFile);
+
+    /**
+     * Zwraca niezarchiwizowane raporty utworzone przed podaną chwilą (stronicowanie kluczem, rosnąco po ID).
+     *
+     * @param before   chwila utworzenia, przed którą raporty są archiwizowane
+     * @param after    ID ostatniego raportu poprzedniej strony (0 - pierwsza strona)
+     * @param pageable rozmiar strony
+     */
+    @Query("""
+        SELECT r.id AS id, r.reportFile AS reportFile, r.createdAt AS createdAt FROM Report r
+        WHERE r.archiveFile IS NULL AND r.reportFile IS NOT NULL
+          AND r.createdAt < :before
+          AND r.id > :after
+        ORDER BY r.id
+    """)
+    List<ArchivableReport> findArchivable(@Param("before") LocalDateTime before,
+                                          @Param("after") long after,
+                                          Pageable pageable);
+
+    /**
+     * Zapisuje położenie archiwum podanych raportów.
+     *
+     * @return liczba zaktualizowanych raportów
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Report r SET r.archiveFile = :archiveFile WHERE r.id IN :ids")
+    int markArchived(@Param("ids") Collection<Long> ids, @Param("archiveFile") String archiveFile);
+
+    /**
+     * Plik raportu oznaczonego jako usunięty.
+     */
+    interface DeletedReportFile {
+        Long getId();
+
+        String getReportFile();
+    }
+
+    /**
+     * Raport do zarchiwizowania.
+     */
+    interface ArchivableReport {
+        Long getId();
+
+        String getReportFile();
+
+        LocalDateTime getCreatedAt();
+    }
+}
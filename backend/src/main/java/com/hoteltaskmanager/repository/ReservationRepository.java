@@ -1,21 +1,119 @@
 package com.hoteltaskmanager.repository;
 
+import com.hoteltaskmanager.dto.ReservationSummaryDTO;
 import com.hoteltaskmanager.model.Reservation;
 import com.hoteltaskmanager.model.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    /**
+     * Zwraca wszystkie encje wraz z powiązaniami serializowanymi do JSON w jednym zapytaniu.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"invoice", "reservationRooms.room"})
+    List<Reservation> findAll();
+
     /**
      * Znajduje rezerwacje o konkretnym statusie (np. ACTIVE).
      */
+    @EntityGraph(attributePaths = {"invoice", "reservationRooms.room"})
     List<Reservation> findByStatus(ReservationStatus status);
 
     /**
      * Znajduje rezerwacje, które mają datę rozpoczęcia po danym dniu.
      */
+    @EntityGraph(attributePaths = {"invoice", "reservationRooms.room"})
     List<Reservation> findByStartDateAfter(LocalDate date);
+
+    /**
+     * Znajduje rezerwacje zmienione po podanej wersji (synchronizacja przyrostowa).
+     */
+    @EntityGraph(attributePaths = {"invoice", "reservationRooms.room"})
+    List<Reservation> findByChangeVersionGreaterThan(Long version);
+
+    /**
+     * Ustawia nową wersję zmiany rezerwacji, np. po zmianie przypisanych do niej pokoi.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reservation r SET r.changeVersion = :version WHERE r.id = :id")
+    void touchChangeVersion(@Param("id") Long id, @Param("version") long version);
+
+    /**
+     * Strona rezerwacji (stronicowanie kluczem, malejąco po ID) z opcjonalnymi filtrami.
+     * Zakres dat wybiera rezerwacje nachodzące na przedział {@code from..to}.
+     *
+     * @param cursor       ID ostatniej rezerwacji poprzedniej strony (null - pierwsza strona)
+     * @param status       status rezerwacji (opcjonalnie)
+     * @param from         początek zakresu dat (opcjonalnie)
+     * @param to           koniec zakresu dat (opcjonalnie)
+     * @param guestPattern wzorzec LIKE imienia i nazwiska gościa, małymi literami (opcjonalnie)
+     * @param roomId       ID pokoju przypisanego do rezerwacji (opcjonalnie)
+     * @param pageable     rozmiar strony
+     */
+    // Kolekcja pokoi doładowywana wsadowo (@BatchSize) - fetch join kolekcji wyłączyłby LIMIT w SQL
+    @EntityGraph(attributePaths = {"invoice"})
+    @Query("""
+        SELECT r FROM Reservation r
+        WHERE (:cursor IS NULL OR r.id < :cursor)
+          AND (:status IS NULL OR r.status = :status)
+          AND (:from IS NULL OR r.endDate >= :from)
+          AND (:to IS NULL OR r.startDate <= :to)
+          AND (:guestPattern IS NULL
+               OR LOWER(CONCAT(r.guestFirstName, ' ', r.guestLastName)) LIKE :guestPattern)
+          AND (:roomId IS NULL OR EXISTS (
+               SELECT rr.id FROM ReservationRoom rr WHERE rr.reservation = r AND rr.room.id = :roomId))
+        ORDER BY r.id DESC
+    """)
+    List<Reservation> findPage(@Param("cursor") Long cursor,
+                               @Param("status") ReservationStatus status,
+                               @Param("from") LocalDate from,
+                               @Param("to") LocalDate to,
+                               @Param("guestPattern") String guestPattern,
+                               @Param("roomId") Long roomId,
+                               Pageable pageable);
+
+    /**
+     * Zwraca ID rezerwacji bez faktury o podanym statusie, zakończonych w przedziale {@code from..to}
+     * (rosnąco) - do hurtowego wystawiania faktur.
+     *
+     * @param status status rezerwacji
+     * @param from   najwcześniejsza data zakończenia pobytu (opcjonalnie)
+     * @param to     najpóźniejsza data zakończenia pobytu (opcjonalnie)
+     */
+    @Query("""
+        SELECT r.id FROM Reservation r
+        WHERE r.invoice IS NULL
+          AND r.status = :status
+          AND (:from IS NULL OR r.endDate >= :from)
+          AND (:to IS NULL OR r.endDate <= :to)
+        ORDER BY r.id
+    """)
+    List<Long> findIdsWithoutInvoice(@Param("status") ReservationStatus status,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * Zwraca projekcje wszystkich rezerwacji (bez listy pokoi, tylko ich liczba) jednym zapytaniem.
+     */
+    @Query("""
+        SELECT new com.hoteltaskmanager.dto.ReservationSummaryDTO(
+            r.id, r.startDate, r.endDate, r.status, r.catering,
+            r.guestFirstName, r.guestLastName, i.id,
+            (SELECT COUNT(rr) FROM ReservationRoom rr WHERE rr.reservation = r))
+        FROM Reservation r
+        LEFT JOIN r.invoice i
+        ORDER BY r.id
+    """)
+    List<ReservationSummaryDTO> findAllSummaries();
 }
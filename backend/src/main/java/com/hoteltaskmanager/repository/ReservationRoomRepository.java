@@ -1,14 +1,46 @@
 package com.hoteltaskmanager.repository;
 
 import com.hoteltaskmanager.model.ReservationRoom;
+import com.hoteltaskmanager.model.ReservationStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ReservationRoomRepository extends JpaRepository<ReservationRoom, Long> {
 
     /**
      * Znajduje wszystkie pokoje przypisane do danej rezerwacji.
      */
+    @EntityGraph(attributePaths = {"room", "reservation.invoice"})
     List<ReservationRoom> findByReservationId(Long reservationId);
+
+    /**
+     * Zwraca identyfikatory pokoi przypisanych do danej rezerwacji.
+     */
+    @Query("SELECT rr.room.id FROM ReservationRoom rr WHERE rr.reservation.id = :reservationId")
+    Set<Long> findRoomIdsByReservationId(@Param("reservationId") Long reservationId);
+
+    /**
+     * Zwraca identyfikatory pokoi przypisanych do rezerwacji o danym statusie.
+     */
+    @Query("SELECT DISTINCT rr.room.id FROM ReservationRoom rr WHERE rr.reservation.status = :status")
+    Set<Long> findRoomIdsByReservationStatus(@Param("status") ReservationStatus status);
+
+    /**
+     * Zwraca te spośród wskazanych pokoi, które są przypisane do rezerwacji o danym statusie.
+     */
+    @Query("""
+        SELECT DISTINCT rr.room.id FROM ReservationRoom rr
+        WHERE rr.reservation.status = :status
+        AND rr.room.id IN :roomIds
+    """)
+    Set<Long> findRoomIdsByReservationStatusAndRoomIdIn(
+            @Param("status") ReservationStatus status,
+            @Param("roomIds") Collection<Long> roomIds
+    );
 }
@@ -2,6 +2,7 @@ package com.hoteltaskmanager.repository;
 
 import com.hoteltaskmanager.model.Room;
 import com.hoteltaskmanager.model.RoomStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -43,4 +44,32 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
+
+    /**
+     * Znajduje pokoje zmienione po podanej wersji (synchronizacja przyrostowa).
+     */
+    List<Room> findByChangeVersionGreaterThan(Long version);
+
+    /**
+     * Strona pokoi (stronicowanie kluczem, malejąco po ID) z opcjonalnymi filtrami.
+     *
+     * @param cursor   ID ostatniego pokoju poprzedniej strony (null - pierwsza strona)
+     * @param status   status pokoju (opcjonalnie)
+     * @param floor    piętro (opcjonalnie)
+     * @param minBeds  minimalna liczba łóżek (opcjonalnie)
+     * @param pageable rozmiar strony
+     */
+    @Query("""
+        SELECT r FROM Room r
+        WHERE (:cursor IS NULL OR r.id < :cursor)
+          AND (:status IS NULL OR r.status = :status)
+          AND (:floor IS NULL OR r.floor = :floor)
+          AND (:minBeds IS NULL OR r.bedCount >= :minBeds)
+        ORDER BY r.id DESC
+    """)
+    List<Room> findPage(@Param("cursor") Long cursor,
+                        @Param("status") RoomStatus status,
+                        @Param("floor") Integer floor,
+                        @Param("minBeds") Integer minBeds,
+                        Pageable pageable);
 }
@@ -0,0 +1,29 @@
+package com.hoteltaskmanager.repository;
+
+import com.hoteltaskmanager.model.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    /**
+     * Zwraca ID encji danego typu usuniętych po podanej wersji.
+     */
+    @Query("SELECT t.entityId FROM SyncTombstone t WHERE t.entityType = :entityType AND t.changeVersion > :since")
+    Set<Long> findDeletedIdsSince(@Param("entityType") String entityType, @Param("since") long since);
+
+    /**
+     * Usuwa ślady starsze niż podana wersja.
+     *
+     * @return liczba usuniętych wpisów
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SyncTombstone t WHERE t.changeVersion < :version")
+    int deleteOlderThan(@Param("version") long version);
+}
@@ -0,0 +1,46 @@
+package com.hoteltaskmanager.security;
+
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.model.RoleName;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Zalogowany pracownik przechowywany w kontekście bezpieczeństwa.
+ * <p>
+ * Zawiera encję pracownika wraz z rolą wczytaną raz przez {@link EmployeePrincipalCache},
+ * dzięki czemu kontrolery nie muszą ponownie szukać pracownika po e-mailu z tokenu.
+ * {@link #getName()} zwraca e-mail, więc {@code authentication.getName()} działa jak wcześniej.
+ */
+public final class EmployeePrincipal implements AuthenticatedPrincipal {
+
+    private final Employee employee;
+
+    public EmployeePrincipal(Employee employee) {
+        this.employee = employee;
+    }
+
+    /**
+     * Encja zalogowanego pracownika (odłączona od kontekstu utrwalania).
+     */
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public Long getId() {
+        return employee.getId();
+    }
+
+    public RoleName getRoleName() {
+        return employee.getRole() != null ? employee.getRole().getName() : null;
+    }
+
+    @Override
+    public String getName() {
+        return employee.getEmail();
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,122 @@
+package com.hoteltaskmanager.security;
+
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.repository.EmployeeRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Pamięć podręczna zalogowanych pracowników.
+ * <p>
+ * Filtr JWT zamienia e-mail z tokenu na {@link EmployeePrincipal} (pracownik + rola) tylko
+ * przy pierwszym żądaniu - kolejne żądania z tym samym kontem nie odpytują bazy.
+ * Wpis jest usuwany po edycji, usunięciu, zmianie e-maila, roli lub awatara pracownika
+ * (wywołania {@link #invalidate(Long)} w {@code EmployeeController}) oraz po resecie hasła
+ * ({@code PasswordResetController}), a dodatkowo wygasa
+ * po {@link #TTL_MS}, na wypadek zmian wykonanych poza API.
+ */
+@Component
+public class EmployeePrincipalCache {
+
+    /** Maksymalna liczba zapamiętanych pracowników. */
+    static final int MAX_ENTRIES = 1_000;
+
+    /** Czas życia wpisu. */
+    static final long TTL_MS = 5 * 60 * 1000L;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final Map<String, CachedPrincipal> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public EmployeePrincipalCache(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Zwraca pracownika dla e-maila z tokenu - z pamięci podręcznej albo z bazy.
+     *
+     * @param email e-mail (subject tokenu JWT)
+     * @return principal lub pusty wynik, jeśli pracownik nie istnieje
+     */
+    public Optional<EmployeePrincipal> load(String email) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedPrincipal cached = entries.get(email);
+            if (cached != null && cached.expiresAt() > now) {
+                return Optional.of(cached.principal());
+            }
+        }
+
+        Optional<Employee> employee = employeeRepository.findByEmail(email);
+        if (employee.isEmpty()) {
+            return Optional.empty();
+        }
+
+        EmployeePrincipal principal = new EmployeePrincipal(employee.get());
+        synchronized (entries) {
+            entries.put(email, new CachedPrincipal(principal, now + TTL_MS));
+        }
+        return Optional.of(principal);
+    }
+
+    /**
+     * Zwraca zalogowanego pracownika dla podanego uwierzytelnienia.
+     * Jeśli uwierzytelnienie nie pochodzi z filtra JWT (np. w testach), pracownik jest
+     * wyszukiwany po nazwie użytkownika.
+     *
+     * @param authentication bieżące uwierzytelnienie (może być null)
+     * @return pracownik lub pusty wynik
+     */
+    public Optional<Employee> currentEmployee(Authentication authentication) {
+        if (authentication == null) {
+            return Optional.empty();
+        }
+        if (authentication.getPrincipal() instanceof EmployeePrincipal principal) {
+            return Optional.of(principal.getEmployee());
+        }
+        return employeeRepository.findByEmail(authentication.getName());
+    }
+
+    /**
+     * Zwraca zalogowanego pracownika z kontekstu bezpieczeństwa.
+     */
+    public Optional<Employee> currentEmployee() {
+        return currentEmployee(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    /**
+     * Usuwa z pamięci pracownika o podanym ID (pod każdym e-mailem, pod którym był zapisany).
+     *
+     * @param employeeId ID zmienionego lub usuniętego pracownika
+     */
+    public void invalidate(Long employeeId) {
+        if (employeeId == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.values().removeIf(cached -> employeeId.equals(cached.principal().getId()));
+        }
+    }
+
+    /**
+     * Czyści całą pamięć podręczną.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private record CachedPrincipal(EmployeePrincipal principal, long expiresAt) {
+    }
+}
@@ -1,6 +1,6 @@
 package com.hoteltaskmanager.security;
 
-import com.hoteltaskmanager.config.JwtConfig;
+import com.hoteltaskmanager.config.SecurityConfig;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,22 +11,53 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Filtr JWT - przechwytuje każde żądanie HTTP i sprawdza poprawność tokenu JWT.
+ * Zweryfikowane tokeny są zapamiętywane w {@link VerifiedTokenCache}, a publiczne
+ * ścieżki z {@link SecurityConfig#PUBLIC_PATHS} są pomijane. Principalem uwierzytelnienia
+ * jest {@link EmployeePrincipal} pobrany z {@link EmployeePrincipalCache}.
+ * Strumień zdarzeń SSE może być otwarty jednorazowym biletem ({@link StreamTicketService})
+ * zamiast tokenu - token JWT nigdy nie jest przyjmowany z parametru adresu.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtConfig jwtConfig;
+    private static final String EVENT_STREAM_PATH = "/api/events/stream";
 
-    // Wstrzyknięcie komponentu konfiguracyjnego JWT
-    public JwtAuthenticationFilter(JwtConfig jwtConfig) {
-        this.jwtConfig = jwtConfig;
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final EmployeePrincipalCache employeePrincipalCache;
+    private final StreamTicketService streamTicketService;
+
+    // Wstrzyknięcie pamięci podręcznych zweryfikowanych tokenów i zalogowanych pracowników
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                   EmployeePrincipalCache employeePrincipalCache,
+                                   StreamTicketService streamTicketService) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.employeePrincipalCache = employeePrincipalCache;
+        this.streamTicketService = streamTicketService;
+    }
+
+    /**
+     * Publiczne endpointy nie wymagają tokenu - filtr nie jest dla nich uruchamiany.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : SecurityConfig.PUBLIC_PATHS) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -35,24 +66,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        // 1. Pobranie tokenu z nagłówka Authorization
+        // 1. Pobranie tokenu z nagłówka Authorization (albo biletu strumienia zdarzeń)
         String token = extractTokenFromRequest(request);
+        String streamTicket = token == null ? extractStreamTicket(request) : null;
 
-        // 2. Jeśli token istnieje, sprawdź jego poprawność
-        if (token != null) {
+        // 2. Jeśli token lub bilet istnieje, sprawdź jego poprawność
+        if (token != null || streamTicket != null) {
             try {
-                Claims claims = jwtConfig.validateToken(token);
-                String email = claims.getSubject();
+                String email;
+                if (token != null) {
+                    Claims claims = verifiedTokenCache.verify(token);
+                    email = claims.getSubject();
+                } else {
+                    email = streamTicketService.redeem(streamTicket).orElse(null);
+                }
 
                 // 3. Jeśli użytkownik nie jest jeszcze uwierzytelniony
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
+                    // Pracownik z rolą - z pamięci podręcznej, bez zapytania do bazy przy kolejnych żądaniach
+                    Optional<EmployeePrincipal> principal = employeePrincipalCache.load(email);
+                    if (principal.isEmpty()) {
+                        // Konto zostało usunięte - token przestaje uwierzytelniać
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+
                     // Tworzymy obiekt uwierzytelnienia
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    email,
+                                    principal.get(),
                                     null,
-                                    List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                                    authorities(principal.get())
                             );
 
                     // Szczegóły requestu, np. adres IP
@@ -74,6 +119,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Uprawnienia: ROLE_USER dla każdego pracownika oraz ROLE_{rola}.
+     */
+    private static List<SimpleGrantedAuthority> authorities(EmployeePrincipal principal) {
+        if (principal.getRoleName() == null) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_USER"),
+                new SimpleGrantedAuthority("ROLE_" + principal.getRoleName().name()));
+    }
+
     /**
      * Ekstrakcja tokenu JWT z nagłówka Authorization.
      */
@@ -86,4 +142,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    /**
+     * Bilet strumienia zdarzeń z parametru {@code ticket} - tylko dla ścieżki strumienia SSE,
+     * bo EventSource nie pozwala ustawić nagłówków.
+     */
+    private String extractStreamTicket(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!EVENT_STREAM_PATH.equals(path)) {
+            return null;
+        }
+        String ticket = request.getParameter("ticket");
+        return StringUtils.hasText(ticket) ? ticket : null;
+    }
 }
@@ -0,0 +1,58 @@
+package com.hoteltaskmanager.security;
+
+import com.hoteltaskmanager.util.TokenDigest;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Krótkotrwałe, jednorazowe bilety do otwarcia strumienia zdarzeń SSE.
+ * <p>
+ * EventSource nie pozwala ustawić nagłówka Authorization, a token JWT w adresie trafiałby
+ * do logów serwera i proxy. Klient pobiera więc bilet zwykłym żądaniem z nagłówkiem
+ * i przekazuje go parametrem {@code ticket}. Bilet jest ważny {@link #TICKET_TTL_MS} ms
+ * i może zostać użyty tylko raz. Przechowywany jest wyłącznie skrót biletu.
+ */
+@Component
+public class StreamTicketService {
+
+    /** Czas ważności biletu. */
+    static final long TICKET_TTL_MS = 30_000L;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    /**
+     * Wystawia bilet dla zalogowanego pracownika.
+     *
+     * @param email e-mail pracownika
+     * @return bilet w postaci jawnej
+     */
+    public String issue(String email) {
+        long now = System.currentTimeMillis();
+        tickets.values().removeIf(ticket -> ticket.expiresAt() <= now);
+
+        String ticket = UUID.randomUUID().toString();
+        tickets.put(TokenDigest.sha256Hex(ticket), new Ticket(email, now + TICKET_TTL_MS));
+        return ticket;
+    }
+
+    /**
+     * Wykorzystuje bilet - kolejne użycie tego samego biletu się nie powiedzie.
+     *
+     * @param ticket bilet w postaci jawnej
+     * @return e-mail pracownika, jeśli bilet jest ważny
+     */
+    public Optional<String> redeem(String ticket) {
+        Ticket stored = tickets.remove(TokenDigest.sha256Hex(ticket));
+        if (stored == null || stored.expiresAt() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(stored.email());
+    }
+
+    private record Ticket(String email, long expiresAt) {
+    }
+}
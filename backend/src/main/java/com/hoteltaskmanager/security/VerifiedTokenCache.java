@@ -0,0 +1,103 @@
+package com.hoteltaskmanager.security;
+
+import com.hoteltaskmanager.config.JwtConfig;
+import com.hoteltaskmanager.util.TokenDigest;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pamięć podręczna tokenów JWT, których podpis został już zweryfikowany.
+ * <p>
+ * Dashboardy odpytują API co kilka sekund tym samym tokenem, więc ponowne sprawdzanie
+ * podpisu HMAC przy każdym żądaniu jest zbędne. Wpis jest kluczowany skrótem SHA-256
+ * tokenu (sam token nie jest przechowywany) i wygasa razem z tokenem ({@code exp}).
+ * Rozmiar jest ograniczony - po przekroczeniu limitu usuwany jest najdawniej używany wpis.
+ * <p>
+ * Metryki: {@code jwt.token.cache} z tagiem {@code result=hit|miss} oraz {@code jwt.token.cache.size}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /** Maksymalna liczba zapamiętanych tokenów. */
+    static final int MAX_ENTRIES = 10_000;
+
+    private final JwtConfig jwtConfig;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<String, CachedClaims> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public VerifiedTokenCache(JwtConfig jwtConfig, MeterRegistry meterRegistry) {
+        this.jwtConfig = jwtConfig;
+        this.hits = Counter.builder("jwt.token.cache")
+                .tag("result", "hit")
+                .description("Tokeny JWT obsłużone bez ponownej weryfikacji podpisu")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.token.cache")
+                .tag("result", "miss")
+                .description("Tokeny JWT wymagające weryfikacji podpisu")
+                .register(meterRegistry);
+        Gauge.builder("jwt.token.cache.size", this, VerifiedTokenCache::size)
+                .description("Liczba zapamiętanych tokenów JWT")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Zwraca dane tokenu - z pamięci podręcznej albo po pełnej walidacji.
+     *
+     * @param token token JWT
+     * @return informacje zapisane w tokenie
+     * @throws io.jsonwebtoken.JwtException jeśli token jest nieprawidłowy lub wygasł
+     */
+    public Claims verify(String token) {
+        String key = TokenDigest.sha256Hex(token);
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            CachedClaims cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    hits.increment();
+                    return cached.claims();
+                }
+                entries.remove(key);
+            }
+        }
+
+        misses.increment();
+        Claims claims = jwtConfig.validateToken(token);
+
+        // Tokeny bez daty wygaśnięcia nie są zapamiętywane
+        Date expiration = claims.getExpiration();
+        if (expiration != null && expiration.getTime() > now) {
+            synchronized (entries) {
+                entries.put(key, new CachedClaims(claims, expiration.getTime()));
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Liczba wpisów (łącznie z wygasłymi, które nie zostały jeszcze usunięte).
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
+    }
+}
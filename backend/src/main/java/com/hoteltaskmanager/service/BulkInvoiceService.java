@@ -0,0 +1,357 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.BulkInvoiceRequestDTO;
+import com.hoteltaskmanager.dto.BulkInvoiceResultDTO;
+import com.hoteltaskmanager.dto.BulkInvoiceResultDTO.Item;
+import com.hoteltaskmanager.dto.BulkInvoiceResultDTO.Outcome;
+import com.hoteltaskmanager.model.*;
+import com.hoteltaskmanager.repository.ReservationRepository;
+import com.hoteltaskmanager.util.ChangeVersion;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Hurtowe wystawianie faktur (np. na koniec miesiąca).
+ * <p>
+ * Rezerwacje są przetwarzane porcjami po {@link #CHUNK_SIZE}, więc zużycie pamięci i połączeń
+ * nie zależy od ich liczby:
+ * <ul>
+ *     <li>dane porcji są odczytywane jednym zapytaniem JDBC, z pominięciem kontekstu utrwalania,</li>
+ *     <li>pliki PDF są renderowane równolegle przez ograniczoną pulę wątków ({@code invoice.bulk.workers}),
+ *         która nie korzysta z bazy danych,</li>
+ *     <li>faktury i powiązania z rezerwacjami są zapisywane wsadowo (JDBC batch), w jednej transakcji na porcję.</li>
+ * </ul>
+ * Rezerwacja, która w międzyczasie dostała fakturę, jest pomijana (warunek {@code invoice_id IS NULL}),
+ * a utworzona dla niej faktura jest usuwana razem z plikiem (o ile nie korzysta z niego inna faktura).
+ */
+@Service
+public class BulkInvoiceService {
+
+    /** Liczba rezerwacji przetwarzanych w jednej porcji. */
+    static final int CHUNK_SIZE = 100;
+
+    private static final String SELECT_RESERVATIONS = """
+            SELECT r.id, r.start_date, r.end_date, r.invoice_id,
+                   r.guest_first_name, r.guest_last_name, r.guest_pesel, r.guest_phone,
+                   rr.guest_count, rm.room_number, rm.bed_count, rm.price_per_night
+            FROM reservations r
+            LEFT JOIN reservation_rooms rr ON rr.reservation_id = r.id
+            LEFT JOIN rooms rm ON rm.id = rr.room_id
+            WHERE r.id IN (%s)
+            ORDER BY r.id, rr.id
+            """;
+
+    private static final String INSERT_INVOICE = """
+            INSERT INTO invoices (issue_date, pdf_file, content_hash, company_nip, company_name, company_street,
+                                  company_building_no, company_postal_code, company_city, company_country)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String LINK_RESERVATION = """
+            UPDATE reservations SET invoice_id = ?, change_version = ?
+            WHERE id = ? AND invoice_id IS NULL
+            """;
+
+    private static final String DELETE_INVOICE = "DELETE FROM invoices WHERE id = ?";
+
+    private final ReservationRepository reservationRepository;
+    private final InvoiceService invoiceService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportCacheInvalidator reportCacheInvalidator;
+    private final ExecutorService renderers;
+
+    public BulkInvoiceService(ReservationRepository reservationRepository,
+                              InvoiceService invoiceService,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ReportCacheInvalidator reportCacheInvalidator,
+                              @Value("${invoice.bulk.workers:4}") int workerCount) {
+        this.reservationRepository = reservationRepository;
+        this.invoiceService = invoiceService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reportCacheInvalidator = reportCacheInvalidator;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.renderers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "invoice-render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Wystawia faktury dla rezerwacji wskazanych w żądaniu.
+     *
+     * @param request lista ID rezerwacji albo filtr oraz wspólne dane nabywcy
+     * @return liczniki i wynik dla każdej rezerwacji
+     */
+    public BulkInvoiceResultDTO generateInvoices(BulkInvoiceRequestDTO request) {
+        List<Long> reservationIds = resolveReservationIds(request);
+        System.out.println("[INFO] Hurtowe wystawianie faktur dla " + reservationIds.size() + " rezerwacji");
+
+        Map<Long, Item> results = new TreeMap<>();
+        for (int from = 0; from < reservationIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = reservationIds.subList(from, Math.min(from + CHUNK_SIZE, reservationIds.size()));
+            processChunk(chunk, request, results);
+        }
+
+        int created = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (Item item : results.values()) {
+            switch (item.getOutcome()) {
+                case CREATED -> created++;
+                case SKIPPED -> skipped++;
+                case FAILED -> failed++;
+            }
+        }
+
+        System.out.println("[INFO] Wystawiono faktur: " + created + ", pominięto: " + skipped + ", błędy: " + failed);
+        return new BulkInvoiceResultDTO(created, skipped, failed, new ArrayList<>(results.values()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderers.shutdownNow();
+    }
+
+    private List<Long> resolveReservationIds(BulkInvoiceRequestDTO request) {
+        if (request.getReservationIds() != null && !request.getReservationIds().isEmpty()) {
+            return request.getReservationIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        ReservationStatus status = request.getStatus() != null ? request.getStatus() : ReservationStatus.COMPLETED;
+        return reservationRepository.findIdsWithoutInvoice(status, request.getFrom(), request.getTo());
+    }
+
+    private void processChunk(List<Long> reservationIds, BulkInvoiceRequestDTO request, Map<Long, Item> results) {
+        Map<Long, Reservation> reservations = loadReservations(reservationIds);
+
+        Map<Long, Future<Invoice>> rendering = new LinkedHashMap<>();
+        for (Long reservationId : reservationIds) {
+            Reservation reservation = reservations.get(reservationId);
+            if (reservation == null) {
+                results.put(reservationId, new Item(reservationId, Outcome.SKIPPED, null, "Rezerwacja nie istnieje"));
+            } else if (reservation.getInvoice() != null) {
+                results.put(reservationId, new Item(reservationId, Outcome.SKIPPED,
+                        reservation.getInvoice().getId(), "Rezerwacja ma już fakturę"));
+            } else {
+                rendering.put(reservationId, renderers.submit(() -> render(reservation, request)));
+            }
+        }
+
+        List<Long> renderedIds = new ArrayList<>();
+        List<Invoice> rendered = new ArrayList<>();
+        for (Map.Entry<Long, Future<Invoice>> entry : rendering.entrySet()) {
+            try {
+                rendered.add(entry.getValue().get());
+                renderedIds.add(entry.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rendering.values().forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Przerwano hurtowe wystawianie faktur", e);
+            } catch (ExecutionException e) {
+                results.put(entry.getKey(), new Item(entry.getKey(), Outcome.FAILED, null,
+                        "Błąd generowania PDF: " + e.getCause().getMessage()));
+            }
+        }
+
+        if (!rendered.isEmpty()) {
+            persist(renderedIds, rendered, reservations, results);
+        }
+    }
+
+    /**
+     * Odczytuje rezerwacje porcji wraz z pokojami jednym zapytaniem. Zwracane obiekty nie są zarządzane
+     * przez JPA - służą tylko do wygenerowania PDF.
+     */
+    private Map<Long, Reservation> loadReservations(List<Long> reservationIds) {
+        String placeholders = String.join(", ", Collections.nCopies(reservationIds.size(), "?"));
+        Map<Long, Reservation> reservations = new HashMap<>();
+
+        jdbcTemplate.query(SELECT_RESERVATIONS.formatted(placeholders), rs -> {
+            long id = rs.getLong("id");
+            Reservation reservation = reservations.get(id);
+            if (reservation == null) {
+                reservation = new Reservation();
+                reservation.setId(id);
+                reservation.setStartDate(rs.getObject("start_date", LocalDate.class));
+                reservation.setEndDate(rs.getObject("end_date", LocalDate.class));
+                reservation.setGuestFirstName(rs.getString("guest_first_name"));
+                reservation.setGuestLastName(rs.getString("guest_last_name"));
+                reservation.setGuestPesel(rs.getString("guest_pesel"));
+                reservation.setGuestPhone(rs.getString("guest_phone"));
+
+                long invoiceId = rs.getLong("invoice_id");
+                if (!rs.wasNull()) {
+                    Invoice invoice = new Invoice();
+                    invoice.setId(invoiceId);
+                    reservation.setInvoice(invoice);
+                }
+                reservations.put(id, reservation);
+            }
+
+            String roomNumber = rs.getString("room_number");
+            if (roomNumber != null) {
+                Room room = new Room();
+                room.setRoomNumber(roomNumber);
+                room.setBedCount(rs.getInt("bed_count"));
+                room.setPricePerNight(rs.getBigDecimal("price_per_night"));
+
+                ReservationRoom reservationRoom = new ReservationRoom();
+                reservationRoom.setRoom(room);
+                reservationRoom.setGuestCount(rs.getInt("guest_count"));
+                reservation.getReservationRooms().add(reservationRoom);
+            }
+        }, reservationIds.toArray());
+
+        return reservations;
+    }
+
+    private Invoice render(Reservation reservation, BulkInvoiceRequestDTO request) throws Exception {
+        Invoice invoice = new Invoice();
+        invoice.setIssueDate(LocalDate.now());
+        invoice.setCompanyNip(request.getCompanyNip());
+        invoice.setCompanyName(request.getCompanyName());
+        invoice.setCompanyStreet(request.getCompanyStreet());
+        invoice.setCompanyBuildingNo(request.getCompanyBuildingNo());
+        invoice.setCompanyPostalCode(request.getCompanyPostalCode());
+        invoice.setCompanyCity(request.getCompanyCity());
+        invoice.setCompanyCountry(request.getCompanyCountry());
+
+        invoiceService.storePdf(invoice, reservation, reservation.getReservationRooms());
+        return invoice;
+    }
+
+    /**
+     * Zapisuje faktury porcji i przypisuje je rezerwacjom w jednej transakcji.
+     */
+    private void persist(List<Long> reservationIds, List<Invoice> invoices, Map<Long, Reservation> reservations,
+                         Map<Long, Item> results) {
+        Set<Long> alreadyInvoiced = new HashSet<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(
+                        connection -> connection.prepareStatement(INSERT_INVOICE, Statement.RETURN_GENERATED_KEYS),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                Invoice invoice = invoices.get(i);
+                                ps.setDate(1, Date.valueOf(invoice.getIssueDate()));
+                                ps.setString(2, invoice.getPdfFile());
+                                ps.setString(3, invoice.getContentHash());
+                                ps.setString(4, invoice.getCompanyNip());
+                                ps.setString(5, invoice.getCompanyName());
+                                ps.setString(6, invoice.getCompanyStreet());
+                                ps.setString(7, invoice.getCompanyBuildingNo());
+                                ps.setString(8, invoice.getCompanyPostalCode());
+                                ps.setString(9, invoice.getCompanyCity());
+                                ps.setString(10, invoice.getCompanyCountry());
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return invoices.size();
+                            }
+                        },
+                        keyHolder);
+
+                List<Map<String, Object>> keys = keyHolder.getKeyList();
+                if (keys.size() != invoices.size()) {
+                    throw new IllegalStateException("Nie otrzymano identyfikatorów zapisanych faktur");
+                }
+                for (int i = 0; i < invoices.size(); i++) {
+                    invoices.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+                }
+
+                int[] linked = jdbcTemplate.batchUpdate(LINK_RESERVATION, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, invoices.get(i).getId());
+                        ps.setLong(2, ChangeVersion.next());
+                        ps.setLong(3, reservationIds.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return invoices.size();
+                    }
+                });
+
+                // Rezerwacja dostała fakturę po odczycie porcji - nowa faktura jest zbędna
+                List<Object[]> orphaned = new ArrayList<>();
+                for (int i = 0; i < linked.length; i++) {
+                    if (linked[i] == 0) {
+                        alreadyInvoiced.add(reservationIds.get(i));
+                        orphaned.add(new Object[]{invoices.get(i).getId()});
+                    }
+                }
+                if (!orphaned.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_INVOICE, orphaned);
+                }
+            });
+        } catch (RuntimeException e) {
+            System.out.println("[ERROR] Nie udało się zapisać porcji faktur: " + e.getMessage());
+            for (int i = 0; i < invoices.size(); i++) {
+                invoiceService.releasePdfFile(invoices.get(i).getPdfFile());
+                results.put(reservationIds.get(i), new Item(reservationIds.get(i), Outcome.FAILED, null,
+                        "Błąd zapisu faktury: " + e.getMessage()));
+            }
+            return;
+        }
+
+        for (int i = 0; i < invoices.size(); i++) {
+            Long reservationId = reservationIds.get(i);
+            Invoice invoice = invoices.get(i);
+            if (alreadyInvoiced.contains(reservationId)) {
+                invoiceService.releasePdfFile(invoice.getPdfFile());
+                results.put(reservationId, new Item(reservationId, Outcome.SKIPPED, null, "Rezerwacja ma już fakturę"));
+            } else {
+                ensurePdfFile(invoice, reservations.get(reservationId));
+                results.put(reservationId, new Item(reservationId, Outcome.CREATED, invoice.getId(), null));
+            }
+        }
+
+        // Zapis z pominięciem JPA - raporty zależne od faktur i rezerwacji muszą zostać przeliczone
+        if (alreadyInvoiced.size() < invoices.size()) {
+            reportCacheInvalidator.invalidateTables("invoices", "reservations");
+        }
+    }
+
+    /**
+     * Odtwarza plik PDF zapisanej faktury, jeśli współdzielony plik został usunięty przed zapisem porcji.
+     */
+    private void ensurePdfFile(Invoice invoice, Reservation reservation) {
+        try {
+            invoiceService.ensurePdfFile(invoice, reservation, reservation.getReservationRooms());
+        } catch (Exception e) {
+            System.out.println("[ERROR] Nie udało się odtworzyć pliku PDF faktury " + invoice.getId() + ": "
+                    + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.SyncDeltaDTO;
+import com.hoteltaskmanager.model.SyncTombstone;
+import com.hoteltaskmanager.repository.SyncTombstoneRepository;
+import com.hoteltaskmanager.util.ChangeVersion;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Serwis synchronizacji przyrostowej list encji ({@code GET ...?since=<version>}).
+ * <p>
+ * Zadania sprzątania, zgłoszenia serwisowe, rezerwacje i pokoje mają kolumnę {@code change_version}
+ * ustawianą przy każdym zapisie, a usunięcia zostawiają ślad w tabeli {@code sync_tombstones}.
+ * Klient trzyma lokalną kopię listy i pyta tylko o to, co zmieniło się od ostatniej wersji.
+ * <p>
+ * Zwracana wersja jest cofnięta o {@link #SAFETY_WINDOW_MS}, bo transakcja, która nadała
+ * wersję wcześniej, mogła jeszcze nie zostać zatwierdzona w chwili odczytu. Klient może więc
+ * dostać ten sam wiersz dwukrotnie, ale nie przegapi żadnej zmiany.
+ */
+@Service
+public class ChangeSyncService {
+
+    public static final String HOUSEKEEPING_TASK = "HOUSEKEEPING_TASK";
+    public static final String MAINTENANCE_REQUEST = "MAINTENANCE_REQUEST";
+    public static final String RESERVATION = "RESERVATION";
+    public static final String ROOM = "ROOM";
+
+    /** Margines na transakcje zatwierdzane z opóźnieniem. */
+    static final long SAFETY_WINDOW_MS = 5_000L;
+
+    /** Jak długo przechowywane są ślady usunięć; starsze wersje dostają pełną listę. */
+    static final long TOMBSTONE_RETENTION_MS = 30L * 24 * 60 * 60 * 1000;
+
+    private final SyncTombstoneRepository tombstoneRepository;
+
+    public ChangeSyncService(SyncTombstoneRepository tombstoneRepository) {
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    /**
+     * Zapisuje ślad po usuniętej encji.
+     *
+     * @param entityType typ encji (stała z tej klasy)
+     * @param entityId   ID usuniętej encji
+     */
+    public void recordDeletion(String entityType, Long entityId) {
+        if (entityId == null) {
+            return;
+        }
+        tombstoneRepository.save(new SyncTombstone(entityType, entityId, ChangeVersion.next()));
+    }
+
+    /**
+     * Buduje odpowiedź synchronizacji przyrostowej.
+     *
+     * @param entityType   typ encji (stała z tej klasy)
+     * @param since        wersja przekazana przez klienta (0 - pierwsza synchronizacja)
+     * @param all          pobranie pełnej listy
+     * @param changedSince pobranie encji zmienionych po danej wersji
+     * @return zmienione i usunięte encje oraz nowa wersja
+     */
+    public <T> SyncDeltaDTO<T> changesSince(String entityType, long since,
+                                            Supplier<List<T>> all, LongFunction<List<T>> changedSince) {
+        long now = ChangeVersion.current();
+        // Wersja ustalana przed odczytem - zmiany zatwierdzone w trakcie trafią do następnej odpowiedzi
+        long version = Math.max(since, now - SAFETY_WINDOW_MS);
+
+        if (since <= 0 || since < now - TOMBSTONE_RETENTION_MS) {
+            return new SyncDeltaDTO<>(version, true, all.get(), Set.of());
+        }
+
+        List<T> changed = changedSince.apply(since);
+        Set<Long> deleted = tombstoneRepository.findDeletedIdsSince(entityType, since);
+        return new SyncDeltaDTO<>(version, false, changed, deleted);
+    }
+
+    /**
+     * Codziennie o 4:15 usuwa ślady usunięć starsze niż okres przechowywania.
+     */
+    @Scheduled(cron = "0 15 4 * * *")
+    public void purgeTombstones() {
+        int removed = tombstoneRepository.deleteOlderThan(ChangeVersion.current() - TOMBSTONE_RETENTION_MS);
+        System.out.println("[INFO] Usunięto " + removed + " przeterminowanych śladów usunięć.");
+    }
+}
@@ -1,25 +1,26 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.model.MailOutboxMessage;
+import com.hoteltaskmanager.repository.MailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 /**
  * Serwis odpowiedzialny za wysyłanie wiadomości e-mail.
+ * <p>
+ * Wiadomości nie są wysyłane w trakcie żądania HTTP - trafiają do kolejki
+ * wychodzącej ({@link MailOutboxMessage}), którą w tle obsługuje {@link MailOutboxDispatcher}.
  */
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
-
-    @Value("${mail.from}")
-    private String fromAddress;
+    private MailOutboxRepository mailOutboxRepository;
 
     /**
-     * Wysyła e-mail z linkiem do resetowania hasła.
+     * Dodaje do kolejki e-mail z linkiem do resetowania hasła.
      *
      * @param to adres e-mail odbiorcy
      * @param resetToken token do resetowania hasła
@@ -27,25 +28,16 @@ public class EmailService {
     public void sendPasswordResetEmail(String to, String resetToken) {
         String link = "http://localhost:8080/reset-password.html?token=" + resetToken;
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("Resetowanie hasła");
-        message.setText("Kliknij w poniższy link, aby zresetować hasło:\n" + link);
-        message.setFrom(fromAddress);
-
-        message.setTo(to);
-        message.setSubject("Resetowanie hasła do konta");
-        message.setText(
+        String text =
             "Cześć,\n\n" +
             "Otrzymaliśmy prośbę o zresetowanie Twojego hasła. Jeśli to nie Ty, możesz zignorować tę wiadomość.\n\n" +
             "Aby zresetować hasło, kliknij w poniższy link:\n" +
             link + "\n\n" +
             "Link będzie ważny przez 24 godziny.\n\n" +
-            "Pozdrawiamy,\nHotel Task Manager"
-        );
-
-        message.setFrom(fromAddress);
+            "Pozdrawiamy,\nHotel Task Manager";
 
-        mailSender.send(message);
+        // Po wygaśnięciu tokenu wiadomość z linkiem jest usuwana z kolejki
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(PasswordResetTokenService.TOKEN_VALIDITY_HOURS);
+        mailOutboxRepository.save(new MailOutboxMessage(to, "Resetowanie hasła do konta", text, expiresAt));
     }
 }
@@ -0,0 +1,244 @@
+package com.hoteltaskmanager.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Wspólna obsługa wysyłania plików z dysku (raporty, faktury, zdjęcia profilowe).
+ * <p>
+ * Obsługuje:
+ * <ul>
+ *     <li>warunkowe GET - silny {@code ETag} (rozmiar i czas modyfikacji pliku) oraz {@code Last-Modified},
+ *         odpowiedź 304 bez treści, gdy klient ma aktualną kopię,</li>
+ *     <li>żądania zakresu ({@code Range}, {@code If-Range}) - pojedynczy zakres jako 206,
+ *         zakres spoza pliku jako 416; przy kilku zakresach wysyłany jest cały plik,</li>
+ *     <li>przesyłanie bez kopiowania przez pamięć aplikacji - {@code sendfile} Tomcata, gdy konektor
+ *         go obsługuje, w przeciwnym razie {@link FileChannel#transferTo},</li>
+ *     <li>wpisy archiwów ZIP ({@link StoredFile#archived}) - odczyt wprost z archiwum,
+ *         z {@code ETag} z rozmiaru i CRC-32 wpisu.</li>
+ * </ul>
+ * Pliki są zapisywane atomowo pod nową nazwą albo nadpisywane w całości, więc para
+ * (rozmiar, czas modyfikacji) jednoznacznie identyfikuje treść.
+ */
+@Service
+public class FileServingService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Wysyła zapisany plik w odpowiedzi HTTP - zwykły plik albo wpis archiwum ZIP.
+     *
+     * @param file               plik do wysłania
+     * @param mediaType          typ treści
+     * @param contentDisposition wartość nagłówka {@code Content-Disposition} (opcjonalna)
+     * @param request            żądanie HTTP
+     * @param response           odpowiedź HTTP
+     * @throws IOException w przypadku błędu odczytu archiwum lub zapisu odpowiedzi
+     */
+    public void serve(StoredFile file, MediaType mediaType, String contentDisposition,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (file.isArchived()) {
+            serveEntry(file.file(), file.entry(), mediaType, contentDisposition, request, response);
+        } else {
+            serve(file.file(), mediaType, contentDisposition, request, response);
+        }
+    }
+
+    /**
+     * Wysyła plik w odpowiedzi HTTP.
+     *
+     * @param file               plik do wysłania
+     * @param mediaType          typ treści
+     * @param contentDisposition wartość nagłówka {@code Content-Disposition} (opcjonalna)
+     * @param request            żądanie HTTP
+     * @param response           odpowiedź HTTP
+     * @throws IOException w przypadku błędu zapisu odpowiedzi
+     */
+    public void serve(Path file, MediaType mediaType, String contentDisposition,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        long[] range = prepare(length, etag, lastModified, mediaType, contentDisposition, request, response);
+        if (range == null) {
+            return;
+        }
+        long start = range[0];
+        long end = range[1];
+        long count = end - start + 1;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat wyśle plik po zakończeniu obsługi żądania (sendfile jądra)
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long transferred = channel.transferTo(position, count, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                count -= transferred;
+            }
+        }
+    }
+
+    /**
+     * Wysyła wpis archiwum ZIP. Wpis jest odnajdywany przez katalog centralny archiwum i odczytywany
+     * od swojego miejsca w pliku, bez rozpakowywania pozostałych wpisów. Zakres bajtów jest
+     * obsługiwany przez pominięcie początku rozpakowywanej treści.
+     */
+    private void serveEntry(Path bundle, String entryName, MediaType mediaType, String contentDisposition,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Files.isRegularFile(bundle)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        try (ZipFile zip = new ZipFile(bundle.toFile())) {
+            ZipEntry entry = zip.getEntry(entryName);
+            if (entry == null || entry.isDirectory()) {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+
+            // Wpisy archiwum nie zmieniają się - rozmiar i CRC-32 identyfikują treść
+            long length = entry.getSize();
+            long lastModified = entry.getLastModifiedTime().toMillis();
+            String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(entry.getCrc()) + "\"";
+
+            long[] range = prepare(length, etag, lastModified, mediaType, contentDisposition, request, response);
+            if (range == null) {
+                return;
+            }
+
+            try (InputStream in = zip.getInputStream(entry)) {
+                in.skipNBytes(range[0]);
+                OutputStream out = response.getOutputStream();
+                byte[] buffer = new byte[8192];
+                long remaining = range[1] - range[0] + 1;
+                while (remaining > 0) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ustawia nagłówki odpowiedzi i obsługuje żądania warunkowe oraz zakresy.
+     *
+     * @return zakres bajtów do wysłania ({@code [start, end]} włącznie) albo null,
+     *         jeśli odpowiedź jest już kompletna (304, 416, HEAD, pusty plik)
+     */
+    private static long[] prepare(long length, String etag, long lastModified, MediaType mediaType,
+                                  String contentDisposition, HttpServletRequest request,
+                                  HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (contentDisposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        }
+
+        // Ustawia ETag i Last-Modified; przy aktualnej kopii klienta - status 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        response.setContentType(mediaType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && isRangeApplicable(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                if (length == 0 || start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return null;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return null;
+        }
+        return new long[]{start, end};
+    }
+
+    /**
+     * {@code If-Range} - zakres obowiązuje tylko, jeśli plik się nie zmienił.
+     */
+    private static boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return ifRangeDate != -1 && lastModified / 1000 <= ifRangeDate / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
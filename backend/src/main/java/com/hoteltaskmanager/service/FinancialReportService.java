@@ -1,23 +1,71 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.dto.FinancialReportDTO;
+import com.hoteltaskmanager.dto.FinancialReportDTO.FinancialSummary;
+import com.hoteltaskmanager.dto.FinancialReportDTO.InvoiceStatistics;
+import com.hoteltaskmanager.dto.FinancialReportDTO.OccupancyRevenue;
+import com.hoteltaskmanager.dto.FinancialReportDTO.PeriodRevenue;
+import com.hoteltaskmanager.util.ResultSetValues;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 /**
  * Serwis odpowiedzialny za generowanie raportów finansowych na podstawie danych rezerwacji i faktur.
+ * <p>
+ * Wynik jest zapamiętywany dla danych parametrów ({@link ReportCacheConfig}),
+ * a niezależne zapytania są wykonywane równolegle ({@link ReportQueryExecutor}).
  */
 @Service
 public class FinancialReportService {
 
+    static final RowMapper<PeriodRevenue> PERIOD_REVENUE_MAPPER = (rs, rowNum) -> new PeriodRevenue(
+            rs.getString("period"),
+            ResultSetValues.getLong(rs, "reservation_count"),
+            rs.getBigDecimal("total_revenue"));
+
+    static final RowMapper<OccupancyRevenue> OCCUPANCY_REVENUE_MAPPER = (rs, rowNum) -> new OccupancyRevenue(
+            rs.getString("period"),
+            ResultSetValues.getLong(rs, "reservation_count"),
+            ResultSetValues.getLong(rs, "total_nights"),
+            ResultSetValues.getLong(rs, "unique_rooms_used"),
+            rs.getBigDecimal("total_revenue"),
+            rs.getBigDecimal("avg_revenue_per_night"),
+            rs.getBigDecimal("room_usage_percentage"));
+
+    static final RowMapper<InvoiceStatistics> INVOICE_STATISTICS_MAPPER = (rs, rowNum) -> new InvoiceStatistics(
+            ResultSetValues.getLong(rs, "total_invoices"),
+            ResultSetValues.getLong(rs, "total_reservations_with_invoices"),
+            ResultSetValues.getLong(rs, "total_completed_reservations"),
+            rs.getBigDecimal("invoice_coverage_percentage"),
+            ResultSetValues.getLong(rs, "company_invoices"),
+            ResultSetValues.getLong(rs, "individual_invoices"));
+
+    static final RowMapper<FinancialSummary> FINANCIAL_SUMMARY_MAPPER = (rs, rowNum) -> new FinancialSummary(
+            ResultSetValues.getLong(rs, "total_completed_reservations"),
+            ResultSetValues.getLong(rs, "total_nights_sold"),
+            rs.getBigDecimal("total_revenue"),
+            rs.getBigDecimal("highest_room_rate"),
+            rs.getBigDecimal("lowest_room_rate"),
+            rs.getBigDecimal("avg_room_rate"),
+            rs.getBigDecimal("avg_daily_rate"),
+            rs.getBigDecimal("avg_revenue_per_day_of_period"));
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ReportQueryExecutor reportQueryExecutor;
+
     /**
      * Generuje raport finansowy dla określonego okresu (dzień, tydzień, miesiąc, kwartał).
      *
@@ -32,10 +80,12 @@ public class FinancialReportService {
      * @param period    Okres grupowania danych: "day", "week", "month", "quarter"
      * @param startDate Data początkowa zakresu raportu
      * @param endDate   Data końcowa zakresu raportu
-     * @return mapa zawierająca poszczególne sekcje raportu
+     * @return poszczególne sekcje raportu
      */
-    public Map<String, Object> generateFinancialReport(String period, LocalDate startDate, LocalDate endDate) {
-        Map<String, Object> reportData = new HashMap<>();
+    @Cacheable(cacheNames = ReportCacheConfig.FINANCIAL, sync = true)
+    public FinancialReportDTO generateFinancialReport(String period, LocalDate startDate, LocalDate endDate) {
+        FinancialReportDTO report = new FinancialReportDTO();
+        Map<String, Callable<?>> queries = new LinkedHashMap<>();
 
         String groupBy = "";
         String dateFormat = "";
@@ -74,12 +124,11 @@ public class FinancialReportService {
                 MIN(res.start_date) ASC
         """.formatted(dateFormat, groupBy);
 
-        List<Map<String, Object>> revenueByPeriod = jdbcTemplate.queryForList(
+        queries.put("revenueByPeriod", Executors.callable(() -> report.setRevenueByPeriod(jdbcTemplate.query(
                 revenueByPeriodQuery,
+                PERIOD_REVENUE_MAPPER,
                 startDate, endDate
-        );
-
-        reportData.put("revenueByPeriod", revenueByPeriod);
+        ))));
 
         // 2. Korelacja obłożenia z przychodami
         String occupancyRevenueCorrelationQuery = """
@@ -105,12 +154,11 @@ public class FinancialReportService {
                 MIN(res.start_date) ASC
         """.formatted(dateFormat, groupBy);
 
-        List<Map<String, Object>> occupancyRevenueCorrelation = jdbcTemplate.queryForList(
+        queries.put("occupancyRevenueCorrelation", Executors.callable(() -> report.setOccupancyRevenueCorrelation(jdbcTemplate.query(
                 occupancyRevenueCorrelationQuery,
+                OCCUPANCY_REVENUE_MAPPER,
                 startDate, endDate
-        );
-
-        reportData.put("occupancyRevenueCorrelation", occupancyRevenueCorrelation);
+        ))));
 
         // 3. Statystyki generowania faktur
         String invoiceStatisticsQuery = """
@@ -128,12 +176,11 @@ public class FinancialReportService {
                 i.issue_date BETWEEN ? AND ?
         """;
 
-        Map<String, Object> invoiceStatistics = jdbcTemplate.queryForMap(
+        queries.put("invoiceStatistics", Executors.callable(() -> report.setInvoiceStatistics(jdbcTemplate.queryForObject(
                 invoiceStatisticsQuery,
+                INVOICE_STATISTICS_MAPPER,
                 startDate, endDate, startDate, endDate, startDate, endDate
-        );
-
-        reportData.put("invoiceStatistics", invoiceStatistics);
+        ))));
 
         // 4. Ogólne podsumowanie finansowe
         String financialSummaryQuery = """
@@ -157,13 +204,15 @@ public class FinancialReportService {
                 AND res.start_date BETWEEN ? AND ?
         """;
 
-        Map<String, Object> financialSummary = jdbcTemplate.queryForMap(
+        queries.put("financialSummary", Executors.callable(() -> report.setFinancialSummary(jdbcTemplate.queryForObject(
                 financialSummaryQuery,
+                FINANCIAL_SUMMARY_MAPPER,
                 endDate, startDate, startDate, endDate
-        );
+        ))));
 
-        reportData.put("financialSummary", financialSummary);
+        // Zadania wypełniają sekcje raportu - all() wraca po zakończeniu wszystkich
+        reportQueryExecutor.all(queries);
 
-        return reportData;
+        return report;
     }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.util.ChangeVersion;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
@@ -18,6 +21,8 @@ import java.util.List;
 public class HousekeepingAssignmentService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final TaskEventService taskEventService;
+    private final ReportCacheInvalidator reportCacheInvalidator;
 
     /**
      * Zaplanowane zadanie uruchamiane codziennie o ustalonej godzinie.
@@ -71,14 +76,23 @@ public class HousekeepingAssignmentService {
 
         for (Long roomId : roomIds) {
             String insertQuery = """
-                        INSERT INTO housekeeping_tasks (employee_id, room_id, request_date, status, description)
-                        VALUES (null, ?, NOW(), 'PENDING', 'Codzienne sprzątanie');
+                        INSERT INTO housekeeping_tasks (employee_id, room_id, request_date, status, description, change_version)
+                        VALUES (null, ?, NOW(), 'PENDING', 'Codzienne sprzątanie', ?);
                     """;
 
-            jdbcTemplate.update(insertQuery, roomId);
+            jdbcTemplate.update(insertQuery, roomId, ChangeVersion.next());
             System.out.println("[INSERT] Dodano zadanie sprzątania dla pokoju ID: " + roomId);
         }
 
+        // Zadania dodane z pominięciem JPA - po zatwierdzeniu transakcji klienci pulpitów pobiorą listę ponownie
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                taskEventService.publishResync(TaskEventService.HOUSEKEEPING_TASK);
+                reportCacheInvalidator.invalidateTables("housekeeping_tasks");
+            }
+        });
+
         System.out.println("[INFO] Zakończono przydzielanie zadań.");
     }
 
@@ -1,24 +1,62 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.DeclinedTask;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.DeclinedTasksAnalysis;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.EmployeeEfficiency;
+import com.hoteltaskmanager.util.ResultSetValues;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 /**
  * Serwis odpowiedzialny za generowanie raportów efektywności zespołu sprzątającego.
  * Raport analizuje wykonanie zadań porządkowych przez pracowników w wybranym zakresie dat.
+ * <p>
+ * Wynik jest zapamiętywany dla danych parametrów ({@link ReportCacheConfig}),
+ * a niezależne zapytania są wykonywane równolegle ({@link ReportQueryExecutor}).
  */
 @Service
 public class HousekeepingEfficiencyReportService {
 
+    static final RowMapper<EmployeeEfficiency> EMPLOYEE_EFFICIENCY_MAPPER = (rs, rowNum) -> new EmployeeEfficiency(
+            ResultSetValues.getLong(rs, "employee_id"),
+            rs.getString("employee_name"),
+            ResultSetValues.getLong(rs, "total_assigned"),
+            ResultSetValues.getLong(rs, "completed"),
+            ResultSetValues.getLong(rs, "pending"),
+            ResultSetValues.getLong(rs, "in_progress"),
+            ResultSetValues.getLong(rs, "declined"),
+            rs.getBigDecimal("completion_rate"),
+            rs.getBigDecimal("avg_completion_time_minutes"));
+
+    static final RowMapper<DeclinedTask> DECLINED_TASK_MAPPER = (rs, rowNum) -> new DeclinedTask(
+            ResultSetValues.getLong(rs, "task_id"),
+            rs.getString("room_number"),
+            rs.getString("description"),
+            rs.getObject("request_date", LocalDateTime.class),
+            rs.getString("employee_name"));
+
+    static final RowMapper<DeclinedTasksAnalysis> DECLINED_TASKS_ANALYSIS_MAPPER = (rs, rowNum) -> new DeclinedTasksAnalysis(
+            ResultSetValues.getLong(rs, "total_declined"),
+            rs.getBigDecimal("decline_percentage"));
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ReportQueryExecutor reportQueryExecutor;
+
     /**
      * Generuje raport efektywności zespołu sprzątającego w wybranym przedziale dat.
      *
@@ -31,10 +69,12 @@ public class HousekeepingEfficiencyReportService {
      *
      * @param startDate data początkowa analizowanego okresu
      * @param endDate   data końcowa analizowanego okresu
-     * @return mapa zawierająca sekcje raportu efektywności
+     * @return sekcje raportu efektywności
      */
-    public Map<String, Object> generateHousekeepingEfficiencyReport(LocalDate startDate, LocalDate endDate) {
-        Map<String, Object> reportData = new HashMap<>();
+    @Cacheable(cacheNames = ReportCacheConfig.HOUSEKEEPING_EFFICIENCY, sync = true)
+    public HousekeepingEfficiencyReportDTO generateHousekeepingEfficiencyReport(LocalDate startDate, LocalDate endDate) {
+        HousekeepingEfficiencyReportDTO report = new HousekeepingEfficiencyReportDTO();
+        Map<String, Callable<?>> queries = new LinkedHashMap<>();
 
         // 1. Wskaźniki realizacji zadań według pracownika
         String taskCompletionRateQuery = """
@@ -59,12 +99,11 @@ public class HousekeepingEfficiencyReportService {
                 completion_rate DESC
         """;
 
-        List<Map<String, Object>> taskCompletionRate = jdbcTemplate.queryForList(
+        queries.put("taskCompletionRate", Executors.callable(() -> report.setTaskCompletionRate(jdbcTemplate.query(
                 taskCompletionRateQuery,
+                EMPLOYEE_EFFICIENCY_MAPPER,
                 startDate, endDate
-        );
-
-        reportData.put("taskCompletionRate", taskCompletionRate);
+        ))));
 
         // 2. Analiza odrzuconych zadań
         String declinedTasksQuery = """
@@ -85,12 +124,11 @@ public class HousekeepingEfficiencyReportService {
                 h.request_date DESC
         """;
 
-        List<Map<String, Object>> declinedTasks = jdbcTemplate.queryForList(
+        queries.put("declinedTasks", Executors.callable(() -> report.setDeclinedTasks(jdbcTemplate.query(
                 declinedTasksQuery,
+                DECLINED_TASK_MAPPER,
                 startDate, endDate
-        );
-
-        reportData.put("declinedTasks", declinedTasks);
+        ))));
 
         String declinedTasksAnalysisQuery = """
             SELECT 
@@ -104,13 +142,15 @@ public class HousekeepingEfficiencyReportService {
                 AND request_date BETWEEN ? AND ?
         """;
 
-        Map<String, Object> declinedTasksAnalysis = jdbcTemplate.queryForMap(
+        queries.put("declinedTasksAnalysis", Executors.callable(() -> report.setDeclinedTasksAnalysis(jdbcTemplate.queryForObject(
                 declinedTasksAnalysisQuery,
+                DECLINED_TASKS_ANALYSIS_MAPPER,
                 startDate, endDate, startDate, endDate
-        );
+        ))));
 
-        reportData.put("declinedTasksAnalysis", declinedTasksAnalysis);
+        // Zadania wypełniają sekcje raportu - all() wraca po zakończeniu wszystkich
+        reportQueryExecutor.all(queries);
 
-        return reportData;
+        return report;
     }
 }
\ No newline at end of file
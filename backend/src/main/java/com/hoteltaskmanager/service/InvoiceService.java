@@ -6,40 +6,64 @@ import com.hoteltaskmanager.model.ReservationRoom;
 import com.hoteltaskmanager.model.Room;
 import com.hoteltaskmanager.repository.InvoiceRepository;
 import com.hoteltaskmanager.repository.ReservationRepository;
+import com.hoteltaskmanager.util.PdfFontRegistry;
+import com.hoteltaskmanager.util.TokenDigest;
 import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.BaseFont;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.StringJoiner;
 
 /**
  * Serwis odpowiedzialny za generowanie i zarządzanie fakturami.
+ * <p>
+ * Pliki PDF są adresowane treścią - nazwa pliku to skrót danych drukowanych na fakturze,
+ * więc identyczny dokument jest generowany i zapisywany tylko raz.
+ * <p>
+ * Wspólny plik jest usuwany, gdy nie wskazuje na niego żadna faktura ({@link #releasePdfFile}). Nowa
+ * faktura może jednak zastać plik tuż przed jego usunięciem, dlatego po zapisaniu wiersza plik jest
+ * sprawdzany ponownie ({@link #ensurePdfFile}). Oba kroki wykonują się pod blokadą pliku, więc plik
+ * albo nie zostanie usunięty, bo wiersz już go używa, albo zostanie odtworzony.
  */
 @Service
 public class InvoiceService {
 
+    /** Katalog plików PDF faktur. */
+    static final String INVOICES_DIR = "invoices";
+
+    /** Wersja układu faktury - zmiana szablonu PDF wymaga jej podniesienia, aby pliki powstały ponownie. */
+    private static final String LAYOUT_VERSION = "1";
+
+    /** Liczba blokad plików PDF - plik trafia do blokady wyznaczonej przez skrót jego ścieżki. */
+    private static final int FILE_LOCK_STRIPES = 64;
+
     private final InvoiceRepository invoiceRepository;
     private final ReservationRepository reservationRepository;
+    private final PdfFontRegistry fontRegistry;
+    private final Object[] fileLocks = new Object[FILE_LOCK_STRIPES];
 
-    public InvoiceService(InvoiceRepository invoiceRepository, ReservationRepository reservationRepository) {
+    public InvoiceService(InvoiceRepository invoiceRepository, ReservationRepository reservationRepository,
+                          PdfFontRegistry fontRegistry) {
         this.invoiceRepository = invoiceRepository;
         this.reservationRepository = reservationRepository;
+        this.fontRegistry = fontRegistry;
+        for (int i = 0; i < fileLocks.length; i++) {
+            fileLocks[i] = new Object();
+        }
     }
 
     /**
@@ -68,14 +92,9 @@ public class InvoiceService {
         invoice.setCompanyCity(companyCity);
         invoice.setCompanyCountry(companyCountry);
 
-        String fileName = "invoice-" + UUID.randomUUID() + ".pdf";
-        String pdfPath = "invoices/" + fileName;
-
-        List<ReservationRoom> reservationRooms = reservation.getReservationRooms();
-        generatePdfFile(invoice, reservation, reservationRooms, pdfPath);
-
-        invoice.setPdfFile(pdfPath);
+        storePdf(invoice, reservation, reservation.getReservationRooms());
         invoice = invoiceRepository.save(invoice);
+        ensurePdfFile(invoice, reservation, reservation.getReservationRooms());
 
         reservation.setInvoice(invoice);
         reservationRepository.save(reservation);
@@ -84,121 +103,204 @@ public class InvoiceService {
     }
 
     /**
-     * Tworzy plik PDF z fakturą na dysku.
+     * Zapisuje PDF faktury pod nazwą wyznaczoną przez skrót danych dokumentu ({@link #contentHash})
+     * i ustawia {@code contentHash} oraz {@code pdfFile} faktury (plik leży w katalogu faktur,
+     * więc faktura przestaje wskazywać na archiwum).
+     * <p>
+     * Identyczne dokumenty są zapisywane raz - jeśli plik o danym skrócie już istnieje, PDF nie jest
+     * generowany ponownie. Nowy plik powstaje pod nazwą tymczasową i jest przenoszony atomowo,
+     * więc nigdy nie jest widoczny w połowie zapisu. Metoda nie korzysta z bazy danych, więc może być
+     * wywoływana równolegle - także przez {@link BulkInvoiceService}.
      */
-    private void generatePdfFile(Invoice invoice, Reservation reservation, List<ReservationRoom> reservationRooms, String filePath) throws Exception {
-        Files.createDirectories(Paths.get("invoices"));
+    void storePdf(Invoice invoice, Reservation reservation, List<ReservationRoom> reservationRooms) throws Exception {
+        String hash = contentHash(invoice, reservation, reservationRooms);
+        Path target = Paths.get(INVOICES_DIR, "invoice-" + hash + ".pdf");
+
+        invoice.setContentHash(hash);
+        invoice.setPdfFile(INVOICES_DIR + "/" + target.getFileName());
+        invoice.setArchiveFile(null);
 
-        // 1. Wczytanie czcionki z resources
-        try (InputStream fontStream = getClass().getClassLoader().getResourceAsStream("fonts/LexendPeta-VariableFont_wght.ttf")) {
-            if (fontStream == null) {
-                throw new FileNotFoundException("Nie znaleziono czcionki: LexendPeta-VariableFont_wght.ttf");
+        if (Files.exists(target)) {
+            return;
+        }
+        writePdf(invoice, reservation, reservationRooms, target);
+    }
+
+    /**
+     * Sprawdza po zapisaniu wiersza faktury, czy jej plik PDF nadal istnieje, i w razie potrzeby
+     * generuje go ponownie. Plik zastany przez {@link #storePdf} mógł zostać usunięty przez
+     * {@link #releasePdfFile}, zanim wiersz nowej faktury trafił do bazy.
+     */
+    void ensurePdfFile(Invoice invoice, Reservation reservation, List<ReservationRoom> reservationRooms) throws Exception {
+        String pdfFile = invoice.getPdfFile();
+        synchronized (lockFor(pdfFile)) {
+            Path target = Paths.get(pdfFile);
+            if (!Files.exists(target)) {
+                writePdf(invoice, reservation, reservationRooms, target);
             }
+        }
+    }
+
+    /**
+     * Generuje PDF pod nazwą tymczasową i przenosi go atomowo pod docelową nazwę.
+     */
+    private void writePdf(Invoice invoice, Reservation reservation, List<ReservationRoom> reservationRooms,
+                          Path target) throws Exception {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "invoice-", ".tmp");
+        try {
+            generatePdfFile(invoice, reservation, reservationRooms, temp.toString());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 
-            byte[] fontBytes = fontStream.readAllBytes();
-            BaseFont baseFont = BaseFont.createFont("LexendPeta.ttf", BaseFont.IDENTITY_H, BaseFont.EMBEDDED, BaseFont.CACHED, fontBytes, null);
-            Font normalFont = new Font(baseFont, 12);
-            Font boldFont = new Font(baseFont, 12, Font.BOLD);
-            Font titleFont = new Font(baseFont, 18, Font.BOLD);
-
-            // 2. Tworzenie dokumentu PDF
-            Document document = new Document();
-            PdfWriter.getInstance(document, new FileOutputStream(filePath));
-            document.open();
-
-            Paragraph title = new Paragraph("FAKTURA", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            document.add(title);
-            document.add(new Paragraph("\n"));
-
-            PdfPTable parties = new PdfPTable(2);
-            parties.setWidthPercentage(100);
-            parties.setSpacingBefore(10f);
-
-            PdfPCell cell1 = new PdfPCell();
-            cell1.setBorder(Rectangle.NO_BORDER);
-            cell1.addElement(new Paragraph("Sprzedawca:", boldFont));
-            cell1.addElement(new Paragraph("Hotel Example Sp. z o.o.", normalFont));
-            cell1.addElement(new Paragraph("ul. Rejtana 12", normalFont));
-            cell1.addElement(new Paragraph("31-555 Rzeszów", normalFont));
-            cell1.addElement(new Paragraph("NIP: 123-456-78-90", normalFont));
-
-            PdfPCell cell2 = new PdfPCell();
-            cell2.setBorder(Rectangle.NO_BORDER);
-            cell2.addElement(new Paragraph("Nabywca:", boldFont));
+    /**
+     * Skrót SHA-256 wszystkich danych drukowanych na fakturze: data wystawienia, nabywca, gość,
+     * daty pobytu oraz pokoje (numer, liczba łóżek, cena, liczba osób). Pokoje są sortowane po numerze,
+     * a ceny zapisywane bez końcowych zer, więc równoważne dane dają ten sam skrót.
+     */
+    static String contentHash(Invoice invoice, Reservation reservation, List<ReservationRoom> reservationRooms) {
+        StringJoiner canonical = new StringJoiner("\u001F")
+                .add(LAYOUT_VERSION)
+                .add(String.valueOf(invoice.getIssueDate()))
+                .add(String.valueOf(invoice.getCompanyNip()))
+                .add(String.valueOf(invoice.getCompanyName()))
+                .add(String.valueOf(invoice.getCompanyStreet()))
+                .add(String.valueOf(invoice.getCompanyBuildingNo()))
+                .add(String.valueOf(invoice.getCompanyPostalCode()))
+                .add(String.valueOf(invoice.getCompanyCity()))
+                .add(String.valueOf(invoice.getCompanyCountry()))
+                .add(String.valueOf(reservation.getGuestFirstName()))
+                .add(String.valueOf(reservation.getGuestLastName()))
+                .add(String.valueOf(reservation.getGuestPesel()))
+                .add(String.valueOf(reservation.getGuestPhone()))
+                .add(String.valueOf(reservation.getStartDate()))
+                .add(String.valueOf(reservation.getEndDate()));
+
+        reservationRooms.stream()
+                .sorted(Comparator.comparing(rr -> rr.getRoom().getRoomNumber()))
+                .forEach(rr -> canonical
+                        .add(rr.getRoom().getRoomNumber())
+                        .add(String.valueOf(rr.getRoom().getBedCount()))
+                        .add(rr.getRoom().getPricePerNight().stripTrailingZeros().toPlainString())
+                        .add(String.valueOf(rr.getGuestCount())));
+
+        return TokenDigest.sha256Hex(canonical.toString());
+    }
+
+    /**
+     * Tworzy plik PDF z fakturą na dysku.
+     */
+    private void generatePdfFile(Invoice invoice, Reservation reservation, List<ReservationRoom> reservationRooms, String filePath) throws Exception {
+        // 1. Czcionki z rejestru (plik TTF parsowany raz na proces)
+        Font normalFont = fontRegistry.getFont(PdfFontRegistry.LEXEND_PETA, 12, Font.NORMAL);
+        Font boldFont = fontRegistry.getFont(PdfFontRegistry.LEXEND_PETA, 12, Font.BOLD);
+        Font titleFont = fontRegistry.getFont(PdfFontRegistry.LEXEND_PETA, 18, Font.BOLD);
+
+        // 2. Tworzenie dokumentu PDF
+        Document document = new Document();
+        PdfWriter.getInstance(document, new FileOutputStream(filePath));
+        document.open();
+
+        Paragraph title = new Paragraph("FAKTURA", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+        document.add(new Paragraph("\n"));
+
+        PdfPTable parties = new PdfPTable(2);
+        parties.setWidthPercentage(100);
+        parties.setSpacingBefore(10f);
+
+        PdfPCell cell1 = new PdfPCell();
+        cell1.setBorder(Rectangle.NO_BORDER);
+        cell1.addElement(new Paragraph("Sprzedawca:", boldFont));
+        cell1.addElement(new Paragraph("Hotel Example Sp. z o.o.", normalFont));
+        cell1.addElement(new Paragraph("ul. Rejtana 12", normalFont));
+        cell1.addElement(new Paragraph("31-555 Rzeszów", normalFont));
+        cell1.addElement(new Paragraph("NIP: 123-456-78-90", normalFont));
+
+        PdfPCell cell2 = new PdfPCell();
+        cell2.setBorder(Rectangle.NO_BORDER);
+        cell2.addElement(new Paragraph("Nabywca:", boldFont));
+        if (invoice.getCompanyName() != null) {
             cell2.addElement(new Paragraph(invoice.getCompanyName(), normalFont));
             cell2.addElement(new Paragraph(invoice.getCompanyStreet() + " " + invoice.getCompanyBuildingNo(), normalFont));
             cell2.addElement(new Paragraph(invoice.getCompanyPostalCode() + " " + invoice.getCompanyCity(), normalFont));
             cell2.addElement(new Paragraph(invoice.getCompanyCountry(), normalFont));
             cell2.addElement(new Paragraph("NIP: " + invoice.getCompanyNip(), normalFont));
+        } else {
+            // Faktura bez danych firmy (np. wystawiona hurtowo) - nabywcą jest gość
+            cell2.addElement(new Paragraph(reservation.getGuestFirstName() + " " + reservation.getGuestLastName(), normalFont));
+        }
 
-            parties.addCell(cell1);
-            parties.addCell(cell2);
-            document.add(parties);
-
-            document.add(new Paragraph("\nData wystawienia: " + invoice.getIssueDate(), normalFont));
-            document.add(new Paragraph("Gość: " + reservation.getGuestFirstName() + " " + reservation.getGuestLastName(), normalFont));
-            document.add(new Paragraph("PESEL: " + reservation.getGuestPesel(), normalFont));
-            document.add(new Paragraph("Telefon: " + reservation.getGuestPhone(), normalFont));
-            document.add(new Paragraph("\n"));
-
-            PdfPTable table = new PdfPTable(7);
-            table.setWidthPercentage(100);
-            table.setWidths(new int[]{2, 1, 1, 2, 2, 2, 2});
-
-            table.addCell(new PdfPCell(new Phrase("Pokój", boldFont)));
-            table.addCell(new PdfPCell(new Phrase("Dni", boldFont)));
-            table.addCell(new PdfPCell(new Phrase("Osoby", boldFont)));
-            table.addCell(new PdfPCell(new Phrase("Cena za dzień", boldFont)));
-            table.addCell(new PdfPCell(new Phrase("Netto", boldFont)));
-            table.addCell(new PdfPCell(new Phrase("VAT 8%", boldFont)));
-            table.addCell(new PdfPCell(new Phrase("Brutto", boldFont)));
-
-            long days = ChronoUnit.DAYS.between(reservation.getStartDate(), reservation.getEndDate());
-
-            double totalBrutto = 0;
-            double totalNetto = 0;
-            double totalVat = 0;
-
-            for (ReservationRoom rr : reservationRooms) {
-                Room room = rr.getRoom();
-                int guests = rr.getGuestCount();
-                BigDecimal pricePerNight = room.getPricePerNight();
-
-                int maxGuests = room.getBedCount();
-                BigDecimal pricePerGuest = pricePerNight.divide(BigDecimal.valueOf(maxGuests), 2, RoundingMode.HALF_UP);
-                BigDecimal brutto = pricePerGuest.multiply(BigDecimal.valueOf(guests)).multiply(BigDecimal.valueOf(days));
-                BigDecimal netto = brutto.divide(BigDecimal.valueOf(1.08), 2, RoundingMode.HALF_UP);
-                BigDecimal vat = brutto.subtract(netto);
-
-                table.addCell(new PdfPCell(new Phrase("Pokój " + room.getRoomNumber(), normalFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(days), normalFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(guests), normalFont)));
-                table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", pricePerGuest), normalFont)));
-                table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", netto), normalFont)));
-                table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", vat), normalFont)));
-                table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", brutto), normalFont)));
-
-                totalNetto += netto.doubleValue();
-                totalVat += vat.doubleValue();
-                totalBrutto += brutto.doubleValue();
-            }
+        parties.addCell(cell1);
+        parties.addCell(cell2);
+        document.add(parties);
+
+        document.add(new Paragraph("\nData wystawienia: " + invoice.getIssueDate(), normalFont));
+        document.add(new Paragraph("Gość: " + reservation.getGuestFirstName() + " " + reservation.getGuestLastName(), normalFont));
+        document.add(new Paragraph("PESEL: " + reservation.getGuestPesel(), normalFont));
+        document.add(new Paragraph("Telefon: " + reservation.getGuestPhone(), normalFont));
+        document.add(new Paragraph("\n"));
+
+        PdfPTable table = new PdfPTable(7);
+        table.setWidthPercentage(100);
+        table.setWidths(new int[]{2, 1, 1, 2, 2, 2, 2});
+
+        table.addCell(new PdfPCell(new Phrase("Pokój", boldFont)));
+        table.addCell(new PdfPCell(new Phrase("Dni", boldFont)));
+        table.addCell(new PdfPCell(new Phrase("Osoby", boldFont)));
+        table.addCell(new PdfPCell(new Phrase("Cena za dzień", boldFont)));
+        table.addCell(new PdfPCell(new Phrase("Netto", boldFont)));
+        table.addCell(new PdfPCell(new Phrase("VAT 8%", boldFont)));
+        table.addCell(new PdfPCell(new Phrase("Brutto", boldFont)));
+
+        long days = ChronoUnit.DAYS.between(reservation.getStartDate(), reservation.getEndDate());
+
+        double totalBrutto = 0;
+        double totalNetto = 0;
+        double totalVat = 0;
+
+        for (ReservationRoom rr : reservationRooms) {
+            Room room = rr.getRoom();
+            int guests = rr.getGuestCount();
+            BigDecimal pricePerNight = room.getPricePerNight();
+
+            int maxGuests = room.getBedCount();
+            BigDecimal pricePerGuest = pricePerNight.divide(BigDecimal.valueOf(maxGuests), 2, RoundingMode.HALF_UP);
+            BigDecimal brutto = pricePerGuest.multiply(BigDecimal.valueOf(guests)).multiply(BigDecimal.valueOf(days));
+            BigDecimal netto = brutto.divide(BigDecimal.valueOf(1.08), 2, RoundingMode.HALF_UP);
+            BigDecimal vat = brutto.subtract(netto);
+
+            table.addCell(new PdfPCell(new Phrase("Pokój " + room.getRoomNumber(), normalFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(days), normalFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(guests), normalFont)));
+            table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", pricePerGuest), normalFont)));
+            table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", netto), normalFont)));
+            table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", vat), normalFont)));
+            table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", brutto), normalFont)));
+
+            totalNetto += netto.doubleValue();
+            totalVat += vat.doubleValue();
+            totalBrutto += brutto.doubleValue();
+        }
 
-            PdfPCell sumLabel = new PdfPCell(new Phrase("Razem", boldFont));
-            sumLabel.setColspan(4);
-            sumLabel.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            table.addCell(sumLabel);
-            table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", totalNetto), boldFont)));
-            table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", totalVat), boldFont)));
-            table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", totalBrutto), boldFont)));
+        PdfPCell sumLabel = new PdfPCell(new Phrase("Razem", boldFont));
+        sumLabel.setColspan(4);
+        sumLabel.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(sumLabel);
+        table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", totalNetto), boldFont)));
+        table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", totalVat), boldFont)));
+        table.addCell(new PdfPCell(new Phrase(String.format("%.2f zł", totalBrutto), boldFont)));
 
-            document.add(table);
+        document.add(table);
 
-            document.add(new Paragraph("\nForma płatności: Gotówka", normalFont));
-            document.add(new Paragraph("Dziękujemy za skorzystanie z naszych usług!", normalFont));
+        document.add(new Paragraph("\nForma płatności: Gotówka", normalFont));
+        document.add(new Paragraph("Dziękujemy za skorzystanie z naszych usług!", normalFont));
 
-            document.close();
-        }
+        document.close();
     }
     
     /**
@@ -224,25 +326,18 @@ public class InvoiceService {
     }
 
     /**
-     * Zwraca zawartość pliku PDF jako zasób (Resource).
+     * Zwraca położenie pliku PDF faktury - plik w katalogu faktur albo wpis archiwum ZIP
+     * ({@link RetentionService}). Plik jest wysyłany bezpośrednio z dysku.
+     *
+     * @return plik faktury lub pusty wynik, jeśli faktura nie istnieje
      */
-    public Resource getInvoicePdf(Long id) {
-        Optional<Invoice> invoiceOpt = invoiceRepository.findById(id);
-        if (invoiceOpt.isEmpty()) return null;
-
-        Invoice invoice = invoiceOpt.get();
-        try {
-            byte[] fileContent = Files.readAllBytes(Paths.get(invoice.getPdfFile()));
-            return new ByteArrayResource(fileContent) {
-                @Override
-                public String getFilename() {
-                    return Paths.get(invoice.getPdfFile()).getFileName().toString();
-                }
-            };
-        } catch (Exception e) {
-            System.err.println("Nie udało się odczytać pliku PDF: " + e.getMessage());
-            return null;
-        }
+    public Optional<StoredFile> getInvoicePdf(Long id) {
+        return invoiceRepository.findById(id)
+                .filter(invoice -> invoice.getPdfFile() != null)
+                .map(invoice -> invoice.getArchiveFile() != null
+                        ? StoredFile.archived(Paths.get(invoice.getArchiveFile()),
+                                Paths.get(invoice.getPdfFile()).getFileName().toString())
+                        : StoredFile.of(Paths.get(invoice.getPdfFile())));
     }
 
     /**
@@ -253,20 +348,21 @@ public class InvoiceService {
         if (invoiceOpt.isEmpty()) return false;
 
         Invoice invoice = invoiceOpt.get();
-        deletePdfFile(invoice.getPdfFile());
-
         invoiceRepository.deleteById(id);
+
+        releasePdfFile(invoice.getPdfFile());
         return true;
     }
 
     /**
-     * Aktualizuje dane istniejącej faktury i generuje nowy plik PDF.
+     * Aktualizuje dane istniejącej faktury. Nowy plik PDF jest generowany tylko wtedy, gdy zmieniły się
+     * dane drukowane na fakturze (inny skrót treści), a poprzedni plik jest usuwany, jeśli nie korzysta
+     * z niego żadna inna faktura.
      */
     public Optional<Invoice> updateInvoice(Long id, Long reservationId, Invoice updatedInvoice) {
         return invoiceRepository.findById(id).map(existingInvoice -> {
 
-            // Usuń stary plik faktury
-            deletePdfFile(existingInvoice.getPdfFile());
+            String previousPdfFile = existingInvoice.getPdfFile();
 
             // Aktualizacja danych faktury
             existingInvoice.setIssueDate(updatedInvoice.getIssueDate());
@@ -282,23 +378,47 @@ public class InvoiceService {
             Reservation reservation = reservationRepository.findById(reservationId)
                     .orElseThrow(() -> new IllegalArgumentException("Rezerwacja nie istnieje"));
 
-            // Wygeneruj nowy PDF
-            String newFileName = "invoice-" + UUID.randomUUID() + ".pdf";
-            String newPdfPath = "invoices/" + newFileName;
-
+            // PDF jest generowany tylko dla nowej treści (plik o tym skrócie jeszcze nie istnieje)
             try {
-                List<ReservationRoom> reservationRooms = reservation.getReservationRooms();
-                generatePdfFile(existingInvoice, reservation, reservationRooms, newPdfPath);
+                storePdf(existingInvoice, reservation, reservation.getReservationRooms());
             } catch (Exception e) {
                 throw new RuntimeException("Błąd podczas generowania nowego pliku PDF", e);
             }
 
-            existingInvoice.setPdfFile(newPdfPath);
+            Invoice saved = invoiceRepository.save(existingInvoice);
+            try {
+                ensurePdfFile(saved, reservation, reservation.getReservationRooms());
+            } catch (Exception e) {
+                throw new RuntimeException("Błąd podczas generowania nowego pliku PDF", e);
+            }
 
-            return invoiceRepository.save(existingInvoice);
+            if (previousPdfFile != null && !previousPdfFile.equals(saved.getPdfFile())) {
+                releasePdfFile(previousPdfFile);
+            }
+            return saved;
         });
     }
 
+    /**
+     * Usuwa plik PDF, jeśli nie korzysta z niego żadna niezarchiwizowana faktura (pliki są współdzielone
+     * przez faktury o identycznej treści). Sprawdzenie i usunięcie wykonywane są pod blokadą pliku,
+     * tak jak {@link #ensurePdfFile}.
+     */
+    void releasePdfFile(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        synchronized (lockFor(filePath)) {
+            if (!invoiceRepository.existsByPdfFileAndArchiveFileIsNull(filePath)) {
+                deletePdfFile(filePath);
+            }
+        }
+    }
+
+    private Object lockFor(String filePath) {
+        return fileLocks[Math.floorMod(filePath.hashCode(), fileLocks.length)];
+    }
+
     /**
      * Usuwa plik PDF faktury z dysku, jeśli istnieje.
      */
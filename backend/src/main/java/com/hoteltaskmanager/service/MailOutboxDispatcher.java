@@ -0,0 +1,197 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.MailOutboxMessage;
+import com.hoteltaskmanager.model.MailOutboxStatus;
+import com.hoteltaskmanager.repository.MailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wysyłka wiadomości z kolejki wychodzącej ({@code mail_outbox}).
+ * <p>
+ * Co kilka sekund pobierana jest paczka wiadomości gotowych do wysłania, która trafia do
+ * {@link JavaMailSender#send(SimpleMailMessage...)} jednym wywołaniem - cała paczka idzie
+ * przez jedno połączenie SMTP. Wiadomości odrzucone przez serwer (lub cała paczka, gdy
+ * połączenie się nie uda) są ponawiane z wykładniczo rosnącym odstępem, a po
+ * {@link #MAX_ATTEMPTS} próbach oznaczane jako {@code FAILED}.
+ * <p>
+ * Treść wiadomości może zawierać dane poufne (np. link z tokenem resetu hasła), dlatego
+ * jest czyszczona, gdy wiadomość zostanie wysłana lub oznaczona jako {@code FAILED},
+ * a wiadomości po terminie ważności są usuwane co godzinę.
+ * <p>
+ * Wysyłka działa w jednym wątku harmonogramu, więc paczki nie nakładają się na siebie.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    /** Maksymalna liczba wiadomości wysyłanych przez jedno połączenie. */
+    static final int BATCH_SIZE = 50;
+
+    /** Liczba prób, po której wiadomość jest oznaczana jako niewysłana. */
+    static final int MAX_ATTEMPTS = 8;
+
+    /** Odstęp przed pierwszym ponowieniem; każde kolejne czeka dwa razy dłużej. */
+    static final long BASE_BACKOFF_SECONDS = 30;
+
+    /** Maksymalny odstęp między próbami. */
+    static final long MAX_BACKOFF_SECONDS = 60 * 60;
+
+    /** Jak długo przechowywane są wysłane wiadomości. */
+    static final long SENT_RETENTION_DAYS = 7;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final String fromAddress;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                JavaMailSender mailSender,
+                                @Value("${mail.from}") String fromAddress) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.fromAddress = fromAddress;
+    }
+
+    /**
+     * Wysyła wszystkie wiadomości gotowe do wysłania, paczkami po {@link #BATCH_SIZE}.
+     *
+     * @return liczba wysłanych wiadomości
+     */
+    @Scheduled(fixedDelay = 5000)
+    public int dispatch() {
+        int sent = 0;
+        while (true) {
+            List<MailOutboxMessage> batch = mailOutboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            int batchSent = sendBatch(batch);
+            sent += batchSent;
+            // Reszta wiadomości czeka na ponowienie - nie próbujemy ich w tej samej rundzie
+            if (batchSent < batch.size() || batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        if (sent > 0) {
+            System.out.println("[INFO] Wysłano wiadomości e-mail z kolejki: " + sent);
+        }
+        return sent;
+    }
+
+    /**
+     * Co noc usuwa wysłane wiadomości starsze niż {@link #SENT_RETENTION_DAYS} dni.
+     */
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeSent() {
+        mailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(SENT_RETENTION_DAYS));
+    }
+
+    /**
+     * Co godzinę usuwa wiadomości po terminie ważności, także te jeszcze niewysłane.
+     */
+    @Scheduled(cron = "0 50 * * * *")
+    public void purgeExpired() {
+        int deleted = mailOutboxRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            System.out.println("[INFO] Usunięto nieaktualne wiadomości z kolejki: " + deleted);
+        }
+    }
+
+    /**
+     * Wysyła jedną paczkę i zapisuje wynik każdej wiadomości.
+     *
+     * @return liczba wysłanych wiadomości
+     */
+    int sendBatch(List<MailOutboxMessage> batch) {
+        // Wiadomości idą w kolejności kolejki; i-ta wiadomość e-mail odpowiada i-temu wierszowi paczki
+        SimpleMailMessage[] mails = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < mails.length; i++) {
+            mails[i] = toMail(batch.get(i));
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        MailException batchError = null;
+        try {
+            mailSender.send(mails);
+        } catch (MailSendException e) {
+            // Część wiadomości mogła zostać wysłana - serwer zwraca listę odrzuconych
+            failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                batchError = e;
+            }
+        } catch (MailException e) {
+            // Brak połączenia lub błąd uwierzytelnienia - ponawiamy całą paczkę
+            batchError = e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int sent = 0;
+        for (int i = 0; i < mails.length; i++) {
+            MailOutboxMessage message = batch.get(i);
+            Exception error = batchError != null ? batchError : failed.get(mails[i]);
+            if (error == null) {
+                message.setStatus(MailOutboxStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+                message.setBody("");
+                sent++;
+            } else {
+                scheduleRetry(message, error, now);
+            }
+        }
+        mailOutboxRepository.saveAll(batch);
+
+        if (batchError != null) {
+            System.out.println("[ERROR] Nie udało się wysłać paczki wiadomości: " + batchError.getMessage());
+        }
+        return sent;
+    }
+
+    private void scheduleRetry(MailOutboxMessage message, Exception error, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(error.getMessage()));
+
+        if (attempts >= MAX_ATTEMPTS) {
+            message.setStatus(MailOutboxStatus.FAILED);
+            message.setBody("");
+            System.out.println("[ERROR] Wiadomość do " + message.getRecipient() + " nie została wysłana po "
+                    + attempts + " próbach.");
+            return;
+        }
+        message.setNextAttemptAt(now.plusSeconds(backoffSeconds(attempts)));
+    }
+
+    /**
+     * Odstęp przed kolejną próbą: 30 s, 60 s, 120 s, ... (maksymalnie godzina).
+     */
+    static long backoffSeconds(int attempts) {
+        long backoff = BASE_BACKOFF_SECONDS << Math.min(attempts - 1, 20);
+        return Math.min(backoff, MAX_BACKOFF_SECONDS);
+    }
+
+    private SimpleMailMessage toMail(MailOutboxMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(fromAddress);
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        return mail;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
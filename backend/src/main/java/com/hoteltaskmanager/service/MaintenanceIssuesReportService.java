@@ -1,24 +1,56 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.FloorIssueCount;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.ResolutionTime;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.RoomIssueCount;
+import com.hoteltaskmanager.util.ResultSetValues;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 /**
  * Serwis odpowiedzialny za generowanie raportów dotyczących usterek technicznych
  * oraz efektywności ich rozwiązywania w obiekcie hotelowym.
+ * <p>
+ * Wynik jest zapamiętywany dla danych parametrów ({@link ReportCacheConfig}),
+ * a niezależne zapytania są wykonywane równolegle ({@link ReportQueryExecutor}).
  */
 @Service
 public class MaintenanceIssuesReportService {
 
+    static final RowMapper<ResolutionTime> RESOLUTION_TIME_MAPPER = (rs, rowNum) -> new ResolutionTime(
+            rs.getBigDecimal("avg_hours_to_complete"),
+            ResultSetValues.getLong(rs, "min_hours_to_complete"),
+            ResultSetValues.getLong(rs, "max_hours_to_complete"));
+
+    static final RowMapper<RoomIssueCount> ROOM_ISSUE_COUNT_MAPPER = (rs, rowNum) -> new RoomIssueCount(
+            ResultSetValues.getLong(rs, "room_id"),
+            rs.getString("room_number"),
+            ResultSetValues.getInteger(rs, "floor"),
+            ResultSetValues.getLong(rs, "issue_count"));
+
+    static final RowMapper<FloorIssueCount> FLOOR_ISSUE_COUNT_MAPPER = (rs, rowNum) -> new FloorIssueCount(
+            ResultSetValues.getInteger(rs, "floor"),
+            ResultSetValues.getLong(rs, "issue_count"),
+            ResultSetValues.getLong(rs, "room_count"),
+            rs.getBigDecimal("issues_per_room"));
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ReportQueryExecutor reportQueryExecutor;
+
     /**
      * Generuje raport dotyczący usterek konserwacyjnych w określonym przedziale czasowym.
      *
@@ -31,10 +63,12 @@ public class MaintenanceIssuesReportService {
      *
      * @param startDate data początkowa zakresu raportu
      * @param endDate   data końcowa zakresu raportu
-     * @return mapa zawierająca dane raportowe
+     * @return dane raportu
      */
-    public Map<String, Object> generateMaintenanceIssuesReport(LocalDate startDate, LocalDate endDate) {
-        Map<String, Object> reportData = new HashMap<>();
+    @Cacheable(cacheNames = ReportCacheConfig.MAINTENANCE_ISSUES, sync = true)
+    public MaintenanceIssuesReportDTO generateMaintenanceIssuesReport(LocalDate startDate, LocalDate endDate) {
+        MaintenanceIssuesReportDTO report = new MaintenanceIssuesReportDTO();
+        Map<String, Callable<?>> queries = new LinkedHashMap<>();
 
         // 1. Średni czas rozwiązywania zadań konserwacyjnych09.
         String avgResolutionTimeQuery = """
@@ -49,12 +83,11 @@ public class MaintenanceIssuesReportService {
                 AND request_date BETWEEN ? AND ?
         """;
 
-        Map<String, Object> avgResolutionTime = jdbcTemplate.queryForMap(
+        queries.put("avgResolutionTime", Executors.callable(() -> report.setAvgResolutionTime(jdbcTemplate.queryForObject(
                 avgResolutionTimeQuery,
+                RESOLUTION_TIME_MAPPER,
                 startDate, endDate
-        );
-
-        reportData.put("avgResolutionTime", avgResolutionTime);
+        ))));
 
         // 2. Częstotliwość występowania problemów według pokoju/piętra
         String issuesByRoomQuery = """
@@ -74,12 +107,11 @@ public class MaintenanceIssuesReportService {
                 issue_count DESC
         """;
 
-        List<Map<String, Object>> issuesByRoom = jdbcTemplate.queryForList(
+        queries.put("issuesByRoom", Executors.callable(() -> report.setIssuesByRoom(jdbcTemplate.query(
                 issuesByRoomQuery,
+                ROOM_ISSUE_COUNT_MAPPER,
                 startDate, endDate
-        );
-
-        reportData.put("issuesByRoom", issuesByRoom);
+        ))));
 
         String issuesByFloorQuery = """
             SELECT 
@@ -98,13 +130,15 @@ public class MaintenanceIssuesReportService {
                 issues_per_room DESC
         """;
 
-        List<Map<String, Object>> issuesByFloor = jdbcTemplate.queryForList(
+        queries.put("issuesByFloor", Executors.callable(() -> report.setIssuesByFloor(jdbcTemplate.query(
                 issuesByFloorQuery,
+                FLOOR_ISSUE_COUNT_MAPPER,
                 startDate, endDate
-        );
+        ))));
 
-        reportData.put("issuesByFloor", issuesByFloor);
+        // Zadania wypełniają sekcje raportu - all() wraca po zakończeniu wszystkich
+        reportQueryExecutor.all(queries);
 
-        return reportData;
+        return report;
     }
 }
\ No newline at end of file
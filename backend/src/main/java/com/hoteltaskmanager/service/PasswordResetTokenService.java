@@ -0,0 +1,81 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.repository.EmployeeRepository;
+import com.hoteltaskmanager.util.TokenDigest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Serwis tokenów resetu hasła.
+ * <p>
+ * Token w postaci jawnej jest wysyłany tylko e-mailem - w tabeli {@code employee} zapisywany
+ * jest jego skrót SHA-256 w indeksowanej kolumnie {@code reset_token_hash}. Wyszukanie tokenu
+ * to jedno zapytanie po indeksie, niezależnie od liczby pracowników. Wygasłe tokeny są
+ * czyszczone co godzinę jednym zapytaniem UPDATE.
+ */
+@Service
+public class PasswordResetTokenService {
+
+    /** Czas ważności tokenu resetu hasła. */
+    static final long TOKEN_VALIDITY_HOURS = 24;
+
+    private final EmployeeRepository employeeRepository;
+
+    public PasswordResetTokenService(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Generuje nowy token resetu hasła i zapisuje jego skrót w danych pracownika.
+     * Poprzedni token pracownika przestaje być ważny.
+     *
+     * @param employee pracownik
+     * @return token w postaci jawnej (do wysłania e-mailem)
+     */
+    public String issueToken(Employee employee) {
+        String token = UUID.randomUUID().toString();
+
+        employee.setResetTokenHash(TokenDigest.sha256Hex(token));
+        employee.setResetTokenExpiry(LocalDateTime.now().plusHours(TOKEN_VALIDITY_HOURS));
+        employeeRepository.save(employee);
+
+        return token;
+    }
+
+    /**
+     * Wyszukuje pracownika po tokenie resetu hasła (bez sprawdzania daty ważności).
+     *
+     * @param token token w postaci jawnej
+     * @return pracownik, do którego należy token, lub pusty wynik
+     */
+    public Optional<Employee> findByToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        return employeeRepository.findByResetTokenHash(TokenDigest.sha256Hex(token));
+    }
+
+    /**
+     * Unieważnia token pracownika (po udanej zmianie hasła). Nie zapisuje encji.
+     */
+    public void clearToken(Employee employee) {
+        employee.setResetTokenHash(null);
+        employee.setResetTokenExpiry(null);
+    }
+
+    /**
+     * Co godzinę usuwa wygasłe tokeny resetu hasła.
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgeExpiredTokens() {
+        int cleared = employeeRepository.clearExpiredResetTokens(LocalDateTime.now());
+        if (cleared > 0) {
+            System.out.println("[INFO] Usunięto wygasłe tokeny resetu hasła: " + cleared);
+        }
+    }
+}
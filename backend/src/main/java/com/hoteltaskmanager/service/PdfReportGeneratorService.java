@@ -1,19 +1,39 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.dto.FinancialReportDTO;
+import com.hoteltaskmanager.dto.FinancialReportDTO.FinancialSummary;
+import com.hoteltaskmanager.dto.FinancialReportDTO.InvoiceStatistics;
+import com.hoteltaskmanager.dto.FinancialReportDTO.OccupancyRevenue;
+import com.hoteltaskmanager.dto.FinancialReportDTO.PeriodRevenue;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.DeclinedTask;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.EmployeeEfficiency;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.FloorIssueCount;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.RoomIssueCount;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.DailyAvailability;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.MaintenanceRoom;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.RoomRevenue;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.RoomStatusCount;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO.EmployeePerformance;
 import com.hoteltaskmanager.model.Report;
 import com.hoteltaskmanager.model.ReportType;
+import com.hoteltaskmanager.util.PdfFontRegistry;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import static com.hoteltaskmanager.util.RoleName.getRoleNameInPolish;
 
 /**
@@ -21,7 +41,9 @@ import static com.hoteltaskmanager.util.RoleName.getRoleNameInPolish;
  * Obsługuje raporty personelu, finansowe, pokojów oraz raporty kompleksowe.
  * Używa biblioteki iText do tworzenia dokumentów PDF z obsługą polskich znaków.
  *
- * Metody generujące raporty tworzą dokumenty w pamięci i zapisują je przy pomocy {@link ReportStorageService}.
+ * Dane raportu ({@link ReportSections}) to wyniki serwisów raportów w postaci DTO z typowanymi wierszami.
+ * Metody generujące raporty zapisują dokument bezpośrednio do pliku udostępnionego przez {@link ReportStorageService}
+ * - PDF nie jest buforowany w pamięci.
  *
  * Obsługiwane raporty:
  * <ul>
@@ -31,61 +53,69 @@ import static com.hoteltaskmanager.util.RoleName.getRoleNameInPolish;
  *     <li>Raport kompleksowy (zbiorczy PDF zawierający wszystkie sekcje)</li>
  * </ul>
  *
- * Czcionki są ładowane z pliku DejaVuSans.ttf z kodowaniem Unicode (IDENTITY_H), aby wspierać polskie znaki.
+ * Czcionki (DejaVuSans.ttf z kodowaniem Unicode IDENTITY_H, aby wspierać polskie znaki) pochodzą z {@link PdfFontRegistry}
+ * - plik jest parsowany raz na cały proces, a w PDF osadzany jest tylko podzbiór użytych glifów.
  */
 @Service
 public class PdfReportGeneratorService {
 
-    private static final String FONT_PATH = "fonts/DejaVuSans.ttf";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
     @Autowired
     private ReportStorageService reportStorageService;
 
-    private BaseFont createPolishFont() throws DocumentException, IOException {
-        return BaseFont.createFont(FONT_PATH, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
-    }
+    @Autowired
+    private PdfFontRegistry fontRegistry;
 
     /**
      * Generuje i zapisuje raport PDF dotyczący pracowników.
+     *
+     * @param fingerprint odcisk parametrów i danych raportu (patrz {@link ReportDeduplicationService})
      */
-    public Report generateAndSaveStaffReport(Map<String, Object> reportData, LocalDate startDate, LocalDate endDate) {
-        ByteArrayInputStream pdfStream = generateStaffReport(reportData, startDate, endDate);
-        return reportStorageService.saveReport(pdfStream, ReportType.EMPLOYEE_STATISTICS, "staff_report");
+    public Report generateAndSaveStaffReport(ReportSections reportData, LocalDate startDate, LocalDate endDate,
+                                             String fingerprint) {
+        return reportStorageService.saveReport(out -> generateStaffReport(reportData, startDate, endDate, out),
+                ReportType.EMPLOYEE_STATISTICS, "staff_report", fingerprint);
     }
 
     /**
      * Generuje i zapisuje raport PDF dotyczący finansów.
+     *
+     * @param fingerprint odcisk parametrów i danych raportu (patrz {@link ReportDeduplicationService})
      */
-    public Report generateAndSaveFinancialReport(Map<String, Object> reportData, String period,
-                                                 LocalDate startDate, LocalDate endDate) {
-        ByteArrayInputStream pdfStream = generateFinancialReport(reportData, period, startDate, endDate);
-        return reportStorageService.saveReport(pdfStream, ReportType.GENERAL_REPORT, "financial_report");
+    public Report generateAndSaveFinancialReport(ReportSections reportData, String period,
+                                                 LocalDate startDate, LocalDate endDate, String fingerprint) {
+        return reportStorageService.saveReport(out -> generateFinancialReport(reportData, period, startDate, endDate, out),
+                ReportType.GENERAL_REPORT, "financial_report", fingerprint);
     }
 
     /**
      * Generuje i zapisuje raport PDF dotyczący pokojów.
+     *
+     * @param fingerprint odcisk parametrów i danych raportu (patrz {@link ReportDeduplicationService})
      */
-    public Report generateAndSaveRoomsReport(Map<String, Object> reportData, LocalDate startDate, LocalDate endDate) {
-        ByteArrayInputStream pdfStream = generateRoomsReport(reportData, startDate, endDate);
-        return reportStorageService.saveReport(pdfStream, ReportType.GENERAL_REPORT, "rooms_report");
+    public Report generateAndSaveRoomsReport(ReportSections reportData, LocalDate startDate, LocalDate endDate,
+                                             String fingerprint) {
+        return reportStorageService.saveReport(out -> generateRoomsReport(reportData, startDate, endDate, out),
+                ReportType.GENERAL_REPORT, "rooms_report", fingerprint);
     }
 
     /**
      * Generuje i zapisuje kompletny raport PDF zawierający wszystkie dane.
+     *
+     * @param fingerprint odcisk parametrów i danych raportu (patrz {@link ReportDeduplicationService})
      */
-    public Report generateAndSaveCompleteReport(Map<String, Object> reportData, String period,
-                                                LocalDate startDate, LocalDate endDate) {
-        ByteArrayInputStream pdfStream = generateCompleteReport(reportData, period, startDate, endDate);
-        return reportStorageService.saveReport(pdfStream, ReportType.GENERAL_REPORT, "complete_report");
+    public Report generateAndSaveCompleteReport(ReportSections reportData, String period,
+                                                LocalDate startDate, LocalDate endDate, String fingerprint) {
+        return reportStorageService.saveReport(out -> generateCompleteReport(reportData, period, startDate, endDate, out),
+                ReportType.GENERAL_REPORT, "complete_report", fingerprint);
     }
 
     /**
-     * Generuje raport PDF dotyczący pracowników.
+     * Generuje raport PDF dotyczący pracowników i zapisuje go do podanego strumienia.
      */
-    public ByteArrayInputStream generateStaffReport(Map<String, Object> reportData, LocalDate startDate, LocalDate endDate) {
+    public void generateStaffReport(ReportSections reportData, LocalDate startDate, LocalDate endDate, OutputStream out) {
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
             PdfWriter writer = PdfWriter.getInstance(document, out);
@@ -108,8 +138,7 @@ public class PdfReportGeneratorService {
 
             // Wydajność pracowników
             addSectionTitle(document, "Wydajność personelu");
-            Map<String, Object> staffPerformanceData = (Map<String, Object>) reportData.get("staffPerformance");
-            List<Map<String, Object>> tasksByEmployee = (List<Map<String, Object>>) staffPerformanceData.get("tasksByEmployee");
+            List<EmployeePerformance> tasksByEmployee = reportData.staffPerformance().getTasksByEmployee();
 
             if (tasksByEmployee != null && !tasksByEmployee.isEmpty()) {
                 addStaffPerformanceTable(document, tasksByEmployee);
@@ -119,10 +148,10 @@ public class PdfReportGeneratorService {
 
             // Efektywność obsługi pokojów
             addSectionTitle(document, "Efektywność obsługi pokojów");
-            Map<String, Object> housekeepingData = (Map<String, Object>) reportData.get("housekeepingEfficiency");
+            HousekeepingEfficiencyReportDTO housekeepingData = reportData.housekeepingEfficiency();
 
             if (housekeepingData != null) {
-                List<Map<String, Object>> taskCompletionRate = (List<Map<String, Object>>) housekeepingData.get("taskCompletionRate");
+                List<EmployeeEfficiency> taskCompletionRate = housekeepingData.getTaskCompletionRate();
 
                 if (taskCompletionRate != null && !taskCompletionRate.isEmpty()) {
                     addHousekeepingEfficiencyTable(document, taskCompletionRate);
@@ -131,15 +160,13 @@ public class PdfReportGeneratorService {
                 }
 
                 // Zadania odrzucone
-                if (housekeepingData.containsKey("declinedTasks")) {
-                    addSectionTitle(document, "Odrzucone zadania sprzątania");
-                    List<Map<String, Object>> declinedTasks = (List<Map<String, Object>>) housekeepingData.get("declinedTasks");
-
-                    if (declinedTasks != null && !declinedTasks.isEmpty()) {
-                        addDeclinedTasksTable(document, declinedTasks);
-                    } else {
-                        addParagraph(document, "Brak odrzuconych zadań w tym okresie.");
-                    }
+                addSectionTitle(document, "Odrzucone zadania sprzątania");
+                List<DeclinedTask> declinedTasks = housekeepingData.getDeclinedTasks();
+
+                if (declinedTasks != null && !declinedTasks.isEmpty()) {
+                    addDeclinedTasksTable(document, declinedTasks);
+                } else {
+                    addParagraph(document, "Brak odrzuconych zadań w tym okresie.");
                 }
             } else {
                 addParagraph(document, "Brak danych o efektywności obsługi pokojów.");
@@ -150,16 +177,13 @@ public class PdfReportGeneratorService {
         } catch (DocumentException e) {
             throw new RuntimeException("Błąd podczas generowania raportu PDF dla personelu", e);
         }
-
-        return new ByteArrayInputStream(out.toByteArray());
     }
     /**
-     * Generuje raport PDF dotyczący finansów.
+     * Generuje raport PDF dotyczący finansów i zapisuje go do podanego strumienia.
      */
-    public ByteArrayInputStream generateFinancialReport(Map<String, Object> reportData, String period,
-                                                        LocalDate startDate, LocalDate endDate) {
+    public void generateFinancialReport(ReportSections reportData, String period,
+                                                        LocalDate startDate, LocalDate endDate, OutputStream out) {
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
             PdfWriter writer = PdfWriter.getInstance(document, out);
@@ -172,54 +196,45 @@ public class PdfReportGeneratorService {
             addSubtitle(document, "Grupowanie: " + getPolishPeriodName(period));
 
             // Przychody w okresie
-            Map<String, Object> financialData = (Map<String, Object>) reportData.get("financial");
+            FinancialReportDTO financialData = reportData.financial();
 
-            if (financialData.containsKey("revenueByPeriod")) {
-                addSectionTitle(document, "Przychody w okresie");
-                List<Map<String, Object>> revenueByPeriod = (List<Map<String, Object>>) financialData.get("revenueByPeriod");
+            addSectionTitle(document, "Przychody w okresie");
+            List<PeriodRevenue> revenueByPeriod = financialData.getRevenueByPeriod();
 
-                if (revenueByPeriod != null && !revenueByPeriod.isEmpty()) {
-                    addRevenueByPeriodTable(document, revenueByPeriod);
-                } else {
-                    addParagraph(document, "Brak danych o przychodach w tym okresie.");
-                }
+            if (revenueByPeriod != null && !revenueByPeriod.isEmpty()) {
+                addRevenueByPeriodTable(document, revenueByPeriod);
+            } else {
+                addParagraph(document, "Brak danych o przychodach w tym okresie.");
             }
 
             // Korelacja obłożenia z przychodami
-            if (financialData.containsKey("occupancyRevenueCorrelation")) {
-                addSectionTitle(document, "Korelacja obłożenia z przychodami");
-                List<Map<String, Object>> occupancyRevenueCorrelation =
-                        (List<Map<String, Object>>) financialData.get("occupancyRevenueCorrelation");
+            addSectionTitle(document, "Korelacja obłożenia z przychodami");
+            List<OccupancyRevenue> occupancyRevenueCorrelation = financialData.getOccupancyRevenueCorrelation();
 
-                if (occupancyRevenueCorrelation != null && !occupancyRevenueCorrelation.isEmpty()) {
-                    addOccupancyRevenueCorrelationTable(document, occupancyRevenueCorrelation);
-                } else {
-                    addParagraph(document, "Brak danych o korelacji obłożenia z przychodami w tym okresie.");
-                }
+            if (occupancyRevenueCorrelation != null && !occupancyRevenueCorrelation.isEmpty()) {
+                addOccupancyRevenueCorrelationTable(document, occupancyRevenueCorrelation);
+            } else {
+                addParagraph(document, "Brak danych o korelacji obłożenia z przychodami w tym okresie.");
             }
 
             // Statystyki fakturowania
-            if (financialData.containsKey("invoiceStatistics")) {
-                addSectionTitle(document, "Statystyki fakturowania");
-                Map<String, Object> invoiceStatistics = (Map<String, Object>) financialData.get("invoiceStatistics");
+            addSectionTitle(document, "Statystyki fakturowania");
+            InvoiceStatistics invoiceStatistics = financialData.getInvoiceStatistics();
 
-                if (invoiceStatistics != null && !invoiceStatistics.isEmpty()) {
-                    addInvoiceStatisticsTable(document, invoiceStatistics);
-                } else {
-                    addParagraph(document, "Brak danych o fakturowaniu w tym okresie.");
-                }
+            if (invoiceStatistics != null) {
+                addInvoiceStatisticsTable(document, invoiceStatistics);
+            } else {
+                addParagraph(document, "Brak danych o fakturowaniu w tym okresie.");
             }
 
             // Podsumowanie finansowe
-            if (financialData.containsKey("financialSummary")) {
-                addSectionTitle(document, "Podsumowanie finansowe");
-                Map<String, Object> financialSummary = (Map<String, Object>) financialData.get("financialSummary");
+            addSectionTitle(document, "Podsumowanie finansowe");
+            FinancialSummary financialSummary = financialData.getFinancialSummary();
 
-                if (financialSummary != null && !financialSummary.isEmpty()) {
-                    addFinancialSummaryTable(document, financialSummary);
-                } else {
-                    addParagraph(document, "Brak danych podsumowania finansowego w tym okresie.");
-                }
+            if (financialSummary != null) {
+                addFinancialSummaryTable(document, financialSummary);
+            } else {
+                addParagraph(document, "Brak danych podsumowania finansowego w tym okresie.");
             }
 
             document.close();
@@ -227,16 +242,13 @@ public class PdfReportGeneratorService {
         } catch (DocumentException e) {
             throw new RuntimeException("Błąd podczas generowania raportu PDF finansowego", e);
         }
-
-        return new ByteArrayInputStream(out.toByteArray());
     }
 
     /**
-     * Generuje raport PDF dotyczący pokojów.
+     * Generuje raport PDF dotyczący pokojów i zapisuje go do podanego strumienia.
      */
-    public ByteArrayInputStream generateRoomsReport(Map<String, Object> reportData, LocalDate startDate, LocalDate endDate) {
+    public void generateRoomsReport(ReportSections reportData, LocalDate startDate, LocalDate endDate, OutputStream out) {
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
             PdfWriter writer = PdfWriter.getInstance(document, out);
@@ -248,82 +260,68 @@ public class PdfReportGeneratorService {
             addSubtitle(document, "Okres: " + startDate.format(DATE_FORMATTER) + " - " + endDate.format(DATE_FORMATTER));
 
             // Status pokojów
-            Map<String, Object> roomStatusData = (Map<String, Object>) reportData.get("roomStatus");
+            RoomStatusReportDTO roomStatusData = reportData.roomStatus();
 
-            if (roomStatusData.containsKey("roomStatus")) {
-                addSectionTitle(document, "Status pokojów");
-                List<Map<String, Object>> roomStatus = (List<Map<String, Object>>) roomStatusData.get("roomStatus");
+            addSectionTitle(document, "Status pokojów");
+            List<RoomStatusCount> roomStatus = roomStatusData.getRoomStatus();
 
-                if (roomStatus != null && !roomStatus.isEmpty()) {
-                    addRoomStatusTable(document, roomStatus);
-                } else {
-                    addParagraph(document, "Brak danych o statusie pokojów.");
-                }
+            if (roomStatus != null && !roomStatus.isEmpty()) {
+                addRoomStatusTable(document, roomStatus);
+            } else {
+                addParagraph(document, "Brak danych o statusie pokojów.");
             }
 
             // Pokoje wymagające konserwacji
-            if (roomStatusData.containsKey("roomsNeedingMaintenance")) {
-                addSectionTitle(document, "Pokoje wymagające konserwacji");
-                List<Map<String, Object>> roomsNeedingMaintenance =
-                        (List<Map<String, Object>>) roomStatusData.get("roomsNeedingMaintenance");
+            addSectionTitle(document, "Pokoje wymagające konserwacji");
+            List<MaintenanceRoom> roomsNeedingMaintenance = roomStatusData.getRoomsNeedingMaintenance();
 
-                if (roomsNeedingMaintenance != null && !roomsNeedingMaintenance.isEmpty()) {
-                    addRoomsNeedingMaintenanceTable(document, roomsNeedingMaintenance);
-                } else {
-                    addParagraph(document, "Brak pokojów wymagających konserwacji w tym okresie.");
-                }
+            if (roomsNeedingMaintenance != null && !roomsNeedingMaintenance.isEmpty()) {
+                addRoomsNeedingMaintenanceTable(document, roomsNeedingMaintenance);
+            } else {
+                addParagraph(document, "Brak pokojów wymagających konserwacji w tym okresie.");
             }
 
             // Przychód na pokój
-            if (roomStatusData.containsKey("revenuePerRoom")) {
-                addSectionTitle(document, "Przychód na pokój");
-                List<Map<String, Object>> revenuePerRoom = (List<Map<String, Object>>) roomStatusData.get("revenuePerRoom");
+            addSectionTitle(document, "Przychód na pokój");
+            List<RoomRevenue> revenuePerRoom = roomStatusData.getRevenuePerRoom();
 
-                if (revenuePerRoom != null && !revenuePerRoom.isEmpty()) {
-                    addRevenuePerRoomTable(document, revenuePerRoom);
-                } else {
-                    addParagraph(document, "Brak danych o przychodach na pokój w tym okresie.");
-                }
+            if (revenuePerRoom != null && !revenuePerRoom.isEmpty()) {
+                addRevenuePerRoomTable(document, revenuePerRoom);
+            } else {
+                addParagraph(document, "Brak danych o przychodach na pokój w tym okresie.");
             }
 
             // Problemy konserwacyjne
-            Map<String, Object> maintenanceIssuesData = (Map<String, Object>) reportData.get("maintenanceIssues");
+            MaintenanceIssuesReportDTO maintenanceIssuesData = reportData.maintenanceIssues();
 
             if (maintenanceIssuesData != null) {
                 // Problemy według pokojów
-                if (maintenanceIssuesData.containsKey("issuesByRoom")) {
-                    addSectionTitle(document, "Problemy konserwacyjne według pokojów");
-                    List<Map<String, Object>> issuesByRoom =
-                            (List<Map<String, Object>>) maintenanceIssuesData.get("issuesByRoom");
-
-                    if (issuesByRoom != null && !issuesByRoom.isEmpty()) {
-                        addIssuesByRoomTable(document, issuesByRoom);
-                    } else {
-                        addParagraph(document, "Brak danych o problemach konserwacyjnych w pokojach.");
-                    }
+                addSectionTitle(document, "Problemy konserwacyjne według pokojów");
+                List<RoomIssueCount> issuesByRoom = maintenanceIssuesData.getIssuesByRoom();
+
+                if (issuesByRoom != null && !issuesByRoom.isEmpty()) {
+                    addIssuesByRoomTable(document, issuesByRoom);
+                } else {
+                    addParagraph(document, "Brak danych o problemach konserwacyjnych w pokojach.");
                 }
 
                 // Problemy według pięter
-                if (maintenanceIssuesData.containsKey("issuesByFloor")) {
-                    addSectionTitle(document, "Problemy konserwacyjne według pięter");
-                    List<Map<String, Object>> issuesByFloor =
-                            (List<Map<String, Object>>) maintenanceIssuesData.get("issuesByFloor");
-
-                    if (issuesByFloor != null && !issuesByFloor.isEmpty()) {
-                        addIssuesByFloorTable(document, issuesByFloor);
-                    } else {
-                        addParagraph(document, "Brak danych o problemach konserwacyjnych według pięter.");
-                    }
+                addSectionTitle(document, "Problemy konserwacyjne według pięter");
+                List<FloorIssueCount> issuesByFloor = maintenanceIssuesData.getIssuesByFloor();
+
+                if (issuesByFloor != null && !issuesByFloor.isEmpty()) {
+                    addIssuesByFloorTable(document, issuesByFloor);
+                } else {
+                    addParagraph(document, "Brak danych o problemach konserwacyjnych według pięter.");
                 }
             }
 
             // Prognozy dostępności
-            Map<String, Object> reservationsData = (Map<String, Object>) reportData.get("reservations");
+            ReservationManagementReportDTO reservationsData = reportData.reservations();
 
-            if (reservationsData != null && reservationsData.containsKey("roomAvailabilityForecast")) {
+            if (reservationsData != null) {
                 addSectionTitle(document, "Prognoza dostępności pokojów");
-                List<Map<String, Object>> roomAvailabilityForecast =
-                        (List<Map<String, Object>>) reservationsData.get("roomAvailabilityForecast");
+                List<DailyAvailability> roomAvailabilityForecast = reservationsData.getRoomAvailabilityForecast();
 
                 if (roomAvailabilityForecast != null && !roomAvailabilityForecast.isEmpty()) {
                     addRoomAvailabilityForecastTable(document, roomAvailabilityForecast);
@@ -337,17 +335,14 @@ public class PdfReportGeneratorService {
         } catch (DocumentException e) {
             throw new RuntimeException("Błąd podczas generowania raportu PDF dla pokojów", e);
         }
-
-        return new ByteArrayInputStream(out.toByteArray());
     }
 
     /**
-     * Generuje kompletny raport PDF zawierający wszystkie dane.
+     * Generuje kompletny raport PDF zawierający wszystkie dane i zapisuje go do podanego strumienia.
      */
-    public ByteArrayInputStream generateCompleteReport(Map<String, Object> reportData, String period,
-                                                       LocalDate startDate, LocalDate endDate) {
+    public void generateCompleteReport(ReportSections reportData, String period,
+                                                       LocalDate startDate, LocalDate endDate, OutputStream out) {
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
             PdfWriter writer = PdfWriter.getInstance(document, out);
@@ -358,48 +353,30 @@ public class PdfReportGeneratorService {
             addTitle(document, "Raport kompleksowy hotelu");
             addSubtitle(document, "Okres: " + startDate.format(DATE_FORMATTER) + " - " + endDate.format(DATE_FORMATTER));
 
-            // Sekcja 1: Personel
+            // Sekcja 1: Personel - skrócone wersje tabel
             addChapterTitle(document, "1. Raport personelu");
-            Map<String, Object> staffReport = new HashMap<>();
-            staffReport.put("staffPerformance", reportData.get("staffPerformance"));
-            staffReport.put("housekeepingEfficiency", reportData.get("housekeepingEfficiency"));
-
-            // Dodaj skrócone wersje tabel personelu
-            addStaffSummary(document, staffReport);
+            addStaffSummary(document, reportData.staffPerformance());
 
-            // Sekcja 2: Finanse
+            // Sekcja 2: Finanse - skrócone wersje tabel
             addChapterTitle(document, "2. Raport finansowy");
-            Map<String, Object> financialReport = new HashMap<>();
-            financialReport.put("financial", reportData.get("financial"));
+            addFinancialSummary(document, reportData.financial());
 
-            // Dodaj skrócone wersje tabel finansowych
-            addFinancialSummary(document, financialReport);
-
-            // Sekcja 3: Pokoje
+            // Sekcja 3: Pokoje - skrócone wersje tabel
             addChapterTitle(document, "3. Raport pokojów");
-            Map<String, Object> roomsReport = new HashMap<>();
-            roomsReport.put("roomStatus", reportData.get("roomStatus"));
-            roomsReport.put("maintenanceIssues", reportData.get("maintenanceIssues"));
-            roomsReport.put("reservations", reportData.get("reservations"));
-
-            // Dodaj skrócone wersje tabel pokojów
-            addRoomsSummary(document, roomsReport);
+            addRoomsSummary(document, reportData.roomStatus());
 
             document.close();
 
         } catch (DocumentException e) {
             throw new RuntimeException("Błąd podczas generowania kompleksowego raportu PDF", e);
         }
-
-        return new ByteArrayInputStream(out.toByteArray());
     }
 
     // Metody pomocnicze do generowania tabel i formatowania dokumentu
 
     private void addTitle(Document document, String title) throws DocumentException {
         try {
-            BaseFont baseFont = createPolishFont();
-            Font titleFont = new Font(baseFont, 18, Font.BOLD);
+            Font titleFont = fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 18, Font.BOLD);
             Paragraph titleParagraph = new Paragraph(title, titleFont);
             titleParagraph.setAlignment(Element.ALIGN_CENTER);
             titleParagraph.setSpacingAfter(10);
@@ -412,8 +389,7 @@ public class PdfReportGeneratorService {
     // Podobnie modyfikujemy pozostałe metody
     private void addSubtitle(Document document, String subtitle) throws DocumentException {
         try {
-            BaseFont baseFont = createPolishFont();
-            Font subtitleFont = new Font(baseFont, 12, Font.NORMAL, BaseColor.DARK_GRAY);
+            Font subtitleFont = fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 12, Font.NORMAL, BaseColor.DARK_GRAY);
             Paragraph subtitleParagraph = new Paragraph(subtitle, subtitleFont);
             subtitleParagraph.setAlignment(Element.ALIGN_CENTER);
             subtitleParagraph.setSpacingAfter(20);
@@ -425,8 +401,7 @@ public class PdfReportGeneratorService {
 
     private void addSectionTitle(Document document, String title) throws DocumentException {
         try {
-            BaseFont baseFont = createPolishFont();
-            Font sectionFont = new Font(baseFont, 14, Font.BOLD);
+            Font sectionFont = fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 14, Font.BOLD);
             Paragraph sectionParagraph = new Paragraph(title, sectionFont);
             sectionParagraph.setSpacingBefore(15);
             sectionParagraph.setSpacingAfter(10);
@@ -438,8 +413,7 @@ public class PdfReportGeneratorService {
 
     private void addChapterTitle(Document document, String title) throws DocumentException {
         try {
-            BaseFont baseFont = createPolishFont();
-            Font chapterFont = new Font(baseFont, 16, Font.BOLD);
+            Font chapterFont = fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 16, Font.BOLD);
             Paragraph chapterParagraph = new Paragraph(title, chapterFont);
             chapterParagraph.setSpacingBefore(20);
             chapterParagraph.setSpacingAfter(10);
@@ -451,8 +425,7 @@ public class PdfReportGeneratorService {
 
     private void addParagraph(Document document, String text) throws DocumentException {
         try {
-            BaseFont baseFont = createPolishFont();
-            Font paragraphFont = new Font(baseFont, 10, Font.NORMAL);
+            Font paragraphFont = fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 10, Font.NORMAL);
             Paragraph paragraph = new Paragraph(text, paragraphFont);
             document.add(paragraph);
         } catch (Exception e) {
@@ -462,7 +435,7 @@ public class PdfReportGeneratorService {
 
     // Implementacje metod do generowania konkretnych tabel
 
-    private void addStaffPerformanceTable(Document document, List<Map<String, Object>> tasksByEmployee) throws DocumentException {
+    private void addStaffPerformanceTable(Document document, List<EmployeePerformance> tasksByEmployee) throws DocumentException {
         PdfPTable table = new PdfPTable(6);
         table.setWidthPercentage(100);
 
@@ -473,16 +446,15 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
-            for (Map<String, Object> employee : tasksByEmployee) {
-                PdfPCell nameCell = new PdfPCell(new Phrase(String.valueOf(employee.get("employee_name")), cellFont));
-                PdfPCell roleCell = new PdfPCell(new Phrase(String.valueOf(getRoleNameInPolish((String) employee.get("role_name"))), cellFont));
-                PdfPCell housekeepingCell = new PdfPCell(new Phrase(String.valueOf(employee.get("housekeeping_tasks")), cellFont));
-                PdfPCell maintenanceCell = new PdfPCell(new Phrase(String.valueOf(employee.get("maintenance_tasks")), cellFont));
-                PdfPCell totalCell = new PdfPCell(new Phrase(String.valueOf(employee.get("total_tasks")), cellFont));
-                PdfPCell successRateCell = new PdfPCell(new Phrase(String.valueOf(employee.get("success_rate")), cellFont));
+            for (EmployeePerformance employee : tasksByEmployee) {
+                PdfPCell nameCell = new PdfPCell(new Phrase(String.valueOf(employee.employeeName()), cellFont));
+                PdfPCell roleCell = new PdfPCell(new Phrase(getRoleNameInPolish(employee.roleName()), cellFont));
+                PdfPCell housekeepingCell = new PdfPCell(new Phrase(String.valueOf(employee.housekeepingTasks()), cellFont));
+                PdfPCell maintenanceCell = new PdfPCell(new Phrase(String.valueOf(employee.maintenanceTasks()), cellFont));
+                PdfPCell totalCell = new PdfPCell(new Phrase(String.valueOf(employee.totalTasks()), cellFont));
+                PdfPCell successRateCell = new PdfPCell(new Phrase(String.valueOf(employee.successRate()), cellFont));
 
                 table.addCell(nameCell);
                 table.addCell(roleCell);
@@ -498,7 +470,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addHousekeepingEfficiencyTable(Document document, List<Map<String, Object>> taskCompletionRate) throws DocumentException {
+    private void addHousekeepingEfficiencyTable(Document document, List<EmployeeEfficiency> taskCompletionRate) throws DocumentException {
         PdfPTable table = new PdfPTable(7);
         table.setWidthPercentage(100);
 
@@ -509,17 +481,16 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-            for (Map<String, Object> record : taskCompletionRate) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.get("employee_name")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.get("total_assigned")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.get("completed")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.get("pending")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.get("in_progress")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.get("declined")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.get("completion_rate")), cellFont)));
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+            for (EmployeeEfficiency record : taskCompletionRate) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.employeeName()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.totalAssigned()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.completed()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.pending()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.inProgress()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.declined()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(record.completionRate()), cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli efektywności obsługi pokojów", e);
@@ -528,7 +499,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addDeclinedTasksTable(Document document, List<Map<String, Object>> declinedTasks) throws DocumentException {
+    private void addDeclinedTasksTable(Document document, List<DeclinedTask> declinedTasks) throws DocumentException {
         PdfPTable table = new PdfPTable(4);
         table.setWidthPercentage(100);
 
@@ -537,14 +508,13 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-            for (Map<String, Object> task : declinedTasks) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(task.get("room_number")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(task.get("description")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(formatDate(String.valueOf(task.get("request_date")))), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(task.get("employee_name")), cellFont)));
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+            for (DeclinedTask task : declinedTasks) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(task.roomNumber()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(task.description()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(formatDate(task.requestDate()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(task.employeeName()), cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli odrzuconych zadań", e);
@@ -553,7 +523,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addRevenueByPeriodTable(Document document, List<Map<String, Object>> revenueByPeriod) throws DocumentException {
+    private void addRevenueByPeriodTable(Document document, List<PeriodRevenue> revenueByPeriod) throws DocumentException {
         PdfPTable table = new PdfPTable(3);
         table.setWidthPercentage(100);
 
@@ -562,13 +532,12 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
-            for (Map<String, Object> revenue : revenueByPeriod) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(revenue.get("period")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(revenue.get("reservation_count")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(formatCurrency(revenue.get("total_revenue")), cellFont)));
+            for (PeriodRevenue revenue : revenueByPeriod) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(revenue.period()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(revenue.reservationCount()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(formatCurrency(revenue.totalRevenue()), cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli przychodów w okresie", e);
@@ -577,7 +546,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addOccupancyRevenueCorrelationTable(Document document, List<Map<String, Object>> correlationData) throws DocumentException {
+    private void addOccupancyRevenueCorrelationTable(Document document, List<OccupancyRevenue> correlationData) throws DocumentException {
         PdfPTable table = new PdfPTable(5);
         table.setWidthPercentage(100);
 
@@ -588,15 +557,14 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-            for (Map<String, Object> data : correlationData) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.get("period")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.get("reservation_count")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.get("total_nights")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(formatCurrency(data.get("total_revenue")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.get("room_usage_percentage")) + "%", cellFont)));
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+            for (OccupancyRevenue data : correlationData) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.period()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.reservationCount()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.totalNights()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(formatCurrency(data.totalRevenue()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(data.roomUsagePercentage()) + "%", cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli korelacji obłożenia z przychodami", e);
@@ -605,33 +573,32 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addInvoiceStatisticsTable(Document document, Map<String, Object> invoiceStatistics) throws DocumentException {
+    private void addInvoiceStatisticsTable(Document document, InvoiceStatistics invoiceStatistics) throws DocumentException {
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(100);
 
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-            Font headerFont = new Font(baseFont, 10, Font.BOLD);
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+            Font headerFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.BOLD);
 
             // Dodajemy pary klucz-wartość
             table.addCell(new PdfPCell(new Phrase("Liczba faktur", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.get("total_invoices")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.totalInvoices()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Liczba rezerwacji z fakturami", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.get("total_reservations_with_invoices")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.totalReservationsWithInvoices()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Liczba zakończonych rezerwacji", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.get("total_completed_reservations")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.totalCompletedReservations()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Pokrycie fakturami (%)", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.get("invoice_coverage_percentage")) + "%", cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.invoiceCoveragePercentage()) + "%", cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Faktury firmowe", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.get("company_invoices")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.companyInvoices()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Faktury indywidualne", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.get("individual_invoices")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(invoiceStatistics.individualInvoices()), cellFont)));
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli statystyk fakturowania", e);
         }
@@ -639,36 +606,35 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addFinancialSummaryTable(Document document, Map<String, Object> financialSummary) throws DocumentException {
+    private void addFinancialSummaryTable(Document document, FinancialSummary financialSummary) throws DocumentException {
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(100);
 
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-            Font headerFont = new Font(baseFont, 10, Font.BOLD);
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+            Font headerFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.BOLD);
 
             // Dodajemy pary klucz-wartość
             table.addCell(new PdfPCell(new Phrase("Liczba ukończonych rezerwacji", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(financialSummary.get("total_completed_reservations")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(financialSummary.totalCompletedReservations()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Liczba sprzedanych nocy", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(String.valueOf(financialSummary.get("total_nights_sold")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(String.valueOf(financialSummary.totalNightsSold()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Całkowity przychód", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.get("total_revenue")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.totalRevenue()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Najwyższa stawka za pokój", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.get("highest_room_rate")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.highestRoomRate()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Najniższa stawka za pokój", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.get("lowest_room_rate")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.lowestRoomRate()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Średnia stawka za pokój", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.get("avg_room_rate")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.avgRoomRate()), cellFont)));
 
             table.addCell(new PdfPCell(new Phrase("Średnia stawka dzienna", headerFont)));
-            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.get("avg_daily_rate")), cellFont)));
+            table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.avgDailyRate()), cellFont)));
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli podsumowania finansowego", e);
         }
@@ -676,7 +642,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addRoomStatusTable(Document document, List<Map<String, Object>> roomStatus) throws DocumentException {
+    private void addRoomStatusTable(Document document, List<RoomStatusCount> roomStatus) throws DocumentException {
         PdfPTable table = new PdfPTable(3);
         table.setWidthPercentage(100);
 
@@ -685,13 +651,12 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
-            for (Map<String, Object> status : roomStatus) {
-                table.addCell(new PdfPCell(new Phrase(formatRoomStatus(String.valueOf(status.get("status"))), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(status.get("count")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(status.get("percentage")) + "%", cellFont)));
+            for (RoomStatusCount status : roomStatus) {
+                table.addCell(new PdfPCell(new Phrase(formatRoomStatus(status.status()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(status.count()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(status.percentage()) + "%", cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli statusu pokojów", e);
@@ -700,7 +665,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addRoomsNeedingMaintenanceTable(Document document, List<Map<String, Object>> rooms) throws DocumentException {
+    private void addRoomsNeedingMaintenanceTable(Document document, List<MaintenanceRoom> rooms) throws DocumentException {
         PdfPTable table = new PdfPTable(5);
         table.setWidthPercentage(100);
 
@@ -709,15 +674,14 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-            for (Map<String, Object> room : rooms) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("room_number")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("floor")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("maintenance_issue")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(formatDate(String.valueOf(room.get("request_date")))), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("assignee")), cellFont)));
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+            for (MaintenanceRoom room : rooms) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.roomNumber()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.floor()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.maintenanceIssue()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(formatDate(room.requestDate()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.assignee()), cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli pokojów wymagających konserwacji", e);
@@ -726,7 +690,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addRevenuePerRoomTable(Document document, List<Map<String, Object>> revenuePerRoom) throws DocumentException {
+    private void addRevenuePerRoomTable(Document document, List<RoomRevenue> revenuePerRoom) throws DocumentException {
         PdfPTable table = new PdfPTable(6);
         table.setWidthPercentage(100);
 
@@ -737,16 +701,15 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-            for (Map<String, Object> room : revenuePerRoom) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("room_number")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("floor")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("bed_count")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(formatCurrency(room.get("price_per_night")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("days_occupied")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(formatCurrency(room.get("total_revenue")), cellFont)));
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+            for (RoomRevenue room : revenuePerRoom) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.roomNumber()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.floor()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.bedCount()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(formatCurrency(room.pricePerNight()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.daysOccupied()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(formatCurrency(room.totalRevenue()), cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli przychodów na pokój", e);
@@ -755,7 +718,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addIssuesByRoomTable(Document document, List<Map<String, Object>> issuesByRoom) throws DocumentException {
+    private void addIssuesByRoomTable(Document document, List<RoomIssueCount> issuesByRoom) throws DocumentException {
         PdfPTable table = new PdfPTable(3);
         table.setWidthPercentage(100);
 
@@ -764,13 +727,12 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
-            for (Map<String, Object> room : issuesByRoom) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("room_number")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("floor")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("issue_count")), cellFont)));
+            for (RoomIssueCount room : issuesByRoom) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.roomNumber()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.floor()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(room.issueCount()), cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli problemów według pokojów", e);
@@ -779,7 +741,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addIssuesByFloorTable(Document document, List<Map<String, Object>> issuesByFloor) throws DocumentException {
+    private void addIssuesByFloorTable(Document document, List<FloorIssueCount> issuesByFloor) throws DocumentException {
         PdfPTable table = new PdfPTable(4);
         table.setWidthPercentage(100);
 
@@ -788,14 +750,13 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-            for (Map<String, Object> floor : issuesByFloor) {
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.get("floor")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.get("issue_count")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.get("room_count")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.get("issues_per_room")), cellFont)));
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+            for (FloorIssueCount floor : issuesByFloor) {
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.floor()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.issueCount()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.roomCount()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(floor.issuesPerRoom()), cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli problemów według pięter", e);
@@ -804,7 +765,7 @@ public class PdfReportGeneratorService {
         document.add(table);
     }
 
-    private void addRoomAvailabilityForecastTable(Document document, List<Map<String, Object>> forecast) throws DocumentException {
+    private void addRoomAvailabilityForecastTable(Document document, List<DailyAvailability> forecast) throws DocumentException {
         PdfPTable table = new PdfPTable(5);
         table.setWidthPercentage(100);
 
@@ -818,16 +779,15 @@ public class PdfReportGeneratorService {
 
         // Wiersze tabeli
         try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+            Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
             for (int i = 0; i < rowsToShow; i++) {
-                Map<String, Object> day = forecast.get(i);
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(formatDate(String.valueOf(day.get("date")))), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.get("total_rooms")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.get("available_rooms")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.get("occupied_rooms")), cellFont)));
-                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.get("occupancy_rate")) + "%", cellFont)));
+                DailyAvailability day = forecast.get(i);
+                table.addCell(new PdfPCell(new Phrase(formatDate(day.date()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.totalRooms()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.availableRooms()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.occupiedRooms()), cellFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(day.occupancyRate()) + "%", cellFont)));
             }
         } catch (Exception e) {
             throw new DocumentException("Błąd podczas tworzenia tabeli prognozy dostępności pokojów", e);
@@ -837,8 +797,7 @@ public class PdfReportGeneratorService {
 
         if (forecast.size() > 10) {
             try {
-                BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-                Font noteFont = new Font(baseFont, 10, Font.ITALIC);
+                Font noteFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.ITALIC);
                 Paragraph note = new Paragraph("* Pokazano tylko 10 najbliższych dni. Pełny raport dostępny w formacie JSON.", noteFont);
                 note.setAlignment(Element.ALIGN_CENTER);
                 note.setSpacingBefore(5);
@@ -851,37 +810,33 @@ public class PdfReportGeneratorService {
 
     // Metody pomocnicze do skróconych podsumowań w raporcie kompleksowym
 
-    private void addStaffSummary(Document document, Map<String, Object> staffReport) throws DocumentException {
-        Map<String, Object> staffPerformanceData = (Map<String, Object>) staffReport.get("staffPerformance");
-
-        if (staffPerformanceData != null && staffPerformanceData.containsKey("tasksByEmployee")) {
-            List<Map<String, Object>> tasksByEmployee = (List<Map<String, Object>>) staffPerformanceData.get("tasksByEmployee");
+    private void addStaffSummary(Document document, StaffPerformanceReportDTO staffPerformance) throws DocumentException {
+        if (staffPerformance != null) {
+            List<EmployeePerformance> tasksByEmployee = staffPerformance.getTasksByEmployee();
 
             if (tasksByEmployee != null && !tasksByEmployee.isEmpty()) {
                 addSectionTitle(document, "1.1. Top 5 pracowników według liczby zadań");
 
-                tasksByEmployee.sort((a, b) -> {
-                    Long totalA = Long.valueOf(a.get("total_tasks").toString());
-                    Long totalB = Long.valueOf(b.get("total_tasks").toString());
-                    return totalB.compareTo(totalA);
-                });
+                // Kopia - dane raportu mogą pochodzić z pamięci podręcznej i nie mogą być modyfikowane
+                tasksByEmployee = new ArrayList<>(tasksByEmployee);
+                tasksByEmployee.sort(Comparator.comparing(EmployeePerformance::totalTasks,
+                        Comparator.nullsLast(Comparator.reverseOrder())));
 
                 int rowsToShow = Math.min(tasksByEmployee.size(), 5);
-                List<Map<String, Object>> top5 = tasksByEmployee.subList(0, rowsToShow);
+                List<EmployeePerformance> top5 = tasksByEmployee.subList(0, rowsToShow);
 
                 PdfPTable table = new PdfPTable(4);
                 table.setWidthPercentage(100);
                 addTableHeader(table, new String[] {"Pracownik", "Rola", "Zadania", "Wskaźnik sukcesu (%)"});
 
                 try {
-                    BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-                    Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-                    for (Map<String, Object> employee : top5) {
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(employee.get("employee_name")), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(getRoleNameInPolish((String) employee.get("role_name"))), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(employee.get("total_tasks")), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(employee.get("success_rate")), cellFont)));
+                    Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+                    for (EmployeePerformance employee : top5) {
+                        table.addCell(new PdfPCell(new Phrase(String.valueOf(employee.employeeName()), cellFont)));
+                        table.addCell(new PdfPCell(new Phrase(getRoleNameInPolish(employee.roleName()), cellFont)));
+                        table.addCell(new PdfPCell(new Phrase(String.valueOf(employee.totalTasks()), cellFont)));
+                        table.addCell(new PdfPCell(new Phrase(String.valueOf(employee.successRate()), cellFont)));
                     }
                 } catch (Exception e) {
                     throw new DocumentException("Błąd podczas tworzenia tabeli top 5 pracowników", e);
@@ -892,48 +847,42 @@ public class PdfReportGeneratorService {
         }
     }
 
-    private void addFinancialSummary(Document document, Map<String, Object> financialReport) throws DocumentException {
-        Map<String, Object> financialData = (Map<String, Object>) financialReport.get("financial");
-
-        if (financialData != null && financialData.containsKey("financialSummary")) {
-            Map<String, Object> financialSummary = (Map<String, Object>) financialData.get("financialSummary");
+    private void addFinancialSummary(Document document, FinancialReportDTO financial) throws DocumentException {
+        if (financial != null && financial.getFinancialSummary() != null) {
+            FinancialSummary financialSummary = financial.getFinancialSummary();
+            addSectionTitle(document, "2.1. Podsumowanie finansowe");
 
-            if (financialSummary != null && !financialSummary.isEmpty()) {
-                addSectionTitle(document, "2.1. Podsumowanie finansowe");
+            PdfPTable table = new PdfPTable(2);
+            table.setWidthPercentage(100);
 
-                PdfPTable table = new PdfPTable(2);
-                table.setWidthPercentage(100);
-
-                try {
-                    BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-                    Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-                    Font headerFont = new Font(baseFont, 10, Font.BOLD);
-
-                    table.addCell(new PdfPCell(new Phrase("Całkowity przychód", headerFont)));
-                    table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.get("total_revenue")), cellFont)));
+            try {
+                Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+                Font headerFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.BOLD);
 
-                    table.addCell(new PdfPCell(new Phrase("Liczba sprzedanych nocy", headerFont)));
-                    table.addCell(new PdfPCell(new Phrase(String.valueOf(financialSummary.get("total_nights_sold")), cellFont)));
+                table.addCell(new PdfPCell(new Phrase("Całkowity przychód", headerFont)));
+                table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.totalRevenue()), cellFont)));
 
-                    table.addCell(new PdfPCell(new Phrase("Średnia stawka dzienna", headerFont)));
-                    table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.get("avg_daily_rate")), cellFont)));
-                } catch (Exception e) {
-                    throw new DocumentException("Błąd podczas tworzenia tabeli podsumowania finansowego", e);
-                }
+                table.addCell(new PdfPCell(new Phrase("Liczba sprzedanych nocy", headerFont)));
+                table.addCell(new PdfPCell(new Phrase(String.valueOf(financialSummary.totalNightsSold()), cellFont)));
 
-                document.add(table);
+                table.addCell(new PdfPCell(new Phrase("Średnia stawka dzienna", headerFont)));
+                table.addCell(new PdfPCell(new Phrase(formatCurrency(financialSummary.avgDailyRate()), cellFont)));
+            } catch (Exception e) {
+                throw new DocumentException("Błąd podczas tworzenia tabeli podsumowania finansowego", e);
             }
+
+            document.add(table);
         }
 
-        if (financialData != null && financialData.containsKey("revenueByPeriod")) {
-            List<Map<String, Object>> revenueByPeriod = (List<Map<String, Object>>) financialData.get("revenueByPeriod");
+        if (financial != null) {
+            List<PeriodRevenue> revenueByPeriod = financial.getRevenueByPeriod();
 
             if (revenueByPeriod != null && !revenueByPeriod.isEmpty()) {
                 addSectionTitle(document, "2.2. Przychody w okresie");
 
                 // Bierzemy maksymalnie 5 ostatnich okresów
                 int rowsToShow = Math.min(revenueByPeriod.size(), 5);
-                List<Map<String, Object>> recentPeriods = revenueByPeriod.subList(
+                List<PeriodRevenue> recentPeriods = revenueByPeriod.subList(
                         revenueByPeriod.size() - rowsToShow, revenueByPeriod.size());
 
                 PdfPTable table = new PdfPTable(3);
@@ -941,13 +890,12 @@ public class PdfReportGeneratorService {
                 addTableHeader(table, new String[] {"Okres", "Liczba rezerwacji", "Przychód"});
 
                 try {
-                    BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-                    Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+                    Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
-                    for (Map<String, Object> period : recentPeriods) {
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(period.get("period")), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(period.get("reservation_count")), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(formatCurrency(period.get("total_revenue")), cellFont)));
+                    for (PeriodRevenue period : recentPeriods) {
+                        table.addCell(new PdfPCell(new Phrase(String.valueOf(period.period()), cellFont)));
+                        table.addCell(new PdfPCell(new Phrase(String.valueOf(period.reservationCount()), cellFont)));
+                        table.addCell(new PdfPCell(new Phrase(formatCurrency(period.totalRevenue()), cellFont)));
                     }
                 } catch (Exception e) {
                     throw new DocumentException("Błąd podczas tworzenia tabeli przychodów w okresie", e);
@@ -958,76 +906,70 @@ public class PdfReportGeneratorService {
         }
     }
 
-    private void addRoomsSummary(Document document, Map<String, Object> roomsReport) throws DocumentException {
-        Map<String, Object> roomStatusData = (Map<String, Object>) roomsReport.get("roomStatus");
+    private void addRoomsSummary(Document document, RoomStatusReportDTO roomStatusData) throws DocumentException {
+        if (roomStatusData == null) {
+            return;
+        }
 
-        if (roomStatusData != null && roomStatusData.containsKey("roomStatus")) {
-            addSectionTitle(document, "3.1. Status pokojów");
-            List<Map<String, Object>> roomStatus = (List<Map<String, Object>>) roomStatusData.get("roomStatus");
+        addSectionTitle(document, "3.1. Status pokojów");
+        List<RoomStatusCount> roomStatus = roomStatusData.getRoomStatus();
 
-            if (roomStatus != null && !roomStatus.isEmpty()) {
-                PdfPTable table = new PdfPTable(3);
-                table.setWidthPercentage(100);
-                addTableHeader(table, new String[] {"Status", "Liczba pokojów", "Procent (%)"});
+        if (roomStatus != null && !roomStatus.isEmpty()) {
+            PdfPTable table = new PdfPTable(3);
+            table.setWidthPercentage(100);
+            addTableHeader(table, new String[] {"Status", "Liczba pokojów", "Procent (%)"});
 
-                try {
-                    BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-                    Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+            try {
+                Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
-                    for (Map<String, Object> status : roomStatus) {
-                        table.addCell(new PdfPCell(new Phrase(formatRoomStatus(String.valueOf(status.get("status"))), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(status.get("count")), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(status.get("percentage")) + "%", cellFont)));
-                    }
-                } catch (Exception e) {
-                    throw new DocumentException("Błąd podczas tworzenia tabeli statusu pokojów", e);
+                for (RoomStatusCount status : roomStatus) {
+                    table.addCell(new PdfPCell(new Phrase(formatRoomStatus(status.status()), cellFont)));
+                    table.addCell(new PdfPCell(new Phrase(String.valueOf(status.count()), cellFont)));
+                    table.addCell(new PdfPCell(new Phrase(String.valueOf(status.percentage()) + "%", cellFont)));
                 }
-
-                document.add(table);
+            } catch (Exception e) {
+                throw new DocumentException("Błąd podczas tworzenia tabeli statusu pokojów", e);
             }
+
+            document.add(table);
         }
 
-        if (roomStatusData != null && roomStatusData.containsKey("roomsNeedingMaintenance")) {
-            List<Map<String, Object>> roomsNeedingMaintenance =
-                    (List<Map<String, Object>>) roomStatusData.get("roomsNeedingMaintenance");
+        List<MaintenanceRoom> roomsNeedingMaintenance = roomStatusData.getRoomsNeedingMaintenance();
 
-            if (roomsNeedingMaintenance != null && !roomsNeedingMaintenance.isEmpty()) {
-                addSectionTitle(document, "3.2. Pokoje wymagające konserwacji");
+        if (roomsNeedingMaintenance != null && !roomsNeedingMaintenance.isEmpty()) {
+            addSectionTitle(document, "3.2. Pokoje wymagające konserwacji");
 
-                // Ograniczamy do 5 najbardziej pilnych przypadków
-                int rowsToShow = Math.min(roomsNeedingMaintenance.size(), 5);
-                List<Map<String, Object>> urgentRooms = roomsNeedingMaintenance.subList(0, rowsToShow);
+            // Ograniczamy do 5 najbardziej pilnych przypadków
+            int rowsToShow = Math.min(roomsNeedingMaintenance.size(), 5);
+            List<MaintenanceRoom> urgentRooms = roomsNeedingMaintenance.subList(0, rowsToShow);
 
-                PdfPTable table = new PdfPTable(3);
-                table.setWidthPercentage(100);
-                addTableHeader(table, new String[] {"Pokój", "Problem", "Data zgłoszenia"});
+            PdfPTable table = new PdfPTable(3);
+            table.setWidthPercentage(100);
+            addTableHeader(table, new String[] {"Pokój", "Problem", "Data zgłoszenia"});
 
-                try {
-                    BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-                    Font cellFont = new Font(baseFont, 10, Font.NORMAL);
+            try {
+                Font cellFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
 
-                    for (Map<String, Object> room : urgentRooms) {
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("room_number")), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(room.get("maintenance_issue")), cellFont)));
-                        table.addCell(new PdfPCell(new Phrase(String.valueOf(formatDate(String.valueOf(room.get("request_date")))), cellFont)));
-                    }
-                } catch (Exception e) {
-                    throw new DocumentException("Błąd podczas tworzenia tabeli pokojów wymagających konserwacji", e);
+                for (MaintenanceRoom room : urgentRooms) {
+                    table.addCell(new PdfPCell(new Phrase(String.valueOf(room.roomNumber()), cellFont)));
+                    table.addCell(new PdfPCell(new Phrase(String.valueOf(room.maintenanceIssue()), cellFont)));
+                    table.addCell(new PdfPCell(new Phrase(formatDate(room.requestDate()), cellFont)));
                 }
+            } catch (Exception e) {
+                throw new DocumentException("Błąd podczas tworzenia tabeli pokojów wymagających konserwacji", e);
+            }
 
-                document.add(table);
+            document.add(table);
 
-                if (roomsNeedingMaintenance.size() > 5) {
-                    try {
-                        BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-                        Font noteFont = new Font(baseFont, 10, Font.ITALIC);
-                        Paragraph note = new Paragraph("* Pokazano tylko 5 najbardziej pilnych zgłoszeń. Pełny raport dostępny w sekcji pokojów.", noteFont);
-                        note.setAlignment(Element.ALIGN_CENTER);
-                        note.setSpacingBefore(5);
-                        document.add(note);
-                    } catch (Exception e) {
-                        throw new DocumentException("Błąd podczas dodawania notatki o ograniczeniu wyników", e);
-                    }
+            if (roomsNeedingMaintenance.size() > 5) {
+                try {
+                    Font noteFont = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.ITALIC);
+                    Paragraph note = new Paragraph("* Pokazano tylko 5 najbardziej pilnych zgłoszeń. Pełny raport dostępny w sekcji pokojów.", noteFont);
+                    note.setAlignment(Element.ALIGN_CENTER);
+                    note.setSpacingBefore(5);
+                    document.add(note);
+                } catch (Exception e) {
+                    throw new DocumentException("Błąd podczas dodawania notatki o ograniczeniu wyników", e);
                 }
             }
         }
@@ -1037,8 +979,7 @@ public class PdfReportGeneratorService {
 
     private void addTableHeader(PdfPTable table, String[] headers) {
         try {
-            BaseFont baseFont = createPolishFont();
-            Font headerFont = new Font(baseFont, 10, Font.BOLD, BaseColor.WHITE);
+            Font headerFont = fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 10, Font.BOLD, BaseColor.WHITE);
             BaseColor headerBackground = new BaseColor(66, 139, 202); // Niebieski
 
             for (String header : headers) {
@@ -1054,38 +995,19 @@ public class PdfReportGeneratorService {
         }
     }
 
-    private String formatCurrency(Object value) {
+    private String formatCurrency(BigDecimal value) {
         if (value == null) {
             return "0.00 PLN";
         }
-        return String.format("%.2f PLN", Double.parseDouble(value.toString()));
+        return String.format("%.2f PLN", value);
     }
 
-    private Phrase formatDate(String dateString) throws DocumentException {
-        try {
-            BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
-            Font cellFont = new Font(baseFont, 10, Font.NORMAL);
-
-            if (dateString == null || dateString.isEmpty() || dateString.equals("null")) {
-                return new Phrase("-", cellFont);
-            }
+    private String formatDate(LocalDate date) {
+        return date == null ? "-" : date.format(DATE_FORMATTER);
+    }
 
-            try {
-                if (dateString.contains("T")) {
-                    // Format z timestampem
-                    LocalDate date = LocalDate.parse(dateString.split("T")[0]);
-                    return new Phrase(date.format(DATE_FORMATTER), cellFont);
-                } else {
-                    // Format bez timestampa
-                    LocalDate date = LocalDate.parse(dateString);
-                    return new Phrase(date.format(DATE_FORMATTER), cellFont);
-                }
-            } catch (Exception e) {
-                return new Phrase(dateString, cellFont);
-            }
-        } catch (Exception e) {
-            throw new DocumentException("Błąd podczas formatowania daty", e);
-        }
+    private String formatDate(LocalDateTime dateTime) {
+        return dateTime == null ? "-" : dateTime.format(DATE_FORMATTER);
     }
 
     private String formatRoomStatus(String status) {
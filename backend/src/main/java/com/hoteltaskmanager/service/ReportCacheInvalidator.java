@@ -0,0 +1,138 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.util.ChangeVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unieważnia zapamiętane wyniki raportów po zmianie danych w tabelach, z których korzystają.
+ * <p>
+ * Zapisy przez JPA są wykrywane automatycznie (zdarzenia Hibernate po zatwierdzeniu transakcji),
+ * a kod zapisujący bezpośrednio przez JDBC wywołuje {@link #invalidateTables(String...)}.
+ * Czyszczone są tylko raporty zależne od zmienionej tabeli.
+ * <p>
+ * Dodatkowo każda tabela ma wersję danych ({@link #dataVersion(Collection)}) zmienianą przy każdym
+ * unieważnieniu - pozwala rozpoznać, czy zapisany raport PDF powstał na aktualnych danych.
+ */
+@Service
+public class ReportCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+
+    /** Wersja danych tabel zmienionych od uruchomienia aplikacji. */
+    private final Map<String, Long> tableVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Wersja tabel niezmienionych od uruchomienia - zmiany sprzed restartu nie są znane,
+     * więc raporty zapisane przed uruchomieniem nigdy nie są uznawane za aktualne.
+     */
+    private final long startupVersion = ChangeVersion.next();
+
+    public ReportCacheInvalidator(EntityManagerFactory entityManagerFactory, CacheManager cacheManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Usuwa wyniki raportów zależnych od podanych tabel.
+     *
+     * @param tables nazwy zmienionych tabel
+     */
+    public void invalidateTables(String... tables) {
+        List<String> changed = Arrays.asList(tables);
+        for (String table : changed) {
+            tableVersions.put(table, ChangeVersion.next());
+        }
+        for (Map.Entry<String, Set<String>> entry : ReportCacheConfig.TABLES_BY_CACHE.entrySet()) {
+            if (changed.stream().anyMatch(entry.getValue()::contains)) {
+                Cache cache = cacheManager.getCache(entry.getKey());
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Zwraca wersję danych podanych tabel - rośnie po każdej zmianie którejkolwiek z nich.
+     * Wersję należy odczytać przed zapytaniami raportu: zmiana w trakcie ich wykonywania
+     * daje nowszą wersję, więc raport nie zostanie później uznany za aktualny.
+     *
+     * @param tables nazwy tabel
+     * @return wersja danych (największa z wersji tabel)
+     */
+    public long dataVersion(Collection<String> tables) {
+        long version = startupVersion;
+        for (String table : tables) {
+            version = Math.max(version, tableVersions.getOrDefault(table, startupVersion));
+        }
+        return version;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidateEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidateEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidateEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private void invalidateEntity(Object entity) {
+        Table table = entity.getClass().getAnnotation(Table.class);
+        if (table != null) {
+            invalidateTables(table.name());
+        }
+    }
+}
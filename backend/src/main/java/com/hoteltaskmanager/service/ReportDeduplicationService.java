@@ -0,0 +1,95 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.model.Report;
+import com.hoteltaskmanager.model.ReportJobType;
+import com.hoteltaskmanager.util.TokenDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Ponowne użycie zapisanych raportów PDF zamiast generowania identycznych.
+ * <p>
+ * Każde zlecenie raportu dostaje odcisk - skrót rodzaju raportu, jego parametrów, dnia wygenerowania
+ * (zapytania raportów korzystają z bieżącej daty) oraz wersji danych tabel źródłowych
+ * ({@link ReportCacheInvalidator#dataVersion}). Jeśli istnieje zapisany raport o tym samym odcisku
+ * i jego plik jest na dysku, jest zwracany bez zapytań do bazy i bez generowania PDF.
+ * Zapisany raport pozostaje przypisany do pracownika, który go utworzył.
+ * <p>
+ * Zachowanie można wyłączyć ustawieniem {@code report.dedup.enabled=false} - raporty są wtedy
+ * zawsze generowane od nowa (odcisk jest nadal zapisywany).
+ */
+@Service
+public class ReportDeduplicationService {
+
+    private final ReportStorageService reportStorageService;
+    private final ReportCacheInvalidator reportCacheInvalidator;
+    private final boolean enabled;
+
+    public ReportDeduplicationService(ReportStorageService reportStorageService,
+                                      ReportCacheInvalidator reportCacheInvalidator,
+                                      @Value("${report.dedup.enabled:true}") boolean enabled) {
+        this.reportStorageService = reportStorageService;
+        this.reportCacheInvalidator = reportCacheInvalidator;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Zwraca zapisany raport o tych samych parametrach i danych albo generuje nowy.
+     *
+     * @param type      rodzaj raportu
+     * @param period    okres raportu finansowego
+     * @param startDate data początkowa
+     * @param endDate   data końcowa
+     * @param generator zbiera dane, generuje i zapisuje raport z podanym odciskiem
+     * @return istniejący lub nowo zapisany raport
+     */
+    public Report findOrGenerate(ReportJobType type, String period, LocalDate startDate, LocalDate endDate,
+                                 Function<String, Report> generator) {
+        // Odcisk (z wersją danych) przed zapytaniami raportu
+        String fingerprint = fingerprint(type, period, startDate, endDate);
+
+        if (enabled) {
+            Optional<Report> existing = reportStorageService.findReport(fingerprint);
+            if (existing.isPresent()) {
+                System.out.println("[INFO] Raport " + type + " bez zmian danych - zwracam zapisany raport "
+                        + existing.get().getId());
+                return existing.get();
+            }
+        }
+        return generator.apply(fingerprint);
+    }
+
+    /**
+     * Oblicza odcisk zlecenia raportu. Okres jest uwzględniany tylko w raportach z sekcją finansową -
+     * pozostałe z niego nie korzystają.
+     *
+     * @param type      rodzaj raportu
+     * @param period    okres raportu finansowego
+     * @param startDate data początkowa
+     * @param endDate   data końcowa
+     * @return skrót SHA-256 (64 znaki szesnastkowe)
+     */
+    String fingerprint(ReportJobType type, String period, LocalDate startDate, LocalDate endDate) {
+        Set<String> tables = new HashSet<>();
+        for (String section : type.getSections()) {
+            tables.addAll(ReportCacheConfig.TABLES_BY_CACHE.get(ReportCacheConfig.CACHE_BY_SECTION.get(section)));
+        }
+
+        StringJoiner canonical = new StringJoiner("\u001F")
+                .add(type.name())
+                .add(type.getSections().contains("financial") ? String.valueOf(period) : "")
+                .add(String.valueOf(startDate))
+                .add(String.valueOf(endDate))
+                .add(LocalDate.now().toString())
+                .add(Long.toString(reportCacheInvalidator.dataVersion(tables)));
+        return TokenDigest.sha256Hex(canonical.toString());
+    }
+}
@@ -0,0 +1,281 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.ReportJobDTO;
+import com.hoteltaskmanager.model.Report;
+import com.hoteltaskmanager.model.ReportJobStatus;
+import com.hoteltaskmanager.model.ReportJobType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generowanie raportów PDF w tle.
+ * <p>
+ * Zlecenie dostaje identyfikator od razu, a raport jest budowany przez osobną, ograniczoną pulę wątków
+ * (z limitem długości kolejki) - niezależnie od połączenia klienta, więc przerwane żądanie nie przerywa
+ * generowania. Stan zadania można odpytywać albo subskrybować (SSE), a gotowy raport pobrać
+ * jak każdy zapisany {@link Report}.
+ * <p>
+ * Identyczne zlecenia (ten sam rodzaj, parametry i zlecający), które jeszcze czekają lub trwają,
+ * są scalane - klient dostaje istniejące zadanie. Zakończone zadania są przechowywane przez godzinę.
+ * Jeśli raport o tych samych parametrach został już zapisany, a dane się nie zmieniły, zadanie kończy się
+ * od razu z istniejącym raportem ({@link ReportDeduplicationService}).
+ */
+@Service
+public class ReportJobService {
+
+    /** Czas przechowywania zakończonych zadań. */
+    private static final long FINISHED_RETENTION_MINUTES = 60;
+
+    /** Czas życia połączenia SSE z postępem zadania. */
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    /** Część postępu przypadająca na zbieranie danych - reszta to generowanie PDF. */
+    private static final int DATA_PROGRESS = 90;
+
+    private final ReportSectionGenerator reportSectionGenerator;
+    private final PdfReportGeneratorService pdfReportGeneratorService;
+    private final ReportQueryExecutor reportQueryExecutor;
+    private final ReportDeduplicationService reportDeduplicationService;
+
+    private final ThreadPoolExecutor workers;
+
+    private final Map<String, Job> jobs = new HashMap<>();
+    private final Map<String, Job> pendingByKey = new HashMap<>();
+
+    public ReportJobService(ReportSectionGenerator reportSectionGenerator,
+                            PdfReportGeneratorService pdfReportGeneratorService,
+                            ReportQueryExecutor reportQueryExecutor,
+                            ReportDeduplicationService reportDeduplicationService,
+                            @Value("${report.jobs.workers:2}") int workerCount,
+                            @Value("${report.jobs.queue-capacity:20}") int queueCapacity) {
+        this.reportSectionGenerator = reportSectionGenerator;
+        this.pdfReportGeneratorService = pdfReportGeneratorService;
+        this.reportQueryExecutor = reportQueryExecutor;
+        this.reportDeduplicationService = reportDeduplicationService;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Zleca wygenerowanie raportu.
+     *
+     * @param type           rodzaj raportu
+     * @param period         okres raportu finansowego
+     * @param startDate      data początkowa
+     * @param endDate        data końcowa
+     * @param authentication zlecający (raport zostanie zapisany jako utworzony przez niego)
+     * @return stan nowego lub istniejącego, identycznego zadania
+     * @throws RejectedExecutionException jeśli kolejka zadań jest pełna
+     */
+    public synchronized ReportJobDTO submit(ReportJobType type, String period, LocalDate startDate,
+                                            LocalDate endDate, Authentication authentication) {
+        String owner = authentication != null ? authentication.getName() : "";
+        String key = String.join("|", type.name(), String.valueOf(period),
+                String.valueOf(startDate), String.valueOf(endDate), owner);
+
+        Job pending = pendingByKey.get(key);
+        if (pending != null) {
+            return pending.toDTO();
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), key, type, period, startDate, endDate, authentication);
+        workers.execute(() -> run(job));
+        jobs.put(job.id, job);
+        pendingByKey.put(key, job);
+
+        System.out.println("[INFO] Zlecono raport " + type + " (zadanie " + job.id + ")");
+        return job.toDTO();
+    }
+
+    /**
+     * Zwraca stan zadania.
+     *
+     * @param jobId identyfikator zadania
+     */
+    public synchronized Optional<ReportJobDTO> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDTO);
+    }
+
+    /**
+     * Otwiera strumień SSE ze zdarzeniami {@code progress} aż do zakończenia zadania.
+     *
+     * @param jobId identyfikator zadania
+     * @return emiter lub pusty wynik, jeśli zadanie nie istnieje
+     */
+    public Optional<SseEmitter> subscribe(String jobId) {
+        Job job;
+        synchronized (this) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitter.onCompletion(() -> job.subscribers.remove(emitter));
+        emitter.onTimeout(() -> job.subscribers.remove(emitter));
+        emitter.onError(ex -> job.subscribers.remove(emitter));
+        job.subscribers.add(emitter);
+
+        ReportJobDTO state = job.toDTO();
+        send(job, emitter, state);
+        if (isFinished(state.getStatus())) {
+            emitter.complete();
+        }
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Co 10 minut usuwa zadania zakończone ponad godzinę temu.
+     */
+    @Scheduled(fixedRate = 600000)
+    public synchronized void purgeFinished() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(FINISHED_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void run(Job job) {
+        job.status = ReportJobStatus.RUNNING;
+        publish(job);
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(job.authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            Report report = reportDeduplicationService.findOrGenerate(job.type, job.period, job.startDate,
+                    job.endDate, fingerprint -> generate(job, fingerprint));
+
+            job.reportId = report.getId();
+            job.progress = 100;
+            finish(job, ReportJobStatus.DONE);
+            System.out.println("[INFO] Raport " + job.type + " gotowy (zadanie " + job.id + ", raport " + report.getId() + ")");
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            finish(job, ReportJobStatus.FAILED);
+            System.out.println("[ERROR] Nie udało się wygenerować raportu " + job.type + " (zadanie " + job.id + "): " + e.getMessage());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private Report generate(Job job, String fingerprint) {
+        List<String> sections = job.type.getSections();
+        AtomicInteger done = new AtomicInteger();
+
+        Map<String, Callable<?>> tasks = new LinkedHashMap<>();
+        for (String section : sections) {
+            Callable<?> generator = reportSectionGenerator.section(section, job.period, job.startDate, job.endDate);
+            tasks.put(section, () -> {
+                Object data = generator.call();
+                job.progress = done.incrementAndGet() * DATA_PROGRESS / sections.size();
+                publish(job);
+                return data;
+            });
+        }
+        ReportSections reportData = ReportSections.of(reportQueryExecutor.all(tasks));
+
+        return switch (job.type) {
+            case STAFF -> pdfReportGeneratorService.generateAndSaveStaffReport(
+                    reportData, job.startDate, job.endDate, fingerprint);
+            case FINANCIAL -> pdfReportGeneratorService.generateAndSaveFinancialReport(
+                    reportData, job.period, job.startDate, job.endDate, fingerprint);
+            case ROOMS -> pdfReportGeneratorService.generateAndSaveRoomsReport(
+                    reportData, job.startDate, job.endDate, fingerprint);
+            case COMPLETE -> pdfReportGeneratorService.generateAndSaveCompleteReport(
+                    reportData, job.period, job.startDate, job.endDate, fingerprint);
+        };
+    }
+
+    private void finish(Job job, ReportJobStatus status) {
+        synchronized (this) {
+            job.finishedAt = LocalDateTime.now();
+            job.status = status;
+            pendingByKey.remove(job.key, job);
+        }
+        publish(job);
+        for (SseEmitter emitter : job.subscribers) {
+            emitter.complete();
+        }
+    }
+
+    private void publish(Job job) {
+        ReportJobDTO state = job.toDTO();
+        for (SseEmitter emitter : job.subscribers) {
+            send(job, emitter, state);
+        }
+    }
+
+    private static void send(Job job, SseEmitter emitter, ReportJobDTO state) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(state, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            job.subscribers.remove(emitter);
+        }
+    }
+
+    private static boolean isFinished(ReportJobStatus status) {
+        return status == ReportJobStatus.DONE || status == ReportJobStatus.FAILED;
+    }
+
+    /**
+     * Stan zadania. Pola zmieniane przez wątek roboczy są volatile - odczyt przez {@link #toDTO()}
+     * nie wymaga blokady.
+     */
+    private static final class Job {
+        final String id;
+        final String key;
+        final ReportJobType type;
+        final String period;
+        final LocalDate startDate;
+        final LocalDate endDate;
+        final Authentication authentication;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+        volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        volatile int progress;
+        volatile Long reportId;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, String key, ReportJobType type, String period, LocalDate startDate,
+            LocalDate endDate, Authentication authentication) {
+            this.id = id;
+            this.key = key;
+            this.type = type;
+            this.period = period;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.authentication = authentication;
+        }
+
+        ReportJobDTO toDTO() {
+            return new ReportJobDTO(id, type, status, progress, reportId, error, createdAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.hoteltaskmanager.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Równoległe wykonywanie niezależnych zapytań raportowych.
+ * <p>
+ * Zadania działają na wątkach wirtualnych, a liczba jednocześnie wykonywanych zadań jest ograniczona:
+ * <ul>
+ *     <li>globalnie - do połowy puli połączeń, żeby raporty nie zablokowały zwykłych żądań API,</li>
+ *     <li>dla pojedynczego wywołania {@link #all(Map)} - do {@code report.query.per-request}.</li>
+ * </ul>
+ * Wywołanie {@link #all(Map)} wewnątrz zadania (np. serwis raportu uruchomiony równolegle przez kontroler)
+ * wykonuje zapytania po kolei w bieżącym wątku - zadanie już trzyma pozwolenie na połączenie,
+ * a czekanie na kolejne mogłoby zakleszczyć pulę.
+ */
+@Service
+public class ReportQueryExecutor {
+
+    /** Czy bieżący wątek wykonuje zadanie raportowe (i trzyma pozwolenie na połączenie). */
+    private static final ThreadLocal<Boolean> INSIDE_TASK = ThreadLocal.withInitial(() -> false);
+
+    private final Semaphore connectionPermits;
+    private final int maxPerRequest;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param poolSize      rozmiar puli połączeń do bazy danych
+     * @param maxPerRequest maksymalna liczba równoległych zadań jednego wywołania
+     */
+    public ReportQueryExecutor(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                               @Value("${report.query.per-request:4}") int maxPerRequest) {
+        this.connectionPermits = new Semaphore(Math.max(1, poolSize / 2), true);
+        this.maxPerRequest = Math.max(1, maxPerRequest);
+    }
+
+    /**
+     * Wykonuje zadania równolegle i zwraca ich wyniki pod tymi samymi kluczami.
+     * Pierwszy błąd przerywa pozostałe zadania i jest zgłaszany dalej.
+     *
+     * @param tasks zadania do wykonania (klucz - nazwa sekcji raportu)
+     * @return mapa wyników
+     */
+    public Map<String, Object> all(Map<String, Callable<?>> tasks) {
+        Map<String, Object> results = new HashMap<>();
+
+        if (INSIDE_TASK.get() || tasks.size() <= 1) {
+            for (Map.Entry<String, Callable<?>> task : tasks.entrySet()) {
+                results.put(task.getKey(), call(task.getValue()));
+            }
+            return results;
+        }
+
+        Semaphore requestPermits = new Semaphore(maxPerRequest);
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Callable<?>> task : tasks.entrySet()) {
+                requestPermits.acquire();
+                futures.put(task.getKey(), executor.submit(() -> {
+                    try {
+                        return runWithPermit(task.getValue());
+                    } finally {
+                        requestPermits.release();
+                    }
+                }));
+            }
+            for (Map.Entry<String, Future<?>> future : futures.entrySet()) {
+                results.put(future.getKey(), future.getValue().get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Przerwano generowanie raportu", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Object runWithPermit(Callable<?> task) throws Exception {
+        connectionPermits.acquire();
+        INSIDE_TASK.set(true);
+        try {
+            return task.call();
+        } finally {
+            INSIDE_TASK.remove();
+            connectionPermits.release();
+        }
+    }
+
+    private static Object call(Callable<?> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Błąd podczas generowania raportu", cause);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hoteltaskmanager.service;
+
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Przypisanie nazw sekcji raportu PDF (np. {@code "staffPerformance"}) do serwisów, które zbierają ich dane.
+ * <p>
+ * Korzystają z niego zarówno raporty generowane w żądaniu ({@code ReportController}), jak i zadania
+ * w tle ({@link ReportJobService}), więc obie ścieżki budują sekcje w ten sam sposób.
+ */
+@Service
+public class ReportSectionGenerator {
+
+    private final StaffPerformanceReportService staffPerformanceService;
+    private final RoomStatusReportService roomStatusService;
+    private final MaintenanceIssuesReportService maintenanceIssuesService;
+    private final HousekeepingEfficiencyReportService housekeepingService;
+    private final ReservationManagementReportService reservationService;
+    private final FinancialReportService financialService;
+    private final ReportQueryExecutor reportQueryExecutor;
+
+    public ReportSectionGenerator(StaffPerformanceReportService staffPerformanceService,
+                                  RoomStatusReportService roomStatusService,
+                                  MaintenanceIssuesReportService maintenanceIssuesService,
+                                  HousekeepingEfficiencyReportService housekeepingService,
+                                  ReservationManagementReportService reservationService,
+                                  FinancialReportService financialService,
+                                  ReportQueryExecutor reportQueryExecutor) {
+        this.staffPerformanceService = staffPerformanceService;
+        this.roomStatusService = roomStatusService;
+        this.maintenanceIssuesService = maintenanceIssuesService;
+        this.housekeepingService = housekeepingService;
+        this.reservationService = reservationService;
+        this.financialService = financialService;
+        this.reportQueryExecutor = reportQueryExecutor;
+    }
+
+    /**
+     * Zwraca zadanie zbierające dane jednej sekcji raportu.
+     *
+     * @param section   nazwa sekcji (klucz danych raportu PDF)
+     * @param period    okres raportu finansowego
+     * @param startDate data początkowa
+     * @param endDate   data końcowa
+     * @return zadanie zwracające dane sekcji
+     * @throws IllegalArgumentException jeśli sekcja nie jest znana
+     */
+    public Callable<?> section(String section, String period, LocalDate startDate, LocalDate endDate) {
+        return switch (section) {
+            case "staffPerformance" -> () -> staffPerformanceService.generateStaffPerformanceReport(startDate, endDate);
+            case "housekeepingEfficiency" -> () -> housekeepingService.generateHousekeepingEfficiencyReport(startDate, endDate);
+            case "roomStatus" -> () -> roomStatusService.generateRoomStatusReport();
+            case "maintenanceIssues" -> () -> maintenanceIssuesService.generateMaintenanceIssuesReport(startDate, endDate);
+            case "reservations" -> () -> reservationService.generateReservationManagementReport(startDate, endDate);
+            case "financial" -> () -> financialService.generateFinancialReport(period, startDate, endDate);
+            default -> throw new IllegalArgumentException("Nieznana sekcja raportu: " + section);
+        };
+    }
+
+    /**
+     * Generuje wskazane sekcje raportu równolegle ({@link ReportQueryExecutor}).
+     *
+     * @param sections  nazwy sekcji (klucze danych raportu PDF)
+     * @param period    okres raportu finansowego
+     * @param startDate data początkowa
+     * @param endDate   data końcowa
+     * @return dane sekcji raportu
+     */
+    public ReportSections generate(List<String> sections, String period, LocalDate startDate, LocalDate endDate) {
+        Map<String, Callable<?>> tasks = new LinkedHashMap<>();
+        for (String section : sections) {
+            tasks.put(section, section(section, period, startDate, endDate));
+        }
+        return ReportSections.of(reportQueryExecutor.all(tasks));
+    }
+}
@@ -0,0 +1,46 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.FinancialReportDTO;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO;
+
+import java.util.Map;
+
+/**
+ * Dane sekcji raportu PDF ({@link PdfReportGeneratorService}). Sekcje, które nie należą
+ * do danego rodzaju raportu, mają wartość null.
+ *
+ * @param staffPerformance       wydajność personelu
+ * @param housekeepingEfficiency efektywność obsługi pokojów
+ * @param roomStatus             status pokojów
+ * @param maintenanceIssues      problemy konserwacyjne
+ * @param reservations           zarządzanie rezerwacjami
+ * @param financial              dane finansowe
+ */
+public record ReportSections(StaffPerformanceReportDTO staffPerformance,
+                             HousekeepingEfficiencyReportDTO housekeepingEfficiency,
+                             RoomStatusReportDTO roomStatus,
+                             MaintenanceIssuesReportDTO maintenanceIssues,
+                             ReservationManagementReportDTO reservations,
+                             FinancialReportDTO financial) {
+
+    /**
+     * Składa sekcje z wyników {@link ReportQueryExecutor#all} - klucze to nazwy sekcji
+     * z {@link com.hoteltaskmanager.model.ReportJobType#getSections()}.
+     *
+     * @param results wyniki serwisów raportów według nazwy sekcji
+     * @return dane sekcji raportu
+     */
+    public static ReportSections of(Map<String, Object> results) {
+        return new ReportSections(
+                (StaffPerformanceReportDTO) results.get("staffPerformance"),
+                (HousekeepingEfficiencyReportDTO) results.get("housekeepingEfficiency"),
+                (RoomStatusReportDTO) results.get("roomStatus"),
+                (MaintenanceIssuesReportDTO) results.get("maintenanceIssues"),
+                (ReservationManagementReportDTO) results.get("reservations"),
+                (FinancialReportDTO) results.get("financial"));
+    }
+}
@@ -5,30 +5,53 @@ import com.hoteltaskmanager.model.Report;
 import com.hoteltaskmanager.model.ReportType;
 import com.hoteltaskmanager.repository.EmployeeRepository;
 import com.hoteltaskmanager.repository.ReportRepository;
+import com.hoteltaskmanager.security.EmployeePrincipal;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Serwis odpowiedzialny za przechowywanie raportów w formacie PDF
  * oraz zarządzanie ich metadanymi w bazie danych.
+ * <p>
+ * Pliki są rozkładane na podkatalogi dnia utworzenia ({@code yyyy/MM/dd}), więc żaden katalog
+ * nie rośnie bez ograniczeń. Raporty zapisane wcześniej bezpośrednio w katalogu raportów
+ * pozostają dostępne - ścieżka w bazie jest zawsze względna wobec katalogu raportów.
+ * <p>
+ * Usunięcie raportu tylko oznacza wiersz w bazie; pliki i wiersze usuniętych raportów
+ * są sprzątane porcjami w tle ({@link #purgeDeletedReports()}).
  */
 @Service
 public class ReportStorageService {
 
+    /** Układ podkatalogów raportów (dzień utworzenia). */
+    private static final DateTimeFormatter SHARD_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    /** Maksymalna liczba usuniętych raportów sprzątanych w jednym przebiegu. */
+    static final int PURGE_BATCH_SIZE = 200;
+
     @Autowired
     private ReportRepository reportRepository;
 
@@ -58,13 +81,33 @@ public class ReportStorageService {
     /**
      * Zapisuje raport w formacie PDF na dysku oraz tworzy odpowiedni wpis w bazie danych.
      * Raport jest przypisywany do aktualnie zalogowanego użytkownika.
+     * <p>
+     * Treść jest zapisywana strumieniowo do pliku tymczasowego w katalogu raportów, który po zakończeniu
+     * jest atomowo przemianowywany - niedokończony raport nigdy nie jest widoczny pod docelową nazwą,
+     * a zużycie pamięci nie zależy od rozmiaru PDF.
      *
-     * @param pdfData     dane raportu w formacie PDF
+     * @param content     zapisuje treść PDF do podanego strumienia
      * @param reportType  typ raportu (np. EMPLOYEE_STATISTICS, GENERAL_REPORT)
      * @param reportPrefix prefiks używany do nazwy pliku
      * @return obiekt {@link Report} reprezentujący zapisany raport
      */
-    public Report saveReport(ByteArrayInputStream pdfData, ReportType reportType, String reportPrefix) {
+    public Report saveReport(ReportContentWriter content, ReportType reportType, String reportPrefix) {
+        return saveReport(content, reportType, reportPrefix, null);
+    }
+
+    /**
+     * Zapisuje raport jak {@link #saveReport(ReportContentWriter, ReportType, String)}, razem z odciskiem
+     * parametrów i danych, po którym raport może zostać później użyty ponownie
+     * (patrz {@link ReportDeduplicationService}).
+     *
+     * @param content      zapisuje treść PDF do podanego strumienia
+     * @param reportType   typ raportu (np. EMPLOYEE_STATISTICS, GENERAL_REPORT)
+     * @param reportPrefix prefiks używany do nazwy pliku
+     * @param fingerprint  odcisk raportu (może być null)
+     * @return obiekt {@link Report} reprezentujący zapisany raport
+     */
+    public Report saveReport(ReportContentWriter content, ReportType reportType, String reportPrefix,
+                             String fingerprint) {
         try {
             Employee currentEmployee = null;
             try {
@@ -72,8 +115,12 @@ public class ReportStorageService {
                 if (authentication != null) {
                     Object principal = authentication.getPrincipal();
 
+                    // Pracownik wczytany przez filtr JWT - bez zapytania do bazy
+                    if (principal instanceof EmployeePrincipal employeePrincipal) {
+                        currentEmployee = employeePrincipal.getEmployee();
+                    }
                     // Sprawdź, czy principal to Employee
-                    if (principal instanceof Employee) {
+                    else if (principal instanceof Employee) {
                         currentEmployee = (Employee) principal;
                     }
                     else if (principal instanceof String) {
@@ -95,22 +142,39 @@ public class ReportStorageService {
                 throw new RuntimeException("Nie można pobrać zalogowanego użytkownika: " + e.getMessage(), e);
             }
 
-            // Wygeneruj unikalną nazwę pliku
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = reportPrefix + "_" + timestamp + "_" + UUID.randomUUID().toString().substring(0, 8) + ".pdf";
+            // Wygeneruj unikalną nazwę pliku w podkatalogu dnia utworzenia
+            LocalDateTime createdAt = LocalDateTime.now();
+            String timestamp = createdAt.format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+            String filename = createdAt.format(SHARD_FORMATTER) + "/" + reportPrefix + "_" + timestamp + "_"
+                    + UUID.randomUUID().toString().substring(0, 8) + ".pdf";
 
             Path targetLocation = Paths.get(reportsStorageLocation).resolve(filename);
+            Path shardPath = Files.createDirectories(targetLocation.getParent());
 
-            // Zapisz plik na dysku
-            byte[] buffer = new byte[pdfData.available()];
-            pdfData.read(buffer);
-            Files.write(targetLocation, buffer);
+            // Zapisz plik na dysku (plik tymczasowy w tym samym katalogu - przeniesienie jest atomowe),
+            // licząc przy okazji skrót zawartości
+            MessageDigest sha256 = sha256();
+            long fileSize;
+            Path tempFile = Files.createTempFile(shardPath, reportPrefix + "_", ".tmp");
+            try {
+                try (OutputStream out = new DigestOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempFile)), sha256)) {
+                    content.write(out);
+                }
+                fileSize = Files.size(tempFile);
+                Files.move(tempFile, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
 
             Report report = new Report();
-            report.setCreatedAt(LocalDateTime.now());
+            report.setCreatedAt(createdAt);
             report.setReportFile(filename);
+            report.setFileSize(fileSize);
+            report.setChecksum(HexFormat.of().formatHex(sha256.digest()));
             report.setReportType(reportType);
             report.setCreatedBy(currentEmployee);
+            report.setFingerprint(fingerprint);
 
             return reportRepository.save(report);
         } catch (IOException ex) {
@@ -119,39 +183,100 @@ public class ReportStorageService {
     }
 
     /**
-     * Pobiera zawartość pliku raportu jako tablicę bajtów na podstawie ID raportu.
+     * Zwraca położenie pliku raportu - plik w katalogu raportów albo wpis archiwum ZIP
+     * ({@link RetentionService}). Plik jest wysyłany klientowi bezpośrednio z dysku,
+     * bez wczytywania do pamięci.
      *
      * @param reportId identyfikator raportu
-     * @return tablica bajtów reprezentująca zawartość pliku PDF
+     * @return plik raportu
      */
-    public byte[] getReportFile(Long reportId) {
+    public StoredFile getReportFile(Long reportId) {
         Report report = reportRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("Raport o ID " + reportId + " nie istnieje"));
 
-        try {
-            Path filePath = Paths.get(reportsStorageLocation).resolve(report.getReportFile());
+        if (report.getArchiveFile() == null) {
+            return StoredFile.of(getReportPath(report));
+        }
 
-            if (!Files.exists(filePath)) {
-                throw new RuntimeException("Plik raportu nie istnieje na dysku: " + filePath);
-            }
+        Path bundle = Paths.get(reportsStorageLocation).resolve(report.getArchiveFile());
+        if (!Files.exists(bundle)) {
+            throw new RuntimeException("Archiwum raportu nie istnieje na dysku: " + bundle);
+        }
+        return StoredFile.archived(bundle, report.getReportFile());
+    }
+
+    /**
+     * Zwraca ścieżkę do pliku niezarchiwizowanego raportu (np. właśnie wygenerowanego)
+     * na podstawie ID raportu.
+     *
+     * @param reportId identyfikator raportu
+     * @return ścieżka do pliku PDF
+     */
+    public Path getReportPath(Long reportId) {
+        Report report = reportRepository.findById(reportId)
+                .orElseThrow(() -> new RuntimeException("Raport o ID " + reportId + " nie istnieje"));
+        return getReportPath(report);
+    }
 
-            //System.out.println("Odczytywanie pliku raportu: " + filePath);
+    private Path getReportPath(Report report) {
+        Path filePath = Paths.get(reportsStorageLocation).resolve(report.getReportFile());
 
-            byte[] fileData = Files.readAllBytes(filePath);
+        if (!Files.exists(filePath)) {
+            throw new RuntimeException("Plik raportu nie istnieje na dysku: " + filePath);
+        }
 
-            //System.out.println("Odczytano " + fileData.length + " bajtów z pliku raportu " + reportId);
+        return filePath;
+    }
 
-            if (fileData.length >= 5) {
-                String pdfHeader = new String(fileData, 0, 5, "ASCII");
-                if (!pdfHeader.equals("%PDF-")) {
-                    System.out.println("Ostrzeżenie: Dane pliku nie zaczynają się od sygnatury PDF (%PDF-)");
+    /**
+     * Usuwa raport - oznacza go jako usunięty, bez operacji na plikach. Raport od razu znika z list
+     * i nie można go pobrać, a plik usuwa później {@link #purgeDeletedReports()}.
+     *
+     * @param reportId identyfikator raportu
+     * @return true, jeśli raport istniał
+     */
+    public boolean deleteReport(Long reportId) {
+        return reportRepository.markDeleted(reportId, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Co minutę usuwa pliki i wiersze raportów oznaczonych jako usunięte (porcjami po {@link #PURGE_BATCH_SIZE}).
+     * Wiersz raportu, którego pliku nie udało się usunąć, zostaje do następnego przebiegu.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeDeletedReports() {
+        Path reportsPath = Paths.get(reportsStorageLocation);
+        List<ReportRepository.DeletedReportFile> deleted;
+        do {
+            deleted = reportRepository.findDeletedFiles(PURGE_BATCH_SIZE);
+            List<Long> purged = new ArrayList<>();
+            for (ReportRepository.DeletedReportFile file : deleted) {
+                try {
+                    if (file.getReportFile() != null) {
+                        Files.deleteIfExists(reportsPath.resolve(file.getReportFile()));
+                    }
+                    purged.add(file.getId());
+                } catch (IOException e) {
+                    System.out.println("[ERROR] Nie można usunąć pliku raportu " + file.getReportFile() + ": " + e.getMessage());
                 }
             }
+            if (purged.isEmpty()) {
+                return;
+            }
+            reportRepository.purgeDeleted(purged);
+            System.out.println("[INFO] Usunięto pliki " + purged.size() + " usuniętych raportów");
+        } while (deleted.size() == PURGE_BATCH_SIZE);
+    }
 
-            return fileData;
-        } catch (IOException ex) {
-            throw new RuntimeException("Nie można odczytać pliku raportu: " + ex.getMessage(), ex);
-        }
+    /**
+     * Zwraca najnowszy raport o podanym odcisku, o ile jego plik nadal istnieje na dysku.
+     *
+     * @param fingerprint odcisk raportu
+     * @return zapisany raport, jeśli istnieje
+     */
+    public Optional<Report> findReport(String fingerprint) {
+        return reportRepository.findFirstByFingerprintOrderByIdDesc(fingerprint)
+                .filter(report -> Files.exists(Paths.get(reportsStorageLocation).resolve(report.getReportFile())));
     }
 
     /**
@@ -171,4 +296,20 @@ public class ReportStorageService {
     public ReportRepository getReportRepository() {
         return reportRepository;
     }
-}
\ No newline at end of file
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+
+    /**
+     * Zapisuje treść raportu do strumienia (np. generator PDF).
+     */
+    @FunctionalInterface
+    public interface ReportContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
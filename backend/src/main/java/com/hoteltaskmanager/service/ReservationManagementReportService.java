@@ -1,24 +1,84 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.CancellationSummary;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.CheckInOut;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.MonthlyCancellation;
+import com.hoteltaskmanager.util.ResultSetValues;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 /**
  * Serwis generujący raporty zarządzania rezerwacjami w hotelu.
  * Zawiera dane o zameldowaniach, wymeldowaniach, dostępności pokoi oraz wskaźnikach anulowania rezerwacji.
+ * <p>
+ * Wynik jest zapamiętywany dla danych parametrów ({@link ReportCacheConfig}),
+ * a niezależne zapytania są wykonywane równolegle ({@link ReportQueryExecutor}).
+ * Prognoza dostępności jest liczona w pamięci z pobytów w horyzoncie ({@link RoomAvailabilityForecast}).
  */
 @Service
 public class ReservationManagementReportService {
 
+    static final RowMapper<CheckInOut> CHECK_IN_MAPPER = (rs, rowNum) -> new CheckInOut(
+            ResultSetValues.getLong(rs, "reservation_id"),
+            rs.getString("guest_first_name"),
+            rs.getString("guest_last_name"),
+            rs.getString("guest_phone"),
+            rs.getObject("check_in_date", LocalDate.class),
+            rs.getObject("check_out_date", LocalDate.class),
+            rs.getString("rooms"),
+            rs.getString("special_requests"),
+            rs.getString("catering"));
+
+    static final RowMapper<CheckInOut> CHECK_OUT_MAPPER = (rs, rowNum) -> new CheckInOut(
+            ResultSetValues.getLong(rs, "reservation_id"),
+            rs.getString("guest_first_name"),
+            rs.getString("guest_last_name"),
+            rs.getString("guest_phone"),
+            rs.getObject("check_in_date", LocalDate.class),
+            rs.getObject("check_out_date", LocalDate.class),
+            rs.getString("rooms"),
+            null,
+            null);
+
+    static final RowMapper<RoomAvailabilityForecast.Stay> STAY_MAPPER = (rs, rowNum) -> new RoomAvailabilityForecast.Stay(
+            rs.getLong("room_id"),
+            rs.getObject("start_date", LocalDate.class),
+            rs.getObject("end_date", LocalDate.class));
+
+    static final RowMapper<CancellationSummary> CANCELLATION_SUMMARY_MAPPER = (rs, rowNum) -> new CancellationSummary(
+            ResultSetValues.getLong(rs, "total_reservations"),
+            ResultSetValues.getLong(rs, "cancelled_reservations"),
+            rs.getBigDecimal("cancellation_rate"));
+
+    static final RowMapper<MonthlyCancellation> MONTHLY_CANCELLATION_MAPPER = (rs, rowNum) -> new MonthlyCancellation(
+            rs.getString("month"),
+            ResultSetValues.getLong(rs, "total_reservations"),
+            ResultSetValues.getLong(rs, "cancelled_reservations"),
+            rs.getBigDecimal("cancellation_rate"));
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ReportQueryExecutor reportQueryExecutor;
+
+    /** Liczba dni prognozy dostępności pokoi po dniu bieżącym. */
+    @Value("${report.forecast.days:30}")
+    int forecastDays;
+
     /**
      * Generuje kompleksowy raport dotyczący zarządzania rezerwacjami w danym przedziale czasowym.
      * Raport zawiera dane o nadchodzących zameldowaniach i wymeldowaniach, prognozę dostępności pokoi,
@@ -26,17 +86,19 @@ public class ReservationManagementReportService {
      *
      * @param startDate data początkowa zakresu analizowanego raportu (dot. anulowań)
      * @param endDate   data końcowa zakresu analizowanego raportu (dot. anulowań)
-     * @return mapa zawierająca dane raportowe z kluczami:
+     * @return dane raportu z sekcjami:
      *         <ul>
      *             <li><b>upcomingCheckIns</b> - lista rezerwacji z zameldowaniami w ciągu 7 dni</li>
      *             <li><b>upcomingCheckOuts</b> - lista rezerwacji z wymeldowaniami w ciągu 7 dni</li>
-     *             <li><b>roomAvailabilityForecast</b> - prognoza dostępności pokoi na 30 dni</li>
+     *             <li><b>roomAvailabilityForecast</b> - prognoza dostępności pokoi na {@code report.forecast.days} dni (domyślnie 30)</li>
      *             <li><b>cancellationRate</b> - ogólny wskaźnik anulowań w danym zakresie</li>
      *             <li><b>cancellationsByMonth</b> - miesięczna statystyka anulowań</li>
      *         </ul>
      */
-    public Map<String, Object> generateReservationManagementReport(LocalDate startDate, LocalDate endDate) {
-        Map<String, Object> reportData = new HashMap<>();
+    @Cacheable(cacheNames = ReportCacheConfig.RESERVATIONS, sync = true)
+    public ReservationManagementReportDTO generateReservationManagementReport(LocalDate startDate, LocalDate endDate) {
+        ReservationManagementReportDTO report = new ReservationManagementReportDTO();
+        Map<String, Callable<?>> queries = new LinkedHashMap<>();
 
         // 1. Nadchodzące zameldowania/wymeldowania
         String upcomingCheckInsQuery = """
@@ -63,8 +125,10 @@ public class ReservationManagementReportService {
                 r.start_date ASC
         """;
 
-        List<Map<String, Object>> upcomingCheckIns = jdbcTemplate.queryForList(upcomingCheckInsQuery);
-        reportData.put("upcomingCheckIns", upcomingCheckIns);
+        queries.put("upcomingCheckIns", Executors.callable(() -> report.setUpcomingCheckIns(jdbcTemplate.query(
+                upcomingCheckInsQuery,
+                CHECK_IN_MAPPER
+        ))));
 
         String upcomingCheckOutsQuery = """
             SELECT 
@@ -88,43 +152,49 @@ public class ReservationManagementReportService {
                 r.end_date ASC
         """;
 
-        List<Map<String, Object>> upcomingCheckOuts = jdbcTemplate.queryForList(upcomingCheckOutsQuery);
-        reportData.put("upcomingCheckOuts", upcomingCheckOuts);
+        queries.put("upcomingCheckOuts", Executors.callable(() -> report.setUpcomingCheckOuts(jdbcTemplate.query(
+                upcomingCheckOutsQuery,
+                CHECK_OUT_MAPPER
+        ))));
 
-        // 2. Prognozowanie dostępności pokojów
-        String roomAvailabilityForecastQuery = """
+        // 2. Prognozowanie dostępności pokojów - pobyty z horyzontu pobierane raz, dni liczone w Javie
+        String totalRoomsQuery = """
+            SELECT COUNT(*)
+            FROM rooms
+            WHERE status != 'OUT_OF_SERVICE'
+        """;
+
+        String forecastStaysQuery = """
             SELECT 
-                d.date,
-                COUNT(r.id) as total_rooms,
-                COUNT(r.id) - COUNT(rr.reservation_id) as available_rooms,
-                COUNT(rr.reservation_id) as occupied_rooms,
-                ROUND((COUNT(rr.reservation_id) / COUNT(r.id)) * 100, 2) as occupancy_rate
+                rr.room_id,
+                res.start_date,
+                res.end_date
             FROM 
-                (
-                    SELECT ADDDATE('2023-01-01', t4.i*10000 + t3.i*1000 + t2.i*100 + t1.i*10 + t0.i) as date
-                    FROM 
-                        (SELECT 0 i UNION SELECT 1 UNION SELECT 2 UNION SELECT 3 UNION SELECT 4 UNION SELECT 5 UNION SELECT 6 UNION SELECT 7 UNION SELECT 8 UNION SELECT 9) t0,
-                        (SELECT 0 i UNION SELECT 1 UNION SELECT 2 UNION SELECT 3 UNION SELECT 4 UNION SELECT 5 UNION SELECT 6 UNION SELECT 7 UNION SELECT 8 UNION SELECT 9) t1,
-                        (SELECT 0 i UNION SELECT 1 UNION SELECT 2 UNION SELECT 3 UNION SELECT 4 UNION SELECT 5 UNION SELECT 6 UNION SELECT 7 UNION SELECT 8 UNION SELECT 9) t2,
-                        (SELECT 0 i UNION SELECT 1 UNION SELECT 2 UNION SELECT 3 UNION SELECT 4 UNION SELECT 5 UNION SELECT 6 UNION SELECT 7 UNION SELECT 8 UNION SELECT 9) t3,
-                        (SELECT 0 i UNION SELECT 1 UNION SELECT 2 UNION SELECT 3 UNION SELECT 4 UNION SELECT 5 UNION SELECT 6 UNION SELECT 7 UNION SELECT 8 UNION SELECT 9) t4
-                ) d
-                CROSS JOIN rooms r
-                LEFT JOIN reservation_rooms rr ON r.id = rr.room_id
-                LEFT JOIN reservations res ON rr.reservation_id = res.id 
-                    AND res.status = 'ACTIVE'
-                    AND d.date BETWEEN res.start_date AND DATE_SUB(res.end_date, INTERVAL 1 DAY)
+                reservations res
+                JOIN reservation_rooms rr ON res.id = rr.reservation_id
+                JOIN rooms r ON rr.room_id = r.id
             WHERE 
-                d.date BETWEEN CURRENT_DATE() AND DATE_ADD(CURRENT_DATE(), INTERVAL 30 DAY)
+                res.status = 'ACTIVE'
                 AND r.status != 'OUT_OF_SERVICE'
-            GROUP BY 
-                d.date
+                AND res.start_date <= ?
+                AND res.end_date > ?
             ORDER BY 
-                d.date ASC
+                rr.room_id ASC, res.start_date ASC
         """;
 
-        List<Map<String, Object>> roomAvailabilityForecast = jdbcTemplate.queryForList(roomAvailabilityForecastQuery);
-        reportData.put("roomAvailabilityForecast", roomAvailabilityForecast);
+        LocalDate firstDay = LocalDate.now();
+        LocalDate lastDay = firstDay.plusDays(forecastDays);
+
+        queries.put("roomAvailabilityForecast", Executors.callable(() -> {
+            Long totalRooms = jdbcTemplate.queryForObject(totalRoomsQuery, Long.class);
+            List<RoomAvailabilityForecast.Stay> stays = jdbcTemplate.query(
+                    forecastStaysQuery,
+                    STAY_MAPPER,
+                    lastDay, firstDay
+            );
+            report.setRoomAvailabilityForecast(RoomAvailabilityForecast.compute(
+                    firstDay, lastDay, totalRooms == null ? 0 : totalRooms, stays));
+        }));
 
         // 3. Analiza wskaźnika anulowania
         String cancellationRateQuery = """
@@ -138,12 +208,11 @@ public class ReservationManagementReportService {
                 start_date BETWEEN ? AND ?
         """;
 
-        Map<String, Object> cancellationRate = jdbcTemplate.queryForMap(
+        queries.put("cancellationRate", Executors.callable(() -> report.setCancellationRate(jdbcTemplate.queryForObject(
                 cancellationRateQuery,
+                CANCELLATION_SUMMARY_MAPPER,
                 startDate, endDate
-        );
-
-        reportData.put("cancellationRate", cancellationRate);
+        ))));
 
         String cancellationsByMonthQuery = """
             SELECT 
@@ -161,13 +230,15 @@ public class ReservationManagementReportService {
                 month ASC
         """;
 
-        List<Map<String, Object>> cancellationsByMonth = jdbcTemplate.queryForList(
+        queries.put("cancellationsByMonth", Executors.callable(() -> report.setCancellationsByMonth(jdbcTemplate.query(
                 cancellationsByMonthQuery,
+                MONTHLY_CANCELLATION_MAPPER,
                 startDate, endDate
-        );
+        ))));
 
-        reportData.put("cancellationsByMonth", cancellationsByMonth);
+        // Zadania wypełniają sekcje raportu - all() wraca po zakończeniu wszystkich
+        reportQueryExecutor.all(queries);
 
-        return reportData;
+        return report;
     }
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.repository.InvoiceRepository;
+import com.hoteltaskmanager.repository.ReportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Archiwizacja starych plików PDF raportów i faktur.
+ * <p>
+ * Co noc pliki starsze niż zadany wiek (liczony w pełnych miesiącach) są pakowane do skompresowanych
+ * archiwów ZIP - jedno archiwum na miesiąc utworzenia raportu lub wystawienia faktury. Ostatni wpis
+ * archiwum ({@value #INDEX_ENTRY}) to indeks: nazwa wpisu, rozmiar, CRC-32 i data modyfikacji pliku.
+ * Wiersz raportu lub faktury zapamiętuje położenie archiwum ({@code archiveFile}), a pobranie pliku
+ * czyta wprost wpis archiwum ({@link FileServingService#serve(StoredFile, org.springframework.http.MediaType,
+ * String, jakarta.servlet.http.HttpServletRequest, jakarta.servlet.http.HttpServletResponse)}).
+ * <p>
+ * Archiwa nie są nigdy modyfikowane - późniejsze pliki z tego samego miesiąca trafiają do kolejnego
+ * archiwum ({@code yyyy-MM-2.zip}). Dzięki temu pobieranie z archiwum nie koliduje z archiwizacją.
+ * Archiwum powstaje pod nazwą tymczasową, dopiero po jego przeniesieniu wiersze wskazują na archiwum,
+ * a na końcu usuwane są pliki z katalogu raportów lub faktur. Przerwany przebieg zostawia najwyżej
+ * archiwum, na które nic nie wskazuje - jest ono usuwane w kolejnym przebiegu.
+ */
+@Service
+public class RetentionService {
+
+    /** Podkatalog archiwów w katalogu raportów i w katalogu faktur. */
+    static final String ARCHIVE_DIR = "archive";
+
+    /** Nazwa wpisu z indeksem archiwum. */
+    static final String INDEX_ENTRY = "index.csv";
+
+    /** Rozmiar strony przy pobieraniu kandydatów i porcji przy oznaczaniu wierszy. */
+    static final int PAGE_SIZE = 500;
+
+    private final ReportRepository reportRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ReportStorageService reportStorageService;
+    private final int reportArchiveAfterDays;
+    private final int invoiceArchiveAfterDays;
+
+    /** Katalog, względem którego zapisane są ścieżki faktur (katalog roboczy aplikacji). */
+    Path invoicesBase = Paths.get("");
+
+    public RetentionService(ReportRepository reportRepository,
+                            InvoiceRepository invoiceRepository,
+                            ReportStorageService reportStorageService,
+                            @Value("${retention.reports.archive-after-days:90}") int reportArchiveAfterDays,
+                            @Value("${retention.invoices.archive-after-days:365}") int invoiceArchiveAfterDays) {
+        this.reportRepository = reportRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.reportStorageService = reportStorageService;
+        this.reportArchiveAfterDays = reportArchiveAfterDays;
+        this.invoiceArchiveAfterDays = invoiceArchiveAfterDays;
+    }
+
+    /**
+     * Co noc archiwizuje stare raporty i faktury.
+     */
+    @Scheduled(cron = "${retention.cron:0 30 3 * * *}")
+    public void archiveOldFiles() {
+        try {
+            archiveReports();
+        } catch (Exception e) {
+            System.out.println("[ERROR] Archiwizacja raportów nie powiodła się: " + e.getMessage());
+        }
+        try {
+            archiveInvoices();
+        } catch (Exception e) {
+            System.out.println("[ERROR] Archiwizacja faktur nie powiodła się: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Archiwizuje raporty utworzone przed początkiem miesiąca, w którym wypada dzień sprzed
+     * {@code retention.reports.archive-after-days} dni. Nazwą wpisu jest ścieżka raportu
+     * względem katalogu raportów.
+     *
+     * @return liczba zarchiwizowanych raportów
+     */
+    public int archiveReports() throws IOException {
+        Path base = Paths.get(reportStorageService.getReportsStorageLocation());
+        Path archiveDir = base.resolve(ARCHIVE_DIR);
+        LocalDate cutoff = LocalDate.now().minusDays(reportArchiveAfterDays).withDayOfMonth(1);
+
+        Map<YearMonth, Map<String, Long>> byMonth = new TreeMap<>();
+        long after = 0;
+        List<ReportRepository.ArchivableReport> page;
+        do {
+            page = reportRepository.findArchivable(cutoff.atStartOfDay(), after, PageRequest.of(0, PAGE_SIZE));
+            for (ReportRepository.ArchivableReport report : page) {
+                byMonth.computeIfAbsent(YearMonth.from(report.getCreatedAt()), month -> new LinkedHashMap<>())
+                        .put(report.getReportFile(), report.getId());
+                after = report.getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        int archived = 0;
+        for (Map.Entry<YearMonth, Map<String, Long>> month : byMonth.entrySet()) {
+            Map<String, Long> files = month.getValue();
+            Map<String, Path> entries = new LinkedHashMap<>();
+            files.keySet().forEach(file -> entries.put(file, base.resolve(file)));
+
+            Path bundle = writeBundle(archiveDir, month.getKey(), entries);
+            if (bundle == null) {
+                continue;
+            }
+            String archiveFile = ARCHIVE_DIR + "/" + bundle.getFileName();
+            List<Long> ids = entries.keySet().stream().map(files::get).toList();
+            inChunks(ids, chunk -> reportRepository.markArchived(chunk, archiveFile));
+
+            entries.values().forEach(RetentionService::deleteHotFile);
+            archived += ids.size();
+            System.out.println("[INFO] Zarchiwizowano " + ids.size() + " raportów z " + month.getKey() + " w " + archiveFile);
+        }
+
+        removeUnreferencedBundles(archiveDir, name -> reportRepository.existsByArchiveFile(ARCHIVE_DIR + "/" + name));
+        return archived;
+    }
+
+    /**
+     * Archiwizuje pliki faktur wystawionych przed początkiem miesiąca, w którym wypada dzień sprzed
+     * {@code retention.invoices.archive-after-days} dni. Nazwą wpisu jest nazwa pliku PDF - plik
+     * współdzielony przez kilka faktur trafia do archiwum raz.
+     *
+     * @return liczba zarchiwizowanych plików
+     */
+    public int archiveInvoices() throws IOException {
+        String archivePrefix = InvoiceService.INVOICES_DIR + "/" + ARCHIVE_DIR + "/";
+        Path archiveDir = invoicesBase.resolve(archivePrefix);
+        LocalDate cutoff = LocalDate.now().minusDays(invoiceArchiveAfterDays).withDayOfMonth(1);
+
+        Map<YearMonth, List<String>> byMonth = new TreeMap<>();
+        String after = null;
+        List<InvoiceRepository.ArchivableFile> page;
+        do {
+            page = invoiceRepository.findArchivable(cutoff, after, PageRequest.of(0, PAGE_SIZE));
+            for (InvoiceRepository.ArchivableFile file : page) {
+                byMonth.computeIfAbsent(YearMonth.from(file.getIssueDate()), month -> new ArrayList<>())
+                        .add(file.getPdfFile());
+                after = file.getPdfFile();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        int archived = 0;
+        for (Map.Entry<YearMonth, List<String>> month : byMonth.entrySet()) {
+            Map<String, String> pdfFiles = new LinkedHashMap<>();
+            Map<String, Path> entries = new LinkedHashMap<>();
+            for (String pdfFile : month.getValue()) {
+                Path source = invoicesBase.resolve(pdfFile);
+                String entry = source.getFileName().toString();
+                if (entries.putIfAbsent(entry, source) == null) {
+                    pdfFiles.put(entry, pdfFile);
+                }
+            }
+
+            Path bundle = writeBundle(archiveDir, month.getKey(), entries);
+            if (bundle == null) {
+                continue;
+            }
+            String archiveFile = archivePrefix + bundle.getFileName();
+            List<String> archivedFiles = entries.keySet().stream().map(pdfFiles::get).toList();
+            inChunks(archivedFiles, chunk -> invoiceRepository.markArchived(chunk, archiveFile));
+
+            // Plik mógł zostać w międzyczasie użyty przez nową fakturę o tej samej treści
+            for (String pdfFile : archivedFiles) {
+                if (!invoiceRepository.existsByPdfFileAndArchiveFileIsNull(pdfFile)) {
+                    deleteHotFile(invoicesBase.resolve(pdfFile));
+                }
+            }
+            archived += archivedFiles.size();
+            System.out.println("[INFO] Zarchiwizowano " + archivedFiles.size() + " plików faktur z " + month.getKey()
+                    + " w " + archiveFile);
+        }
+
+        removeUnreferencedBundles(archiveDir, name -> invoiceRepository.existsByArchiveFile(archivePrefix + name));
+        return archived;
+    }
+
+    /**
+     * Zapisuje archiwum miesiąca z podanych plików i indeksem. Pliki, których nie ma na dysku, są pomijane
+     * (i usuwane z {@code entries}), więc po powrocie {@code entries} zawiera dokładnie wpisy archiwum.
+     *
+     * @param archiveDir katalog archiwów
+     * @param month      miesiąc plików
+     * @param entries    nazwa wpisu -> plik źródłowy
+     * @return zapisane archiwum lub null, jeśli żaden plik nie istnieje
+     */
+    static Path writeBundle(Path archiveDir, YearMonth month, Map<String, Path> entries) throws IOException {
+        entries.entrySet().removeIf(entry -> {
+            if (Files.exists(entry.getValue())) {
+                return false;
+            }
+            System.out.println("[ERROR] Brak pliku do archiwizacji: " + entry.getValue());
+            return true;
+        });
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        Files.createDirectories(archiveDir);
+        Path temp = Files.createTempFile(archiveDir, month + "-", ".tmp");
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                zip.setLevel(Deflater.BEST_COMPRESSION);
+                StringBuilder index = new StringBuilder("entry;size;crc32;modified\n");
+                for (Map.Entry<String, Path> entry : entries.entrySet()) {
+                    ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                    zipEntry.setLastModifiedTime(Files.getLastModifiedTime(entry.getValue()));
+                    zip.putNextEntry(zipEntry);
+                    Files.copy(entry.getValue(), zip);
+                    zip.closeEntry();
+
+                    index.append(entry.getKey()).append(';')
+                            .append(zipEntry.getSize()).append(';')
+                            .append(Long.toHexString(zipEntry.getCrc())).append(';')
+                            .append(zipEntry.getLastModifiedTime()).append('\n');
+                }
+                zip.putNextEntry(new ZipEntry(INDEX_ENTRY));
+                zip.write(index.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+
+            Path bundle = archiveDir.resolve(month + ".zip");
+            for (int n = 2; Files.exists(bundle); n++) {
+                bundle = archiveDir.resolve(month + "-" + n + ".zip");
+            }
+            Files.move(temp, bundle, StandardCopyOption.ATOMIC_MOVE);
+            return bundle;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Usuwa archiwa, na które nie wskazuje żaden wiersz (przerwana archiwizacja
+     * lub wszystkie raporty archiwum zostały usunięte).
+     */
+    private static void removeUnreferencedBundles(Path archiveDir, Predicate<String> referenced) throws IOException {
+        if (!Files.isDirectory(archiveDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> bundles = Files.newDirectoryStream(archiveDir, "*.zip")) {
+            for (Path bundle : bundles) {
+                if (!referenced.test(bundle.getFileName().toString())) {
+                    Files.deleteIfExists(bundle);
+                    System.out.println("[INFO] Usunięto nieużywane archiwum " + bundle);
+                }
+            }
+        }
+    }
+
+    private static <T> void inChunks(List<T> items, Consumer<List<T>> action) {
+        for (int from = 0; from < items.size(); from += PAGE_SIZE) {
+            action.accept(items.subList(from, Math.min(from + PAGE_SIZE, items.size())));
+        }
+    }
+
+    private static void deleteHotFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("[ERROR] Nie można usunąć zarchiwizowanego pliku " + file + ": " + e.getMessage());
+        }
+    }
+}
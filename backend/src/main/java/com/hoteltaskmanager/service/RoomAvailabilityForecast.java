@@ -0,0 +1,102 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.DailyAvailability;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prognoza dostępności pokoi liczona metodą zamiatania.
+ * <p>
+ * Każdy pobyt w horyzoncie to dwa zdarzenia - zajęcie pokoju w dniu przyjazdu i zwolnienie
+ * w dniu wyjazdu. Zdarzenia są sumowane w tablicy różnic indeksowanej dniem horyzontu,
+ * a liczba zajętych pokoi danego dnia to suma narastająca. Koszt to O(pobyty + dni),
+ * niezależnie od liczby pokoi.
+ */
+final class RoomAvailabilityForecast {
+
+    /**
+     * Pobyt w pokoju - od dnia przyjazdu włącznie do dnia wyjazdu wyłącznie.
+     *
+     * @param roomId    ID pokoju
+     * @param startDate dzień przyjazdu
+     * @param endDate   dzień wyjazdu
+     */
+    record Stay(Long roomId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private RoomAvailabilityForecast() {
+    }
+
+    /**
+     * Oblicza dostępność pokoi na każdy dzień od {@code firstDay} do {@code lastDay} włącznie.
+     * <p>
+     * Pobyty muszą być posortowane po ID pokoju i dniu przyjazdu - nakładające się pobyty
+     * w tym samym pokoju są scalane, więc pokój jest liczony jako zajęty najwyżej raz dziennie.
+     *
+     * @param firstDay   pierwszy dzień prognozy
+     * @param lastDay    ostatni dzień prognozy
+     * @param totalRooms liczba pokoi dostępnych do rezerwacji
+     * @param stays      pobyty nakładające się na horyzont
+     * @return dostępność na każdy dzień; pusta lista, gdy nie ma pokoi
+     */
+    static List<DailyAvailability> compute(LocalDate firstDay, LocalDate lastDay, long totalRooms, List<Stay> stays) {
+        int days = (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1;
+        if (totalRooms <= 0 || days <= 0) {
+            return List.of();
+        }
+
+        // delta[i] - zmiana liczby zajętych pokoi na początku dnia firstDay + i
+        long[] delta = new long[days + 1];
+        Long currentRoom = null;
+        LocalDate mergedStart = null;
+        LocalDate mergedEnd = null;
+
+        for (Stay stay : stays) {
+            if (stay.roomId().equals(currentRoom) && !stay.startDate().isAfter(mergedEnd)) {
+                if (stay.endDate().isAfter(mergedEnd)) {
+                    mergedEnd = stay.endDate();
+                }
+                continue;
+            }
+            addStay(delta, firstDay, days, mergedStart, mergedEnd);
+            currentRoom = stay.roomId();
+            mergedStart = stay.startDate();
+            mergedEnd = stay.endDate();
+        }
+        addStay(delta, firstDay, days, mergedStart, mergedEnd);
+
+        List<DailyAvailability> forecast = new ArrayList<>(days);
+        BigDecimal total = BigDecimal.valueOf(totalRooms);
+        long occupied = 0;
+        for (int i = 0; i < days; i++) {
+            occupied += delta[i];
+            forecast.add(new DailyAvailability(
+                    firstDay.plusDays(i),
+                    totalRooms,
+                    totalRooms - occupied,
+                    occupied,
+                    BigDecimal.valueOf(occupied * 100).divide(total, 2, RoundingMode.HALF_UP)));
+        }
+        return forecast;
+    }
+
+    /**
+     * Dodaje zdarzenia zajęcia i zwolnienia pokoju, przycięte do horyzontu prognozy.
+     */
+    private static void addStay(long[] delta, LocalDate firstDay, int days, LocalDate start, LocalDate end) {
+        if (start == null) {
+            return;
+        }
+        long from = Math.max(0, ChronoUnit.DAYS.between(firstDay, start));
+        long to = Math.min(days, ChronoUnit.DAYS.between(firstDay, end));
+        if (from < to) {
+            delta[(int) from]++;
+            delta[(int) to]--;
+        }
+    }
+}
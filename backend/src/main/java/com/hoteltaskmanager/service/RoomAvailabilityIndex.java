@@ -0,0 +1,357 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.Room;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indeks dostępności pokoi przechowywany w pamięci.
+ * <p>
+ * Dla każdego pokoju trzymany jest niezmienny kalendarz rezerwacji (ACTIVE i UPCOMING)
+ * posortowany po dacie rozpoczęcia, z maksimum dat zakończenia liczonym narastająco.
+ * Pytanie "czy pokój jest wolny między A i B" to jedno wyszukiwanie binarne,
+ * więc wyszukanie wolnych pokoi nie wymaga zapytania do bazy.
+ * <p>
+ * Indeks jest budowany z tabel {@code reservations} i {@code reservation_rooms} przy starcie
+ * aplikacji oraz codziennie w nocy, a pomiędzy przebudowami aktualizowany po każdej zmianie
+ * rezerwacji, przypisania pokoju lub danych pokoju. Zmiany wprowadzone w trakcie przebudowy
+ * są zapamiętywane i odtwarzane na nowym stanie, więc starszy odczyt z bazy ich nie nadpisuje.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+
+    private static final String ROOMS_QUERY = """
+            SELECT id, floor, bed_count, price_per_night
+            FROM rooms
+            """;
+
+    private static final String BOOKINGS_QUERY = """
+            SELECT rr.room_id, r.id AS reservation_id, r.start_date, r.end_date
+            FROM reservation_rooms rr
+            JOIN reservations r ON rr.reservation_id = r.id
+            WHERE r.status IN ('ACTIVE', 'UPCOMING')
+            """;
+
+    private static final String RESERVATION_BOOKINGS_QUERY = BOOKINGS_QUERY + " AND r.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Kalendarze pokoi według ID pokoju. */
+    private volatile Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+
+    /** Pokoje, w których dana rezerwacja jest aktualnie zaindeksowana. */
+    private final Map<Long, Set<Long>> roomsByReservation = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    /** Zmiany zastosowane w trakcie przebudowy - odtwarzane po niej (null, gdy przebudowa nie trwa). */
+    private List<Runnable> changesDuringRebuild = null;
+
+    /** Przebudowy (przy starcie i z harmonogramu) nie mogą się przeplatać. */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Przebudowuje cały indeks na podstawie bazy danych.
+     * Uruchamiane po starcie aplikacji oraz codziennie o 3:30 jako zabezpieczenie przed rozjazdem.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * *")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            try {
+                List<RoomCalendar> rooms = jdbcTemplate.query(ROOMS_QUERY, (rs, rowNum) -> new RoomCalendar(
+                        rs.getLong("id"),
+                        rs.getInt("floor"),
+                        rs.getInt("bed_count"),
+                        rs.getBigDecimal("price_per_night"),
+                        List.of()));
+
+                List<Booking> bookings = jdbcTemplate.query(BOOKINGS_QUERY, (rs, rowNum) -> mapBooking(rs));
+
+                replaceAll(rooms, bookings);
+                System.out.println("[INFO] Zbudowano indeks dostępności: " + rooms.size() + " pokoi, "
+                        + bookings.size() + " rezerwacji pokoi.");
+            } finally {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Czy indeks został zbudowany i może odpowiadać na zapytania.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Zwraca ID pokoi wolnych w całym zakresie dat (włącznie), spełniających opcjonalne filtry.
+     * Semantyka kolizji jest taka sama jak w {@code RoomRepository.findAvailableRoomsBetweenDates}.
+     *
+     * @param from     data początkowa
+     * @param to       data końcowa
+     * @param minBeds  minimalna liczba łóżek (opcjonalnie)
+     * @param floor    piętro (opcjonalnie)
+     * @param maxPrice maksymalna cena za noc (opcjonalnie)
+     * @return posortowana lista ID wolnych pokoi
+     */
+    public List<Long> findAvailableRoomIds(LocalDate from, LocalDate to,
+                                           Integer minBeds, Integer floor, BigDecimal maxPrice) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        List<Long> result = new ArrayList<>();
+        for (RoomCalendar calendar : calendars.values()) {
+            if (minBeds != null && calendar.bedCount < minBeds) continue;
+            if (floor != null && calendar.floor != floor) continue;
+            if (maxPrice != null && calendar.price != null && calendar.price.compareTo(maxPrice) > 0) continue;
+
+            if (calendar.isFree(fromDay, toDay)) {
+                result.add(calendar.roomId);
+            }
+        }
+
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Ponownie indeksuje pojedynczą rezerwację (po utworzeniu, edycji lub zmianie przypisanych pokoi).
+     *
+     * @param reservationId ID rezerwacji
+     */
+    public void refreshReservation(Long reservationId) {
+        if (reservationId == null) {
+            return;
+        }
+        List<Booking> bookings = jdbcTemplate.query(RESERVATION_BOOKINGS_QUERY,
+                (rs, rowNum) -> mapBooking(rs), reservationId);
+        applyReservation(reservationId, bookings);
+    }
+
+    /**
+     * Usuwa rezerwację z indeksu.
+     *
+     * @param reservationId ID rezerwacji
+     */
+    public void removeReservation(Long reservationId) {
+        if (reservationId == null) {
+            return;
+        }
+        applyReservation(reservationId, List.of());
+    }
+
+    /**
+     * Dodaje pokój do indeksu lub aktualizuje jego atrybuty (piętro, łóżka, cena).
+     *
+     * @param room zapisany pokój
+     */
+    public synchronized void refreshRoom(Room room) {
+        if (room == null || room.getId() == null) {
+            return;
+        }
+        recordDuringRebuild(() -> refreshRoom(room));
+        RoomCalendar current = calendars.get(room.getId());
+        List<Booking> bookings = current != null ? current.bookings() : List.of();
+        calendars.put(room.getId(), new RoomCalendar(
+                room.getId(),
+                room.getFloor() != null ? room.getFloor() : 0,
+                room.getBedCount() != null ? room.getBedCount() : 0,
+                room.getPricePerNight(),
+                bookings));
+    }
+
+    /**
+     * Usuwa pokój z indeksu.
+     *
+     * @param roomId ID pokoju
+     */
+    public synchronized void removeRoom(Long roomId) {
+        recordDuringRebuild(() -> removeRoom(roomId));
+        RoomCalendar removed = calendars.remove(roomId);
+        if (removed != null) {
+            for (Booking booking : removed.bookings()) {
+                Set<Long> rooms = roomsByReservation.get(booking.reservationId());
+                if (rooms != null) {
+                    rooms.remove(roomId);
+                    if (rooms.isEmpty()) {
+                        roomsByReservation.remove(booking.reservationId());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Zastępuje zawartość indeksu podanymi pokojami i rezerwacjami, a następnie odtwarza zmiany
+     * zastosowane od rozpoczęcia przebudowy.
+     */
+    synchronized void replaceAll(List<RoomCalendar> rooms, List<Booking> bookings) {
+        Map<Long, List<Booking>> bookingsByRoom = new HashMap<>();
+        Map<Long, Set<Long>> reservations = new HashMap<>();
+        for (Booking booking : bookings) {
+            bookingsByRoom.computeIfAbsent(booking.roomId(), k -> new ArrayList<>()).add(booking);
+            reservations.computeIfAbsent(booking.reservationId(), k -> new HashSet<>()).add(booking.roomId());
+        }
+
+        Map<Long, RoomCalendar> rebuilt = new HashMap<>(rooms.size());
+        for (RoomCalendar room : rooms) {
+            rebuilt.put(room.roomId, room.withBookings(bookingsByRoom.getOrDefault(room.roomId, List.of())));
+        }
+
+        calendars = new ConcurrentHashMap<>(rebuilt);
+        roomsByReservation.clear();
+        roomsByReservation.putAll(reservations);
+        ready = true;
+
+        List<Runnable> replay = changesDuringRebuild;
+        changesDuringRebuild = null;
+        if (replay != null) {
+            replay.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Zastępuje wpisy danej rezerwacji nowym zestawem (pusty zestaw usuwa rezerwację).
+     */
+    synchronized void applyReservation(Long reservationId, List<Booking> bookings) {
+        recordDuringRebuild(() -> applyReservation(reservationId, bookings));
+        Set<Long> affectedRooms = new HashSet<>(roomsByReservation.getOrDefault(reservationId, Set.of()));
+        Set<Long> newRooms = new HashSet<>();
+        for (Booking booking : bookings) {
+            newRooms.add(booking.roomId());
+        }
+        affectedRooms.addAll(newRooms);
+
+        for (Long roomId : affectedRooms) {
+            RoomCalendar calendar = calendars.get(roomId);
+            if (calendar == null) {
+                continue;
+            }
+            List<Booking> roomBookings = new ArrayList<>();
+            for (Booking booking : calendar.bookings()) {
+                if (!booking.reservationId().equals(reservationId)) {
+                    roomBookings.add(booking);
+                }
+            }
+            for (Booking booking : bookings) {
+                if (booking.roomId().equals(roomId)) {
+                    roomBookings.add(booking);
+                }
+            }
+            calendars.put(roomId, calendar.withBookings(roomBookings));
+        }
+
+        if (newRooms.isEmpty()) {
+            roomsByReservation.remove(reservationId);
+        } else {
+            roomsByReservation.put(reservationId, newRooms);
+        }
+    }
+
+    /**
+     * Zapamiętuje zmianę do odtworzenia, jeśli trwa przebudowa (wywoływane pod blokadą indeksu).
+     */
+    private void recordDuringRebuild(Runnable change) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+    }
+
+    private static Booking mapBooking(ResultSet rs) throws SQLException {
+        return new Booking(
+                rs.getLong("room_id"),
+                rs.getLong("reservation_id"),
+                rs.getDate("start_date").toLocalDate().toEpochDay(),
+                rs.getDate("end_date").toLocalDate().toEpochDay());
+    }
+
+    /**
+     * Rezerwacja pokoju w postaci zakresu dni (epoch day, włącznie).
+     */
+    record Booking(Long roomId, Long reservationId, long startDay, long endDay) {
+    }
+
+    /**
+     * Niezmienny kalendarz pojedynczego pokoju.
+     * Rezerwacje są posortowane po dniu rozpoczęcia, a {@code maxEndPrefix[i]} to największy
+     * dzień zakończenia wśród rezerwacji {@code 0..i}.
+     */
+    static final class RoomCalendar {
+        private final long roomId;
+        private final int floor;
+        private final int bedCount;
+        private final BigDecimal price;
+        private final Booking[] sorted;
+        private final long[] starts;
+        private final long[] maxEndPrefix;
+
+        RoomCalendar(long roomId, int floor, int bedCount, BigDecimal price, List<Booking> bookings) {
+            this.roomId = roomId;
+            this.floor = floor;
+            this.bedCount = bedCount;
+            this.price = price;
+            this.sorted = bookings.toArray(new Booking[0]);
+            Arrays.sort(this.sorted, Comparator.comparingLong(Booking::startDay));
+            this.starts = new long[sorted.length];
+            this.maxEndPrefix = new long[sorted.length];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < sorted.length; i++) {
+                starts[i] = sorted[i].startDay();
+                maxEnd = Math.max(maxEnd, sorted[i].endDay());
+                maxEndPrefix[i] = maxEnd;
+            }
+        }
+
+        RoomCalendar withBookings(List<Booking> bookings) {
+            return new RoomCalendar(roomId, floor, bedCount, price, bookings);
+        }
+
+        List<Booking> bookings() {
+            return List.of(sorted);
+        }
+
+        /**
+         * Pokój jest zajęty, jeśli któraś rezerwacja zaczyna się nie później niż {@code toDay}
+         * i kończy nie wcześniej niż {@code fromDay}.
+         */
+        boolean isFree(long fromDay, long toDay) {
+            int idx = upperBound(starts, toDay);
+            return idx == 0 || maxEndPrefix[idx - 1] < fromDay;
+        }
+
+        /**
+         * Liczba elementów tablicy mniejszych lub równych {@code value}.
+         */
+        private static int upperBound(long[] values, long value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.RoomOccupancyMatrixDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serwis budujący macierz zajętości pokoi (pokój × dzień) dla widoku recepcji.
+ * <p>
+ * Macierz powstaje w jednym przejściu po rezerwacjach nachodzących na zakres dat
+ * (dwa zapytania niezależnie od liczby pokoi i dni). Dzień jest zajęty, jeśli mieści się
+ * w przedziale {@code start_date..end_date} (włącznie) rezerwacji o statusie innym niż CANCELLED.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomOccupancyService {
+
+    /** Maksymalna liczba dni w jednym zapytaniu. */
+    public static final int MAX_DAYS = 366;
+
+    private static final String ROOMS_QUERY = """
+            SELECT id, room_number
+            FROM rooms
+            ORDER BY room_number, id
+            """;
+
+    private static final String BOOKINGS_QUERY = """
+            SELECT rr.room_id, r.start_date, r.end_date
+            FROM reservation_rooms rr
+            JOIN reservations r ON rr.reservation_id = r.id
+            WHERE r.status <> 'CANCELLED'
+              AND r.start_date <= ?
+              AND r.end_date >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Buduje macierz zajętości pokoi.
+     *
+     * @param from     data początkowa (włącznie)
+     * @param to       data końcowa (włącznie)
+     * @param encoding "bitset" (domyślnie) lub "rle"
+     * @return macierz zajętości w wybranym kodowaniu
+     */
+    public RoomOccupancyMatrixDTO buildMatrix(LocalDate from, LocalDate to, String encoding) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+
+        List<Long> roomIds = new ArrayList<>();
+        List<String> roomNumbers = new ArrayList<>();
+        jdbcTemplate.query(ROOMS_QUERY, rs -> {
+            roomIds.add(rs.getLong("id"));
+            roomNumbers.add(rs.getString("room_number"));
+        });
+
+        Map<Long, Integer> rowByRoomId = new HashMap<>(roomIds.size() * 2);
+        for (int i = 0; i < roomIds.size(); i++) {
+            rowByRoomId.put(roomIds.get(i), i);
+        }
+
+        // Jedno przejście: każda rezerwacja ustawia ciągły zakres bitów w wierszu swojego pokoju
+        BitSet matrix = new BitSet(roomIds.size() * days);
+        long fromDay = from.toEpochDay();
+        jdbcTemplate.query(BOOKINGS_QUERY, rs -> {
+            Integer row = rowByRoomId.get(rs.getLong("room_id"));
+            if (row == null) {
+                return;
+            }
+            long startOffset = rs.getDate("start_date").toLocalDate().toEpochDay() - fromDay;
+            long endOffset = rs.getDate("end_date").toLocalDate().toEpochDay() - fromDay;
+            int first = (int) Math.max(0, startOffset);
+            int last = (int) Math.min(days - 1, endOffset);
+            if (first <= last) {
+                matrix.set(row * days + first, row * days + last + 1);
+            }
+        }, to, from);
+
+        RoomOccupancyMatrixDTO dto = new RoomOccupancyMatrixDTO();
+        dto.setFrom(from);
+        dto.setTo(to);
+        dto.setDays(days);
+        dto.setRoomIds(roomIds);
+        dto.setRoomNumbers(roomNumbers);
+
+        if ("rle".equalsIgnoreCase(encoding)) {
+            dto.setEncoding("rle");
+            dto.setRuns(encodeRuns(matrix, roomIds.size(), days));
+        } else {
+            dto.setEncoding("bitset");
+            dto.setOccupancy(Base64.getEncoder().encodeToString(matrix.toByteArray()));
+        }
+        return dto;
+    }
+
+    /**
+     * Koduje każdy wiersz macierzy jako ciąg par [dzień początkowy, długość].
+     */
+    private static List<int[]> encodeRuns(BitSet matrix, int rooms, int days) {
+        List<int[]> runs = new ArrayList<>(rooms);
+        for (int row = 0; row < rooms; row++) {
+            int rowStart = row * days;
+            int rowEnd = rowStart + days;
+            List<Integer> values = new ArrayList<>();
+
+            int start = matrix.nextSetBit(rowStart);
+            while (start >= 0 && start < rowEnd) {
+                int end = Math.min(matrix.nextClearBit(start), rowEnd);
+                values.add(start - rowStart);
+                values.add(end - start);
+                start = matrix.nextSetBit(end);
+            }
+
+            runs.add(values.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return runs;
+    }
+}
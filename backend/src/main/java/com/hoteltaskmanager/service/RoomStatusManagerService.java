@@ -2,55 +2,136 @@ package com.hoteltaskmanager.service;
 
 import com.hoteltaskmanager.model.*;
 import com.hoteltaskmanager.repository.MaintenanceRequestRepository;
-import com.hoteltaskmanager.repository.ReservationRepository;
+import com.hoteltaskmanager.repository.ReservationRoomRepository;
 import com.hoteltaskmanager.repository.RoomRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Serwis odpowiedzialny za zarządzanie statusem pokoi na podstawie rezerwacji i zgłoszeń usterek.
+ * <p>
+ * Po zmianie rezerwacji, przypisania pokoju lub zgłoszenia usterki przeliczane są
+ * wyłącznie statusy pokoi, których ta zmiana dotyczy. Pełna przebudowa statusów
+ * wszystkich pokoi jest dostępna jako osobna operacja administracyjna.
  */
 @Service
 public class RoomStatusManagerService {
 
     private final RoomRepository roomRepository;
-    private final ReservationRepository reservationRepository;
+    private final ReservationRoomRepository reservationRoomRepository;
     private final MaintenanceRequestRepository maintenanceRequestRepository;
 
     public RoomStatusManagerService(RoomRepository roomRepository,
-                                    ReservationRepository reservationRepository,
+                                    ReservationRoomRepository reservationRoomRepository,
                                     MaintenanceRequestRepository maintenanceRequestRepository) {
         this.roomRepository = roomRepository;
-        this.reservationRepository = reservationRepository;
+        this.reservationRoomRepository = reservationRoomRepository;
         this.maintenanceRequestRepository = maintenanceRequestRepository;
     }
 
     /**
-     * Odświeża statusy wszystkich pokoi na podstawie ich przypisań do rezerwacji i zgłoszeń.
+     * Pełna przebudowa statusów wszystkich pokoi (operacja administracyjna).
+     * <p>
+     * Zbiory pokoi z aktywną rezerwacją i z otwartym zgłoszeniem usterki pobierane są
+     * dwoma zapytaniami, a zapisywane są tylko pokoje, których status się zmienił.
+     *
+     * @return liczba pokoi, których status został zmieniony
      */
     @Transactional
-    public void refreshRoomStatuses() {
-        List<Room> allRooms = roomRepository.findAll();
+    public int refreshRoomStatuses() {
+        Set<Long> occupiedRoomIds = reservationRoomRepository.findRoomIdsByReservationStatus(ReservationStatus.ACTIVE);
+        Set<Long> outOfServiceRoomIds = maintenanceRequestRepository.findRoomIdsByStatusNot(MaintenanceStatus.COMPLETED);
 
-        for (Room room : allRooms) {
-            boolean hasActiveReservation = reservationRepository.findAll().stream()
-                    .filter(r -> r.getReservationRooms().stream().anyMatch(rr -> rr.getRoom().getId().equals(room.getId())))
-                    .anyMatch(r -> r.getStatus() == ReservationStatus.ACTIVE);
+        return applyStatuses(roomRepository.findAll(), occupiedRoomIds, outOfServiceRoomIds);
+    }
+
+    /**
+     * Przelicza statusy wyłącznie wskazanych pokoi.
+     *
+     * @param roomIds identyfikatory pokoi, których dotyczyła zmiana
+     * @return liczba pokoi, których status został zmieniony
+     */
+    @Transactional
+    public int refreshRoomStatuses(Collection<Long> roomIds) {
+        Set<Long> ids = roomIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
 
-            boolean hasPendingMaintenance = maintenanceRequestRepository.findByRoomId(room.getId()).stream()
-                    .anyMatch(mr -> mr.getStatus() != MaintenanceStatus.COMPLETED);
+        Set<Long> occupiedRoomIds = reservationRoomRepository
+                .findRoomIdsByReservationStatusAndRoomIdIn(ReservationStatus.ACTIVE, ids);
+        Set<Long> outOfServiceRoomIds = maintenanceRequestRepository
+                .findRoomIdsByStatusNotAndRoomIdIn(MaintenanceStatus.COMPLETED, ids);
 
-            if (hasPendingMaintenance) {
-                room.setStatus(RoomStatus.OUT_OF_SERVICE);
-            } else if (hasActiveReservation) {
-                room.setStatus(RoomStatus.OCCUPIED);
+        return applyStatuses(roomRepository.findAllById(ids), occupiedRoomIds, outOfServiceRoomIds);
+    }
+
+    /**
+     * Przelicza status pojedynczego pokoju.
+     *
+     * @param roomId identyfikator pokoju
+     */
+    @Transactional
+    public void refreshRoomStatus(Long roomId) {
+        refreshRoomStatuses(roomId == null ? List.of() : List.of(roomId));
+    }
+
+    /**
+     * Przelicza statusy pokoi przypisanych do danej rezerwacji.
+     *
+     * @param reservationId identyfikator rezerwacji
+     */
+    @Transactional
+    public void refreshRoomStatusesForReservation(Long reservationId) {
+        refreshRoomStatuses(findRoomIdsForReservation(reservationId));
+    }
+
+    /**
+     * Zwraca identyfikatory pokoi przypisanych do rezerwacji.
+     * Przydatne przed usunięciem rezerwacji, aby po usunięciu przeliczyć ich statusy.
+     *
+     * @param reservationId identyfikator rezerwacji
+     * @return zbiór identyfikatorów pokoi
+     */
+    public Set<Long> findRoomIdsForReservation(Long reservationId) {
+        return reservationRoomRepository.findRoomIdsByReservationId(reservationId);
+    }
+
+    /**
+     * Ustala status pokoju. Otwarte zgłoszenie usterki ma priorytet przed aktywną rezerwacją.
+     */
+    private int applyStatuses(List<Room> rooms, Set<Long> occupiedRoomIds, Set<Long> outOfServiceRoomIds) {
+        List<Room> changed = new ArrayList<>();
+
+        for (Room room : rooms) {
+            RoomStatus newStatus;
+            if (outOfServiceRoomIds.contains(room.getId())) {
+                newStatus = RoomStatus.OUT_OF_SERVICE;
+            } else if (occupiedRoomIds.contains(room.getId())) {
+                newStatus = RoomStatus.OCCUPIED;
             } else {
-                room.setStatus(RoomStatus.AVAILABLE);
+                newStatus = RoomStatus.AVAILABLE;
             }
 
-            roomRepository.save(room);
+            if (room.getStatus() != newStatus) {
+                room.setStatus(newStatus);
+                changed.add(room);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            roomRepository.saveAll(changed);
         }
+        return changed.size();
     }
 }
@@ -1,23 +1,66 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.MaintenanceRoom;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.RoomRevenue;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.RoomStatusCount;
+import com.hoteltaskmanager.util.ResultSetValues;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 /**
  * Serwis odpowiedzialny za generowanie raportu dotyczącego stanu pokojów hotelowych.
  * Raport zawiera informacje o statusach pokojów, wymaganej konserwacji oraz przychodach z poszczególnych pokojów.
+ * <p>
+ * Wynik jest zapamiętywany dla danych parametrów ({@link ReportCacheConfig}),
+ * a niezależne zapytania są wykonywane równolegle ({@link ReportQueryExecutor}).
  */
 @Service
 public class RoomStatusReportService {
 
+    static final RowMapper<RoomStatusCount> ROOM_STATUS_MAPPER = (rs, rowNum) -> new RoomStatusCount(
+            rs.getString("status"),
+            ResultSetValues.getLong(rs, "count"),
+            rs.getBigDecimal("percentage"));
+
+    static final RowMapper<MaintenanceRoom> MAINTENANCE_ROOM_MAPPER = (rs, rowNum) -> new MaintenanceRoom(
+            ResultSetValues.getLong(rs, "room_id"),
+            rs.getString("room_number"),
+            ResultSetValues.getInteger(rs, "floor"),
+            rs.getString("status"),
+            ResultSetValues.getLong(rs, "maintenance_request_id"),
+            rs.getString("maintenance_issue"),
+            rs.getObject("request_date", LocalDateTime.class),
+            rs.getString("maintenance_status"),
+            rs.getString("assignee"));
+
+    static final RowMapper<RoomRevenue> ROOM_REVENUE_MAPPER = (rs, rowNum) -> new RoomRevenue(
+            ResultSetValues.getLong(rs, "room_id"),
+            rs.getString("room_number"),
+            ResultSetValues.getInteger(rs, "floor"),
+            ResultSetValues.getInteger(rs, "bed_count"),
+            rs.getBigDecimal("price_per_night"),
+            ResultSetValues.getLong(rs, "total_reservations"),
+            ResultSetValues.getLong(rs, "days_occupied"),
+            rs.getBigDecimal("total_revenue"),
+            rs.getBigDecimal("revenue_per_day"));
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ReportQueryExecutor reportQueryExecutor;
+
     /**
      * Generuje raport dotyczący stanu pokojów hotelowych.
      * Raport zawiera trzy główne sekcje:
@@ -27,10 +70,12 @@ public class RoomStatusReportService {
      *     <li><b>revenuePerRoom</b> – podsumowanie przychodów wygenerowanych przez każdy pokój na podstawie historii rezerwacji</li>
      * </ul>
      *
-     * @return mapa danych raportowych, gdzie klucze to nazwy sekcji raportu, a wartości to listy danych w formacie mapy.
+     * @return dane raportu z trzema sekcjami opisanymi powyżej
      */
-    public Map<String, Object> generateRoomStatusReport() {
-        Map<String, Object> reportData = new HashMap<>();
+    @Cacheable(cacheNames = ReportCacheConfig.ROOM_STATUS, sync = true)
+    public RoomStatusReportDTO generateRoomStatusReport() {
+        RoomStatusReportDTO report = new RoomStatusReportDTO();
+        Map<String, Callable<?>> queries = new LinkedHashMap<>();
 
         // 1. Bieżący wskaźnik zajętości z podziałem na statusy pokojów
         String roomStatusQuery = """
@@ -44,8 +89,10 @@ public class RoomStatusReportService {
                 status
         """;
 
-        List<Map<String, Object>> roomStatus = jdbcTemplate.queryForList(roomStatusQuery);
-        reportData.put("roomStatus", roomStatus);
+        queries.put("roomStatus", Executors.callable(() -> report.setRoomStatus(jdbcTemplate.query(
+                roomStatusQuery,
+                ROOM_STATUS_MAPPER
+        ))));
 
         // 2. Pokoje wymagające konserwacji
         String roomsNeedingMaintenanceQuery = """
@@ -69,8 +116,10 @@ public class RoomStatusReportService {
                 m.request_date ASC
         """;
 
-        List<Map<String, Object>> roomsNeedingMaintenance = jdbcTemplate.queryForList(roomsNeedingMaintenanceQuery);
-        reportData.put("roomsNeedingMaintenance", roomsNeedingMaintenance);
+        queries.put("roomsNeedingMaintenance", Executors.callable(() -> report.setRoomsNeedingMaintenance(jdbcTemplate.query(
+                roomsNeedingMaintenanceQuery,
+                MAINTENANCE_ROOM_MAPPER
+        ))));
 
         // 3. Przychód na pokój w oparciu o historię zajętości
         String revenuePerRoomQuery = """
@@ -97,9 +146,14 @@ public class RoomStatusReportService {
                 total_revenue DESC
         """;
 
-        List<Map<String, Object>> revenuePerRoom = jdbcTemplate.queryForList(revenuePerRoomQuery);
-        reportData.put("revenuePerRoom", revenuePerRoom);
+        queries.put("revenuePerRoom", Executors.callable(() -> report.setRevenuePerRoom(jdbcTemplate.query(
+                revenuePerRoomQuery,
+                ROOM_REVENUE_MAPPER
+        ))));
+
+        // Zadania wypełniają sekcje raportu - all() wraca po zakończeniu wszystkich
+        reportQueryExecutor.all(queries);
 
-        return reportData;
+        return report;
     }
 }
\ No newline at end of file
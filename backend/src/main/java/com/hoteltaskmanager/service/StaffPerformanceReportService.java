@@ -1,22 +1,39 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.config.ReportCacheConfig;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO.EmployeePerformance;
+import com.hoteltaskmanager.util.ResultSetValues;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Serwis odpowiedzialny za generowanie raportu wydajności pracowników hotelu.
  * Raport zawiera dane o liczbie zadań zrealizowanych przez pracowników,
  * wskaźnikach sukcesu oraz średnim czasie realizacji zadań.
+ * <p>
+ * Wynik jest zapamiętywany dla danych parametrów ({@link ReportCacheConfig}).
  */
 @Service
 public class StaffPerformanceReportService {
 
+    static final RowMapper<EmployeePerformance> EMPLOYEE_PERFORMANCE_MAPPER = (rs, rowNum) -> new EmployeePerformance(
+            ResultSetValues.getLong(rs, "employee_id"),
+            rs.getString("employee_name"),
+            rs.getString("role_name"),
+            rs.getString("avatar_filename"),
+            ResultSetValues.getLong(rs, "housekeeping_tasks"),
+            ResultSetValues.getLong(rs, "maintenance_tasks"),
+            ResultSetValues.getLong(rs, "total_tasks"),
+            ResultSetValues.getLong(rs, "completed"),
+            rs.getBigDecimal("success_rate"),
+            rs.getBigDecimal("avg_hours_to_complete"));
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -34,10 +51,11 @@ public class StaffPerformanceReportService {
      *
      * @param startDate data początkowa zakresu raportu (włącznie)
      * @param endDate data końcowa zakresu raportu (włącznie)
-     * @return mapa z danymi raportu, gdzie kluczem jest "tasksByEmployee", a wartością lista map z danymi poszczególnych pracowników
+     * @return dane raportu z listą wyników poszczególnych pracowników ({@code tasksByEmployee})
      */
-    public Map<String, Object> generateStaffPerformanceReport(LocalDate startDate, LocalDate endDate) {
-        Map<String, Object> reportData = new HashMap<>();
+    @Cacheable(cacheNames = ReportCacheConfig.STAFF_PERFORMANCE, sync = true)
+    public StaffPerformanceReportDTO generateStaffPerformanceReport(LocalDate startDate, LocalDate endDate) {
+        StaffPerformanceReportDTO report = new StaffPerformanceReportDTO();
 
         String staffPerformanceQuery = """
             SELECT 
@@ -70,13 +88,12 @@ public class StaffPerformanceReportService {
                 (COUNT(h.id) + COUNT(m.id)) DESC
         """;
 
-        List<Map<String, Object>> staffPerformance = jdbcTemplate.queryForList(
+        report.setTasksByEmployee(jdbcTemplate.query(
                 staffPerformanceQuery,
+                EMPLOYEE_PERFORMANCE_MAPPER,
                 startDate, endDate, startDate, endDate
-        );
-
-        reportData.put("tasksByEmployee", staffPerformance);
+        ));
 
-        return reportData;
+        return report;
     }
 }
\ No newline at end of file
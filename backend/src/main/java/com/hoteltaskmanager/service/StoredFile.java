@@ -0,0 +1,44 @@
+package com.hoteltaskmanager.service;
+
+import java.nio.file.Path;
+
+/**
+ * Położenie zapisanego pliku (raportu lub faktury) - zwykły plik na dysku albo wpis
+ * w archiwum ZIP ({@link RetentionService}).
+ *
+ * @param file  plik na dysku lub plik archiwum
+ * @param entry nazwa wpisu w archiwum (null - zwykły plik)
+ */
+public record StoredFile(Path file, String entry) {
+
+    /**
+     * Zwykły plik na dysku.
+     */
+    public static StoredFile of(Path file) {
+        return new StoredFile(file, null);
+    }
+
+    /**
+     * Wpis w archiwum ZIP.
+     */
+    public static StoredFile archived(Path bundle, String entry) {
+        return new StoredFile(bundle, entry);
+    }
+
+    /**
+     * Czy plik znajduje się w archiwum.
+     */
+    public boolean isArchived() {
+        return entry != null;
+    }
+
+    /**
+     * Nazwa pliku (bez katalogów) - np. do nagłówka {@code Content-Disposition}.
+     */
+    public String fileName() {
+        if (entry == null) {
+            return file.getFileName().toString();
+        }
+        return entry.substring(entry.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,304 @@
+package com.hoteltaskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoteltaskmanager.dto.TaskEventDTO;
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.model.HousekeepingTask;
+import com.hoteltaskmanager.model.MaintenanceRequest;
+import com.hoteltaskmanager.model.RoleName;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serwis kanału push (Server-Sent Events) dla zadań sprzątania i zgłoszeń serwisowych.
+ * <p>
+ * Kontrolery publikują tu zdarzenia utworzenia, edycji i usunięcia. Każde zdarzenie jest
+ * serializowane do JSON raz i trafia do kolejek tylko tych subskrybentów, którzy mogą je zobaczyć:
+ * <ul>
+ *     <li>kierownik i recepcja - wszystkie zdarzenia,</li>
+ *     <li>pokojówki - zadania sprzątania,</li>
+ *     <li>konserwatorzy - zgłoszenia serwisowe,</li>
+ *     <li>każdy pracownik - zmiany encji, w których jest (lub był) przypisany albo które zgłosił.</li>
+ * </ul>
+ * Ostatnie zdarzenia są trzymane w buforze, dzięki czemu klient wznawiający połączenie
+ * z nagłówkiem {@code Last-Event-ID} dostaje tylko to, co przegapił. Jeśli bufor już tego
+ * nie obejmuje, klient dostaje zdarzenie {@code resync} i powinien pobrać listę ponownie.
+ * <p>
+ * Każdy subskrybent ma własną, ograniczoną kolejkę opróżnianą przez osobny wątek wirtualny,
+ * więc wolny klient nie opóźnia pozostałych. Klient, którego kolejka się zapełni, jest rozłączany -
+ * po wznowieniu połączenia dostanie pominięte zdarzenia z bufora albo {@code resync}.
+ */
+@Service
+public class TaskEventService {
+
+    public static final String HOUSEKEEPING_TASK = "HOUSEKEEPING_TASK";
+    public static final String MAINTENANCE_REQUEST = "MAINTENANCE_REQUEST";
+
+    /** Czas życia pojedynczego połączenia SSE - klient wznawia je automatycznie. */
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    /** Liczba ostatnich zdarzeń przechowywanych do wznowienia połączenia. */
+    private static final int REPLAY_BUFFER_SIZE = 1000;
+
+    /** Liczba zdarzeń czekających na wysłanie do jednego klienta, po której klient jest rozłączany. */
+    static final int SUBSCRIBER_QUEUE_SIZE = 256;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Deque<BufferedEvent> replayBuffer = new ArrayDeque<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private long lastEventId = 0;
+
+    public TaskEventService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Rejestruje nowego subskrybenta kanału.
+     *
+     * @param employee    zalogowany pracownik
+     * @param lastEventId ostatnie zdarzenie otrzymane przez klienta (lub null przy pierwszym połączeniu)
+     * @return emiter SSE zwracany przez kontroler
+     */
+    public SseEmitter subscribe(Employee employee, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        RoleName role = employee.getRole() != null ? employee.getRole().getName() : null;
+        Subscriber subscriber = new Subscriber(emitter, employee.getId(), role);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+
+        // Pominięte zdarzenia trafiają do kolejki pod blokadą - nowsze zdarzenia z publish() ich nie wyprzedzą
+        synchronized (this) {
+            List<BufferedEvent> missed = new ArrayList<>();
+            boolean resync = false;
+            if (lastEventId != null) {
+                long oldestBuffered = replayBuffer.isEmpty() ? this.lastEventId + 1 : replayBuffer.peekFirst().id();
+                // Luka w buforze albo numer z poprzedniego uruchomienia serwera
+                resync = lastEventId < oldestBuffered - 1 || lastEventId > this.lastEventId;
+                if (!resync) {
+                    for (BufferedEvent event : replayBuffer) {
+                        if (event.id() > lastEventId && subscriber.canSee(event)) {
+                            missed.add(event);
+                        }
+                    }
+                    // Zaległości większe niż kolejka klienta - taniej pobrać listę od nowa
+                    resync = missed.size() >= SUBSCRIBER_QUEUE_SIZE;
+                }
+            }
+
+            subscribers.add(subscriber);
+            if (resync) {
+                subscriber.enqueue(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+            } else {
+                for (BufferedEvent event : missed) {
+                    subscriber.enqueue(event);
+                }
+            }
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Publikuje zmianę zadania sprzątania.
+     *
+     * @param type             CREATED, UPDATED lub DELETED
+     * @param task             aktualny stan zadania (dla DELETED - stan sprzed usunięcia)
+     * @param previousEmployee pracownik przypisany przed zmianą (opcjonalnie)
+     */
+    public void publishHousekeepingTask(String type, HousekeepingTask task, Employee previousEmployee) {
+        Set<Long> involved = new HashSet<>();
+        addId(involved, previousEmployee);
+        addId(involved, task.getEmployee());
+        publish(HOUSEKEEPING_TASK, type, task.getId(), "DELETED".equals(type) ? null : task,
+                involved, EnumSet.of(RoleName.HOUSEKEEPER));
+    }
+
+    /**
+     * Publikuje zmianę zgłoszenia serwisowego.
+     *
+     * @param type             CREATED, UPDATED lub DELETED
+     * @param request          aktualny stan zgłoszenia (dla DELETED - stan sprzed usunięcia)
+     * @param previousAssignee pracownik przypisany przed zmianą (opcjonalnie)
+     */
+    public void publishMaintenanceRequest(String type, MaintenanceRequest request, Employee previousAssignee) {
+        Set<Long> involved = new HashSet<>();
+        addId(involved, previousAssignee);
+        addId(involved, request.getAssignee());
+        addId(involved, request.getRequester());
+        publish(MAINTENANCE_REQUEST, type, request.getId(), "DELETED".equals(type) ? null : request,
+                involved, EnumSet.of(RoleName.MAINTENANCE));
+    }
+
+    /**
+     * Informuje klientów o zmianie wielu encji naraz (np. po automatycznym przydziale zadań),
+     * po której powinni pobrać listę ponownie.
+     *
+     * @param entity HOUSEKEEPING_TASK lub MAINTENANCE_REQUEST
+     */
+    public void publishResync(String entity) {
+        RoleName role = HOUSEKEEPING_TASK.equals(entity) ? RoleName.HOUSEKEEPER : RoleName.MAINTENANCE;
+        publish(entity, "RESYNC", null, null, Set.of(), EnumSet.of(role));
+    }
+
+    /**
+     * Liczba aktywnych połączeń.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Co 25 sekund wysyła komentarz podtrzymujący połączenia (proxy i przeglądarki zamykają bezczynne strumienie).
+     */
+    @Scheduled(fixedRate = 25000)
+    public void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        sender.shutdownNow();
+    }
+
+    private void publish(String entity, String type, Long entityId, Object data,
+                         Set<Long> involvedEmployeeIds, Set<RoleName> roles) {
+        synchronized (this) {
+            long id = ++lastEventId;
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(new TaskEventDTO(id, entity, type, entityId, data));
+            } catch (JsonProcessingException e) {
+                System.out.println("[ERROR] Nie udało się zserializować zdarzenia " + entity + ": " + e.getMessage());
+                return;
+            }
+            BufferedEvent event = new BufferedEvent(id, json, involvedEmployeeIds, roles);
+            replayBuffer.addLast(event);
+            if (replayBuffer.size() > REPLAY_BUFFER_SIZE) {
+                replayBuffer.removeFirst();
+            }
+
+            // Dodanie do kolejek nie blokuje - wysyłką zajmują się wątki subskrybentów
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.canSee(event)) {
+                    subscriber.enqueue(event);
+                }
+            }
+        }
+    }
+
+    private static void addId(Set<Long> ids, Employee employee) {
+        if (employee != null && employee.getId() != null) {
+            ids.add(employee.getId());
+        }
+    }
+
+    /**
+     * Zdarzenie w buforze: gotowy JSON oraz informacja, kto może je zobaczyć.
+     */
+    private record BufferedEvent(long id, String json, Set<Long> involvedEmployeeIds, Set<RoleName> roles) {
+    }
+
+    /**
+     * Połączenie SSE z własną kolejką zdarzeń. Kolejkę opróżnia najwyżej jeden wątek naraz.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long employeeId;
+        private final RoleName role;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE_SIZE);
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private volatile boolean closed = false;
+
+        Subscriber(SseEmitter emitter, Long employeeId, RoleName role) {
+            this.emitter = emitter;
+            this.employeeId = employeeId;
+            this.role = role;
+        }
+
+        boolean canSee(BufferedEvent event) {
+            if (role == RoleName.MANAGER || role == RoleName.RECEPTIONIST) {
+                return true;
+            }
+            return (role != null && event.roles().contains(role))
+                    || (employeeId != null && event.involvedEmployeeIds().contains(employeeId));
+        }
+
+        void enqueue(BufferedEvent event) {
+            enqueue(SseEmitter.event()
+                    .id(String.valueOf(event.id()))
+                    .name("task")
+                    .data(event.json(), MediaType.APPLICATION_JSON));
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                System.out.println("[INFO] Klient SSE pracownika " + employeeId + " nie nadąża - zamykam połączenie.");
+                close();
+                // complete() czeka na trwające send(), więc nie wywołujemy go pod blokadą publish()
+                execute(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    SseEmitter.SseEventBuilder event;
+                    while (!closed && (event = queue.poll()) != null) {
+                        emitter.send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    return;
+                }
+                draining.set(false);
+                // Zdarzenie mogło zostać dodane po ostatnim poll(), a przed zwolnieniem flagi
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void execute(Runnable task) {
+            try {
+                sender.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Zamykanie aplikacji
+                close();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
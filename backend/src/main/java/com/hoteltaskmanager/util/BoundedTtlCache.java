@@ -0,0 +1,146 @@
+package com.hoteltaskmanager.util;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Implementacja {@link org.springframework.cache.Cache} o ograniczonym rozmiarze (LRU) i czasie życia wpisów.
+ * <p>
+ * {@link #get(Object, Callable)} (używane przez {@code @Cacheable(sync = true)}) scala równoległe
+ * żądania o ten sam klucz - wartość liczy tylko pierwszy wątek, pozostałe czekają na jego wynik.
+ * Obliczenie nie blokuje dostępu do innych kluczy. Wynik obliczenia rozpoczętego przed
+ * {@link #clear()} nie jest zapisywany, bo mógł zostać policzony na nieaktualnych danych.
+ */
+public class BoundedTtlCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final long ttlMillis;
+
+    private final Map<Object, Entry> entries;
+    private final Map<Object, CompletableFuture<Object>> inFlight = new HashMap<>();
+
+    /** Zwiększane przy każdym czyszczeniu - obliczenia z poprzedniej generacji nie trafiają do pamięci. */
+    private long generation = 0;
+
+    /**
+     * @param name       nazwa pamięci podręcznej
+     * @param maxEntries maksymalna liczba wpisów (po przekroczeniu usuwany jest najdawniej używany)
+     * @param ttlMillis  czas życia wpisu w milisekundach
+     */
+    public BoundedTtlCache(String name, int maxEntries, long ttlMillis) {
+        super(true);
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected synchronized Object lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> future;
+        boolean owner = false;
+        long startGeneration;
+        synchronized (this) {
+            Object cached = lookup(key);
+            if (cached != null) {
+                return (T) fromStoreValue(cached);
+            }
+            future = inFlight.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                inFlight.put(key, future);
+                owner = true;
+            }
+            startGeneration = generation;
+        }
+
+        if (!owner) {
+            try {
+                return (T) fromStoreValue(future.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            T value = valueLoader.call();
+            Object storeValue = toStoreValue(value);
+            synchronized (this) {
+                inFlight.remove(key, future);
+                if (startGeneration == generation) {
+                    entries.put(key, new Entry(storeValue, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+            future.complete(storeValue);
+            return value;
+        } catch (Throwable ex) {
+            synchronized (this) {
+                inFlight.remove(key, future);
+            }
+            future.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    @Override
+    public synchronized void put(Object key, Object value) {
+        entries.put(key, new Entry(toStoreValue(value), System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Override
+    public synchronized void evict(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        // Trwające obliczenia dokończą się dla czekających wątków, ale nowe żądania policzą wynik od nowa
+        inFlight.clear();
+    }
+
+    /**
+     * Liczba wpisów (łącznie z wygasłymi, które nie zostały jeszcze usunięte).
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.hoteltaskmanager.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator numerów wersji zmian używanych przez synchronizację przyrostową ({@code ?since=}).
+ * <p>
+ * Wersja to czas w milisekundach od epoki, ale zawsze ściśle rosnący w obrębie procesu -
+ * dwie zmiany w tej samej milisekundzie dostają kolejne numery. Dzięki oparciu o zegar
+ * wersje pozostają rosnące także po restarcie serwera.
+ */
+public final class ChangeVersion {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private ChangeVersion() {
+    }
+
+    /**
+     * Zwraca kolejny numer wersji.
+     */
+    public static long next() {
+        long now = System.currentTimeMillis();
+        return LAST.updateAndGet(last -> Math.max(now, last + 1));
+    }
+
+    /**
+     * Zwraca bieżący numer wersji bez jego zwiększania.
+     */
+    public static long current() {
+        return Math.max(System.currentTimeMillis(), LAST.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.hoteltaskmanager.util;
+
+import com.hoteltaskmanager.dto.KeysetPageDTO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pomocnicze metody stronicowania kluczem (keyset / seek) dla endpointów list.
+ * <p>
+ * Zapytania w repozytoriach mają postać {@code WHERE id < :cursor ... ORDER BY id DESC}
+ * i pobierają o jeden wiersz więcej niż rozmiar strony - po nim poznajemy, czy istnieje
+ * następna strona. Koszt zapytania zależy od rozmiaru strony, a nie od wielkości tabeli,
+ * i w przeciwieństwie do OFFSET nie rośnie z numerem strony.
+ */
+public final class KeysetPaging {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Ogranicza rozmiar strony do zakresu 1..{@link #MAX_LIMIT}.
+     */
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Pageable pobierający stronę powiększoną o jeden wiersz (sortowanie jest w zapytaniu).
+     */
+    public static Pageable probe(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Przycina wynik zapytania do rozmiaru strony i wyznacza kursor następnej strony.
+     *
+     * @param rows  wiersze pobrane z {@link #probe(int)}
+     * @param limit rozmiar strony
+     * @param idOf  funkcja zwracająca klucz sortowania (ID)
+     */
+    public static <T> KeysetPageDTO<T> page(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPageDTO<>(rows, null, limit);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPageDTO<>(List.copyOf(items), idOf.apply(items.get(limit - 1)), limit);
+    }
+
+    /**
+     * Wzorzec LIKE "zawiera" dla filtrów tekstowych (małe litery) lub null dla pustego filtra.
+     */
+    public static String likePattern(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return "%" + text.trim().toLowerCase() + "%";
+    }
+
+    /**
+     * Początek dnia lub null.
+     */
+    public static LocalDateTime startOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    /**
+     * Koniec dnia lub null.
+     */
+    public static LocalDateTime endOfDay(LocalDate date) {
+        return date != null ? date.atTime(LocalTime.MAX) : null;
+    }
+}
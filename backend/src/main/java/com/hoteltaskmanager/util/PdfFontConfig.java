@@ -2,7 +2,6 @@ package com.hoteltaskmanager.util;
 
 import com.itextpdf.text.BaseColor;
 import com.itextpdf.text.Font;
-import com.itextpdf.text.FontFactory;
 import com.itextpdf.text.pdf.BaseFont;
 import org.springframework.stereotype.Component;
 
@@ -27,24 +26,18 @@ public class PdfFontConfig {
 
     /**
      * Inicjalizuje czcionki wykorzystywane w raportach PDF z uwzględnieniem obsługi polskich znaków.
-     * Czcionki są tworzone na podstawie BaseFont z kodowaniem CP1250.
+     * Czcionki są pobierane z {@link PdfFontRegistry} (BaseFont z kodowaniem CP1250) i współdzielone.
      */
-    public PdfFontConfig() {
-        try {
-            FontFactory.registerDirectories();
-
-            baseFont = BaseFont.createFont(BaseFont.TIMES_ROMAN, BaseFont.CP1250, BaseFont.EMBEDDED);
-
-            normalFont = new Font(baseFont, BASE_FONT_SIZE, Font.NORMAL, BaseColor.BLACK);
-            boldFont = new Font(baseFont, BASE_FONT_SIZE, Font.BOLD, BaseColor.BLACK);
-            italicFont = new Font(baseFont, BASE_FONT_SIZE, Font.ITALIC, BaseColor.BLACK);
-            titleFont = new Font(baseFont, BASE_FONT_SIZE + 8, Font.BOLD, BaseColor.BLACK);
-            subtitleFont = new Font(baseFont, BASE_FONT_SIZE + 2, Font.ITALIC, BaseColor.DARK_GRAY);
-            sectionFont = new Font(baseFont, BASE_FONT_SIZE + 4, Font.BOLD, BaseColor.BLACK);
-            headerFont = new Font(baseFont, BASE_FONT_SIZE, Font.BOLD, BaseColor.WHITE);
-        } catch (Exception e) {
-            throw new RuntimeException("Błąd przy inicjalizacji fontów PDF: " + e.getMessage(), e);
-        }
+    public PdfFontConfig(PdfFontRegistry fontRegistry) {
+        baseFont = fontRegistry.getBaseFont(BaseFont.TIMES_ROMAN);
+
+        normalFont = fontRegistry.getFont(BaseFont.TIMES_ROMAN, BASE_FONT_SIZE, Font.NORMAL, BaseColor.BLACK);
+        boldFont = fontRegistry.getFont(BaseFont.TIMES_ROMAN, BASE_FONT_SIZE, Font.BOLD, BaseColor.BLACK);
+        italicFont = fontRegistry.getFont(BaseFont.TIMES_ROMAN, BASE_FONT_SIZE, Font.ITALIC, BaseColor.BLACK);
+        titleFont = fontRegistry.getFont(BaseFont.TIMES_ROMAN, BASE_FONT_SIZE + 8, Font.BOLD, BaseColor.BLACK);
+        subtitleFont = fontRegistry.getFont(BaseFont.TIMES_ROMAN, BASE_FONT_SIZE + 2, Font.ITALIC, BaseColor.DARK_GRAY);
+        sectionFont = fontRegistry.getFont(BaseFont.TIMES_ROMAN, BASE_FONT_SIZE + 4, Font.BOLD, BaseColor.BLACK);
+        headerFont = fontRegistry.getFont(BaseFont.TIMES_ROMAN, BASE_FONT_SIZE, Font.BOLD, BaseColor.WHITE);
     }
 
     /**
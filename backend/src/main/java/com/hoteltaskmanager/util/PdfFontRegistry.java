@@ -0,0 +1,145 @@
+package com.hoteltaskmanager.util;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.pdf.BaseFont;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wspólny rejestr czcionek dla dokumentów PDF (faktury i raporty).
+ * <p>
+ * Każdy plik TTF jest wczytywany i parsowany tylko raz na cały proces, a gotowe obiekty
+ * {@link BaseFont} i {@link Font} są współdzielone przez wszystkie wątki. Czcionki TTF są osadzane
+ * jako podzbiór (IDENTITY_H) - PDF zawiera tylko użyte glify. Nazwy bez rozszerzenia {@code .ttf}
+ * oznaczają standardowe czcionki PDF (np. {@link BaseFont#HELVETICA}) z kodowaniem CP1250, bez osadzania.
+ * <p>
+ * Zwracane {@link Font} są niemodyfikowalne - zmiana rozmiaru, stylu lub koloru rzuca
+ * {@link UnsupportedOperationException}. Wariant czcionki należy pobrać z rejestru
+ * albo utworzyć kopię przez {@code new Font(font)}.
+ */
+@Component
+public class PdfFontRegistry {
+
+    /** Czcionka raportów PDF. */
+    public static final String DEJAVU_SANS = "fonts/DejaVuSans.ttf";
+
+    /** Czcionka faktur. */
+    public static final String LEXEND_PETA = "fonts/LexendPeta-VariableFont_wght.ttf";
+
+    private final Map<String, BaseFont> baseFonts = new ConcurrentHashMap<>();
+    private final Map<FontKey, Font> fonts = new ConcurrentHashMap<>();
+
+    /**
+     * Zwraca czcionkę bazową - plik TTF z classpath lub standardową czcionkę PDF.
+     *
+     * @param name ścieżka do pliku TTF w zasobach albo nazwa standardowej czcionki
+     * @return współdzielona czcionka bazowa
+     */
+    public BaseFont getBaseFont(String name) {
+        return baseFonts.computeIfAbsent(name, PdfFontRegistry::load);
+    }
+
+    /**
+     * Zwraca czarną czcionkę o podanym rozmiarze i stylu.
+     *
+     * @param name  ścieżka do pliku TTF w zasobach albo nazwa standardowej czcionki
+     * @param size  rozmiar w punktach
+     * @param style styl ({@link Font#NORMAL}, {@link Font#BOLD}, ...)
+     * @return współdzielona, niemodyfikowalna czcionka
+     */
+    public Font getFont(String name, float size, int style) {
+        return getFont(name, size, style, BaseColor.BLACK);
+    }
+
+    /**
+     * Zwraca czcionkę o podanym rozmiarze, stylu i kolorze.
+     *
+     * @param name  ścieżka do pliku TTF w zasobach albo nazwa standardowej czcionki
+     * @param size  rozmiar w punktach
+     * @param style styl ({@link Font#NORMAL}, {@link Font#BOLD}, ...)
+     * @param color kolor tekstu
+     * @return współdzielona, niemodyfikowalna czcionka
+     */
+    public Font getFont(String name, float size, int style, BaseColor color) {
+        return fonts.computeIfAbsent(new FontKey(name, size, style, color.getRGB()),
+                key -> new SharedFont(getBaseFont(name), size, style, color));
+    }
+
+    private static BaseFont load(String name) {
+        try {
+            if (!name.endsWith(".ttf")) {
+                return BaseFont.createFont(name, BaseFont.CP1250, BaseFont.NOT_EMBEDDED);
+            }
+
+            byte[] fontBytes;
+            try (InputStream fontStream = PdfFontRegistry.class.getClassLoader().getResourceAsStream(name)) {
+                if (fontStream == null) {
+                    throw new IllegalStateException("Nie znaleziono czcionki: " + name);
+                }
+                fontBytes = fontStream.readAllBytes();
+            }
+
+            // Bez globalnej pamięci iText - rejestr sam przechowuje jedyną instancję
+            BaseFont baseFont = BaseFont.createFont(name, BaseFont.IDENTITY_H, BaseFont.EMBEDDED,
+                    BaseFont.NOT_CACHED, fontBytes, null);
+            baseFont.setSubset(true);
+            System.out.println("[INFO] Wczytano czcionkę PDF: " + name);
+            return baseFont;
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Błąd podczas wczytywania czcionki " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private record FontKey(String name, float size, int style, int rgb) {
+    }
+
+    /**
+     * Czcionka współdzielona między dokumentami i wątkami - nie może być zmieniana.
+     */
+    private static final class SharedFont extends Font {
+
+        SharedFont(BaseFont baseFont, float size, int style, BaseColor color) {
+            super(baseFont, size, style, color);
+        }
+
+        @Override
+        public void setFamily(String family) {
+            throw unmodifiable();
+        }
+
+        @Override
+        public void setSize(float size) {
+            throw unmodifiable();
+        }
+
+        @Override
+        public void setStyle(int style) {
+            throw unmodifiable();
+        }
+
+        @Override
+        public void setStyle(String style) {
+            throw unmodifiable();
+        }
+
+        @Override
+        public void setColor(BaseColor color) {
+            throw unmodifiable();
+        }
+
+        @Override
+        public void setColor(int red, int green, int blue) {
+            throw unmodifiable();
+        }
+
+        private static UnsupportedOperationException unmodifiable() {
+            return new UnsupportedOperationException("Czcionka z rejestru jest współdzielona i nie może być zmieniana");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.hoteltaskmanager.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Odczyt kolumn liczbowych, które mogą mieć wartość NULL, z {@link ResultSet}.
+ * <p>
+ * {@link ResultSet#getLong} i {@link ResultSet#getInt} zwracają 0 dla NULL - tutaj wynikiem
+ * jest wtedy {@code null}, tak jak w {@code queryForList}. Kolumny tekstowe, dziesiętne i dat
+ * ({@code getString}, {@code getBigDecimal}, {@code getObject(.., LocalDate.class)})
+ * obsługują NULL same.
+ */
+public final class ResultSetValues {
+
+    private ResultSetValues() {
+    }
+
+    /**
+     * Wartość kolumny jako {@link Long} albo null.
+     */
+    public static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Wartość kolumny jako {@link Integer} albo null.
+     */
+    public static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hoteltaskmanager.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Skróty SHA-256 tokenów (JWT, tokeny resetu hasła) oraz danych faktur (nazwy plików PDF).
+ * <p>
+ * Tokeny są porównywane i przechowywane wyłącznie w postaci skrótu, więc wyciek
+ * pamięci podręcznej lub bazy danych nie ujawnia działających tokenów.
+ */
+public final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    /**
+     * Zwraca skrót SHA-256 tokenu zapisany szesnastkowo (64 znaki).
+     *
+     * @param token token w postaci jawnej
+     * @return skrót tokenu
+     */
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.hoteltaskmanager.controller;
 
 import com.hoteltaskmanager.config.JwtConfig;
 import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.model.HousekeepingTask;
 import com.hoteltaskmanager.model.Role;
 import com.hoteltaskmanager.model.RoleName;
 import com.hoteltaskmanager.repository.EmployeeRepository;
 import com.hoteltaskmanager.repository.HousekeepingTaskRepository;
 import com.hoteltaskmanager.repository.MaintenanceRequestRepository;
 import com.hoteltaskmanager.repository.RoleRepository;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.TaskEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -63,6 +66,12 @@ class EmployeeControllerTest {
     @MockBean
     private JwtConfig jwtConfig;
 
+    @MockBean
+    private ChangeSyncService changeSyncService;
+
+    @MockBean
+    private TaskEventService taskEventService;
+
     /**
      * Ustawienie mockowanego użytkownika, symulującego aktualnie zalogowanego.
      */
@@ -338,6 +347,35 @@ class EmployeeControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    /**
+     * Test usunięcia pokojówki - jej zadania dostają ślady usunięcia i zdarzenia jak przy pojedynczym usuwaniu.
+     */
+    @Test
+    void shouldRecordDeletionOfAssignedTasksWhenDeletingHousekeeper() throws Exception {
+        Employee employee = new Employee();
+        employee.setId(2L);
+        Role role = new Role();
+        role.setName(RoleName.HOUSEKEEPER);
+        employee.setRole(role);
+
+        HousekeepingTask task1 = new HousekeepingTask();
+        task1.setId(10L);
+        HousekeepingTask task2 = new HousekeepingTask();
+        task2.setId(11L);
+
+        when(employeeRepository.findById(2L)).thenReturn(Optional.of(employee));
+        when(housekeepingTaskRepository.findByEmployeeId(2L)).thenReturn(List.of(task1, task2));
+
+        mockMvc.perform(delete("/api/employees/2"))
+                .andExpect(status().isNoContent());
+
+        verify(housekeepingTaskRepository).deleteAll(List.of(task1, task2));
+        verify(changeSyncService).recordDeletion(ChangeSyncService.HOUSEKEEPING_TASK, 10L);
+        verify(changeSyncService).recordDeletion(ChangeSyncService.HOUSEKEEPING_TASK, 11L);
+        verify(taskEventService).publishHousekeepingTask("DELETED", task1, null);
+        verify(taskEventService).publishHousekeepingTask("DELETED", task2, null);
+    }
+
     /**
      * Test usuwania nieistniejącego pracownika.
      */
@@ -1,10 +1,14 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.HousekeepingTaskSummaryDTO;
+import com.hoteltaskmanager.dto.SyncDeltaDTO;
 import com.hoteltaskmanager.model.Employee;
 import com.hoteltaskmanager.model.HousekeepingStatus;
 import com.hoteltaskmanager.model.HousekeepingTask;
 import com.hoteltaskmanager.model.Room;
 import com.hoteltaskmanager.repository.HousekeepingTaskRepository;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.TaskEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,9 +23,14 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +41,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Zakres testów:
  * <ul>
  *     <li>Pobieranie wszystkich zadań sprzątania</li>
+ *     <li>Projekcja dla tabel ({@code ?view=summary})</li>
+ *     <li>Synchronizacja przyrostowa ({@code ?since=})</li>
  *     <li>Pobieranie zadania po ID</li>
  *     <li>Tworzenie nowego zadania</li>
  *     <li>Aktualizacja zadania</li>
@@ -49,6 +60,12 @@ class HousekeepingTaskControllerTest {
     @Mock
     private HousekeepingTaskRepository housekeepingTaskRepository;
 
+    @Mock
+    private TaskEventService taskEventService;
+
+    @Mock
+    private ChangeSyncService changeSyncService;
+
     @InjectMocks
     private HousekeepingTaskController housekeepingTaskController;
 
@@ -98,6 +115,41 @@ class HousekeepingTaskControllerTest {
                 .andExpect(jsonPath("$[0].description").value("Standardowe sprzątanie pokoju"));
     }
 
+    /**
+     * Test projekcji dla tabel - pokój i pracownik w postaci skróconej, bez roli i e-maila.
+     */
+    @Test
+    void shouldReturnTaskSummaries() throws Exception {
+        when(housekeepingTaskRepository.findAllSummaries()).thenReturn(List.of(
+                new HousekeepingTaskSummaryDTO(1L, null, null, HousekeepingStatus.PENDING, "Sprzątanie",
+                        1L, "201", 1L, "Anna", "Nowak", null)));
+
+        mockMvc.perform(get("/api/housekeeping-tasks").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].room.roomNumber").value("201"))
+                .andExpect(jsonPath("$[0].employee.firstName").value("Anna"))
+                .andExpect(jsonPath("$[0].employee.avatarUrl").value("http://localhost:8080/avatars/default.png"))
+                .andExpect(jsonPath("$[0].employee.email").doesNotExist())
+                .andExpect(jsonPath("$[0].employee.role").doesNotExist());
+    }
+
+    /**
+     * Test synchronizacji przyrostowej - zmienione zadania i ID usuniętych od podanej wersji.
+     */
+    @Test
+    void shouldReturnTasksChangedSinceVersion() throws Exception {
+        when(changeSyncService.<HousekeepingTask>changesSince(eq(ChangeSyncService.HOUSEKEEPING_TASK), eq(100L), any(), any()))
+                .thenReturn(new SyncDeltaDTO<>(200L, false, List.of(testTask), Set.of(7L)));
+
+        mockMvc.perform(get("/api/housekeeping-tasks").param("since", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(200))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.changed[0].id").value(1))
+                .andExpect(jsonPath("$.deleted[0]").value(7));
+    }
+
     /**
      * Test pobierania zadania po ID.
      */
@@ -216,11 +268,14 @@ class HousekeepingTaskControllerTest {
      */
     @Test
     void shouldDeleteTask() throws Exception {
-        when(housekeepingTaskRepository.existsById(1L)).thenReturn(true);
+        when(housekeepingTaskRepository.findById(1L)).thenReturn(Optional.of(testTask));
         doNothing().when(housekeepingTaskRepository).deleteById(1L);
 
         mockMvc.perform(delete("/api/housekeeping-tasks/1"))
                 .andExpect(status().isNoContent());
+
+        verify(taskEventService).publishHousekeepingTask(eq("DELETED"), eq(testTask), isNull());
+        verify(changeSyncService).recordDeletion(ChangeSyncService.HOUSEKEEPING_TASK, 1L);
     }
 
     /**
@@ -228,10 +283,13 @@ class HousekeepingTaskControllerTest {
      */
     @Test
     void shouldReturnNotFoundWhenDeletingNonExistentTask() throws Exception {
-        when(housekeepingTaskRepository.existsById(99L)).thenReturn(false);
+        when(housekeepingTaskRepository.findById(99L)).thenReturn(Optional.empty());
 
         mockMvc.perform(delete("/api/housekeeping-tasks/99"))
                 .andExpect(status().isNotFound());
+
+        verifyNoInteractions(taskEventService);
+        verifyNoInteractions(changeSyncService);
     }
 
     // ---------------- FILTERS ----------------
@@ -1,26 +1,34 @@
 package com.hoteltaskmanager.controller;
 
+import com.hoteltaskmanager.dto.BulkInvoiceRequestDTO;
+import com.hoteltaskmanager.dto.BulkInvoiceResultDTO;
 import com.hoteltaskmanager.model.Invoice;
+import com.hoteltaskmanager.service.BulkInvoiceService;
 import com.hoteltaskmanager.service.InvoiceService;
+import com.hoteltaskmanager.service.StoredFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +39,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Zakres testów:
  * <ul>
  *     <li>Generowanie faktury dla rezerwacji</li>
+ *     <li>Hurtowe generowanie faktur</li>
  *     <li>Odczyt wszystkich faktur</li>
  *     <li>Odczyt faktury po ID</li>
  *     <li>Odczyt faktury po ID rezerwacji</li>
@@ -50,6 +59,9 @@ class InvoiceControllerTest {
     @MockBean
     private InvoiceService invoiceService;
 
+    @MockBean
+    private BulkInvoiceService bulkInvoiceService;
+
     private Invoice sampleInvoice;
 
     /**
@@ -117,6 +129,43 @@ class InvoiceControllerTest {
                 .andExpect(jsonPath("$.companyCountry").value("Testland"));
     }
 
+    /**
+     * Test hurtowego generowania faktur - zwracane jest podsumowanie dla każdej rezerwacji.
+     */
+    @Test
+    void shouldGenerateInvoicesInBulk() throws Exception {
+        BulkInvoiceResultDTO result = new BulkInvoiceResultDTO(1, 1, 0, List.of(
+                new BulkInvoiceResultDTO.Item(101L, BulkInvoiceResultDTO.Outcome.CREATED, 7L, null),
+                new BulkInvoiceResultDTO.Item(102L, BulkInvoiceResultDTO.Outcome.SKIPPED, 3L, "Rezerwacja ma już fakturę")));
+        when(bulkInvoiceService.generateInvoices(any(BulkInvoiceRequestDTO.class))).thenReturn(result);
+
+        mockMvc.perform(post("/api/invoices/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reservationIds\": [101, 102]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.skipped").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].invoiceId").value(7))
+                .andExpect(jsonPath("$.results[1].outcome").value("SKIPPED"));
+
+        verify(bulkInvoiceService).generateInvoices(argThat(request ->
+                request.getReservationIds().equals(List.of(101L, 102L))));
+    }
+
+    /**
+     * Test odrzucenia filtra z odwróconym zakresem dat.
+     */
+    @Test
+    void shouldRejectBulkRequestWithInvalidDateRange() throws Exception {
+        mockMvc.perform(post("/api/invoices/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from\": \"2025-05-31\", \"to\": \"2025-05-01\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(bulkInvoiceService, never()).generateInvoices(any());
+    }
+
     // ---------------- READ ----------------
 
     /**
@@ -160,13 +209,15 @@ class InvoiceControllerTest {
      */
     @Test
     void shouldDownloadInvoicePdf() throws Exception {
-        Resource pdfResource = new FileSystemResource("src/test/resources/invoice.pdf");
-        when(invoiceService.getInvoicePdf(1L)).thenReturn(pdfResource);
+        Path pdfPath = Paths.get("src/test/resources/invoice.pdf");
+        when(invoiceService.getInvoicePdf(1L)).thenReturn(Optional.of(StoredFile.of(pdfPath)));
 
         mockMvc.perform(get("/api/invoices/1/pdf"))
                 .andExpect(status().isOk())
-                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + pdfResource.getFilename()))
-                .andExpect(content().contentType(MediaType.APPLICATION_PDF));
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + pdfPath.getFileName()))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().bytes(Files.readAllBytes(pdfPath)));
     }
 
     // ---------------- DELETE ----------------
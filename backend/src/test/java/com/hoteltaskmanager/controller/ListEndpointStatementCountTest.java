@@ -0,0 +1,173 @@
+package com.hoteltaskmanager.controller;
+
+import com.hoteltaskmanager.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testy liczby zapytań SQL wykonywanych przez endpointy list.
+ * <p>
+ * Dla każdego endpointu liczba zapytań (statystyki Hibernate) jest mierzona dwukrotnie:
+ * po dodaniu kilku wierszy i po dodaniu kolejnych. Liczba musi być taka sama (brak N+1)
+ * i nie większa niż {@link #MAX_STATEMENTS}. Pomiar obejmuje serializację do JSON,
+ * więc wykrywa także leniwe ładowanie powiązań podczas jej trwania.
+ * <p>
+ * Dane testowe są wycofywane po każdym teście.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser(username = "test@example.com", roles = "MANAGER")
+class ListEndpointStatementCountTest {
+
+    /** Zapytanie główne + ewentualne jedno zapytanie wsadowe dla kolekcji. */
+    private static final long MAX_STATEMENTS = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        role = new Role();
+        role.setName(RoleName.HOUSEKEEPER);
+        entityManager.persist(role);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/housekeeping-tasks",
+            "/api/housekeeping-tasks?view=summary",
+            "/api/maintenance-requests",
+            "/api/maintenance-requests?view=summary",
+            "/api/reservations",
+            "/api/reservations?view=summary",
+            "/api/reservations?limit=50",
+            "/api/employees",
+            "/api/rooms",
+            "/api/reports/saved",
+            "/api/reports/saved?limit=50"
+    })
+    void listEndpoint_shouldRunConstantNumberOfStatements(String url) throws Exception {
+        seed(3);
+        long few = countStatements(url);
+
+        seed(10);
+        long many = countStatements(url);
+
+        assertEquals(few, many, "Liczba zapytań rośnie z liczbą wierszy (N+1) dla " + url);
+        assertTrue(many <= MAX_STATEMENTS, url + " wykonuje " + many + " zapytań");
+    }
+
+    /**
+     * Wykonuje żądanie z pustym kontekstem utrwalania i zwraca liczbę przygotowanych zapytań.
+     */
+    private long countStatements(String url) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Dodaje {@code count} kompletów danych: pracownik, pokój, zadanie, zgłoszenie,
+     * rezerwacja z dwoma pokojami i raport - każdy z osobnymi powiązaniami.
+     */
+    private void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Test");
+            employee.setLastName("Statement" + i);
+            employee.setEmail(UUID.randomUUID() + "@statement-count.test");
+            employee.setPassword("secret");
+            employee.setRole(role);
+            entityManager.persist(employee);
+
+            Room room = room();
+            Room secondRoom = room();
+
+            HousekeepingTask task = new HousekeepingTask();
+            task.setEmployee(employee);
+            task.setRoom(room);
+            task.setRequestDate(LocalDateTime.now());
+            task.setStatus(HousekeepingStatus.PENDING);
+            entityManager.persist(task);
+
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setRequester(employee);
+            request.setAssignee(employee);
+            request.setRoom(room);
+            request.setRequestDate(LocalDateTime.now());
+            request.setStatus(MaintenanceStatus.PENDING);
+            entityManager.persist(request);
+
+            Reservation reservation = new Reservation();
+            reservation.setStartDate(LocalDate.now());
+            reservation.setEndDate(LocalDate.now().plusDays(2));
+            reservation.setStatus(ReservationStatus.UPCOMING);
+            reservation.getReservationRooms().add(reservationRoom(reservation, room));
+            reservation.getReservationRooms().add(reservationRoom(reservation, secondRoom));
+            entityManager.persist(reservation);
+
+            Report report = new Report();
+            report.setReportFile("statement-count.pdf");
+            report.setCreatedAt(LocalDateTime.now());
+            report.setReportType(ReportType.values()[0]);
+            report.setCreatedBy(employee);
+            entityManager.persist(report);
+        }
+    }
+
+    private Room room() {
+        Room room = new Room();
+        room.setRoomNumber(UUID.randomUUID().toString().substring(0, 8));
+        room.setFloor(1);
+        room.setBedCount(2);
+        room.setPricePerNight(BigDecimal.valueOf(100));
+        room.setStatus(RoomStatus.AVAILABLE);
+        entityManager.persist(room);
+        return room;
+    }
+
+    private static ReservationRoom reservationRoom(Reservation reservation, Room room) {
+        ReservationRoom reservationRoom = new ReservationRoom();
+        reservationRoom.setReservation(reservation);
+        reservationRoom.setRoom(room);
+        reservationRoom.setGuestCount(1);
+        return reservationRoom;
+    }
+}
@@ -5,6 +5,9 @@ import com.hoteltaskmanager.model.MaintenanceRequest;
 import com.hoteltaskmanager.model.MaintenanceStatus;
 import com.hoteltaskmanager.model.Room;
 import com.hoteltaskmanager.repository.MaintenanceRequestRepository;
+import com.hoteltaskmanager.service.RoomStatusManagerService;
+import com.hoteltaskmanager.service.ChangeSyncService;
+import com.hoteltaskmanager.service.TaskEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +28,8 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -53,6 +58,15 @@ class MaintenanceRequestControllerTest {
     @Mock
     private MaintenanceRequestRepository maintenanceRequestRepository;
 
+    @Mock
+    private RoomStatusManagerService roomStatusManagerService;
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @Mock
+    private ChangeSyncService changeSyncService;
+
     @InjectMocks
     private MaintenanceRequestController maintenanceRequestController;
 
@@ -156,6 +170,9 @@ class MaintenanceRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.description").value("Naprawa kranu w łazience"));
+
+        verify(roomStatusManagerService).refreshRoomStatus(room.getId());
+        verify(taskEventService).publishMaintenanceRequest("CREATED", testRequest, null);
     }
 
     // ---------------- UPDATE ----------------
@@ -198,6 +215,8 @@ class MaintenanceRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("COMPLETED"))
                 .andExpect(jsonPath("$.serviceSummary").value("Wymieniono uszczelkę w kranie"));
+
+        verify(roomStatusManagerService).refreshRoomStatuses(List.of(room.getId(), room.getId()));
     }
 
     /**
@@ -230,11 +249,13 @@ class MaintenanceRequestControllerTest {
      */
     @Test
     void shouldDeleteRequest() throws Exception {
-        when(maintenanceRequestRepository.existsById(1L)).thenReturn(true);
+        when(maintenanceRequestRepository.findById(1L)).thenReturn(Optional.of(testRequest));
         doNothing().when(maintenanceRequestRepository).deleteById(1L);
 
         mockMvc.perform(delete("/api/maintenance-requests/1"))
                 .andExpect(status().isNoContent());
+
+        verify(roomStatusManagerService).refreshRoomStatus(room.getId());
     }
 
     /**
@@ -242,10 +263,12 @@ class MaintenanceRequestControllerTest {
      */
     @Test
     void shouldReturnNotFoundWhenDeletingNonExistentRequest() throws Exception {
-        when(maintenanceRequestRepository.existsById(99L)).thenReturn(false);
+        when(maintenanceRequestRepository.findById(99L)).thenReturn(Optional.empty());
 
         mockMvc.perform(delete("/api/maintenance-requests/99"))
                 .andExpect(status().isNotFound());
+
+        verify(roomStatusManagerService, never()).refreshRoomStatus(any());
     }
 
     // ---------------- FILTERS ----------------
@@ -0,0 +1,139 @@
+package com.hoteltaskmanager.controller;
+
+import com.hoteltaskmanager.model.Role;
+import com.hoteltaskmanager.model.RoleName;
+import com.hoteltaskmanager.util.TokenDigest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pomiar czasu wyszukania tokenu resetu hasła w zależności od liczby pracowników.
+ * <p>
+ * Tabela {@code employee} jest zapełniana do 1 000, 10 000 i 100 000 wierszy, a dla każdego
+ * rozmiaru mierzona jest mediana czasu żądania {@code POST /api/auth/password/reset}
+ * z nieznanym tokenem i z poprawnym tokenem (zbyt krótkie hasło, więc bez kosztu BCrypt).
+ * Czas nie powinien rosnąć z liczbą pracowników.
+ * <p>
+ * Uruchamiany tylko na żądanie: {@code mvn test -Dtest=PasswordResetBenchmarkTest -Dbenchmark=true}.
+ * Dane są wycofywane po teście.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordResetBenchmarkTest {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void resetLatency_shouldNotGrowWithEmployeeCount() throws Exception {
+        Role role = new Role();
+        role.setName(RoleName.HOUSEKEEPER);
+        entityManager.persist(role);
+        entityManager.flush();
+
+        long[] unknownTokenMedians = new long[SIZES.length];
+        long[] validTokenMedians = new long[SIZES.length];
+        int inserted = 0;
+
+        for (int i = 0; i < SIZES.length; i++) {
+            insertEmployees(role.getId(), inserted, SIZES[i]);
+            inserted = SIZES[i];
+
+            // Pracownik z ważnym tokenem na końcu tabeli
+            String token = "benchmark-token-" + SIZES[i];
+            jdbcTemplate.update("UPDATE employee SET reset_token_hash = ?, reset_token_expiry = ? WHERE email = ?",
+                    TokenDigest.sha256Hex(token), Timestamp.valueOf(LocalDateTime.now().plusHours(1)),
+                    email(SIZES[i] - 1));
+
+            unknownTokenMedians[i] = medianNanos("unknown-token");
+            validTokenMedians[i] = medianNanos(token);
+
+            System.out.printf("[INFO] Reset hasła, %d pracowników: nieznany token %.3f ms, poprawny token %.3f ms%n",
+                    SIZES[i], unknownTokenMedians[i] / 1e6, validTokenMedians[i] / 1e6);
+        }
+
+        int last = SIZES.length - 1;
+        assertFlat(unknownTokenMedians[0], unknownTokenMedians[last]);
+        assertFlat(validTokenMedians[0], validTokenMedians[last]);
+    }
+
+    /**
+     * Czas przy 100 000 pracowników może być co najwyżej 3 razy większy niż przy 1 000
+     * (z zapasem 2 ms na szum pomiaru). Pełne przeszukanie tabeli rośnie ok. 100 razy.
+     */
+    private static void assertFlat(long smallest, long largest) {
+        assertTrue(largest <= smallest * 3 + 2_000_000,
+                "Czas resetu rośnie z liczbą pracowników: " + smallest + " ns -> " + largest + " ns");
+    }
+
+    private long medianNanos(String token) throws Exception {
+        String payload = "{\"token\": \"" + token + "\", \"newPassword\": \"123\"}";
+
+        for (int i = 0; i < WARMUP; i++) {
+            reset(payload);
+        }
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            reset(payload);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private void reset(String payload) throws Exception {
+        mockMvc.perform(post("/api/auth/password/reset")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void insertEmployees(Long roleId, int from, int to) {
+        for (int start = from; start < to; start += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(start + BATCH_SIZE, to); i++) {
+                batch.add(new Object[]{"Benchmark", "Employee" + i, email(i), "x", roleId, false});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO employee (first_name, last_name, email, password, role_id, notifications_enabled) " +
+                            "VALUES (?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private static String email(int i) {
+        return "bench-" + i + "@password-reset.test";
+    }
+}
@@ -4,7 +4,9 @@ import com.hoteltaskmanager.model.Employee;
 import com.hoteltaskmanager.repository.EmployeeRepository;
 import com.hoteltaskmanager.security.PasswordHasher;
 import com.hoteltaskmanager.service.EmailService;
+import com.hoteltaskmanager.util.TokenDigest;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -16,9 +18,11 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -69,6 +73,11 @@ class PasswordResetControllerTest {
                         .content(payload))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Link do resetu hasła został wysłany."));
+
+        // W bazie zapisywany jest tylko skrót tokenu wysłanego e-mailem
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(emailService).sendPasswordResetEmail(eq("user@example.com"), token.capture());
+        assertEquals(TokenDigest.sha256Hex(token.getValue()), employee.getResetTokenHash());
     }
 
     /**
@@ -97,10 +106,11 @@ class PasswordResetControllerTest {
     @Test
     void shouldResetPassword() throws Exception {
         Employee employee = new Employee();
-        employee.setResetToken("validToken");
+        employee.setResetTokenHash(TokenDigest.sha256Hex("validToken"));
         employee.setResetTokenExpiry(LocalDateTime.now().plusHours(1));
 
-        Mockito.when(employeeRepository.findAll()).thenReturn(List.of(employee));
+        Mockito.when(employeeRepository.findByResetTokenHash(TokenDigest.sha256Hex("validToken")))
+                .thenReturn(Optional.of(employee));
         Mockito.when(employeeRepository.save(any(Employee.class))).thenReturn(employee);
         Mockito.when(passwordHasher.hashPassword("newPassword")).thenReturn("hashedPassword");
 
@@ -116,6 +126,9 @@ class PasswordResetControllerTest {
                         .content(payload))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Hasło zostało zaktualizowane."));
+
+        assertNull(employee.getResetTokenHash());
+        Mockito.verify(employeeRepository, Mockito.never()).findAll();
     }
 
     /**
@@ -123,7 +136,7 @@ class PasswordResetControllerTest {
      */
     @Test
     void shouldFailResetWhenTokenInvalid() throws Exception {
-        Mockito.when(employeeRepository.findAll()).thenReturn(List.of());
+        Mockito.when(employeeRepository.findByResetTokenHash(any())).thenReturn(Optional.empty());
 
         String payload = """
             {
@@ -145,10 +158,11 @@ class PasswordResetControllerTest {
     @Test
     void shouldFailResetWhenTokenExpired() throws Exception {
         Employee employee = new Employee();
-        employee.setResetToken("expiredToken");
+        employee.setResetTokenHash(TokenDigest.sha256Hex("expiredToken"));
         employee.setResetTokenExpiry(LocalDateTime.now().minusHours(1));
 
-        Mockito.when(employeeRepository.findAll()).thenReturn(List.of(employee));
+        Mockito.when(employeeRepository.findByResetTokenHash(TokenDigest.sha256Hex("expiredToken")))
+                .thenReturn(Optional.of(employee));
 
         String payload = """
             {
@@ -170,10 +184,11 @@ class PasswordResetControllerTest {
     @Test
     void shouldFailResetWhenPasswordTooShort() throws Exception {
         Employee employee = new Employee();
-        employee.setResetToken("validToken");
+        employee.setResetTokenHash(TokenDigest.sha256Hex("validToken"));
         employee.setResetTokenExpiry(LocalDateTime.now().plusHours(1));
 
-        Mockito.when(employeeRepository.findAll()).thenReturn(List.of(employee));
+        Mockito.when(employeeRepository.findByResetTokenHash(TokenDigest.sha256Hex("validToken")))
+                .thenReturn(Optional.of(employee));
 
         String payload = """
             {
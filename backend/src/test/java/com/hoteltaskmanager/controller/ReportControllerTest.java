@@ -1,31 +1,48 @@
 package com.hoteltaskmanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoteltaskmanager.dto.FinancialReportDTO;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO;
+import com.hoteltaskmanager.dto.ReportJobDTO;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO;
 import com.hoteltaskmanager.model.Report;
+import com.hoteltaskmanager.model.ReportJobStatus;
+import com.hoteltaskmanager.model.ReportJobType;
 import com.hoteltaskmanager.model.ReportType;
 import com.hoteltaskmanager.repository.ReportRepository;
 import com.hoteltaskmanager.service.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -62,20 +79,41 @@ class ReportControllerTest {
     @Mock
     private ReportRepository reportRepository;
 
+    @Mock
+    private ReportJobService reportJobService;
+
+    @Mock
+    private ReportDeduplicationService reportDeduplicationService;
+
+    private final ReportQueryExecutor reportQueryExecutor = new ReportQueryExecutor(10, 4);
+
+    @Spy
+    private FileServingService fileServingService = new FileServingService();
+
     @InjectMocks
     private ReportController reportController;
 
-    private Map<String, Object> sampleStaffReport;
-    private Map<String, Object> sampleRoomStatusReport;
-    private Map<String, Object> sampleMaintenanceReport;
-    private Map<String, Object> sampleHousekeepingReport;
-    private Map<String, Object> sampleReservationReport;
-    private Map<String, Object> sampleFinancialReport;
+    private StaffPerformanceReportDTO sampleStaffReport;
+    private RoomStatusReportDTO sampleRoomStatusReport;
+    private MaintenanceIssuesReportDTO sampleMaintenanceReport;
+    private HousekeepingEfficiencyReportDTO sampleHousekeepingReport;
+    private ReservationManagementReportDTO sampleReservationReport;
+    private FinancialReportDTO sampleFinancialReport;
     private Report sampleReport;
     private byte[] samplePdfBytes;
+    private Path samplePdfFile;
+
+    @TempDir
+    Path tempDir;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
+        // Sekcje raportów PDF są zbierane przez atrapy serwisów raportów
+        ReflectionTestUtils.setField(reportController, "reportSectionGenerator", new ReportSectionGenerator(
+                staffPerformanceService, roomStatusService, maintenanceIssuesService, housekeepingService,
+                reservationService, financialService, reportQueryExecutor));
+        ReflectionTestUtils.setField(reportController, "objectMapper", new ObjectMapper().findAndRegisterModules());
+
         // Inicjalizacja obiektu MockMvc
         mockMvc = MockMvcBuilders
                 .standaloneSetup(reportController)
@@ -85,63 +123,34 @@ class ReportControllerTest {
         // Będziemy to robić tylko w testach, które tego potrzebują
 
         // Przygotowanie danych testowych
-        sampleStaffReport = new HashMap<>();
-        List<Map<String, Object>> tasksByEmployee = new ArrayList<>();
-        Map<String, Object> employeeTask = new HashMap<>();
-        employeeTask.put("employee_name", "Jan Kowalski");
-        employeeTask.put("role_name", "HOUSEKEEPER");
-        employeeTask.put("housekeeping_tasks", 10);
-        employeeTask.put("maintenance_tasks", 0);
-        employeeTask.put("total_tasks", 10);
-        employeeTask.put("success_rate", 90.0);
-        tasksByEmployee.add(employeeTask);
-        sampleStaffReport.put("tasksByEmployee", tasksByEmployee);
+        sampleStaffReport = new StaffPerformanceReportDTO();
+        sampleStaffReport.setTasksByEmployee(List.of(new StaffPerformanceReportDTO.EmployeePerformance(
+                1L, "Jan Kowalski", "HOUSEKEEPER", null, 10L, 0L, 10L, 9L, new BigDecimal("90.0"), null)));
 
         // Przygotowanie danych pokojów
-        sampleRoomStatusReport = new HashMap<>();
-        List<Map<String, Object>> roomStatus = new ArrayList<>();
-        Map<String, Object> roomData = new HashMap<>();
-        roomData.put("status", "AVAILABLE");
-        roomData.put("count", 20);
-        roomData.put("percentage", 80.0);
-        roomStatus.add(roomData);
-        sampleRoomStatusReport.put("roomStatus", roomStatus);
+        sampleRoomStatusReport = new RoomStatusReportDTO();
+        sampleRoomStatusReport.setRoomStatus(List.of(
+                new RoomStatusReportDTO.RoomStatusCount("AVAILABLE", 20L, new BigDecimal("80.0"))));
 
         // Przygotowanie danych konserwacji
-        sampleMaintenanceReport = new HashMap<>();
-        Map<String, Object> avgResolutionTime = new HashMap<>();
-        avgResolutionTime.put("avg_hours_to_complete", 5.5);
-        sampleMaintenanceReport.put("avgResolutionTime", avgResolutionTime);
+        sampleMaintenanceReport = new MaintenanceIssuesReportDTO();
+        sampleMaintenanceReport.setAvgResolutionTime(
+                new MaintenanceIssuesReportDTO.ResolutionTime(new BigDecimal("5.5"), 1L, 12L));
 
         // Przygotowanie danych sprzątania
-        sampleHousekeepingReport = new HashMap<>();
-        List<Map<String, Object>> taskCompletionRate = new ArrayList<>();
-        Map<String, Object> taskData = new HashMap<>();
-        taskData.put("employee_name", "Anna Nowak");
-        taskData.put("total_assigned", 15);
-        taskData.put("completed", 14);
-        taskData.put("completion_rate", 93.33);
-        taskCompletionRate.add(taskData);
-        sampleHousekeepingReport.put("taskCompletionRate", taskCompletionRate);
+        sampleHousekeepingReport = new HousekeepingEfficiencyReportDTO();
+        sampleHousekeepingReport.setTaskCompletionRate(List.of(new HousekeepingEfficiencyReportDTO.EmployeeEfficiency(
+                2L, "Anna Nowak", 15L, 14L, 1L, 0L, 0L, new BigDecimal("93.33"), null)));
 
         // Przygotowanie danych rezerwacji
-        sampleReservationReport = new HashMap<>();
-        List<Map<String, Object>> roomAvailabilityForecast = new ArrayList<>();
-        Map<String, Object> forecastData = new HashMap<>();
-        forecastData.put("date", LocalDate.now());
-        forecastData.put("total_rooms", 25);
-        forecastData.put("available_rooms", 10);
-        forecastData.put("occupied_rooms", 15);
-        forecastData.put("occupancy_rate", 60.0);
-        roomAvailabilityForecast.add(forecastData);
-        sampleReservationReport.put("roomAvailabilityForecast", roomAvailabilityForecast);
+        sampleReservationReport = new ReservationManagementReportDTO();
+        sampleReservationReport.setRoomAvailabilityForecast(List.of(new ReservationManagementReportDTO.DailyAvailability(
+                LocalDate.now(), 25L, 10L, 15L, new BigDecimal("60.0"))));
 
         // Przygotowanie danych finansowych
-        sampleFinancialReport = new HashMap<>();
-        Map<String, Object> financialSummary = new HashMap<>();
-        financialSummary.put("total_completed_reservations", 50);
-        financialSummary.put("total_revenue", 25000.0);
-        sampleFinancialReport.put("financialSummary", financialSummary);
+        sampleFinancialReport = new FinancialReportDTO();
+        sampleFinancialReport.setFinancialSummary(new FinancialReportDTO.FinancialSummary(
+                50L, 120L, new BigDecimal("25000.0"), null, null, null, null, null));
 
         // Przygotowanie przykładowego raportu
         sampleReport = new Report();
@@ -152,6 +161,7 @@ class ReportControllerTest {
 
         // Przykładowe dane PDF
         samplePdfBytes = new byte[]{37, 80, 68, 70, 45, 49, 46, 53}; // %PDF-1.5 header
+        samplePdfFile = Files.write(tempDir.resolve("report.pdf"), samplePdfBytes);
     }
 
     // ---------------- JSON Reports Tests ----------------
@@ -237,13 +247,14 @@ class ReportControllerTest {
 
     @Test
     void shouldReturnStaffReportPdf() throws Exception {
+        stubGenerateReport();
         when(staffPerformanceService.generateStaffPerformanceReport(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(sampleStaffReport);
         when(housekeepingService.generateHousekeepingEfficiencyReport(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(sampleHousekeepingReport);
-        when(pdfReportGeneratorService.generateAndSaveStaffReport(any(Map.class), any(LocalDate.class), any(LocalDate.class)))
+        when(pdfReportGeneratorService.generateAndSaveStaffReport(any(ReportSections.class), any(LocalDate.class), any(LocalDate.class), anyString()))
                 .thenReturn(sampleReport);
-        when(reportStorageService.getReportFile(1L)).thenReturn(samplePdfBytes);
+        when(reportStorageService.getReportPath(1L)).thenReturn(samplePdfFile);
 
         mockMvc.perform(get("/api/reports/pdf/staff")
                         .param("startDate", "2025-04-01")
@@ -254,11 +265,12 @@ class ReportControllerTest {
 
     @Test
     void shouldReturnFinancialReportPdf() throws Exception {
+        stubGenerateReport();
         when(financialService.generateFinancialReport(any(String.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(sampleFinancialReport);
-        when(pdfReportGeneratorService.generateAndSaveFinancialReport(any(Map.class), any(String.class), any(LocalDate.class), any(LocalDate.class)))
+        when(pdfReportGeneratorService.generateAndSaveFinancialReport(any(ReportSections.class), any(String.class), any(LocalDate.class), any(LocalDate.class), anyString()))
                 .thenReturn(sampleReport);
-        when(reportStorageService.getReportFile(1L)).thenReturn(samplePdfBytes);
+        when(reportStorageService.getReportPath(1L)).thenReturn(samplePdfFile);
 
         mockMvc.perform(get("/api/reports/pdf/financial")
                         .param("period", "month")
@@ -270,14 +282,15 @@ class ReportControllerTest {
 
     @Test
     void shouldReturnRoomsReportPdf() throws Exception {
+        stubGenerateReport();
         when(roomStatusService.generateRoomStatusReport()).thenReturn(sampleRoomStatusReport);
         when(maintenanceIssuesService.generateMaintenanceIssuesReport(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(sampleMaintenanceReport);
         when(reservationService.generateReservationManagementReport(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(sampleReservationReport);
-        when(pdfReportGeneratorService.generateAndSaveRoomsReport(any(Map.class), any(LocalDate.class), any(LocalDate.class)))
+        when(pdfReportGeneratorService.generateAndSaveRoomsReport(any(ReportSections.class), any(LocalDate.class), any(LocalDate.class), anyString()))
                 .thenReturn(sampleReport);
-        when(reportStorageService.getReportFile(1L)).thenReturn(samplePdfBytes);
+        when(reportStorageService.getReportPath(1L)).thenReturn(samplePdfFile);
 
         mockMvc.perform(get("/api/reports/pdf/rooms")
                         .param("startDate", "2025-04-01")
@@ -288,6 +301,7 @@ class ReportControllerTest {
 
     @Test
     void shouldReturnCompleteReportPdf() throws Exception {
+        stubGenerateReport();
         when(staffPerformanceService.generateStaffPerformanceReport(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(sampleStaffReport);
         when(housekeepingService.generateHousekeepingEfficiencyReport(any(LocalDate.class), any(LocalDate.class)))
@@ -299,9 +313,9 @@ class ReportControllerTest {
                 .thenReturn(sampleReservationReport);
         when(financialService.generateFinancialReport(any(String.class), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(sampleFinancialReport);
-        when(pdfReportGeneratorService.generateAndSaveCompleteReport(any(Map.class), any(String.class), any(LocalDate.class), any(LocalDate.class)))
+        when(pdfReportGeneratorService.generateAndSaveCompleteReport(any(ReportSections.class), any(String.class), any(LocalDate.class), any(LocalDate.class), anyString()))
                 .thenReturn(sampleReport);
-        when(reportStorageService.getReportFile(1L)).thenReturn(samplePdfBytes);
+        when(reportStorageService.getReportPath(1L)).thenReturn(samplePdfFile);
 
         mockMvc.perform(get("/api/reports/pdf/complete")
                         .param("period", "month")
@@ -311,15 +325,31 @@ class ReportControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF));
     }
 
+    @Test
+    void shouldReturnStoredReportPdfWithoutGenerating() throws Exception {
+        when(reportDeduplicationService.findOrGenerate(eq(ReportJobType.ROOMS), any(), any(LocalDate.class),
+                any(LocalDate.class), any())).thenReturn(sampleReport);
+        when(reportStorageService.getReportPath(1L)).thenReturn(samplePdfFile);
+
+        mockMvc.perform(get("/api/reports/pdf/rooms")
+                        .param("startDate", "2025-04-01")
+                        .param("endDate", "2025-05-01"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(samplePdfBytes));
+
+        verifyNoInteractions(roomStatusService, maintenanceIssuesService, reservationService, pdfReportGeneratorService);
+    }
+
     // ---------------- Saved Reports Tests ----------------
 
     @Test
     void shouldReturnSavedReport() throws Exception {
-        when(reportStorageService.getReportFile(1L)).thenReturn(samplePdfBytes);
+        when(reportStorageService.getReportFile(1L)).thenReturn(StoredFile.of(samplePdfFile));
 
         mockMvc.perform(get("/api/reports/saved/1"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_PDF));
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().bytes(samplePdfBytes));
     }
 
     @Test
@@ -338,12 +368,13 @@ class ReportControllerTest {
         List<Report> reports = new ArrayList<>();
         reports.add(sampleReport);
 
-        when(reportRepository.findAll()).thenReturn(reports);
+        when(reportRepository.findPage(isNull(), isNull(), isNull(), isNull(), isNull(), any())).thenReturn(reports);
 
         mockMvc.perform(get("/api/reports/saved"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].reportType").value("EMPLOYEE_STATISTICS"));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].reportType").value("EMPLOYEE_STATISTICS"))
+                .andExpect(jsonPath("$.limit").value(50));
     }
 
     @Test
@@ -354,38 +385,150 @@ class ReportControllerTest {
         List<Report> reports = new ArrayList<>();
         reports.add(sampleReport);
 
-        when(reportRepository.findByReportType(ReportType.EMPLOYEE_STATISTICS)).thenReturn(reports);
+        when(reportRepository.findPage(isNull(), eq(ReportType.EMPLOYEE_STATISTICS), isNull(), isNull(), isNull(), any()))
+                .thenReturn(reports);
 
         mockMvc.perform(get("/api/reports/saved")
                         .param("reportType", "EMPLOYEE_STATISTICS"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].reportType").value("EMPLOYEE_STATISTICS"));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].reportType").value("EMPLOYEE_STATISTICS"));
     }
 
     @Test
-    void shouldDeleteReport() throws Exception {
-        // Konfigurowanie mocka w ramach testu, a nie globalnie
+    void shouldTranslateDateRangeToIdRange() throws Exception {
         when(reportStorageService.getReportRepository()).thenReturn(reportRepository);
+        when(reportRepository.findIdsCreatedFrom(eq(LocalDate.of(2025, 5, 1).atStartOfDay()), any()))
+                .thenReturn(List.of(40L));
+        when(reportRepository.findIdsCreatedTo(any(LocalDateTime.class), any())).thenReturn(List.of(90L));
+        when(reportRepository.findPage(eq(60L), isNull(), isNull(), eq(40L), eq(90L), any()))
+                .thenReturn(List.of(sampleReport));
 
-        // Przygotowanie mocka dla raportu z plikiem
-        Report reportToDelete = new Report();
-        reportToDelete.setId(1L);
-        reportToDelete.setReportType(ReportType.EMPLOYEE_STATISTICS);
-        reportToDelete.setReportFile("test_report.pdf");
+        mockMvc.perform(get("/api/reports/saved")
+                        .param("limit", "20")
+                        .param("cursor", "60")
+                        .param("from", "2025-05-01")
+                        .param("to", "2025-05-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1));
+    }
 
-        when(reportRepository.findById(1L)).thenReturn(Optional.of(reportToDelete));
+    @Test
+    void shouldReturnEmptyPageWhenNoReportInDateRange() throws Exception {
+        when(reportStorageService.getReportRepository()).thenReturn(reportRepository);
+        when(reportRepository.findIdsCreatedFrom(any(LocalDateTime.class), any())).thenReturn(List.of());
+        when(reportRepository.findPage(isNull(), isNull(), isNull(), eq(Long.MAX_VALUE), isNull(), any()))
+                .thenReturn(List.of());
 
-        // Mockowanie metody getReportsStorageLocation
-        when(reportStorageService.getReportsStorageLocation()).thenReturn("./reports");
+        mockMvc.perform(get("/api/reports/saved").param("from", "2030-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
 
-        doNothing().when(reportRepository).delete(any(Report.class));
+    @Test
+    void shouldReturnSavedReportsPageFilteredByAuthor() throws Exception {
+        when(reportStorageService.getReportRepository()).thenReturn(reportRepository);
+        when(reportRepository.findPage(isNull(), eq(ReportType.EMPLOYEE_STATISTICS), eq(3L), isNull(), isNull(), any()))
+                .thenReturn(List.of(sampleReport));
 
-        // Pomiń wywołanie Files.deleteIfExists
+        mockMvc.perform(get("/api/reports/saved")
+                        .param("limit", "20")
+                        .param("reportType", "EMPLOYEE_STATISTICS")
+                        .param("createdBy", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldCountSavedReports() throws Exception {
+        when(reportStorageService.getReportRepository()).thenReturn(reportRepository);
+        when(reportRepository.count()).thenReturn(100000L);
+
+        mockMvc.perform(get("/api/reports/saved/count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(100000));
+    }
+
+    @Test
+    void shouldDeleteReport() throws Exception {
+        // Raport jest tylko oznaczany jako usunięty - plik usuwa zadanie w tle
+        when(reportStorageService.deleteReport(1L)).thenReturn(true);
 
         mockMvc.perform(delete("/api/reports/saved/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.reportId").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFailToDeleteNonExistentReport() throws Exception {
+        when(reportStorageService.deleteReport(99L)).thenReturn(false);
+
+        mockMvc.perform(delete("/api/reports/saved/99"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void shouldSubmitReportJob() throws Exception {
+        ReportJobDTO job = new ReportJobDTO("job-1", ReportJobType.COMPLETE, ReportJobStatus.QUEUED,
+                0, null, null, null, null);
+        when(reportJobService.submit(eq(ReportJobType.COMPLETE), eq("month"), any(LocalDate.class),
+                any(LocalDate.class), any())).thenReturn(job);
+
+        mockMvc.perform(post("/api/reports/jobs")
+                        .param("type", "COMPLETE")
+                        .param("period", "month"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/reports/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void shouldRejectReportJobWhenQueueIsFull() throws Exception {
+        when(reportJobService.submit(any(), any(), any(), any(), any()))
+                .thenThrow(new RejectedExecutionException());
+
+        mockMvc.perform(post("/api/reports/jobs").param("type", "STAFF"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void shouldReturnConflictForUnfinishedReportJobFile() throws Exception {
+        ReportJobDTO job = new ReportJobDTO("job-1", ReportJobType.ROOMS, ReportJobStatus.RUNNING,
+                45, null, null, null, null);
+        when(reportJobService.find("job-1")).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/api/reports/jobs/job-1/file"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.progress").value(45));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownReportJobFile() throws Exception {
+        when(reportJobService.find("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reports/jobs/missing/file"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownReportJob() throws Exception {
+        when(reportJobService.find("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reports/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Raport nie ma zapisanego odpowiednika - generator jest wywoływany z odciskiem.
+     */
+    private void stubGenerateReport() {
+        when(reportDeduplicationService.findOrGenerate(any(), any(), any(LocalDate.class), any(LocalDate.class), any()))
+                .thenAnswer(invocation -> invocation.<Function<String, Report>>getArgument(4).apply("fingerprint"));
+    }
+}
@@ -10,6 +10,7 @@ import com.hoteltaskmanager.model.RoleName;
 import com.hoteltaskmanager.repository.ReservationRepository;
 import com.hoteltaskmanager.repository.ReservationRoomRepository;
 import com.hoteltaskmanager.repository.EmployeeRepository;
+import com.hoteltaskmanager.service.ChangeSyncService;
 import com.hoteltaskmanager.service.InvoiceService;
 import com.hoteltaskmanager.service.RoomStatusManagerService;
 
@@ -26,9 +27,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,6 +43,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * <ul>
  *     <li>Tworzenie, aktualizacja i usuwanie rezerwacji</li>
  *     <li>Pobieranie rezerwacji po ID, statusie i dacie</li>
+ *     <li>Stronicowanie kluczem z filtrami</li>
  * </ul>
  */
 @WithMockUser(username = "test@example.com", roles = "USER")
@@ -53,6 +58,7 @@ class ReservationControllerTest {
     @MockBean private ReservationRoomRepository reservationRoomRepository;
     @MockBean private InvoiceService invoiceService;
     @MockBean private RoomStatusManagerService roomStatusManagerService;
+    @MockBean private ChangeSyncService changeSyncService;
     @MockBean private EmployeeRepository employeeRepository;
 
     /**
@@ -87,7 +93,8 @@ class ReservationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.guestFirstName").value("Mike"));
 
-        verify(roomStatusManagerService).refreshRoomStatuses();
+        verify(roomStatusManagerService).refreshRoomStatusesForReservation(reservation.getId());
+        verify(roomStatusManagerService, never()).refreshRoomStatuses();
     }
 
     // ---------------- UPDATE ----------------
@@ -113,7 +120,8 @@ class ReservationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.guestFirstName").value("New"));
 
-        verify(roomStatusManagerService).refreshRoomStatuses();
+        verify(roomStatusManagerService).refreshRoomStatusesForReservation(1L);
+        verify(roomStatusManagerService, never()).refreshRoomStatuses();
     }
 
     /**
@@ -144,12 +152,13 @@ class ReservationControllerTest {
         reservation.setInvoice(null);
 
         when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(roomStatusManagerService.findRoomIdsForReservation(1L)).thenReturn(Set.of(101L, 102L));
 
         mockMvc.perform(delete("/api/reservations/1"))
                 .andExpect(status().isNoContent());
 
         verify(reservationRepository).deleteById(1L);
-        verify(roomStatusManagerService).refreshRoomStatuses();
+        verify(roomStatusManagerService).refreshRoomStatuses(Set.of(101L, 102L));
     }
 
     /**
@@ -170,7 +179,7 @@ class ReservationControllerTest {
 
         verify(invoiceService).deleteInvoice(5L);
         verify(reservationRepository).deleteById(1L);
-        verify(roomStatusManagerService).refreshRoomStatuses();
+        verify(roomStatusManagerService).refreshRoomStatuses(anySet());
     }
 
     /**
@@ -259,4 +268,51 @@ class ReservationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].startDate").value("2025-01-01"));
     }
+
+    // ---------------- KEYSET PAGINATION ----------------
+
+    /**
+     * Test stronicowania kluczem - repozytorium zwraca o jeden wiersz więcej niż limit,
+     * więc odpowiedź zawiera kursor następnej strony, a filtr gościa jest zamieniany na wzorzec LIKE.
+     */
+    @Test
+    void shouldReturnKeysetPageWithNextCursor() throws Exception {
+        Reservation r5 = new Reservation();
+        r5.setId(5L);
+        Reservation r4 = new Reservation();
+        r4.setId(4L);
+        Reservation r3 = new Reservation();
+        r3.setId(3L);
+
+        when(reservationRepository.findPage(eq(10L), eq(ReservationStatus.ACTIVE), isNull(), isNull(),
+                eq("%kowalski%"), isNull(), any())).thenReturn(List.of(r5, r4, r3));
+
+        mockMvc.perform(get("/api/reservations")
+                        .param("limit", "2")
+                        .param("cursor", "10")
+                        .param("status", "ACTIVE")
+                        .param("guest", " Kowalski "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[1].id").value(4))
+                .andExpect(jsonPath("$.nextCursor").value(4))
+                .andExpect(jsonPath("$.limit").value(2));
+    }
+
+    /**
+     * Test ostatniej strony - brak kursora następnej strony.
+     */
+    @Test
+    void shouldReturnLastKeysetPageWithoutCursor() throws Exception {
+        Reservation r1 = new Reservation();
+        r1.setId(1L);
+
+        when(reservationRepository.findPage(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(List.of(r1));
+
+        mockMvc.perform(get("/api/reservations").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
 }
@@ -102,7 +102,8 @@ class ReservationRoomControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(11L));
 
-        verify(roomStatusManagerService, times(1)).refreshRoomStatuses();
+        verify(roomStatusManagerService, times(1)).refreshRoomStatus(101L);
+        verify(roomStatusManagerService, never()).refreshRoomStatuses();
     }
 
     /**
@@ -154,7 +155,8 @@ class ReservationRoomControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.guestCount").value(3));
 
-        verify(roomStatusManagerService, times(1)).refreshRoomStatuses();
+        verify(roomStatusManagerService, times(1)).refreshRoomStatuses(List.of(101L, 101L));
+        verify(roomStatusManagerService, never()).refreshRoomStatuses();
     }
 
     /**
@@ -200,7 +202,7 @@ class ReservationRoomControllerTest {
                 .andExpect(status().isNoContent());
 
         verify(reservationRoomRepository, times(1)).deleteById(10L);
-        verify(roomStatusManagerService, times(1)).refreshRoomStatuses();
+        verify(roomStatusManagerService, times(1)).refreshRoomStatus(101L);
     }
 
     /**
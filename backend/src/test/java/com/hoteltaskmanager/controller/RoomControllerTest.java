@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hoteltaskmanager.model.Room;
 import com.hoteltaskmanager.model.RoomStatus;
 import com.hoteltaskmanager.repository.RoomRepository;
+import com.hoteltaskmanager.service.ChangeSyncService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,6 +57,9 @@ class RoomControllerTest {
     @MockBean
     private RoomRepository roomRepository;
 
+    @MockBean
+    private ChangeSyncService changeSyncService;
+
     private Room room1;
     private Room room2;
     private List<Room> allRooms;
@@ -0,0 +1,93 @@
+package com.hoteltaskmanager.security;
+
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.model.Role;
+import com.hoteltaskmanager.model.RoleName;
+import com.hoteltaskmanager.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link EmployeePrincipalCache}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Pracownik jest wczytywany z bazy tylko raz</li>
+ *     <li>Unieważnienie po zmianie pracownika wymusza ponowne wczytanie</li>
+ *     <li>Odczyt zalogowanego pracownika z principala bez zapytania do bazy</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class EmployeePrincipalCacheTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @InjectMocks
+    private EmployeePrincipalCache cache;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName(RoleName.MANAGER);
+
+        employee = new Employee();
+        employee.setId(7L);
+        employee.setEmail("jan@hotel.pl");
+        employee.setRole(role);
+    }
+
+    @Test
+    void load_shouldQueryRepositoryOnlyOnce() {
+        when(employeeRepository.findByEmail("jan@hotel.pl")).thenReturn(Optional.of(employee));
+
+        EmployeePrincipal first = cache.load("jan@hotel.pl").orElseThrow();
+        EmployeePrincipal second = cache.load("jan@hotel.pl").orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("jan@hotel.pl", first.getName());
+        assertEquals(RoleName.MANAGER, first.getRoleName());
+        verify(employeeRepository, times(1)).findByEmail("jan@hotel.pl");
+    }
+
+    @Test
+    void invalidate_shouldReloadEmployee() {
+        when(employeeRepository.findByEmail("jan@hotel.pl")).thenReturn(Optional.of(employee));
+
+        cache.load("jan@hotel.pl");
+        cache.invalidate(7L);
+        cache.load("jan@hotel.pl");
+
+        verify(employeeRepository, times(2)).findByEmail("jan@hotel.pl");
+    }
+
+    @Test
+    void load_shouldReturnEmptyForDeletedEmployee() {
+        when(employeeRepository.findByEmail("usuniety@hotel.pl")).thenReturn(Optional.empty());
+
+        assertTrue(cache.load("usuniety@hotel.pl").isEmpty());
+    }
+
+    @Test
+    void currentEmployee_shouldUsePrincipalWithoutRepository() {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(new EmployeePrincipal(employee), null, List.of());
+
+        assertSame(employee, cache.currentEmployee(authentication).orElseThrow());
+        assertEquals("jan@hotel.pl", authentication.getName());
+        verifyNoInteractions(employeeRepository);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hoteltaskmanager.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe dla {@link StreamTicketService}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Wykorzystanie biletu zwraca e-mail pracownika</li>
+ *     <li>Bilet może być użyty tylko raz</li>
+ *     <li>Nieznany bilet jest odrzucany</li>
+ * </ul>
+ */
+class StreamTicketServiceTest {
+
+    private final StreamTicketService streamTicketService = new StreamTicketService();
+
+    @Test
+    void redeem_shouldReturnEmailOnlyOnce() {
+        String ticket = streamTicketService.issue("jan.kowalski@hotel.pl");
+
+        assertEquals(Optional.of("jan.kowalski@hotel.pl"), streamTicketService.redeem(ticket));
+        assertEquals(Optional.empty(), streamTicketService.redeem(ticket));
+    }
+
+    @Test
+    void redeem_shouldRejectUnknownTicket() {
+        streamTicketService.issue("jan.kowalski@hotel.pl");
+
+        assertEquals(Optional.empty(), streamTicketService.redeem("nieznany-bilet"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.hoteltaskmanager.security;
+
+import com.hoteltaskmanager.config.JwtConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link VerifiedTokenCache}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Ponowne użycie tokenu nie wymaga weryfikacji podpisu</li>
+ *     <li>Nieprawidłowe tokeny nie trafiają do pamięci podręcznej</li>
+ *     <li>Tokeny bez daty wygaśnięcia nie są zapamiętywane</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtConfig jwtConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtConfig, meterRegistry);
+    }
+
+    @Test
+    void verify_shouldValidateTokenOnlyOnce() {
+        Claims claims = Jwts.claims()
+                .setSubject("jan@hotel.pl")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtConfig.validateToken("token")).thenReturn(claims);
+
+        assertEquals("jan@hotel.pl", cache.verify("token").getSubject());
+        assertEquals("jan@hotel.pl", cache.verify("token").getSubject());
+
+        verify(jwtConfig, times(1)).validateToken("token");
+        assertEquals(1, cache.size());
+        assertEquals(1.0, meterRegistry.get("jwt.token.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.token.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void verify_shouldNotCacheInvalidToken() {
+        when(jwtConfig.validateToken("zly")).thenThrow(new MalformedJwtException("zly token"));
+
+        assertThrows(MalformedJwtException.class, () -> cache.verify("zly"));
+        assertThrows(MalformedJwtException.class, () -> cache.verify("zly"));
+
+        verify(jwtConfig, times(2)).validateToken("zly");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void verify_shouldNotCacheTokenWithoutExpiration() {
+        when(jwtConfig.validateToken("bez-exp")).thenReturn(Jwts.claims().setSubject("jan@hotel.pl"));
+
+        cache.verify("bez-exp");
+        cache.verify("bez-exp");
+
+        verify(jwtConfig, times(2)).validateToken("bez-exp");
+        assertEquals(0, cache.size());
+    }
+}
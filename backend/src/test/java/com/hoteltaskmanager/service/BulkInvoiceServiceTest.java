@@ -0,0 +1,262 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.BulkInvoiceRequestDTO;
+import com.hoteltaskmanager.dto.BulkInvoiceResultDTO;
+import com.hoteltaskmanager.dto.BulkInvoiceResultDTO.Outcome;
+import com.hoteltaskmanager.model.Reservation;
+import com.hoteltaskmanager.model.ReservationStatus;
+import com.hoteltaskmanager.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link BulkInvoiceService}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Wynik dla każdej rezerwacji (wystawiona, pominięta, błąd generowania PDF)</li>
+ *     <li>Wybór rezerwacji filtrem</li>
+ *     <li>Pominięcie rezerwacji, która w międzyczasie dostała fakturę</li>
+ *     <li>Błąd zapisu porcji</li>
+ *     <li>Przetwarzanie porcjami</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkInvoiceServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private InvoiceService invoiceService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ReportCacheInvalidator reportCacheInvalidator;
+
+    /** Wiersze rezerwacji "w bazie" - ID rezerwacji -> ID faktury (null - brak faktury). */
+    private final Map<Long, Long> reservations = new HashMap<>();
+    private final AtomicLong nextInvoiceId = new AtomicLong(100);
+
+    private BulkInvoiceService bulkInvoiceService;
+
+    @BeforeEach
+    void setUp() {
+        bulkInvoiceService = new BulkInvoiceService(reservationRepository, invoiceService, jdbcTemplate,
+                transactionTemplate, reportCacheInvalidator, 2);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            // Mockito rozwija varargs - ID rezerwacji to kolejne argumenty od indeksu 2
+            Object[] arguments = invocation.getArguments();
+            for (int i = 2; i < arguments.length; i++) {
+                Long id = (Long) arguments[i];
+                if (reservations.containsKey(id)) {
+                    handler.processRow(resultSet(row(id, reservations.get(id))));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkInvoiceService.shutdown();
+    }
+
+    @Test
+    void generateInvoices_shouldReportOutcomeForEachReservation() throws Exception {
+        reservations.put(1L, null);
+        reservations.put(2L, 9L);
+        reservations.put(3L, null);
+        stubSuccessfulPersist();
+        doAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(1);
+            if (reservation.getId() == 3L) {
+                throw new IllegalStateException("brak czcionki");
+            }
+            return null;
+        }).when(invoiceService).storePdf(any(), any(), anyList());
+
+        BulkInvoiceResultDTO result = bulkInvoiceService.generateInvoices(request(3L, 1L, 2L, 4L, 1L));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getSkipped());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(1L, 2L, 3L, 4L), result.getResults().stream()
+                .map(BulkInvoiceResultDTO.Item::getReservationId).toList());
+
+        assertEquals(Outcome.CREATED, result.getResults().get(0).getOutcome());
+        assertEquals(100L, result.getResults().get(0).getInvoiceId());
+        assertEquals(Outcome.SKIPPED, result.getResults().get(1).getOutcome());
+        assertEquals(9L, result.getResults().get(1).getInvoiceId());
+        assertEquals(Outcome.FAILED, result.getResults().get(2).getOutcome());
+        assertTrue(result.getResults().get(2).getMessage().contains("brak czcionki"));
+        assertEquals(Outcome.SKIPPED, result.getResults().get(3).getOutcome());
+
+        // Plik zapisanej faktury jest sprawdzany ponownie po zapisie porcji
+        verify(invoiceService).ensurePdfFile(any(), any(), anyList());
+        verify(reportCacheInvalidator).invalidateTables("invoices", "reservations");
+    }
+
+    @Test
+    void generateInvoices_shouldSelectCompletedReservationsWithoutInvoice() {
+        LocalDate from = LocalDate.of(2025, 5, 1);
+        LocalDate to = LocalDate.of(2025, 5, 31);
+        reservations.put(5L, null);
+        when(reservationRepository.findIdsWithoutInvoice(ReservationStatus.COMPLETED, from, to)).thenReturn(List.of(5L));
+        stubSuccessfulPersist();
+
+        BulkInvoiceRequestDTO request = new BulkInvoiceRequestDTO();
+        request.setFrom(from);
+        request.setTo(to);
+        BulkInvoiceResultDTO result = bulkInvoiceService.generateInvoices(request);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(5L, result.getResults().get(0).getReservationId());
+    }
+
+    @Test
+    void generateInvoices_shouldDropInvoiceWhenReservationWasInvoicedConcurrently() {
+        reservations.put(1L, null);
+        stubTransaction();
+        stubInsert();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[]{0});
+
+        BulkInvoiceResultDTO result = bulkInvoiceService.generateInvoices(request(1L));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(Outcome.SKIPPED, result.getResults().get(0).getOutcome());
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM invoices WHERE id = ?"), anyList());
+        verify(reportCacheInvalidator, never()).invalidateTables(any(String[].class));
+    }
+
+    @Test
+    void generateInvoices_shouldMarkChunkFailedWhenPersistFails() {
+        reservations.put(1L, null);
+        reservations.put(2L, null);
+        stubTransaction();
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenThrow(new DataAccessResourceFailureException("brak połączenia"));
+
+        BulkInvoiceResultDTO result = bulkInvoiceService.generateInvoices(request(1L, 2L));
+
+        assertEquals(2, result.getFailed());
+        assertTrue(result.getResults().stream().allMatch(item -> item.getOutcome() == Outcome.FAILED));
+        verify(reportCacheInvalidator, never()).invalidateTables(any(String[].class));
+    }
+
+    @Test
+    void generateInvoices_shouldProcessReservationsInChunks() {
+        int count = BulkInvoiceService.CHUNK_SIZE * 2 + 1;
+        LongStream.rangeClosed(1, count).forEach(id -> reservations.put(id, null));
+        stubSuccessfulPersist();
+
+        BulkInvoiceResultDTO result = bulkInvoiceService.generateInvoices(
+                request(LongStream.rangeClosed(1, count).boxed().toArray(Long[]::new)));
+
+        assertEquals(count, result.getCreated());
+        verify(jdbcTemplate, times(3)).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+    }
+
+    private void stubSuccessfulPersist() {
+        stubTransaction();
+        stubInsert();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<BatchPreparedStatementSetter>getArgument(1).getBatchSize()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    private void stubTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private void stubInsert() {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keyHolder = invocation.getArgument(2);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keyHolder.getKeyList().add(Map.of("GENERATED_KEY", nextInvoiceId.getAndIncrement()));
+            }
+            return new int[setter.getBatchSize()];
+        });
+    }
+
+    private static BulkInvoiceRequestDTO request(Long... reservationIds) {
+        BulkInvoiceRequestDTO request = new BulkInvoiceRequestDTO();
+        request.setReservationIds(Arrays.stream(reservationIds).collect(Collectors.toList()));
+        return request;
+    }
+
+    private static Map<String, Object> row(Long reservationId, Long invoiceId) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", reservationId);
+        row.put("start_date", LocalDate.of(2025, 5, 1));
+        row.put("end_date", LocalDate.of(2025, 5, 3));
+        row.put("invoice_id", invoiceId);
+        row.put("guest_first_name", "Jan");
+        row.put("guest_last_name", "Kowalski");
+        row.put("guest_count", 2);
+        row.put("room_number", "101");
+        row.put("bed_count", 2);
+        row.put("price_per_night", new BigDecimal("200.00"));
+        return row;
+    }
+
+    /**
+     * Wiersz wyniku zapytania - odczyt kolumn po nazwie z obsługą {@code wasNull()}.
+     */
+    private static ResultSet resultSet(Map<String, Object> row) {
+        AtomicBoolean wasNull = new AtomicBoolean();
+        return mock(ResultSet.class, invocation -> {
+            if (invocation.getMethod().getName().equals("wasNull")) {
+                return wasNull.get();
+            }
+            Object value = row.get(invocation.<String>getArgument(0));
+            wasNull.set(value == null);
+            return switch (invocation.getMethod().getName()) {
+                case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                default -> value;
+            };
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.SyncDeltaDTO;
+import com.hoteltaskmanager.model.SyncTombstone;
+import com.hoteltaskmanager.repository.SyncTombstoneRepository;
+import com.hoteltaskmanager.util.ChangeVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link ChangeSyncService}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Pierwsza synchronizacja zwraca pełną listę</li>
+ *     <li>Kolejna synchronizacja zwraca tylko zmiany i ślady usunięć</li>
+ *     <li>Zbyt stara wersja wymusza pełną listę</li>
+ *     <li>Zapis śladu usunięcia</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class ChangeSyncServiceTest {
+
+    @Mock
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @InjectMocks
+    private ChangeSyncService changeSyncService;
+
+    @Test
+    void changesSince_shouldReturnFullListOnFirstSync() {
+        SyncDeltaDTO<String> delta = changeSyncService.changesSince(ChangeSyncService.ROOM, 0,
+                () -> List.of("a", "b"), since -> fail("Nie powinno pytać o zmiany"));
+
+        assertTrue(delta.isFull());
+        assertEquals(List.of("a", "b"), delta.getChanged());
+        assertTrue(delta.getDeleted().isEmpty());
+        assertTrue(delta.getVersion() > 0);
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void changesSince_shouldReturnOnlyChangesAndDeletions() {
+        long since = ChangeVersion.current() - 60_000;
+        when(tombstoneRepository.findDeletedIdsSince(ChangeSyncService.ROOM, since)).thenReturn(Set.of(3L));
+
+        SyncDeltaDTO<String> delta = changeSyncService.changesSince(ChangeSyncService.ROOM, since,
+                () -> fail("Nie powinno pobierać pełnej listy"), version -> List.of("changed-after-" + version));
+
+        assertFalse(delta.isFull());
+        assertEquals(List.of("changed-after-" + since), delta.getChanged());
+        assertEquals(Set.of(3L), delta.getDeleted());
+        // Wersja cofnięta o margines bezpieczeństwa, ale nie wcześniejsza niż since
+        assertTrue(delta.getVersion() >= since);
+        assertTrue(delta.getVersion() <= ChangeVersion.current() - ChangeSyncService.SAFETY_WINDOW_MS);
+    }
+
+    @Test
+    void changesSince_shouldReturnFullListWhenTombstonesExpired() {
+        long since = ChangeVersion.current() - ChangeSyncService.TOMBSTONE_RETENTION_MS - 1_000;
+
+        SyncDeltaDTO<String> delta = changeSyncService.changesSince(ChangeSyncService.ROOM, since,
+                () -> List.of("a"), version -> fail("Nie powinno pytać o zmiany"));
+
+        assertTrue(delta.isFull());
+        assertEquals(List.of("a"), delta.getChanged());
+        verify(tombstoneRepository, never()).findDeletedIdsSince(anyString(), anyLong());
+    }
+
+    @Test
+    void recordDeletion_shouldSaveTombstone() {
+        long before = ChangeVersion.current();
+
+        changeSyncService.recordDeletion(ChangeSyncService.HOUSEKEEPING_TASK, 42L);
+
+        ArgumentCaptor<SyncTombstone> captor = ArgumentCaptor.forClass(SyncTombstone.class);
+        verify(tombstoneRepository).save(captor.capture());
+        assertEquals(ChangeSyncService.HOUSEKEEPING_TASK, captor.getValue().getEntityType());
+        assertEquals(42L, captor.getValue().getEntityId());
+        assertTrue(captor.getValue().getChangeVersion() >= before);
+    }
+}
@@ -0,0 +1,123 @@
+package com.hoteltaskmanager.service;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Lokalna atrapa {@link JavaMailSender} do testów wysyłki bez serwera SMTP.
+ * <p>
+ * Każde wywołanie {@code send(...)} liczy się jako jedno połączenie. Można zasymulować
+ * nieudane połączenia ({@link #failNextConnections(int)}), odrzucenie wybranych odbiorców
+ * ({@link #rejectRecipient(String)}) oraz czas wysyłki pojedynczej wiadomości.
+ */
+public class FakeJavaMailSender implements JavaMailSender {
+
+    private final List<SimpleMailMessage> sentMessages = Collections.synchronizedList(new ArrayList<>());
+    private final List<MimeMessage> sentMimeMessages = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> rejectedRecipients = Collections.synchronizedSet(new HashSet<>());
+
+    private int connections = 0;
+    private int failingConnections = 0;
+    private long perMessageDelayMillis = 0;
+
+    /**
+     * Kolejne {@code count} połączeń zakończy się błędem (żadna wiadomość nie zostanie wysłana).
+     */
+    public synchronized void failNextConnections(int count) {
+        this.failingConnections = count;
+    }
+
+    /**
+     * Wiadomości do podanego odbiorcy będą odrzucane przez "serwer".
+     */
+    public void rejectRecipient(String recipient) {
+        rejectedRecipients.add(recipient);
+    }
+
+    /**
+     * Czas wysyłki jednej wiadomości (symulacja wolnego serwera).
+     */
+    public void setPerMessageDelayMillis(long perMessageDelayMillis) {
+        this.perMessageDelayMillis = perMessageDelayMillis;
+    }
+
+    public List<SimpleMailMessage> getSentMessages() {
+        return List.copyOf(sentMessages);
+    }
+
+    public List<MimeMessage> getSentMimeMessages() {
+        return List.copyOf(sentMimeMessages);
+    }
+
+    public synchronized int getConnections() {
+        return connections;
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        openConnection();
+
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        for (SimpleMailMessage message : simpleMessages) {
+            delay();
+            String recipient = message.getTo() != null && message.getTo().length > 0 ? message.getTo()[0] : null;
+            if (recipient != null && rejectedRecipients.contains(recipient)) {
+                failed.put(message, new MailSendException("550 Odbiorca odrzucony: " + recipient));
+            } else {
+                sentMessages.add(message);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            throw new MailSendException("Nie wysłano " + failed.size() + " wiadomości", null, failed);
+        }
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        openConnection();
+        for (MimeMessage message : mimeMessages) {
+            delay();
+            sentMimeMessages.add(message);
+        }
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(Session.getInstance(new Properties()));
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        try {
+            return new MimeMessage(Session.getInstance(new Properties()), contentStream);
+        } catch (Exception e) {
+            throw new MailSendException("Nie można odczytać wiadomości", e);
+        }
+    }
+
+    private synchronized void openConnection() {
+        connections++;
+        if (failingConnections > 0) {
+            failingConnections--;
+            throw new MailSendException("Connection refused");
+        }
+    }
+
+    private void delay() {
+        if (perMessageDelayMillis > 0) {
+            try {
+                Thread.sleep(perMessageDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
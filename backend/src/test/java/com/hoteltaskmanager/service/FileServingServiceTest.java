@@ -0,0 +1,161 @@
+package com.hoteltaskmanager.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe dla {@link FileServingService}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Wysłanie całego pliku z nagłówkami walidacji</li>
+ *     <li>Odpowiedź 304 dla aktualnej kopii klienta</li>
+ *     <li>Zakresy bajtów (206, 416, If-Range)</li>
+ *     <li>Przekazanie pliku do sendfile Tomcata</li>
+ *     <li>Wysłanie wpisu archiwum ZIP (całość i zakres)</li>
+ * </ul>
+ */
+class FileServingServiceTest {
+
+    private final FileServingService fileServingService = new FileServingService();
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(tempDir.resolve("report.pdf"), "%PDF-1.7 test", StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void serve_shouldSendWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/file"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("%PDF-1.7 test", response.getContentAsString());
+        assertEquals(13, response.getContentLength());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("inline", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void serve_shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        String etag = serve(new MockHttpServletRequest("GET", "/file")).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void serve_shouldSendRequestedRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader(HttpHeaders.RANGE, "bytes=1-3");
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("PDF", response.getContentAsString());
+        assertEquals("bytes 1-3/13", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void serve_shouldRejectRangeOutsideFile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-200");
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */13", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void serve_shouldIgnoreRangeWhenFileChanged() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader(HttpHeaders.RANGE, "bytes=1-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stary\"");
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("%PDF-1.7 test", response.getContentAsString());
+    }
+
+    @Test
+    void serve_shouldDelegateToSendfileWhenSupported() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(0L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(13L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    void serve_shouldReturnNotFoundForMissingFile() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileServingService.serve(tempDir.resolve("missing.pdf"), MediaType.APPLICATION_PDF, null,
+                new MockHttpServletRequest("GET", "/file"), response);
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void serve_shouldSendArchivedEntryAndRange() throws Exception {
+        Path bundle = tempDir.resolve("2025-05.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(bundle))) {
+            zip.putNextEntry(new ZipEntry("2025/05/01/report.pdf"));
+            Files.copy(file, zip);
+            zip.closeEntry();
+        }
+        StoredFile archived = StoredFile.archived(bundle, "2025/05/01/report.pdf");
+
+        MockHttpServletResponse whole = new MockHttpServletResponse();
+        fileServingService.serve(archived, MediaType.APPLICATION_PDF, "inline",
+                new MockHttpServletRequest("GET", "/file"), whole);
+        assertEquals(200, whole.getStatus());
+        assertEquals("%PDF-1.7 test", whole.getContentAsString());
+        assertEquals(13, whole.getContentLength());
+        assertNotNull(whole.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-7");
+        MockHttpServletResponse range = new MockHttpServletResponse();
+        fileServingService.serve(archived, MediaType.APPLICATION_PDF, "inline", request, range);
+        assertEquals(206, range.getStatus());
+        assertEquals("1.7", range.getContentAsString());
+        assertEquals("bytes 5-7/13", range.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        fileServingService.serve(StoredFile.archived(bundle, "missing.pdf"), MediaType.APPLICATION_PDF, null,
+                new MockHttpServletRequest("GET", "/file"), missing);
+        assertEquals(404, missing.getStatus());
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileServingService.serve(file, MediaType.APPLICATION_PDF, "inline", request, response);
+        return response;
+    }
+}
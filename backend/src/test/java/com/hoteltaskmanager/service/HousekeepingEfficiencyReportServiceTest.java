@@ -1,15 +1,21 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.DeclinedTask;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.DeclinedTasksAnalysis;
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO.EmployeeEfficiency;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,13 +31,17 @@ class HousekeepingEfficiencyReportServiceTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Spy
+    private ReportQueryExecutor reportQueryExecutor = new ReportQueryExecutor(10, 4);
+
     @InjectMocks
     private HousekeepingEfficiencyReportService housekeepingEfficiencyReportService;
 
     private LocalDate startDate;
     private LocalDate endDate;
-    private List<Map<String, Object>> sampleTaskCompletionRate;
-    private List<Map<String, Object>> sampleDeclinedTasks;
+    private Map<String, Object> taskData1;
+    private Map<String, Object> taskData2;
+    private Map<String, Object> declinedTask1;
     private Map<String, Object> sampleDeclinedTasksAnalysis;
 
     @BeforeEach
@@ -40,136 +50,149 @@ class HousekeepingEfficiencyReportServiceTest {
         endDate = LocalDate.of(2025, 5, 1);
 
         // Przygotowanie danych wskaźników realizacji zadań
-        sampleTaskCompletionRate = new ArrayList<>();
-        Map<String, Object> taskData1 = new HashMap<>();
+        taskData1 = new HashMap<>();
         taskData1.put("employee_id", 1L);
         taskData1.put("employee_name", "Anna Nowak");
-        taskData1.put("total_assigned", 15);
-        taskData1.put("completed", 14);
-        taskData1.put("pending", 0);
-        taskData1.put("in_progress", 0);
-        taskData1.put("declined", 1);
-        taskData1.put("completion_rate", 93.33);
-        taskData1.put("avg_completion_time_minutes", 45);
-        sampleTaskCompletionRate.add(taskData1);
-
-        Map<String, Object> taskData2 = new HashMap<>();
+        taskData1.put("total_assigned", 15L);
+        taskData1.put("completed", new BigDecimal("14"));
+        taskData1.put("pending", new BigDecimal("0"));
+        taskData1.put("in_progress", new BigDecimal("0"));
+        taskData1.put("declined", new BigDecimal("1"));
+        taskData1.put("completion_rate", new BigDecimal("93.33"));
+        taskData1.put("avg_completion_time_minutes", new BigDecimal("45.0000"));
+
+        taskData2 = new HashMap<>();
         taskData2.put("employee_id", 2L);
         taskData2.put("employee_name", "Jan Kowalski");
-        taskData2.put("total_assigned", 20);
-        taskData2.put("completed", 18);
-        taskData2.put("pending", 1);
-        taskData2.put("in_progress", 1);
-        taskData2.put("declined", 0);
-        taskData2.put("completion_rate", 90.00);
-        taskData2.put("avg_completion_time_minutes", 50);
-        sampleTaskCompletionRate.add(taskData2);
+        taskData2.put("total_assigned", 20L);
+        taskData2.put("completed", new BigDecimal("18"));
+        taskData2.put("pending", new BigDecimal("1"));
+        taskData2.put("in_progress", new BigDecimal("1"));
+        taskData2.put("declined", new BigDecimal("0"));
+        taskData2.put("completion_rate", new BigDecimal("90.00"));
+        taskData2.put("avg_completion_time_minutes", null);
 
         // Przygotowanie danych odrzuconych zadań
-        sampleDeclinedTasks = new ArrayList<>();
-        Map<String, Object> declinedTask1 = new HashMap<>();
+        declinedTask1 = new HashMap<>();
         declinedTask1.put("task_id", 101L);
         declinedTask1.put("room_number", "201");
         declinedTask1.put("description", "Specjalne sprzątanie po check-out");
-        declinedTask1.put("request_date", "2025-04-15T10:30:00");
+        declinedTask1.put("request_date", LocalDateTime.of(2025, 4, 15, 10, 30));
         declinedTask1.put("employee_name", "Anna Nowak");
-        sampleDeclinedTasks.add(declinedTask1);
 
         // Przygotowanie danych analizy odrzuconych zadań
         sampleDeclinedTasksAnalysis = new HashMap<>();
-        sampleDeclinedTasksAnalysis.put("total_declined", 1);
-        sampleDeclinedTasksAnalysis.put("decline_percentage", 2.86);
+        sampleDeclinedTasksAnalysis.put("total_declined", 1L);
+        sampleDeclinedTasksAnalysis.put("decline_percentage", new BigDecimal("2.86"));
     }
 
     @Test
     void shouldGenerateHousekeepingEfficiencyReport() {
-        // Konfiguracja zachowania mocków
-        when(jdbcTemplate.queryForList(
+        // Konfiguracja zachowania mocków - zapytania wykonywane równolegle, rozróżniane po mapperze
+        when(jdbcTemplate.query(
                 any(String.class),
+                eq(HousekeepingEfficiencyReportService.EMPLOYEE_EFFICIENCY_MAPPER),
                 eq(startDate), eq(endDate)
-        )).thenReturn(sampleTaskCompletionRate, sampleDeclinedTasks);
+        )).thenAnswer(ReportRows.rows(taskData1, taskData2));
 
-        when(jdbcTemplate.queryForMap(
+        when(jdbcTemplate.query(
                 any(String.class),
+                eq(HousekeepingEfficiencyReportService.DECLINED_TASK_MAPPER),
+                eq(startDate), eq(endDate)
+        )).thenAnswer(ReportRows.rows(declinedTask1));
+
+        when(jdbcTemplate.queryForObject(
+                any(String.class),
+                eq(HousekeepingEfficiencyReportService.DECLINED_TASKS_ANALYSIS_MAPPER),
                 eq(startDate), eq(endDate), eq(startDate), eq(endDate)
-        )).thenReturn(sampleDeclinedTasksAnalysis);
+        )).thenAnswer(ReportRows.row(sampleDeclinedTasksAnalysis));
 
         // Wywołanie testowanej metody
-        Map<String, Object> report = housekeepingEfficiencyReportService.generateHousekeepingEfficiencyReport(startDate, endDate);
+        HousekeepingEfficiencyReportDTO report = housekeepingEfficiencyReportService.generateHousekeepingEfficiencyReport(startDate, endDate);
 
         // Weryfikacja wyników
         assertNotNull(report);
 
         // Sprawdzenie wskaźników realizacji zadań
-        List<Map<String, Object>> taskCompletionRate = (List<Map<String, Object>>) report.get("taskCompletionRate");
+        List<EmployeeEfficiency> taskCompletionRate = report.getTaskCompletionRate();
         assertNotNull(taskCompletionRate);
         assertEquals(2, taskCompletionRate.size());
 
-        Map<String, Object> firstEmployee = taskCompletionRate.get(0);
-        assertEquals("Anna Nowak", firstEmployee.get("employee_name"));
-        assertEquals(15, firstEmployee.get("total_assigned"));
-        assertEquals(14, firstEmployee.get("completed"));
-        assertEquals(93.33, firstEmployee.get("completion_rate"));
-        assertEquals(45, firstEmployee.get("avg_completion_time_minutes"));
-
-        Map<String, Object> secondEmployee = taskCompletionRate.get(1);
-        assertEquals("Jan Kowalski", secondEmployee.get("employee_name"));
-        assertEquals(20, secondEmployee.get("total_assigned"));
-        assertEquals(18, secondEmployee.get("completed"));
-        assertEquals(90.00, secondEmployee.get("completion_rate"));
+        EmployeeEfficiency firstEmployee = taskCompletionRate.get(0);
+        assertEquals("Anna Nowak", firstEmployee.employeeName());
+        assertEquals(15L, firstEmployee.totalAssigned());
+        assertEquals(14L, firstEmployee.completed());
+        assertEquals(1L, firstEmployee.declined());
+        assertEquals(new BigDecimal("93.33"), firstEmployee.completionRate());
+        assertEquals(new BigDecimal("45.0000"), firstEmployee.avgCompletionTimeMinutes());
+
+        EmployeeEfficiency secondEmployee = taskCompletionRate.get(1);
+        assertEquals("Jan Kowalski", secondEmployee.employeeName());
+        assertEquals(20L, secondEmployee.totalAssigned());
+        assertEquals(18L, secondEmployee.completed());
+        assertEquals(new BigDecimal("90.00"), secondEmployee.completionRate());
+        assertNull(secondEmployee.avgCompletionTimeMinutes());
 
         // Sprawdzenie odrzuconych zadań
-        List<Map<String, Object>> declinedTasks = (List<Map<String, Object>>) report.get("declinedTasks");
+        List<DeclinedTask> declinedTasks = report.getDeclinedTasks();
         assertNotNull(declinedTasks);
         assertEquals(1, declinedTasks.size());
 
-        Map<String, Object> declinedTask = declinedTasks.get(0);
-        assertEquals(101L, declinedTask.get("task_id"));
-        assertEquals("201", declinedTask.get("room_number"));
-        assertEquals("Specjalne sprzątanie po check-out", declinedTask.get("description"));
-        assertEquals("Anna Nowak", declinedTask.get("employee_name"));
+        DeclinedTask declinedTask = declinedTasks.get(0);
+        assertEquals(101L, declinedTask.taskId());
+        assertEquals("201", declinedTask.roomNumber());
+        assertEquals("Specjalne sprzątanie po check-out", declinedTask.description());
+        assertEquals(LocalDateTime.of(2025, 4, 15, 10, 30), declinedTask.requestDate());
+        assertEquals("Anna Nowak", declinedTask.employeeName());
 
         // Sprawdzenie analizy odrzuconych zadań
-        Map<String, Object> declinedTasksAnalysis = (Map<String, Object>) report.get("declinedTasksAnalysis");
+        DeclinedTasksAnalysis declinedTasksAnalysis = report.getDeclinedTasksAnalysis();
         assertNotNull(declinedTasksAnalysis);
-        assertEquals(1, declinedTasksAnalysis.get("total_declined"));
-        assertEquals(2.86, declinedTasksAnalysis.get("decline_percentage"));
+        assertEquals(1L, declinedTasksAnalysis.totalDeclined());
+        assertEquals(new BigDecimal("2.86"), declinedTasksAnalysis.declinePercentage());
     }
 
     @Test
     void shouldHandleEmptyResults() {
         // Konfiguracja zachowania mocków dla pustych wyników
-        when(jdbcTemplate.queryForList(
+        when(jdbcTemplate.query(
                 any(String.class),
+                eq(HousekeepingEfficiencyReportService.EMPLOYEE_EFFICIENCY_MAPPER),
                 eq(startDate), eq(endDate)
-        )).thenReturn(new ArrayList<>(), new ArrayList<>());
+        )).thenAnswer(ReportRows.rows());
 
+        when(jdbcTemplate.query(
+                any(String.class),
+                eq(HousekeepingEfficiencyReportService.DECLINED_TASK_MAPPER),
+                eq(startDate), eq(endDate)
+        )).thenAnswer(ReportRows.rows());
+
+        // Brak zadań w okresie - dzielenie przez zero daje NULL
         Map<String, Object> emptyAnalysis = new HashMap<>();
-        emptyAnalysis.put("total_declined", 0);
-        emptyAnalysis.put("decline_percentage", 0.0);
+        emptyAnalysis.put("total_declined", 0L);
+        emptyAnalysis.put("decline_percentage", null);
 
-        when(jdbcTemplate.queryForMap(
+        when(jdbcTemplate.queryForObject(
                 any(String.class),
+                eq(HousekeepingEfficiencyReportService.DECLINED_TASKS_ANALYSIS_MAPPER),
                 eq(startDate), eq(endDate), eq(startDate), eq(endDate)
-        )).thenReturn(emptyAnalysis);
+        )).thenAnswer(ReportRows.row(emptyAnalysis));
 
         // Wywołanie testowanej metody
-        Map<String, Object> report = housekeepingEfficiencyReportService.generateHousekeepingEfficiencyReport(startDate, endDate);
+        HousekeepingEfficiencyReportDTO report = housekeepingEfficiencyReportService.generateHousekeepingEfficiencyReport(startDate, endDate);
 
         // Weryfikacja wyników
         assertNotNull(report);
 
-        List<Map<String, Object>> taskCompletionRate = (List<Map<String, Object>>) report.get("taskCompletionRate");
-        assertNotNull(taskCompletionRate);
-        assertTrue(taskCompletionRate.isEmpty());
+        assertNotNull(report.getTaskCompletionRate());
+        assertTrue(report.getTaskCompletionRate().isEmpty());
 
-        List<Map<String, Object>> declinedTasks = (List<Map<String, Object>>) report.get("declinedTasks");
-        assertNotNull(declinedTasks);
-        assertTrue(declinedTasks.isEmpty());
+        assertNotNull(report.getDeclinedTasks());
+        assertTrue(report.getDeclinedTasks().isEmpty());
 
-        Map<String, Object> declinedTasksAnalysis = (Map<String, Object>) report.get("declinedTasksAnalysis");
+        DeclinedTasksAnalysis declinedTasksAnalysis = report.getDeclinedTasksAnalysis();
         assertNotNull(declinedTasksAnalysis);
-        assertEquals(0, declinedTasksAnalysis.get("total_declined"));
-        assertEquals(0.0, declinedTasksAnalysis.get("decline_percentage"));
+        assertEquals(0L, declinedTasksAnalysis.totalDeclined());
+        assertNull(declinedTasksAnalysis.declinePercentage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.Invoice;
+import com.hoteltaskmanager.model.Reservation;
+import com.hoteltaskmanager.model.ReservationRoom;
+import com.hoteltaskmanager.model.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe skrótu treści faktury ({@link InvoiceService#contentHash}).
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Ten sam skrót dla tych samych danych (niezależnie od kolejności pokoi i zapisu ceny)</li>
+ *     <li>Inny skrót po zmianie danych nabywcy, dat pobytu, liczby osób lub ceny</li>
+ * </ul>
+ */
+class InvoiceServiceTest {
+
+    private Invoice invoice;
+    private Reservation reservation;
+    private ReservationRoom first;
+    private ReservationRoom second;
+
+    @BeforeEach
+    void setUp() {
+        invoice = new Invoice();
+        invoice.setIssueDate(LocalDate.of(2025, 5, 31));
+        invoice.setCompanyNip("1234567890");
+        invoice.setCompanyName("Test Company");
+        invoice.setCompanyCity("Rzeszów");
+
+        reservation = new Reservation();
+        reservation.setStartDate(LocalDate.of(2025, 5, 1));
+        reservation.setEndDate(LocalDate.of(2025, 5, 3));
+        reservation.setGuestFirstName("Jan");
+        reservation.setGuestLastName("Kowalski");
+
+        first = reservationRoom("101", "200.00", 2);
+        second = reservationRoom("102", "150.00", 1);
+    }
+
+    @Test
+    void contentHash_shouldIgnoreRoomOrderAndPriceScale() {
+        String hash = InvoiceService.contentHash(invoice, reservation, List.of(first, second));
+
+        ReservationRoom samePrice = reservationRoom("101", "200", 2);
+        assertEquals(hash, InvoiceService.contentHash(invoice, reservation, List.of(second, samePrice)));
+        assertEquals(64, hash.length());
+    }
+
+    @Test
+    void contentHash_shouldChangeWhenPrintedDataChanges() {
+        String hash = InvoiceService.contentHash(invoice, reservation, List.of(first, second));
+
+        invoice.setCompanyName("Inna firma");
+        String buyerChanged = InvoiceService.contentHash(invoice, reservation, List.of(first, second));
+        assertNotEquals(hash, buyerChanged);
+
+        reservation.setEndDate(LocalDate.of(2025, 5, 4));
+        String datesChanged = InvoiceService.contentHash(invoice, reservation, List.of(first, second));
+        assertNotEquals(buyerChanged, datesChanged);
+
+        first.setGuestCount(1);
+        String guestsChanged = InvoiceService.contentHash(invoice, reservation, List.of(first, second));
+        assertNotEquals(datesChanged, guestsChanged);
+
+        second.getRoom().setPricePerNight(new BigDecimal("180.00"));
+        assertNotEquals(guestsChanged, InvoiceService.contentHash(invoice, reservation, List.of(first, second)));
+    }
+
+    private static ReservationRoom reservationRoom(String roomNumber, String price, int guests) {
+        Room room = new Room();
+        room.setRoomNumber(roomNumber);
+        room.setBedCount(2);
+        room.setPricePerNight(new BigDecimal(price));
+
+        ReservationRoom reservationRoom = new ReservationRoom();
+        reservationRoom.setRoom(room);
+        reservationRoom.setGuestCount(guests);
+        return reservationRoom;
+    }
+}
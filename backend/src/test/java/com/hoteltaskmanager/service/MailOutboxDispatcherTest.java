@@ -0,0 +1,146 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.MailOutboxMessage;
+import com.hoteltaskmanager.model.MailOutboxStatus;
+import com.hoteltaskmanager.repository.MailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link MailOutboxDispatcher} z atrapą serwera SMTP ({@link FakeJavaMailSender}).
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Wysyłka paczkami - jedno połączenie na paczkę</li>
+ *     <li>Ponowienie odrzuconej wiadomości z rosnącym odstępem</li>
+ *     <li>Ponowienie całej paczki po błędzie połączenia</li>
+ *     <li>Oznaczenie wiadomości jako FAILED po wyczerpaniu prób</li>
+ *     <li>Czyszczenie treści wysłanych i niewysłanych wiadomości</li>
+ *     <li>Usuwanie wiadomości po terminie ważności</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class MailOutboxDispatcherTest {
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    private FakeJavaMailSender mailSender;
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new FakeJavaMailSender();
+        dispatcher = new MailOutboxDispatcher(mailOutboxRepository, mailSender, "hotel@example.com");
+    }
+
+    @Test
+    void dispatch_shouldSendQueuedMessagesInBatches() {
+        List<MailOutboxMessage> queue = messages(MailOutboxDispatcher.BATCH_SIZE * 3 + 7);
+        stubQueue(queue);
+
+        int sent = dispatcher.dispatch();
+
+        assertEquals(queue.size(), sent);
+        assertEquals(queue.size(), mailSender.getSentMessages().size());
+        assertEquals(4, mailSender.getConnections());
+        assertTrue(queue.stream().allMatch(m -> m.getStatus() == MailOutboxStatus.SENT && m.getSentAt() != null));
+        assertEquals("hotel@example.com", mailSender.getSentMessages().get(0).getFrom());
+        assertEquals("Treść 0", mailSender.getSentMessages().get(0).getText());
+        assertTrue(queue.stream().allMatch(m -> m.getBody().isEmpty()));
+    }
+
+    @Test
+    void sendBatch_shouldRetryRejectedRecipientWithBackoff() {
+        List<MailOutboxMessage> batch = messages(3);
+        mailSender.rejectRecipient("user1@example.com");
+
+        int sent = dispatcher.sendBatch(batch);
+
+        assertEquals(2, sent);
+        MailOutboxMessage rejected = batch.get(1);
+        assertEquals(MailOutboxStatus.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertTrue(rejected.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        assertTrue(rejected.getLastError().contains("550"));
+        assertEquals(MailOutboxStatus.SENT, batch.get(0).getStatus());
+        // Treść odrzuconej wiadomości jest potrzebna do ponowienia
+        assertEquals("Treść 1", rejected.getBody());
+        verify(mailOutboxRepository).saveAll(batch);
+    }
+
+    @Test
+    void sendBatch_shouldRetryWholeBatchWhenConnectionFails() {
+        List<MailOutboxMessage> batch = messages(5);
+        mailSender.failNextConnections(1);
+
+        assertEquals(0, dispatcher.sendBatch(batch));
+        assertTrue(batch.stream().allMatch(m -> m.getStatus() == MailOutboxStatus.PENDING && m.getAttempts() == 1));
+
+        // Kolejna próba przechodzi
+        assertEquals(5, dispatcher.sendBatch(batch));
+        assertEquals(2, mailSender.getConnections());
+    }
+
+    @Test
+    void sendBatch_shouldGiveUpAfterMaxAttempts() {
+        MailOutboxMessage message = messages(1).get(0);
+        message.setAttempts(MailOutboxDispatcher.MAX_ATTEMPTS - 1);
+        mailSender.rejectRecipient(message.getRecipient());
+
+        dispatcher.sendBatch(List.of(message));
+
+        assertEquals(MailOutboxStatus.FAILED, message.getStatus());
+        assertEquals("", message.getBody());
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteMessagesPastExpiry() {
+        when(mailOutboxRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(2);
+
+        dispatcher.purgeExpired();
+
+        verify(mailOutboxRepository).deleteExpired(any(LocalDateTime.class));
+    }
+
+    @Test
+    void backoffSeconds_shouldGrowExponentiallyUpToLimit() {
+        assertEquals(30, MailOutboxDispatcher.backoffSeconds(1));
+        assertEquals(60, MailOutboxDispatcher.backoffSeconds(2));
+        assertEquals(120, MailOutboxDispatcher.backoffSeconds(3));
+        assertEquals(MailOutboxDispatcher.MAX_BACKOFF_SECONDS, MailOutboxDispatcher.backoffSeconds(30));
+    }
+
+    /**
+     * Repozytorium zwraca z kolejki wiadomości PENDING, tak jak zapytanie {@code findDue}.
+     */
+    private void stubQueue(List<MailOutboxMessage> queue) {
+        when(mailOutboxRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(1);
+            return queue.stream()
+                    .filter(m -> m.getStatus() == MailOutboxStatus.PENDING)
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+    }
+
+    private static List<MailOutboxMessage> messages(int count) {
+        List<MailOutboxMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(new MailOutboxMessage("user" + i + "@example.com", "Temat " + i, "Treść " + i));
+        }
+        return messages;
+    }
+}
@@ -1,15 +1,20 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.FloorIssueCount;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.ResolutionTime;
+import com.hoteltaskmanager.dto.MaintenanceIssuesReportDTO.RoomIssueCount;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,14 +30,19 @@ class MaintenanceIssuesReportServiceTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Spy
+    private ReportQueryExecutor reportQueryExecutor = new ReportQueryExecutor(10, 4);
+
     @InjectMocks
     private MaintenanceIssuesReportService maintenanceIssuesReportService;
 
     private LocalDate startDate;
     private LocalDate endDate;
     private Map<String, Object> sampleAvgResolutionTime;
-    private List<Map<String, Object>> sampleIssuesByRoom;
-    private List<Map<String, Object>> sampleIssuesByFloor;
+    private Map<String, Object> room1;
+    private Map<String, Object> room2;
+    private Map<String, Object> floor1;
+    private Map<String, Object> floor2;
 
     @BeforeEach
     void setUp() {
@@ -41,120 +51,127 @@ class MaintenanceIssuesReportServiceTest {
 
         // Przygotowanie danych dla średniego czasu rozwiązywania
         sampleAvgResolutionTime = new HashMap<>();
-        sampleAvgResolutionTime.put("avg_hours_to_complete", 5.5);
-        sampleAvgResolutionTime.put("min_hours_to_complete", 1.0);
-        sampleAvgResolutionTime.put("max_hours_to_complete", 24.0);
+        sampleAvgResolutionTime.put("avg_hours_to_complete", new BigDecimal("5.5000"));
+        sampleAvgResolutionTime.put("min_hours_to_complete", 1L);
+        sampleAvgResolutionTime.put("max_hours_to_complete", 24L);
 
         // Przygotowanie danych dla problemów wg pokoi
-        sampleIssuesByRoom = new ArrayList<>();
-        Map<String, Object> room1 = new HashMap<>();
+        room1 = new HashMap<>();
         room1.put("room_id", 1L);
         room1.put("room_number", "101");
         room1.put("floor", 1);
-        room1.put("issue_count", 3);
-        sampleIssuesByRoom.add(room1);
+        room1.put("issue_count", 3L);
 
-        Map<String, Object> room2 = new HashMap<>();
+        room2 = new HashMap<>();
         room2.put("room_id", 2L);
         room2.put("room_number", "102");
         room2.put("floor", 1);
-        room2.put("issue_count", 2);
-        sampleIssuesByRoom.add(room2);
+        room2.put("issue_count", 2L);
 
         // Przygotowanie danych dla problemów wg pięter
-        sampleIssuesByFloor = new ArrayList<>();
-        Map<String, Object> floor1 = new HashMap<>();
+        floor1 = new HashMap<>();
         floor1.put("floor", 1);
-        floor1.put("issue_count", 5);
-        floor1.put("room_count", 10);
-        floor1.put("issues_per_room", 0.5);
-        sampleIssuesByFloor.add(floor1);
+        floor1.put("issue_count", 5L);
+        floor1.put("room_count", 10L);
+        floor1.put("issues_per_room", new BigDecimal("0.50"));
 
-        Map<String, Object> floor2 = new HashMap<>();
+        floor2 = new HashMap<>();
         floor2.put("floor", 2);
-        floor2.put("issue_count", 3);
-        floor2.put("room_count", 8);
-        floor2.put("issues_per_room", 0.38);
-        sampleIssuesByFloor.add(floor2);
+        floor2.put("issue_count", 3L);
+        floor2.put("room_count", 8L);
+        floor2.put("issues_per_room", new BigDecimal("0.38"));
     }
 
     @Test
     void generateMaintenanceIssuesReport_ShouldReturnCorrectData() {
         // Given
-        when(jdbcTemplate.queryForMap(
+        when(jdbcTemplate.queryForObject(
                 any(String.class),
+                eq(MaintenanceIssuesReportService.RESOLUTION_TIME_MAPPER),
                 eq(startDate), eq(endDate)
-        )).thenReturn(sampleAvgResolutionTime);
+        )).thenAnswer(ReportRows.row(sampleAvgResolutionTime));
 
-        when(jdbcTemplate.queryForList(
+        when(jdbcTemplate.query(
                 any(String.class),
+                eq(MaintenanceIssuesReportService.ROOM_ISSUE_COUNT_MAPPER),
                 eq(startDate), eq(endDate)
-        )).thenReturn(sampleIssuesByRoom, sampleIssuesByFloor);
+        )).thenAnswer(ReportRows.rows(room1, room2));
+
+        when(jdbcTemplate.query(
+                any(String.class),
+                eq(MaintenanceIssuesReportService.FLOOR_ISSUE_COUNT_MAPPER),
+                eq(startDate), eq(endDate)
+        )).thenAnswer(ReportRows.rows(floor1, floor2));
 
         // When
-        Map<String, Object> result = maintenanceIssuesReportService.generateMaintenanceIssuesReport(startDate, endDate);
+        MaintenanceIssuesReportDTO result = maintenanceIssuesReportService.generateMaintenanceIssuesReport(startDate, endDate);
 
         // Then
         assertNotNull(result);
 
         // Sprawdzamy sekcję średniego czasu rozwiązywania
-        assertTrue(result.containsKey("avgResolutionTime"));
-        Map<String, Object> avgResolutionTime = (Map<String, Object>) result.get("avgResolutionTime");
-        assertEquals(5.5, avgResolutionTime.get("avg_hours_to_complete"));
-        assertEquals(1.0, avgResolutionTime.get("min_hours_to_complete"));
-        assertEquals(24.0, avgResolutionTime.get("max_hours_to_complete"));
+        ResolutionTime avgResolutionTime = result.getAvgResolutionTime();
+        assertNotNull(avgResolutionTime);
+        assertEquals(new BigDecimal("5.5000"), avgResolutionTime.avgHoursToComplete());
+        assertEquals(1L, avgResolutionTime.minHoursToComplete());
+        assertEquals(24L, avgResolutionTime.maxHoursToComplete());
 
         // Sprawdzamy sekcję problemów wg pokoi
-        assertTrue(result.containsKey("issuesByRoom"));
-        List<Map<String, Object>> issuesByRoom = (List<Map<String, Object>>) result.get("issuesByRoom");
+        List<RoomIssueCount> issuesByRoom = result.getIssuesByRoom();
         assertEquals(2, issuesByRoom.size());
-        assertEquals(1L, issuesByRoom.get(0).get("room_id"));
-        assertEquals("101", issuesByRoom.get(0).get("room_number"));
-        assertEquals(3, issuesByRoom.get(0).get("issue_count"));
+        assertEquals(1L, issuesByRoom.get(0).roomId());
+        assertEquals("101", issuesByRoom.get(0).roomNumber());
+        assertEquals(1, issuesByRoom.get(0).floor());
+        assertEquals(3L, issuesByRoom.get(0).issueCount());
 
         // Sprawdzamy sekcję problemów wg pięter
-        assertTrue(result.containsKey("issuesByFloor"));
-        List<Map<String, Object>> issuesByFloor = (List<Map<String, Object>>) result.get("issuesByFloor");
+        List<FloorIssueCount> issuesByFloor = result.getIssuesByFloor();
         assertEquals(2, issuesByFloor.size());
-        assertEquals(1, issuesByFloor.get(0).get("floor"));
-        assertEquals(5, issuesByFloor.get(0).get("issue_count"));
-        assertEquals(0.5, issuesByFloor.get(0).get("issues_per_room"));
+        assertEquals(1, issuesByFloor.get(0).floor());
+        assertEquals(5L, issuesByFloor.get(0).issueCount());
+        assertEquals(10L, issuesByFloor.get(0).roomCount());
+        assertEquals(new BigDecimal("0.50"), issuesByFloor.get(0).issuesPerRoom());
     }
 
     @Test
     void generateMaintenanceIssuesReport_WithEmptyData_ShouldHandleGracefully() {
-        // Given
+        // Given - agregaty bez wierszy zwracają NULL
         Map<String, Object> emptyAvgResolutionTime = new HashMap<>();
         emptyAvgResolutionTime.put("avg_hours_to_complete", null);
         emptyAvgResolutionTime.put("min_hours_to_complete", null);
         emptyAvgResolutionTime.put("max_hours_to_complete", null);
 
-        when(jdbcTemplate.queryForMap(
+        when(jdbcTemplate.queryForObject(
                 any(String.class),
+                eq(MaintenanceIssuesReportService.RESOLUTION_TIME_MAPPER),
                 eq(startDate), eq(endDate)
-        )).thenReturn(emptyAvgResolutionTime);
+        )).thenAnswer(ReportRows.row(emptyAvgResolutionTime));
 
-        when(jdbcTemplate.queryForList(
+        when(jdbcTemplate.query(
                 any(String.class),
+                eq(MaintenanceIssuesReportService.ROOM_ISSUE_COUNT_MAPPER),
                 eq(startDate), eq(endDate)
-        )).thenReturn(new ArrayList<>(), new ArrayList<>());
+        )).thenAnswer(ReportRows.rows());
+
+        when(jdbcTemplate.query(
+                any(String.class),
+                eq(MaintenanceIssuesReportService.FLOOR_ISSUE_COUNT_MAPPER),
+                eq(startDate), eq(endDate)
+        )).thenAnswer(ReportRows.rows());
 
         // When
-        Map<String, Object> result = maintenanceIssuesReportService.generateMaintenanceIssuesReport(startDate, endDate);
+        MaintenanceIssuesReportDTO result = maintenanceIssuesReportService.generateMaintenanceIssuesReport(startDate, endDate);
 
         // Then
         assertNotNull(result);
 
-        assertTrue(result.containsKey("avgResolutionTime"));
-        Map<String, Object> avgResolutionTime = (Map<String, Object>) result.get("avgResolutionTime");
-        assertNull(avgResolutionTime.get("avg_hours_to_complete"));
-
-        assertTrue(result.containsKey("issuesByRoom"));
-        List<Map<String, Object>> issuesByRoom = (List<Map<String, Object>>) result.get("issuesByRoom");
-        assertTrue(issuesByRoom.isEmpty());
+        ResolutionTime avgResolutionTime = result.getAvgResolutionTime();
+        assertNotNull(avgResolutionTime);
+        assertNull(avgResolutionTime.avgHoursToComplete());
+        assertNull(avgResolutionTime.minHoursToComplete());
+        assertNull(avgResolutionTime.maxHoursToComplete());
 
-        assertTrue(result.containsKey("issuesByFloor"));
-        List<Map<String, Object>> issuesByFloor = (List<Map<String, Object>>) result.get("issuesByFloor");
-        assertTrue(issuesByFloor.isEmpty());
+        assertTrue(result.getIssuesByRoom().isEmpty());
+        assertTrue(result.getIssuesByFloor().isEmpty());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.Report;
+import com.hoteltaskmanager.model.ReportJobType;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link ReportDeduplicationService}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Zwrócenie zapisanego raportu bez generowania</li>
+ *     <li>Generowanie z odciskiem, gdy brak zapisanego raportu</li>
+ *     <li>Wyłączenie ponownego użycia raportów</li>
+ *     <li>Zmiana odcisku po zmianie danych tabel źródłowych</li>
+ *     <li>Pominięcie okresu w raportach bez sekcji finansowej</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportDeduplicationServiceTest {
+
+    @Mock
+    private ReportStorageService reportStorageService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private final LocalDate from = LocalDate.of(2025, 5, 1);
+    private final LocalDate to = LocalDate.of(2025, 5, 31);
+
+    private ReportCacheInvalidator reportCacheInvalidator;
+    private ReportDeduplicationService reportDeduplicationService;
+
+    @BeforeEach
+    void setUp() {
+        reportCacheInvalidator = new ReportCacheInvalidator(entityManagerFactory, cacheManager);
+        reportDeduplicationService = new ReportDeduplicationService(reportStorageService, reportCacheInvalidator, true);
+    }
+
+    @Test
+    void findOrGenerate_shouldReturnStoredReport() {
+        Report stored = new Report();
+        stored.setId(5L);
+        String storedFingerprint = reportDeduplicationService.fingerprint(ReportJobType.STAFF, null, from, to);
+        when(reportStorageService.findReport(storedFingerprint)).thenReturn(Optional.of(stored));
+
+        Report report = reportDeduplicationService.findOrGenerate(ReportJobType.STAFF, null, from, to,
+                fingerprint -> fail("Raport nie powinien być generowany"));
+
+        assertSame(stored, report);
+    }
+
+    @Test
+    void findOrGenerate_shouldGenerateWithFingerprintWhenNoneStored() {
+        when(reportStorageService.findReport(anyString())).thenReturn(Optional.empty());
+        Report generated = new Report();
+        AtomicReference<String> usedFingerprint = new AtomicReference<>();
+
+        Report report = reportDeduplicationService.findOrGenerate(ReportJobType.FINANCIAL, "month", from, to,
+                fingerprint -> {
+                    usedFingerprint.set(fingerprint);
+                    return generated;
+                });
+
+        assertSame(generated, report);
+        assertEquals(reportDeduplicationService.fingerprint(ReportJobType.FINANCIAL, "month", from, to),
+                usedFingerprint.get());
+        assertEquals(64, usedFingerprint.get().length());
+    }
+
+    @Test
+    void findOrGenerate_shouldAlwaysGenerateWhenDisabled() {
+        ReportDeduplicationService disabled =
+                new ReportDeduplicationService(reportStorageService, reportCacheInvalidator, false);
+        Report generated = new Report();
+
+        assertSame(generated, disabled.findOrGenerate(ReportJobType.ROOMS, null, from, to, fingerprint -> generated));
+        verifyNoInteractions(reportStorageService);
+    }
+
+    @Test
+    void fingerprint_shouldChangeWhenSourceTableChanges() {
+        String financial = reportDeduplicationService.fingerprint(ReportJobType.FINANCIAL, "month", from, to);
+        String staff = reportDeduplicationService.fingerprint(ReportJobType.STAFF, null, from, to);
+
+        reportCacheInvalidator.invalidateTables("invoices");
+
+        assertNotEquals(financial, reportDeduplicationService.fingerprint(ReportJobType.FINANCIAL, "month", from, to));
+        assertEquals(staff, reportDeduplicationService.fingerprint(ReportJobType.STAFF, null, from, to));
+    }
+
+    @Test
+    void fingerprint_shouldIgnorePeriodWithoutFinancialSection() {
+        assertEquals(reportDeduplicationService.fingerprint(ReportJobType.ROOMS, null, from, to),
+                reportDeduplicationService.fingerprint(ReportJobType.ROOMS, "week", from, to));
+        assertNotEquals(reportDeduplicationService.fingerprint(ReportJobType.COMPLETE, "week", from, to),
+                reportDeduplicationService.fingerprint(ReportJobType.COMPLETE, "month", from, to));
+        assertNotEquals(reportDeduplicationService.fingerprint(ReportJobType.ROOMS, null, from, to),
+                reportDeduplicationService.fingerprint(ReportJobType.ROOMS, null, from, to.plusDays(1)));
+    }
+}
@@ -0,0 +1,198 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.HousekeepingEfficiencyReportDTO;
+import com.hoteltaskmanager.dto.ReportJobDTO;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO;
+import com.hoteltaskmanager.model.Report;
+import com.hoteltaskmanager.model.ReportJobStatus;
+import com.hoteltaskmanager.model.ReportJobType;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link ReportJobService}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Wygenerowanie raportu w tle w imieniu zlecającego</li>
+ *     <li>Scalanie identycznych zleceń</li>
+ *     <li>Odrzucenie zlecenia przy pełnej kolejce</li>
+ *     <li>Zapisanie błędu generowania w stanie zadania</li>
+ *     <li>Zwrócenie zapisanego raportu bez generowania, gdy dane się nie zmieniły</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    private StaffPerformanceReportService staffPerformanceService;
+
+    @Mock
+    private RoomStatusReportService roomStatusService;
+
+    @Mock
+    private MaintenanceIssuesReportService maintenanceIssuesService;
+
+    @Mock
+    private HousekeepingEfficiencyReportService housekeepingService;
+
+    @Mock
+    private ReservationManagementReportService reservationService;
+
+    @Mock
+    private FinancialReportService financialService;
+
+    @Mock
+    private PdfReportGeneratorService pdfReportGeneratorService;
+
+    @Mock
+    private ReportStorageService reportStorageService;
+
+    private final ReportQueryExecutor reportQueryExecutor = new ReportQueryExecutor(10, 4);
+    private final Authentication manager = new UsernamePasswordAuthenticationToken("manager@hotel.pl", null, List.of());
+    private final LocalDate from = LocalDate.of(2025, 5, 1);
+    private final LocalDate to = LocalDate.of(2025, 5, 31);
+
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() {
+        // Jeden wątek roboczy i jedno miejsce w kolejce
+        ReportSectionGenerator reportSectionGenerator = new ReportSectionGenerator(staffPerformanceService,
+                roomStatusService, maintenanceIssuesService, housekeepingService, reservationService, financialService,
+                reportQueryExecutor);
+        reportJobService = new ReportJobService(reportSectionGenerator, pdfReportGeneratorService,
+                reportQueryExecutor, new ReportDeduplicationService(reportStorageService,
+                        new ReportCacheInvalidator(mock(EntityManagerFactory.class), mock(CacheManager.class)), true),
+                1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdown();
+        reportQueryExecutor.shutdown();
+    }
+
+    @Test
+    void submit_shouldGenerateReportOnBehalfOfSubmitter() throws Exception {
+        Report report = new Report();
+        report.setId(7L);
+        AtomicReference<Authentication> savedBy = new AtomicReference<>();
+        when(staffPerformanceService.generateStaffPerformanceReport(from, to)).thenReturn(new StaffPerformanceReportDTO());
+        when(housekeepingService.generateHousekeepingEfficiencyReport(from, to)).thenReturn(new HousekeepingEfficiencyReportDTO());
+        when(pdfReportGeneratorService.generateAndSaveStaffReport(any(ReportSections.class), any(), any(), anyString())).thenAnswer(invocation -> {
+            savedBy.set(SecurityContextHolder.getContext().getAuthentication());
+            return report;
+        });
+
+        ReportJobDTO submitted = reportJobService.submit(ReportJobType.STAFF, "week", from, to, manager);
+        ReportJobDTO finished = awaitFinished(submitted.getId());
+
+        assertEquals(ReportJobStatus.DONE, finished.getStatus());
+        assertEquals(100, finished.getProgress());
+        assertEquals(7L, finished.getReportId());
+        assertSame(manager, savedBy.get());
+    }
+
+    @Test
+    void submit_shouldReuseIdenticalPendingJob() throws Exception {
+        CountDownLatch release = blockStaffReport();
+
+        ReportJobDTO first = reportJobService.submit(ReportJobType.STAFF, "week", from, to, manager);
+        ReportJobDTO second = reportJobService.submit(ReportJobType.STAFF, "week", from, to, manager);
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(ReportJobStatus.QUEUED, second.getStatus());
+        release.countDown();
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = blockStaffReport();
+
+        // Jedyny wątek jest zajęty, a to zadanie zajmuje jedyne miejsce w kolejce
+        reportJobService.submit(ReportJobType.STAFF, "week", from, to, manager);
+
+        assertThrows(RejectedExecutionException.class,
+                () -> reportJobService.submit(ReportJobType.STAFF, "week", from.plusDays(1), to, manager));
+        release.countDown();
+    }
+
+    @Test
+    void submit_shouldRecordFailure() throws Exception {
+        when(financialService.generateFinancialReport("month", from, to))
+                .thenThrow(new IllegalStateException("Brak połączenia z bazą"));
+
+        ReportJobDTO submitted = reportJobService.submit(ReportJobType.FINANCIAL, "month", from, to, manager);
+        ReportJobDTO finished = awaitFinished(submitted.getId());
+
+        assertEquals(ReportJobStatus.FAILED, finished.getStatus());
+        assertEquals("Brak połączenia z bazą", finished.getError());
+        assertNull(finished.getReportId());
+    }
+
+    @Test
+    void submit_shouldFinishWithStoredReportWhenDataUnchanged() throws Exception {
+        Report stored = new Report();
+        stored.setId(11L);
+        when(reportStorageService.findReport(anyString())).thenReturn(Optional.of(stored));
+
+        ReportJobDTO submitted = reportJobService.submit(ReportJobType.ROOMS, "week", from, to, manager);
+        ReportJobDTO finished = awaitFinished(submitted.getId());
+
+        assertEquals(ReportJobStatus.DONE, finished.getStatus());
+        assertEquals(11L, finished.getReportId());
+        verifyNoInteractions(roomStatusService, pdfReportGeneratorService);
+    }
+
+    /**
+     * Wstrzymuje generowanie raportu personelu do wywołania {@code countDown()} na zwróconym zatrzasku.
+     */
+    private CountDownLatch blockStaffReport() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(staffPerformanceService.generateStaffPerformanceReport(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new StaffPerformanceReportDTO();
+        });
+
+        reportJobService.submit(ReportJobType.STAFF, "day", from, to, manager);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private ReportJobDTO awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ReportJobDTO job = reportJobService.find(jobId).orElseThrow();
+            if (job.getStatus() == ReportJobStatus.DONE || job.getStatus() == ReportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("Zadanie " + jobId + " nie zakończyło się");
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.hoteltaskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe dla {@link ReportQueryExecutor}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Równoległe wykonanie niezależnych zadań</li>
+ *     <li>Wykonanie po kolei, gdy wywołanie jest zagnieżdżone w zadaniu</li>
+ *     <li>Przekazanie błędu zadania do wywołującego</li>
+ * </ul>
+ */
+class ReportQueryExecutorTest {
+
+    private final ReportQueryExecutor executor = new ReportQueryExecutor(10, 4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void all_shouldRunTasksConcurrently() {
+        // Każde zadanie czeka na pozostałe - kończy się tylko przy wykonaniu równoległym
+        CountDownLatch allStarted = new CountDownLatch(3);
+        Map<String, Callable<?>> tasks = new LinkedHashMap<>();
+        for (String key : new String[]{"a", "b", "c"}) {
+            tasks.put(key, () -> {
+                allStarted.countDown();
+                return allStarted.await(5, TimeUnit.SECONDS) ? key : null;
+            });
+        }
+
+        Map<String, Object> results = executor.all(tasks);
+
+        assertEquals(Map.of("a", "a", "b", "b", "c", "c"), results);
+    }
+
+    @Test
+    void all_shouldRunNestedTasksInCallingThread() {
+        Map<String, Callable<?>> inner = new LinkedHashMap<>();
+        inner.put("x", () -> Thread.currentThread());
+        inner.put("y", () -> Thread.currentThread());
+
+        Map<String, Callable<?>> outer = new LinkedHashMap<>();
+        outer.put("nested", () -> {
+            Map<String, Object> results = executor.all(inner);
+            return results.get("x") == Thread.currentThread() && results.get("y") == Thread.currentThread();
+        });
+        outer.put("other", () -> true);
+
+        assertEquals(true, executor.all(outer).get("nested"));
+    }
+
+    @Test
+    void all_shouldRethrowTaskFailure() {
+        Map<String, Callable<?>> tasks = new LinkedHashMap<>();
+        tasks.put("ok", () -> 1);
+        tasks.put("failing", () -> {
+            throw new IllegalArgumentException("Błędne zapytanie");
+        });
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> executor.all(tasks));
+        assertEquals("Błędne zapytanie", exception.getMessage());
+    }
+}
@@ -0,0 +1,63 @@
+package com.hoteltaskmanager.service;
+
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Wyniki zapytań serwisów raportów w testach - {@link RowMapper} przekazany do zamockowanego
+ * {@code JdbcTemplate} jest wywoływany na {@link ResultSet} zbudowanym z mapy kolumna - wartość.
+ */
+final class ReportRows {
+
+    private ReportRows() {
+    }
+
+    /**
+     * Odpowiedź dla {@code query(sql, rowMapper, ...)} - lista zmapowanych wierszy.
+     */
+    @SafeVarargs
+    static <T> Answer<List<T>> rows(Map<String, Object>... rows) {
+        return invocation -> {
+            RowMapper<T> mapper = invocation.getArgument(1);
+            List<T> result = new ArrayList<>();
+            for (int i = 0; i < rows.length; i++) {
+                result.add(mapper.mapRow(resultSet(rows[i]), i));
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Odpowiedź dla {@code queryForObject(sql, rowMapper, ...)} - jeden zmapowany wiersz.
+     */
+    static <T> Answer<T> row(Map<String, Object> row) {
+        return invocation -> {
+            RowMapper<T> mapper = invocation.getArgument(1);
+            return mapper.mapRow(resultSet(row), 0);
+        };
+    }
+
+    private static ResultSet resultSet(Map<String, Object> row) {
+        AtomicBoolean wasNull = new AtomicBoolean();
+        return mock(ResultSet.class, invocation -> {
+            if (invocation.getMethod().getName().equals("wasNull")) {
+                return wasNull.get();
+            }
+            Object value = row.get(invocation.<String>getArgument(0));
+            wasNull.set(value == null);
+            return switch (invocation.getMethod().getName()) {
+                case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                default -> value;
+            };
+        });
+    }
+}
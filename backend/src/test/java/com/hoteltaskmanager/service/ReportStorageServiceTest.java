@@ -0,0 +1,147 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.Employee;
+import com.hoteltaskmanager.model.Report;
+import com.hoteltaskmanager.model.ReportType;
+import com.hoteltaskmanager.repository.EmployeeRepository;
+import com.hoteltaskmanager.repository.ReportRepository;
+import com.hoteltaskmanager.util.TokenDigest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link ReportStorageService}.
+ * <p>
+ * Sprawdzają strumieniowy zapis raportu przez plik tymczasowy do podkatalogu dnia (z rozmiarem
+ * i skrótem pliku), sprzątanie po błędzie zapisu oraz usuwanie plików usuniętych raportów w tle.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportStorageServiceTest {
+
+    @Mock
+    private ReportRepository reportRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @InjectMocks
+    private ReportStorageService reportStorageService;
+
+    @TempDir
+    Path reportsDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reportStorageService, "reportsStorageLocation", reportsDir.toString());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("manager@hotel.pl", null, List.of()));
+        lenient().when(employeeRepository.findByEmail("manager@hotel.pl")).thenReturn(Optional.of(new Employee()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void saveReport_shouldWriteContentToReportsDirectory() throws Exception {
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Report report = reportStorageService.saveReport(
+                out -> out.write("%PDF-1.7".getBytes(StandardCharsets.US_ASCII)), ReportType.GENERAL_REPORT, "rooms_report");
+
+        String shard = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+        assertTrue(report.getReportFile().startsWith(shard + "/rooms_report_"));
+        assertEquals("%PDF-1.7", Files.readString(reportsDir.resolve(report.getReportFile())));
+        assertEquals(List.of(reportsDir.resolve(report.getReportFile())), listFiles());
+        assertEquals(8L, report.getFileSize());
+        assertEquals(TokenDigest.sha256Hex("%PDF-1.7"), report.getChecksum());
+    }
+
+    @Test
+    void saveReport_shouldRemoveTemporaryFileWhenWritingFails() throws Exception {
+        assertThrows(RuntimeException.class, () -> reportStorageService.saveReport(out -> {
+            out.write("%PDF-".getBytes(StandardCharsets.US_ASCII));
+            throw new IOException("Błąd generatora");
+        }, ReportType.GENERAL_REPORT, "rooms_report"));
+
+        assertEquals(List.of(), listFiles());
+        verify(reportRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteReport_shouldOnlyMarkReport() throws Exception {
+        Path file = Files.writeString(reportsDir.resolve("report.pdf"), "%PDF-1.7");
+        when(reportRepository.markDeleted(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+
+        assertTrue(reportStorageService.deleteReport(1L));
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void purgeDeletedReports_shouldRemoveFilesAndRows() throws Exception {
+        Path file = Files.writeString(Files.createDirectories(reportsDir.resolve("2025/05/06")).resolve("a.pdf"), "%PDF");
+        when(reportRepository.findDeletedFiles(ReportStorageService.PURGE_BATCH_SIZE)).thenReturn(List.of(
+                deletedFile(1L, "2025/05/06/a.pdf"),
+                deletedFile(2L, "missing.pdf")));
+
+        reportStorageService.purgeDeletedReports();
+
+        assertFalse(Files.exists(file));
+        verify(reportRepository).purgeDeleted(List.of(1L, 2L));
+    }
+
+    @Test
+    void purgeDeletedReports_shouldDoNothingWithoutDeletedReports() {
+        when(reportRepository.findDeletedFiles(ReportStorageService.PURGE_BATCH_SIZE)).thenReturn(List.of());
+
+        reportStorageService.purgeDeletedReports();
+
+        verify(reportRepository, never()).purgeDeleted(any());
+    }
+
+    private static ReportRepository.DeletedReportFile deletedFile(Long id, String reportFile) {
+        return new ReportRepository.DeletedReportFile() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getReportFile() {
+                return reportFile;
+            }
+        };
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(reportsDir)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
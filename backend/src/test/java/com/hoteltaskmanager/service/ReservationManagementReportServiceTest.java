@@ -1,15 +1,21 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.CancellationSummary;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.CheckInOut;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.DailyAvailability;
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.MonthlyCancellation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,25 +31,31 @@ class ReservationManagementReportServiceTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Spy
+    private ReportQueryExecutor reportQueryExecutor = new ReportQueryExecutor(10, 4);
+
     @InjectMocks
     private ReservationManagementReportService reservationManagementReportService;
 
     private LocalDate startDate;
     private LocalDate endDate;
-    private List<Map<String, Object>> sampleUpcomingCheckIns;
-    private List<Map<String, Object>> sampleUpcomingCheckOuts;
-    private List<Map<String, Object>> sampleRoomAvailabilityForecast;
+    private Map<String, Object> checkIn1;
+    private Map<String, Object> checkOut1;
+    private Map<String, Object> stay1;
+    private Map<String, Object> stay2;
+    private Map<String, Object> stay3;
     private Map<String, Object> sampleCancellationRate;
-    private List<Map<String, Object>> sampleCancellationsByMonth;
+    private Map<String, Object> cancellation1;
+    private Map<String, Object> cancellation2;
 
     @BeforeEach
     void setUp() {
         startDate = LocalDate.of(2025, 4, 1);
         endDate = LocalDate.of(2025, 5, 1);
+        reservationManagementReportService.forecastDays = 30;
 
         // Przygotowanie danych dla nadchodzących zameldowań
-        sampleUpcomingCheckIns = new ArrayList<>();
-        Map<String, Object> checkIn1 = new HashMap<>();
+        checkIn1 = new HashMap<>();
         checkIn1.put("reservation_id", 101L);
         checkIn1.put("guest_first_name", "Jan");
         checkIn1.put("guest_last_name", "Kowalski");
@@ -53,11 +65,9 @@ class ReservationManagementReportServiceTest {
         checkIn1.put("rooms", "101, 102");
         checkIn1.put("special_requests", "Łóżko dla dziecka");
         checkIn1.put("catering", "Tak");
-        sampleUpcomingCheckIns.add(checkIn1);
 
         // Przygotowanie danych dla nadchodzących wymeldowań
-        sampleUpcomingCheckOuts = new ArrayList<>();
-        Map<String, Object> checkOut1 = new HashMap<>();
+        checkOut1 = new HashMap<>();
         checkOut1.put("reservation_id", 102L);
         checkOut1.put("guest_first_name", "Anna");
         checkOut1.put("guest_last_name", "Nowak");
@@ -65,147 +75,149 @@ class ReservationManagementReportServiceTest {
         checkOut1.put("check_in_date", LocalDate.now().minusDays(2));
         checkOut1.put("check_out_date", LocalDate.now().plusDays(1));
         checkOut1.put("rooms", "201");
-        sampleUpcomingCheckOuts.add(checkOut1);
-
-        // Przygotowanie danych dla prognozy dostępności pokojów
-        sampleRoomAvailabilityForecast = new ArrayList<>();
-        Map<String, Object> forecast1 = new HashMap<>();
-        forecast1.put("date", LocalDate.now());
-        forecast1.put("total_rooms", 25);
-        forecast1.put("available_rooms", 15);
-        forecast1.put("occupied_rooms", 10);
-        forecast1.put("occupancy_rate", 40.0);
-        sampleRoomAvailabilityForecast.add(forecast1);
-
-        Map<String, Object> forecast2 = new HashMap<>();
-        forecast2.put("date", LocalDate.now().plusDays(1));
-        forecast2.put("total_rooms", 25);
-        forecast2.put("available_rooms", 12);
-        forecast2.put("occupied_rooms", 13);
-        forecast2.put("occupancy_rate", 52.0);
-        sampleRoomAvailabilityForecast.add(forecast2);
+
+        // Przygotowanie pobytów dla prognozy dostępności pokojów (pokój 1 ma dwa nakładające się pobyty)
+        stay1 = new HashMap<>();
+        stay1.put("room_id", 1L);
+        stay1.put("start_date", LocalDate.now().minusDays(2));
+        stay1.put("end_date", LocalDate.now().plusDays(3));
+
+        stay2 = new HashMap<>();
+        stay2.put("room_id", 1L);
+        stay2.put("start_date", LocalDate.now().plusDays(1));
+        stay2.put("end_date", LocalDate.now().plusDays(5));
+
+        stay3 = new HashMap<>();
+        stay3.put("room_id", 2L);
+        stay3.put("start_date", LocalDate.now());
+        stay3.put("end_date", LocalDate.now().plusDays(1));
 
         // Przygotowanie danych dla wskaźnika anulowania
         sampleCancellationRate = new HashMap<>();
-        sampleCancellationRate.put("total_reservations", 50);
-        sampleCancellationRate.put("cancelled_reservations", 5);
-        sampleCancellationRate.put("cancellation_rate", 10.0);
+        sampleCancellationRate.put("total_reservations", 50L);
+        sampleCancellationRate.put("cancelled_reservations", new BigDecimal("5"));
+        sampleCancellationRate.put("cancellation_rate", new BigDecimal("10.00"));
 
         // Przygotowanie danych dla anulowań wg miesiąca
-        sampleCancellationsByMonth = new ArrayList<>();
-        Map<String, Object> cancellation1 = new HashMap<>();
+        cancellation1 = new HashMap<>();
         cancellation1.put("month", "2025-04");
-        cancellation1.put("total_reservations", 30);
-        cancellation1.put("cancelled_reservations", 3);
-        cancellation1.put("cancellation_rate", 10.0);
-        sampleCancellationsByMonth.add(cancellation1);
+        cancellation1.put("total_reservations", 30L);
+        cancellation1.put("cancelled_reservations", new BigDecimal("3"));
+        cancellation1.put("cancellation_rate", new BigDecimal("10.00"));
 
-        Map<String, Object> cancellation2 = new HashMap<>();
+        cancellation2 = new HashMap<>();
         cancellation2.put("month", "2025-05");
-        cancellation2.put("total_reservations", 20);
-        cancellation2.put("cancelled_reservations", 2);
-        cancellation2.put("cancellation_rate", 10.0);
-        sampleCancellationsByMonth.add(cancellation2);
+        cancellation2.put("total_reservations", 20L);
+        cancellation2.put("cancelled_reservations", new BigDecimal("2"));
+        cancellation2.put("cancellation_rate", new BigDecimal("10.00"));
     }
 
     @Test
     void generateReservationManagementReport_ShouldReturnCorrectData() {
         // Given
-        when(jdbcTemplate.queryForList(any(String.class)))
-                .thenReturn(sampleUpcomingCheckIns, sampleUpcomingCheckOuts, sampleRoomAvailabilityForecast);
-
-        when(jdbcTemplate.queryForMap(any(String.class), eq(startDate), eq(endDate)))
-                .thenReturn(sampleCancellationRate);
-
-        when(jdbcTemplate.queryForList(any(String.class), eq(startDate), eq(endDate)))
-                .thenReturn(sampleCancellationsByMonth);
+        when(jdbcTemplate.query(any(String.class), eq(ReservationManagementReportService.CHECK_IN_MAPPER)))
+                .thenAnswer(ReportRows.rows(checkIn1));
+        when(jdbcTemplate.query(any(String.class), eq(ReservationManagementReportService.CHECK_OUT_MAPPER)))
+                .thenAnswer(ReportRows.rows(checkOut1));
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Long.class))).thenReturn(25L);
+        when(jdbcTemplate.query(any(String.class), eq(ReservationManagementReportService.STAY_MAPPER),
+                eq(LocalDate.now().plusDays(30)), eq(LocalDate.now())))
+                .thenAnswer(ReportRows.rows(stay1, stay2, stay3));
+
+        when(jdbcTemplate.queryForObject(any(String.class),
+                eq(ReservationManagementReportService.CANCELLATION_SUMMARY_MAPPER), eq(startDate), eq(endDate)))
+                .thenAnswer(ReportRows.row(sampleCancellationRate));
+
+        when(jdbcTemplate.query(any(String.class),
+                eq(ReservationManagementReportService.MONTHLY_CANCELLATION_MAPPER), eq(startDate), eq(endDate)))
+                .thenAnswer(ReportRows.rows(cancellation1, cancellation2));
 
         // When
-        Map<String, Object> result = reservationManagementReportService.generateReservationManagementReport(startDate, endDate);
+        ReservationManagementReportDTO result = reservationManagementReportService.generateReservationManagementReport(startDate, endDate);
 
         // Then
         assertNotNull(result);
 
-        assertTrue(result.containsKey("upcomingCheckIns"));
-        List<Map<String, Object>> upcomingCheckIns = (List<Map<String, Object>>) result.get("upcomingCheckIns");
+        List<CheckInOut> upcomingCheckIns = result.getUpcomingCheckIns();
         assertEquals(1, upcomingCheckIns.size());
-        assertEquals(101L, upcomingCheckIns.get(0).get("reservation_id"));
-        assertEquals("Jan", upcomingCheckIns.get(0).get("guest_first_name"));
-        assertEquals("Kowalski", upcomingCheckIns.get(0).get("guest_last_name"));
-        assertEquals("Łóżko dla dziecka", upcomingCheckIns.get(0).get("special_requests"));
-
-        assertTrue(result.containsKey("upcomingCheckOuts"));
-        List<Map<String, Object>> upcomingCheckOuts = (List<Map<String, Object>>) result.get("upcomingCheckOuts");
+        assertEquals(101L, upcomingCheckIns.get(0).reservationId());
+        assertEquals("Jan", upcomingCheckIns.get(0).guestFirstName());
+        assertEquals("Kowalski", upcomingCheckIns.get(0).guestLastName());
+        assertEquals(LocalDate.now(), upcomingCheckIns.get(0).checkInDate());
+        assertEquals("Łóżko dla dziecka", upcomingCheckIns.get(0).specialRequests());
+        assertEquals("Tak", upcomingCheckIns.get(0).catering());
+
+        List<CheckInOut> upcomingCheckOuts = result.getUpcomingCheckOuts();
         assertEquals(1, upcomingCheckOuts.size());
-        assertEquals(102L, upcomingCheckOuts.get(0).get("reservation_id"));
-        assertEquals("Anna", upcomingCheckOuts.get(0).get("guest_first_name"));
-        assertEquals("201", upcomingCheckOuts.get(0).get("rooms"));
-
-        assertTrue(result.containsKey("roomAvailabilityForecast"));
-        List<Map<String, Object>> roomAvailabilityForecast = (List<Map<String, Object>>) result.get("roomAvailabilityForecast");
-        assertEquals(2, roomAvailabilityForecast.size());
-        assertEquals(25, roomAvailabilityForecast.get(0).get("total_rooms"));
-        assertEquals(15, roomAvailabilityForecast.get(0).get("available_rooms"));
-        assertEquals(40.0, roomAvailabilityForecast.get(0).get("occupancy_rate"));
-
-        assertTrue(result.containsKey("cancellationRate"));
-        Map<String, Object> cancellationRate = (Map<String, Object>) result.get("cancellationRate");
-        assertEquals(50, cancellationRate.get("total_reservations"));
-        assertEquals(5, cancellationRate.get("cancelled_reservations"));
-        assertEquals(10.0, cancellationRate.get("cancellation_rate"));
-
-        assertTrue(result.containsKey("cancellationsByMonth"));
-        List<Map<String, Object>> cancellationsByMonth = (List<Map<String, Object>>) result.get("cancellationsByMonth");
+        assertEquals(102L, upcomingCheckOuts.get(0).reservationId());
+        assertEquals("Anna", upcomingCheckOuts.get(0).guestFirstName());
+        assertEquals("201", upcomingCheckOuts.get(0).rooms());
+        assertNull(upcomingCheckOuts.get(0).specialRequests());
+
+        List<DailyAvailability> roomAvailabilityForecast = result.getRoomAvailabilityForecast();
+        assertEquals(31, roomAvailabilityForecast.size());
+        assertEquals(LocalDate.now(), roomAvailabilityForecast.get(0).date());
+        assertEquals(25L, roomAvailabilityForecast.get(0).totalRooms());
+        assertEquals(23L, roomAvailabilityForecast.get(0).availableRooms());
+        assertEquals(new BigDecimal("8.00"), roomAvailabilityForecast.get(0).occupancyRate());
+        assertEquals(1L, roomAvailabilityForecast.get(4).occupiedRooms());
+        assertEquals(0L, roomAvailabilityForecast.get(5).occupiedRooms());
+        assertEquals(LocalDate.now().plusDays(30), roomAvailabilityForecast.get(30).date());
+
+        CancellationSummary cancellationRate = result.getCancellationRate();
+        assertEquals(50L, cancellationRate.totalReservations());
+        assertEquals(5L, cancellationRate.cancelledReservations());
+        assertEquals(new BigDecimal("10.00"), cancellationRate.cancellationRate());
+
+        List<MonthlyCancellation> cancellationsByMonth = result.getCancellationsByMonth();
         assertEquals(2, cancellationsByMonth.size());
-        assertEquals("2025-04", cancellationsByMonth.get(0).get("month"));
-        assertEquals(30, cancellationsByMonth.get(0).get("total_reservations"));
-        assertEquals(3, cancellationsByMonth.get(0).get("cancelled_reservations"));
+        assertEquals("2025-04", cancellationsByMonth.get(0).month());
+        assertEquals(30L, cancellationsByMonth.get(0).totalReservations());
+        assertEquals(3L, cancellationsByMonth.get(0).cancelledReservations());
     }
 
     @Test
     void generateReservationManagementReport_WithEmptyData_ShouldHandleGracefully() {
         // Given
-        when(jdbcTemplate.queryForList(any(String.class)))
-                .thenReturn(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-
+        when(jdbcTemplate.query(any(String.class), eq(ReservationManagementReportService.CHECK_IN_MAPPER)))
+                .thenAnswer(ReportRows.rows());
+        when(jdbcTemplate.query(any(String.class), eq(ReservationManagementReportService.CHECK_OUT_MAPPER)))
+                .thenAnswer(ReportRows.rows());
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Long.class))).thenReturn(0L);
+        when(jdbcTemplate.query(any(String.class), eq(ReservationManagementReportService.STAY_MAPPER),
+                any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(ReportRows.rows());
+
+        // Brak rezerwacji - SUM i dzielenie przez zero dają NULL
         Map<String, Object> emptyCancellationRate = new HashMap<>();
-        emptyCancellationRate.put("total_reservations", 0);
-        emptyCancellationRate.put("cancelled_reservations", 0);
-        emptyCancellationRate.put("cancellation_rate", 0.0);
+        emptyCancellationRate.put("total_reservations", 0L);
+        emptyCancellationRate.put("cancelled_reservations", null);
+        emptyCancellationRate.put("cancellation_rate", null);
 
-        when(jdbcTemplate.queryForMap(any(String.class), eq(startDate), eq(endDate)))
-                .thenReturn(emptyCancellationRate);
+        when(jdbcTemplate.queryForObject(any(String.class),
+                eq(ReservationManagementReportService.CANCELLATION_SUMMARY_MAPPER), eq(startDate), eq(endDate)))
+                .thenAnswer(ReportRows.row(emptyCancellationRate));
 
-        when(jdbcTemplate.queryForList(any(String.class), eq(startDate), eq(endDate)))
-                .thenReturn(new ArrayList<>());
+        when(jdbcTemplate.query(any(String.class),
+                eq(ReservationManagementReportService.MONTHLY_CANCELLATION_MAPPER), eq(startDate), eq(endDate)))
+                .thenAnswer(ReportRows.rows());
 
         // When
-        Map<String, Object> result = reservationManagementReportService.generateReservationManagementReport(startDate, endDate);
+        ReservationManagementReportDTO result = reservationManagementReportService.generateReservationManagementReport(startDate, endDate);
 
         // Then
         assertNotNull(result);
 
         // Sprawdzenie czy raport zawiera puste listy i wartości zerowe
-        assertTrue(result.containsKey("upcomingCheckIns"));
-        List<Map<String, Object>> upcomingCheckIns = (List<Map<String, Object>>) result.get("upcomingCheckIns");
-        assertTrue(upcomingCheckIns.isEmpty());
-
-        assertTrue(result.containsKey("upcomingCheckOuts"));
-        List<Map<String, Object>> upcomingCheckOuts = (List<Map<String, Object>>) result.get("upcomingCheckOuts");
-        assertTrue(upcomingCheckOuts.isEmpty());
-
-        assertTrue(result.containsKey("roomAvailabilityForecast"));
-        List<Map<String, Object>> roomAvailabilityForecast = (List<Map<String, Object>>) result.get("roomAvailabilityForecast");
-        assertTrue(roomAvailabilityForecast.isEmpty());
-
-        assertTrue(result.containsKey("cancellationRate"));
-        Map<String, Object> cancellationRate = (Map<String, Object>) result.get("cancellationRate");
-        assertEquals(0, cancellationRate.get("total_reservations"));
-        assertEquals(0, cancellationRate.get("cancelled_reservations"));
-        assertEquals(0.0, cancellationRate.get("cancellation_rate"));
-
-        assertTrue(result.containsKey("cancellationsByMonth"));
-        List<Map<String, Object>> cancellationsByMonth = (List<Map<String, Object>>) result.get("cancellationsByMonth");
-        assertTrue(cancellationsByMonth.isEmpty());
+        assertTrue(result.getUpcomingCheckIns().isEmpty());
+        assertTrue(result.getUpcomingCheckOuts().isEmpty());
+        assertTrue(result.getRoomAvailabilityForecast().isEmpty());
+
+        CancellationSummary cancellationRate = result.getCancellationRate();
+        assertEquals(0L, cancellationRate.totalReservations());
+        assertNull(cancellationRate.cancelledReservations());
+        assertNull(cancellationRate.cancellationRate());
+
+        assertTrue(result.getCancellationsByMonth().isEmpty());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.repository.InvoiceRepository;
+import com.hoteltaskmanager.repository.ReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link RetentionService}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Spakowanie starych raportów do archiwów miesięcznych z indeksem</li>
+ *     <li>Nowe archiwum zamiast modyfikacji istniejącego</li>
+ *     <li>Usunięcie archiwum, na które nic nie wskazuje</li>
+ *     <li>Pozostawienie pliku faktury używanego przez niezarchiwizowaną fakturę</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class RetentionServiceTest {
+
+    @Mock
+    private ReportRepository reportRepository;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private ReportStorageService reportStorageService;
+
+    @TempDir
+    Path tempDir;
+
+    private RetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        retentionService = new RetentionService(reportRepository, invoiceRepository, reportStorageService, 90, 365);
+        retentionService.invoicesBase = tempDir;
+    }
+
+    @Test
+    void archiveReports_shouldBundleReportsByMonthWithIndex() throws Exception {
+        when(reportStorageService.getReportsStorageLocation()).thenReturn(tempDir.toString());
+        Path january = write("2025/01/10/staff_1.pdf", "%PDF staff");
+        Path januaryLater = write("2025/01/20/rooms_2.pdf", "%PDF rooms");
+        Path february = write("2025/02/03/complete_3.pdf", "%PDF complete");
+        when(reportRepository.findArchivable(any(LocalDateTime.class), eq(0L), any())).thenReturn(List.of(
+                report(1L, "2025/01/10/staff_1.pdf", LocalDateTime.of(2025, 1, 10, 9, 0)),
+                report(2L, "2025/01/20/rooms_2.pdf", LocalDateTime.of(2025, 1, 20, 9, 0)),
+                report(3L, "2025/02/03/complete_3.pdf", LocalDateTime.of(2025, 2, 3, 9, 0)),
+                report(4L, "2025/02/04/missing_4.pdf", LocalDateTime.of(2025, 2, 4, 9, 0))));
+        when(reportRepository.existsByArchiveFile(anyString())).thenReturn(true);
+
+        assertEquals(3, retentionService.archiveReports());
+
+        verify(reportRepository).markArchived(List.of(1L, 2L), "archive/2025-01.zip");
+        verify(reportRepository).markArchived(List.of(3L), "archive/2025-02.zip");
+        assertFalse(Files.exists(january));
+        assertFalse(Files.exists(januaryLater));
+        assertFalse(Files.exists(february));
+
+        try (ZipFile zip = new ZipFile(tempDir.resolve("archive/2025-01.zip").toFile())) {
+            assertEquals("%PDF rooms", new String(zip.getInputStream(zip.getEntry("2025/01/20/rooms_2.pdf")).readAllBytes(),
+                    StandardCharsets.US_ASCII));
+            String index = new String(zip.getInputStream(zip.getEntry(RetentionService.INDEX_ENTRY)).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            assertTrue(index.contains("2025/01/10/staff_1.pdf;10;"));
+            assertTrue(index.contains("2025/01/20/rooms_2.pdf;10;"));
+        }
+    }
+
+    @Test
+    void archiveReports_shouldNotModifyExistingBundle() throws Exception {
+        when(reportStorageService.getReportsStorageLocation()).thenReturn(tempDir.toString());
+        Path existing = write("archive/2025-01.zip", "istniejące archiwum");
+        write("2025/01/31/staff_5.pdf", "%PDF staff");
+        when(reportRepository.findArchivable(any(LocalDateTime.class), eq(0L), any()))
+                .thenReturn(List.of(report(5L, "2025/01/31/staff_5.pdf", LocalDateTime.of(2025, 1, 31, 23, 0))));
+        when(reportRepository.existsByArchiveFile(anyString())).thenReturn(true);
+
+        retentionService.archiveReports();
+
+        verify(reportRepository).markArchived(List.of(5L), "archive/2025-01-2.zip");
+        assertEquals("istniejące archiwum", Files.readString(existing));
+        assertTrue(Files.exists(tempDir.resolve("archive/2025-01-2.zip")));
+    }
+
+    @Test
+    void archiveReports_shouldRemoveUnreferencedBundle() throws Exception {
+        when(reportStorageService.getReportsStorageLocation()).thenReturn(tempDir.toString());
+        Path orphan = write("archive/2024-11.zip", "przerwana archiwizacja");
+        Path used = write("archive/2024-12.zip", "używane archiwum");
+        when(reportRepository.findArchivable(any(LocalDateTime.class), anyLong(), any())).thenReturn(List.of());
+        when(reportRepository.existsByArchiveFile("archive/2024-11.zip")).thenReturn(false);
+        when(reportRepository.existsByArchiveFile("archive/2024-12.zip")).thenReturn(true);
+
+        assertEquals(0, retentionService.archiveReports());
+
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(used));
+        verify(reportRepository, never()).markArchived(any(), anyString());
+    }
+
+    @Test
+    void archiveInvoices_shouldKeepFileUsedByUnarchivedInvoice() throws Exception {
+        Path shared = write("invoices/invoice-a.pdf", "%PDF a");
+        Path archivedOnly = write("invoices/invoice-b.pdf", "%PDF b");
+        when(invoiceRepository.findArchivable(any(LocalDate.class), isNull(), any())).thenReturn(List.of(
+                invoiceFile("invoices/invoice-a.pdf", LocalDate.of(2024, 3, 5)),
+                invoiceFile("invoices/invoice-b.pdf", LocalDate.of(2024, 3, 9))));
+        when(invoiceRepository.existsByPdfFileAndArchiveFileIsNull("invoices/invoice-a.pdf")).thenReturn(true);
+        when(invoiceRepository.existsByPdfFileAndArchiveFileIsNull("invoices/invoice-b.pdf")).thenReturn(false);
+        when(invoiceRepository.existsByArchiveFile("invoices/archive/2024-03.zip")).thenReturn(true);
+
+        assertEquals(2, retentionService.archiveInvoices());
+
+        verify(invoiceRepository).markArchived(List.of("invoices/invoice-a.pdf", "invoices/invoice-b.pdf"),
+                "invoices/archive/2024-03.zip");
+        assertTrue(Files.exists(shared));
+        assertFalse(Files.exists(archivedOnly));
+        try (ZipFile zip = new ZipFile(tempDir.resolve("invoices/archive/2024-03.zip").toFile())) {
+            assertNotNull(zip.getEntry("invoice-a.pdf"));
+            assertNotNull(zip.getEntry("invoice-b.pdf"));
+        }
+    }
+
+    private Path write(String relativePath, String content) throws Exception {
+        Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static ReportRepository.ArchivableReport report(Long id, String reportFile, LocalDateTime createdAt) {
+        return new ReportRepository.ArchivableReport() {
+            public Long getId() { return id; }
+            public String getReportFile() { return reportFile; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+        };
+    }
+
+    private static InvoiceRepository.ArchivableFile invoiceFile(String pdfFile, LocalDate issueDate) {
+        return new InvoiceRepository.ArchivableFile() {
+            public String getPdfFile() { return pdfFile; }
+            public LocalDate getIssueDate() { return issueDate; }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.ReservationManagementReportDTO.DailyAvailability;
+import com.hoteltaskmanager.service.RoomAvailabilityForecast.Stay;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe dla {@link RoomAvailabilityForecast}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Zajęcie pokoju od dnia przyjazdu do dnia przed wyjazdem</li>
+ *     <li>Przycięcie pobytów zaczynających się przed horyzontem i kończących po nim</li>
+ *     <li>Scalanie nakładających się pobytów w tym samym pokoju</li>
+ *     <li>Pusta prognoza bez pokoi</li>
+ * </ul>
+ */
+class RoomAvailabilityForecastTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    @Test
+    void compute_shouldOccupyRoomUntilDayBeforeCheckOut() {
+        List<DailyAvailability> forecast = RoomAvailabilityForecast.compute(MAY_1, MAY_1.plusDays(4), 4,
+                List.of(new Stay(1L, MAY_1.plusDays(1), MAY_1.plusDays(3))));
+
+        assertEquals(5, forecast.size());
+        assertEquals(List.of(0L, 1L, 1L, 0L, 0L), forecast.stream().map(DailyAvailability::occupiedRooms).toList());
+        assertEquals(3L, forecast.get(1).availableRooms());
+        assertEquals(new BigDecimal("25.00"), forecast.get(1).occupancyRate());
+        assertEquals(new BigDecimal("0.00"), forecast.get(0).occupancyRate());
+        assertEquals(MAY_1.plusDays(4), forecast.get(4).date());
+    }
+
+    @Test
+    void compute_shouldClipStaysToHorizon() {
+        List<DailyAvailability> forecast = RoomAvailabilityForecast.compute(MAY_1, MAY_1.plusDays(2), 3, List.of(
+                new Stay(1L, MAY_1.minusDays(10), MAY_1.plusDays(1)),
+                new Stay(2L, MAY_1.plusDays(2), MAY_1.plusDays(30))));
+
+        assertEquals(List.of(1L, 0L, 1L), forecast.stream().map(DailyAvailability::occupiedRooms).toList());
+    }
+
+    @Test
+    void compute_shouldCountOverlappingStaysInSameRoomOnce() {
+        List<DailyAvailability> forecast = RoomAvailabilityForecast.compute(MAY_1, MAY_1.plusDays(5), 2, List.of(
+                new Stay(1L, MAY_1, MAY_1.plusDays(3)),
+                new Stay(1L, MAY_1.plusDays(2), MAY_1.plusDays(5)),
+                new Stay(2L, MAY_1.plusDays(1), MAY_1.plusDays(2))));
+
+        assertEquals(List.of(1L, 2L, 1L, 1L, 1L, 0L),
+                forecast.stream().map(DailyAvailability::occupiedRooms).toList());
+        assertEquals(new BigDecimal("100.00"), forecast.get(1).occupancyRate());
+    }
+
+    @Test
+    void compute_shouldReturnEmptyForecastWithoutRooms() {
+        assertTrue(RoomAvailabilityForecast.compute(MAY_1, MAY_1.plusDays(365), 0, List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.model.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe dla {@link RoomAvailabilityIndex}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Wyszukiwanie wolnych pokoi z tą samą semantyką kolizji co zapytanie w repozytorium</li>
+ *     <li>Filtrowanie po liczbie łóżek, piętrze i cenie</li>
+ *     <li>Aktualizacja indeksu po zmianie i usunięciu rezerwacji</li>
+ *     <li>Dodawanie i usuwanie pokoi</li>
+ *     <li>Zachowanie zmian wprowadzonych w trakcie przebudowy</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+class RoomAvailabilityIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RoomAvailabilityIndex index;
+
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+    private static final LocalDate MAY_5 = LocalDate.of(2025, 5, 5);
+    private static final LocalDate MAY_10 = LocalDate.of(2025, 5, 10);
+
+    /**
+     * Trzy pokoje: 1 (piętro 1, 2 łóżka, 100 zł), 2 (piętro 1, 3 łóżka, 200 zł), 3 (piętro 2, 1 łóżko, 80 zł).
+     * Rezerwacja 10 zajmuje pokój 1 w dniach 1-5 maja.
+     */
+    @BeforeEach
+    void setUp() {
+        index = new RoomAvailabilityIndex(jdbcTemplate);
+        index.replaceAll(
+                List.of(
+                        new RoomAvailabilityIndex.RoomCalendar(1L, 1, 2, BigDecimal.valueOf(100), List.of()),
+                        new RoomAvailabilityIndex.RoomCalendar(2L, 1, 3, BigDecimal.valueOf(200), List.of()),
+                        new RoomAvailabilityIndex.RoomCalendar(3L, 2, 1, BigDecimal.valueOf(80), List.of())),
+                List.of(booking(1L, 10L, MAY_1, MAY_5)));
+    }
+
+    @Test
+    void findAvailableRoomIds_shouldSkipRoomsWithOverlappingReservation() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(2L, 3L), index.findAvailableRoomIds(MAY_1, MAY_10, null, null, null));
+        // Granice zakresu są włącznie - dzień zakończenia rezerwacji koliduje
+        assertEquals(List.of(2L, 3L), index.findAvailableRoomIds(MAY_5, MAY_10, null, null, null));
+        assertEquals(List.of(1L, 2L, 3L), index.findAvailableRoomIds(MAY_5.plusDays(1), MAY_10, null, null, null));
+    }
+
+    @Test
+    void findAvailableRoomIds_shouldApplyFilters() {
+        LocalDate from = MAY_10;
+        LocalDate to = MAY_10.plusDays(2);
+
+        assertEquals(List.of(2L), index.findAvailableRoomIds(from, to, 3, null, null));
+        assertEquals(List.of(3L), index.findAvailableRoomIds(from, to, null, 2, null));
+        assertEquals(List.of(1L, 3L), index.findAvailableRoomIds(from, to, null, null, BigDecimal.valueOf(100)));
+    }
+
+    @Test
+    void applyReservation_shouldMoveReservationBetweenRooms() {
+        index.applyReservation(10L, List.of(booking(2L, 10L, MAY_1, MAY_5)));
+
+        assertEquals(List.of(1L, 3L), index.findAvailableRoomIds(MAY_1, MAY_5, null, null, null));
+    }
+
+    @Test
+    void removeReservation_shouldFreeRoom() {
+        index.removeReservation(10L);
+
+        assertEquals(List.of(1L, 2L, 3L), index.findAvailableRoomIds(MAY_1, MAY_5, null, null, null));
+    }
+
+    @Test
+    void refreshRoom_shouldKeepBookingsAndUpdateAttributes() {
+        Room room = new Room();
+        room.setId(1L);
+        room.setFloor(3);
+        room.setBedCount(4);
+        room.setPricePerNight(BigDecimal.valueOf(300));
+
+        index.refreshRoom(room);
+
+        assertEquals(List.of(), index.findAvailableRoomIds(MAY_1, MAY_5, null, 3, null));
+        assertEquals(List.of(1L), index.findAvailableRoomIds(MAY_10, MAY_10, 4, null, null));
+    }
+
+    @Test
+    void removeRoom_shouldDropRoomFromResults() {
+        index.removeRoom(2L);
+
+        assertEquals(List.of(3L), index.findAvailableRoomIds(MAY_1, MAY_10, null, null, null));
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesAppliedWhileQueryingDatabase() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class)))
+                .thenReturn(List.of(
+                        new RoomAvailabilityIndex.RoomCalendar(1L, 1, 2, BigDecimal.valueOf(100), List.of()),
+                        new RoomAvailabilityIndex.RoomCalendar(2L, 1, 3, BigDecimal.valueOf(200), List.of())))
+                .thenAnswer(invocation -> {
+                    // Rezerwacja 20 zapisana po odczycie pokoi - odczyt rezerwacji jej nie zawiera
+                    index.applyReservation(20L, List.of(booking(2L, 20L, MAY_1, MAY_5)));
+                    return List.of(booking(1L, 10L, MAY_1, MAY_5));
+                });
+
+        index.rebuild();
+
+        assertEquals(List.of(), index.findAvailableRoomIds(MAY_1, MAY_5, null, null, null));
+        assertEquals(List.of(1L, 2L), index.findAvailableRoomIds(MAY_10, MAY_10, null, null, null));
+    }
+
+    private static RoomAvailabilityIndex.Booking booking(Long roomId, Long reservationId, LocalDate start, LocalDate end) {
+        return new RoomAvailabilityIndex.Booking(roomId, reservationId, start.toEpochDay(), end.toEpochDay());
+    }
+}
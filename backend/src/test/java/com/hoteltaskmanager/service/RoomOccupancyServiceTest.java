@@ -0,0 +1,99 @@
+package com.hoteltaskmanager.service;
+
+import com.hoteltaskmanager.dto.RoomOccupancyMatrixDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dla {@link RoomOccupancyService}.
+ * <p>
+ * Sprawdzają budowanie macierzy zajętości w jednym przejściu po rezerwacjach
+ * oraz oba kodowania odpowiedzi (mapa bitowa i RLE).
+ */
+@ExtendWith(MockitoExtension.class)
+class RoomOccupancyServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private RoomOccupancyService roomOccupancyService;
+
+    private final LocalDate from = LocalDate.of(2025, 5, 1);
+    private final LocalDate to = LocalDate.of(2025, 5, 10);
+
+    /**
+     * Dwa pokoje (101, 102). Pokój 101 ma rezerwację 28.04-02.05 (wystaje przed zakres),
+     * pokój 102 ma rezerwację 05.05-06.05.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        ResultSet rooms = mock(ResultSet.class);
+        when(rooms.getLong("id")).thenReturn(1L, 2L);
+        when(rooms.getString("room_number")).thenReturn("101", "102");
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rooms);
+            handler.processRow(rooms);
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM rooms"), any(RowCallbackHandler.class));
+
+        ResultSet bookings = mock(ResultSet.class);
+        when(bookings.getLong("room_id")).thenReturn(1L, 2L);
+        when(bookings.getDate("start_date")).thenReturn(
+                Date.valueOf(LocalDate.of(2025, 4, 28)), Date.valueOf(LocalDate.of(2025, 5, 5)));
+        when(bookings.getDate("end_date")).thenReturn(
+                Date.valueOf(LocalDate.of(2025, 5, 2)), Date.valueOf(LocalDate.of(2025, 5, 6)));
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(bookings);
+            handler.processRow(bookings);
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM reservation_rooms"), any(RowCallbackHandler.class), eq(to), eq(from));
+    }
+
+    @Test
+    void buildMatrix_shouldEncodeOccupancyAsBitset() {
+        RoomOccupancyMatrixDTO matrix = roomOccupancyService.buildMatrix(from, to, "bitset");
+
+        assertEquals(10, matrix.getDays());
+        assertEquals("bitset", matrix.getEncoding());
+        assertEquals(List.of(1L, 2L), matrix.getRoomIds());
+        assertEquals(List.of("101", "102"), matrix.getRoomNumbers());
+
+        BitSet bits = BitSet.valueOf(Base64.getDecoder().decode(matrix.getOccupancy()));
+        BitSet expected = new BitSet();
+        expected.set(0, 2);          // pokój 101: 1-2 maja
+        expected.set(10 + 4, 10 + 6); // pokój 102: 5-6 maja
+        assertEquals(expected, bits);
+    }
+
+    @Test
+    void buildMatrix_shouldEncodeOccupancyAsRuns() {
+        RoomOccupancyMatrixDTO matrix = roomOccupancyService.buildMatrix(from, to, "rle");
+
+        assertEquals("rle", matrix.getEncoding());
+        assertNull(matrix.getOccupancy());
+        assertArrayEquals(new int[]{0, 2}, matrix.getRuns().get(0));
+        assertArrayEquals(new int[]{4, 2}, matrix.getRuns().get(1));
+    }
+}
@@ -2,7 +2,7 @@ package com.hoteltaskmanager.service;
 
 import com.hoteltaskmanager.model.*;
 import com.hoteltaskmanager.repository.MaintenanceRequestRepository;
-import com.hoteltaskmanager.repository.ReservationRepository;
+import com.hoteltaskmanager.repository.ReservationRoomRepository;
 import com.hoteltaskmanager.repository.RoomRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,7 +15,9 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +32,8 @@ import static org.mockito.Mockito.*;
  *     <li>Pokój z aktywną rezerwacją -> status OCCUPIED</li>
  *     <li>Pokój ze zgłoszeniem usterki -> status OUT_OF_SERVICE</li>
  *     <li>Pokój z aktywną rezerwacją i zgłoszeniem usterki -> status OUT_OF_SERVICE (priorytet ma usterka)</li>
+ *     <li>Przeliczenie przyrostowe dotyczy wyłącznie wskazanych pokoi</li>
+ *     <li>Zapisywane są tylko pokoje, których status się zmienił</li>
  * </ul>
  */
 @ExtendWith(MockitoExtension.class)
@@ -39,7 +43,7 @@ class RoomStatusManagerServiceTest {
     private RoomRepository roomRepository;
 
     @Mock
-    private ReservationRepository reservationRepository;
+    private ReservationRoomRepository reservationRoomRepository;
 
     @Mock
     private MaintenanceRequestRepository maintenanceRequestRepository;
@@ -51,17 +55,13 @@ class RoomStatusManagerServiceTest {
     private Room room2;
     private Room room3;
     private Room room4;
-    private Reservation activeReservation;
-    private Reservation cancelledReservation;
-    private MaintenanceRequest pendingMaintenance;
-    private MaintenanceRequest completedMaintenance;
     private List<Room> allRooms;
 
     /**
      * Przygotowanie danych testowych przed każdym testem.
      * <p>
-     * Tworzy pokoje, rezerwacje i zgłoszenia usterek z różnymi statusami,
-     * które będą używane w testach.
+     * Tworzy pokoje, które będą używane w testach. Zbiory pokoi z aktywną rezerwacją
+     * i z otwartym zgłoszeniem usterki zwracają mockowane repozytoria.
      */
     @BeforeEach
     void setUp() {
@@ -98,125 +98,47 @@ class RoomStatusManagerServiceTest {
         room4.setStatus(RoomStatus.AVAILABLE);
 
         allRooms = Arrays.asList(room1, room2, room3, room4);
-
-        activeReservation = new Reservation();
-        activeReservation.setId(1L);
-        activeReservation.setStatus(ReservationStatus.ACTIVE);
-
-        cancelledReservation = new Reservation();
-        cancelledReservation.setId(2L);
-        cancelledReservation.setStatus(ReservationStatus.CANCELLED);
-
-        ReservationRoom reservationRoom2 = new ReservationRoom();
-        reservationRoom2.setRoom(room2);
-        reservationRoom2.setReservation(activeReservation);
-
-        ReservationRoom reservationRoom4 = new ReservationRoom();
-        reservationRoom4.setRoom(room4);
-        reservationRoom4.setReservation(activeReservation);
-
-        activeReservation.setReservationRooms(Arrays.asList(reservationRoom2, reservationRoom4));
-
-        pendingMaintenance = new MaintenanceRequest();
-        pendingMaintenance.setId(1L);
-        pendingMaintenance.setRoom(room3);
-        pendingMaintenance.setStatus(MaintenanceStatus.IN_PROGRESS);
-
-        MaintenanceRequest pendingMaintenance2 = new MaintenanceRequest();
-        pendingMaintenance2.setId(2L);
-        pendingMaintenance2.setRoom(room4);
-        pendingMaintenance2.setStatus(MaintenanceStatus.PENDING);
-
-        completedMaintenance = new MaintenanceRequest();
-        completedMaintenance.setId(3L);
-        completedMaintenance.setRoom(room1);
-        completedMaintenance.setStatus(MaintenanceStatus.COMPLETED);
     }
 
     /**
-     * Test aktualizacji statusów pokoi.
+     * Test pełnej przebudowy statusów pokoi.
      * <p>
      * Sprawdza czy serwis poprawnie aktualizuje statusy pokoi na podstawie
-     * ich przypisań do rezerwacji i zgłoszeń usterek.
+     * ich przypisań do rezerwacji i zgłoszeń usterek oraz zapisuje tylko zmienione pokoje.
      */
     @Test
     void refreshRoomStatuses_shouldUpdateAllRoomsWithCorrectStatus() {
-        String roomStatusesPayload = """
-            {
-              "rooms": [
-                {
-                  "id": 1,
-                  "roomNumber": "101",
-                  "status": "AVAILABLE"
-                },
-                {
-                  "id": 2,
-                  "roomNumber": "102",
-                  "status": "OCCUPIED"
-                },
-                {
-                  "id": 3,
-                  "roomNumber": "103",
-                  "status": "OUT_OF_SERVICE"
-                },
-                {
-                  "id": 4,
-                  "roomNumber": "104",
-                  "status": "OUT_OF_SERVICE"
-                }
-              ]
-            }
-        """;
-
         when(roomRepository.findAll()).thenReturn(allRooms);
-        when(reservationRepository.findAll()).thenReturn(Arrays.asList(activeReservation, cancelledReservation));
-        when(maintenanceRequestRepository.findByRoomId(1L)).thenReturn(Collections.singletonList(completedMaintenance));
-        when(maintenanceRequestRepository.findByRoomId(2L)).thenReturn(Collections.emptyList());
-        when(maintenanceRequestRepository.findByRoomId(3L)).thenReturn(Collections.singletonList(pendingMaintenance));
-        when(maintenanceRequestRepository.findByRoomId(4L)).thenReturn(Collections.singletonList(pendingMaintenance));
-
-        roomStatusManagerService.refreshRoomStatuses();
-
-        verify(roomRepository, times(1)).save(argThat(room ->
-                room.getId().equals(1L) && room.getStatus() == RoomStatus.AVAILABLE));
-
-        verify(roomRepository, times(1)).save(argThat(room ->
-                room.getId().equals(2L) && room.getStatus() == RoomStatus.OCCUPIED));
+        when(reservationRoomRepository.findRoomIdsByReservationStatus(ReservationStatus.ACTIVE)).thenReturn(Set.of(2L, 4L));
+        when(maintenanceRequestRepository.findRoomIdsByStatusNot(MaintenanceStatus.COMPLETED)).thenReturn(Set.of(3L, 4L));
 
-        verify(roomRepository, times(1)).save(argThat(room ->
-                room.getId().equals(3L) && room.getStatus() == RoomStatus.OUT_OF_SERVICE));
+        int changed = roomStatusManagerService.refreshRoomStatuses();
 
-        verify(roomRepository, times(1)).save(argThat(room ->
-                room.getId().equals(4L) && room.getStatus() == RoomStatus.OUT_OF_SERVICE));
+        assertEquals(3, changed);
+        assertEquals(RoomStatus.AVAILABLE, room1.getStatus());
+        assertEquals(RoomStatus.OCCUPIED, room2.getStatus());
+        assertEquals(RoomStatus.OUT_OF_SERVICE, room3.getStatus());
+        assertEquals(RoomStatus.OUT_OF_SERVICE, room4.getStatus());
+        verify(roomRepository).saveAll(List.of(room2, room3, room4));
     }
 
     /**
      * Test aktualizacji statusu pokoju bez rezerwacji i zgłoszeń usterek.
      * <p>
-     * Sprawdza czy serwis poprawnie ustawia status AVAILABLE dla pokoju,
-     * który nie ma aktywnych rezerwacji ani oczekujących zgłoszeń usterek.
+     * Sprawdza czy serwis ustawia status AVAILABLE dla pokoju, który nie ma aktywnych
+     * rezerwacji ani oczekujących zgłoszeń usterek, i nie zapisuje go, jeśli status się nie zmienił.
      */
     @Test
     void refreshRoomStatuses_shouldSetRoomToAvailable_whenNoReservationsOrMaintenance() {
-        String roomPayload = """
-            {
-              "id": 1,
-              "roomNumber": "101",
-              "floor": 1,
-              "bedCount": 2,
-              "pricePerNight": 100.0,
-              "status": "AVAILABLE"
-            }
-        """;
-
         when(roomRepository.findAll()).thenReturn(Collections.singletonList(room1));
-        when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
-        when(maintenanceRequestRepository.findByRoomId(1L)).thenReturn(Collections.singletonList(completedMaintenance));
+        when(reservationRoomRepository.findRoomIdsByReservationStatus(ReservationStatus.ACTIVE)).thenReturn(Collections.emptySet());
+        when(maintenanceRequestRepository.findRoomIdsByStatusNot(MaintenanceStatus.COMPLETED)).thenReturn(Collections.emptySet());
 
-        roomStatusManagerService.refreshRoomStatuses();
+        int changed = roomStatusManagerService.refreshRoomStatuses();
 
-        verify(roomRepository).save(argThat(room ->
-                room.getId().equals(1L) && room.getStatus() == RoomStatus.AVAILABLE));
+        assertEquals(0, changed);
+        assertEquals(RoomStatus.AVAILABLE, room1.getStatus());
+        verify(roomRepository, never()).saveAll(any());
     }
 
     /**
@@ -226,31 +148,17 @@ class RoomStatusManagerServiceTest {
      * który ma aktywną rezerwację, ale nie ma oczekujących zgłoszeń usterek.
      */
     @Test
-    void refreshRoomStatuses_shouldSetRoomToOccupied_whenActiveReservation() {
-        String reservationPayload = """
-            {
-              "id": 1,
-              "status": "ACTIVE",
-              "reservationRooms": [
-                {
-                  "room": {
-                    "id": 2,
-                    "roomNumber": "102",
-                    "status": "AVAILABLE"
-                  }
-                }
-              ]
-            }
-        """;
-
-        when(roomRepository.findAll()).thenReturn(Collections.singletonList(room2));
-        when(reservationRepository.findAll()).thenReturn(Collections.singletonList(activeReservation));
-        when(maintenanceRequestRepository.findByRoomId(2L)).thenReturn(Collections.emptyList());
-
-        roomStatusManagerService.refreshRoomStatuses();
-
-        verify(roomRepository).save(argThat(room ->
-                room.getId().equals(2L) && room.getStatus() == RoomStatus.OCCUPIED));
+    void refreshRoomStatus_shouldSetRoomToOccupied_whenActiveReservation() {
+        when(roomRepository.findAllById(Set.of(2L))).thenReturn(Collections.singletonList(room2));
+        when(reservationRoomRepository.findRoomIdsByReservationStatusAndRoomIdIn(ReservationStatus.ACTIVE, Set.of(2L)))
+                .thenReturn(Set.of(2L));
+        when(maintenanceRequestRepository.findRoomIdsByStatusNotAndRoomIdIn(MaintenanceStatus.COMPLETED, Set.of(2L)))
+                .thenReturn(Collections.emptySet());
+
+        roomStatusManagerService.refreshRoomStatus(2L);
+
+        assertEquals(RoomStatus.OCCUPIED, room2.getStatus());
+        verify(roomRepository).saveAll(List.of(room2));
     }
 
     /**
@@ -260,28 +168,17 @@ class RoomStatusManagerServiceTest {
      * który ma oczekujące zgłoszenie usterki, ale nie ma aktywnych rezerwacji.
      */
     @Test
-    void refreshRoomStatuses_shouldSetRoomToOutOfService_whenPendingMaintenance() {
-        String maintenancePayload = """
-            {
-              "id": 1,
-              "room": {
-                "id": 3,
-                "roomNumber": "103"
-              },
-              "issue": "Zepsuty kran",
-              "status": "IN_PROGRESS",
-              "requestDate": "2025-05-02T10:30:00"
-            }
-        """;
-
-        when(roomRepository.findAll()).thenReturn(Collections.singletonList(room3));
-        when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
-        when(maintenanceRequestRepository.findByRoomId(3L)).thenReturn(Collections.singletonList(pendingMaintenance));
-
-        roomStatusManagerService.refreshRoomStatuses();
-
-        verify(roomRepository).save(argThat(room ->
-                room.getId().equals(3L) && room.getStatus() == RoomStatus.OUT_OF_SERVICE));
+    void refreshRoomStatus_shouldSetRoomToOutOfService_whenPendingMaintenance() {
+        when(roomRepository.findAllById(Set.of(3L))).thenReturn(Collections.singletonList(room3));
+        when(reservationRoomRepository.findRoomIdsByReservationStatusAndRoomIdIn(ReservationStatus.ACTIVE, Set.of(3L)))
+                .thenReturn(Collections.emptySet());
+        when(maintenanceRequestRepository.findRoomIdsByStatusNotAndRoomIdIn(MaintenanceStatus.COMPLETED, Set.of(3L)))
+                .thenReturn(Set.of(3L));
+
+        roomStatusManagerService.refreshRoomStatus(3L);
+
+        assertEquals(RoomStatus.OUT_OF_SERVICE, room3.getStatus());
+        verify(roomRepository).saveAll(List.of(room3));
     }
 
     /**
@@ -292,14 +189,49 @@ class RoomStatusManagerServiceTest {
      * (zgłoszenie usterki ma priorytet).
      */
     @Test
-    void refreshRoomStatuses_shouldSetRoomToOutOfService_whenActiveReservationAndPendingMaintenance() {
-        when(roomRepository.findAll()).thenReturn(Collections.singletonList(room4));
-        when(reservationRepository.findAll()).thenReturn(Collections.singletonList(activeReservation));
-        when(maintenanceRequestRepository.findByRoomId(4L)).thenReturn(Collections.singletonList(pendingMaintenance));
+    void refreshRoomStatus_shouldSetRoomToOutOfService_whenActiveReservationAndPendingMaintenance() {
+        when(roomRepository.findAllById(Set.of(4L))).thenReturn(Collections.singletonList(room4));
+        when(reservationRoomRepository.findRoomIdsByReservationStatusAndRoomIdIn(ReservationStatus.ACTIVE, Set.of(4L)))
+                .thenReturn(Set.of(4L));
+        when(maintenanceRequestRepository.findRoomIdsByStatusNotAndRoomIdIn(MaintenanceStatus.COMPLETED, Set.of(4L)))
+                .thenReturn(Set.of(4L));
+
+        roomStatusManagerService.refreshRoomStatus(4L);
+
+        assertEquals(RoomStatus.OUT_OF_SERVICE, room4.getStatus());
+        verify(roomRepository).saveAll(List.of(room4));
+    }
+
+    /**
+     * Test przeliczenia statusów pokoi z jednej rezerwacji.
+     * <p>
+     * Sprawdza czy serwis pobiera tylko pokoje przypisane do rezerwacji
+     * i nie wykonuje pełnego przeglądu wszystkich pokoi.
+     */
+    @Test
+    void refreshRoomStatusesForReservation_shouldTouchOnlyRoomsOfReservation() {
+        when(reservationRoomRepository.findRoomIdsByReservationId(1L)).thenReturn(Set.of(2L, 4L));
+        when(roomRepository.findAllById(Set.of(2L, 4L))).thenReturn(Arrays.asList(room2, room4));
+        when(reservationRoomRepository.findRoomIdsByReservationStatusAndRoomIdIn(ReservationStatus.ACTIVE, Set.of(2L, 4L)))
+                .thenReturn(Set.of(2L, 4L));
+        when(maintenanceRequestRepository.findRoomIdsByStatusNotAndRoomIdIn(MaintenanceStatus.COMPLETED, Set.of(2L, 4L)))
+                .thenReturn(Collections.emptySet());
+
+        roomStatusManagerService.refreshRoomStatusesForReservation(1L);
+
+        assertEquals(RoomStatus.OCCUPIED, room2.getStatus());
+        assertEquals(RoomStatus.OCCUPIED, room4.getStatus());
+        verify(roomRepository, never()).findAll();
+    }
 
-        roomStatusManagerService.refreshRoomStatuses();
+    /**
+     * Test przeliczenia pustego zbioru pokoi - brak zapytań do bazy.
+     */
+    @Test
+    void refreshRoomStatuses_shouldDoNothing_whenNoRoomIdsGiven() {
+        int changed = roomStatusManagerService.refreshRoomStatuses(Arrays.asList(null, null));
 
-        verify(roomRepository).save(argThat(room ->
-                room.getId().equals(4L) && room.getStatus() == RoomStatus.OUT_OF_SERVICE));
+        assertEquals(0, changed);
+        verifyNoInteractions(roomRepository, reservationRoomRepository, maintenanceRequestRepository);
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,20 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.dto.RoomStatusReportDTO;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.MaintenanceRoom;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.RoomRevenue;
+import com.hoteltaskmanager.dto.RoomStatusReportDTO.RoomStatusCount;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 
 import java.math.BigDecimal;
-import java.sql.Date;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -40,6 +45,9 @@ class RoomStatusReportServiceTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Spy
+    private ReportQueryExecutor reportQueryExecutor = new ReportQueryExecutor(10, 4);
+
     @InjectMocks
     private RoomStatusReportService roomStatusReportService;
 
@@ -62,79 +70,85 @@ class RoomStatusReportServiceTest {
     void setUp() {
         Map<String, Object> availableRooms = new HashMap<>();
         availableRooms.put("status", "AVAILABLE");
-        availableRooms.put("count", 10);
-        availableRooms.put("percentage", 50.00);
+        availableRooms.put("count", 10L);
+        availableRooms.put("percentage", new BigDecimal("50.00"));
 
         Map<String, Object> occupiedRooms = new HashMap<>();
         occupiedRooms.put("status", "OCCUPIED");
-        occupiedRooms.put("count", 8);
-        occupiedRooms.put("percentage", 40.00);
+        occupiedRooms.put("count", 8L);
+        occupiedRooms.put("percentage", new BigDecimal("40.00"));
 
         Map<String, Object> outOfServiceRooms = new HashMap<>();
         outOfServiceRooms.put("status", "OUT_OF_SERVICE");
-        outOfServiceRooms.put("count", 2);
-        outOfServiceRooms.put("percentage", 10.00);
+        outOfServiceRooms.put("count", 2L);
+        outOfServiceRooms.put("percentage", new BigDecimal("10.00"));
 
         mockRoomStatusData = List.of(availableRooms, occupiedRooms, outOfServiceRooms);
 
         Map<String, Object> maintenanceRoom1 = new HashMap<>();
-        maintenanceRoom1.put("room_id", 1);
+        maintenanceRoom1.put("room_id", 1L);
         maintenanceRoom1.put("room_number", "101");
         maintenanceRoom1.put("floor", 1);
         maintenanceRoom1.put("status", "OUT_OF_SERVICE");
-        maintenanceRoom1.put("maintenance_request_id", 101);
+        maintenanceRoom1.put("maintenance_request_id", 101L);
         maintenanceRoom1.put("maintenance_issue", "Zepsuty kran");
-        maintenanceRoom1.put("request_date", Date.valueOf(LocalDate.now().minusDays(2)));
+        maintenanceRoom1.put("request_date", LocalDate.now().minusDays(2).atTime(9, 30));
         maintenanceRoom1.put("maintenance_status", "IN_PROGRESS");
         maintenanceRoom1.put("assignee", "Jan Kowalski");
 
         Map<String, Object> maintenanceRoom2 = new HashMap<>();
-        maintenanceRoom2.put("room_id", 2);
+        maintenanceRoom2.put("room_id", 2L);
         maintenanceRoom2.put("room_number", "102");
         maintenanceRoom2.put("floor", 1);
         maintenanceRoom2.put("status", "OUT_OF_SERVICE");
-        maintenanceRoom2.put("maintenance_request_id", 102);
+        maintenanceRoom2.put("maintenance_request_id", 102L);
         maintenanceRoom2.put("maintenance_issue", "Uszkodzona klimatyzacja");
-        maintenanceRoom2.put("request_date", Date.valueOf(LocalDate.now().minusDays(1)));
+        maintenanceRoom2.put("request_date", LocalDate.now().minusDays(1).atTime(14, 0));
         maintenanceRoom2.put("maintenance_status", "PENDING");
         maintenanceRoom2.put("assignee", null);
 
         mockRoomsNeedingMaintenanceData = List.of(maintenanceRoom1, maintenanceRoom2);
 
         Map<String, Object> revenueRoom1 = new HashMap<>();
-        revenueRoom1.put("room_id", 3);
+        revenueRoom1.put("room_id", 3L);
         revenueRoom1.put("room_number", "201");
         revenueRoom1.put("floor", 2);
         revenueRoom1.put("bed_count", 2);
-        revenueRoom1.put("price_per_night", BigDecimal.valueOf(200.00));
-        revenueRoom1.put("total_reservations", 10);
-        revenueRoom1.put("days_occupied", 30);
-        revenueRoom1.put("total_revenue", BigDecimal.valueOf(6000.00));
-        revenueRoom1.put("revenue_per_day", BigDecimal.valueOf(200.00));
+        revenueRoom1.put("price_per_night", new BigDecimal("200.00"));
+        revenueRoom1.put("total_reservations", 10L);
+        revenueRoom1.put("days_occupied", 30L);
+        revenueRoom1.put("total_revenue", new BigDecimal("6000.00"));
+        revenueRoom1.put("revenue_per_day", new BigDecimal("200.00"));
 
         Map<String, Object> revenueRoom2 = new HashMap<>();
-        revenueRoom2.put("room_id", 4);
+        revenueRoom2.put("room_id", 4L);
         revenueRoom2.put("room_number", "202");
         revenueRoom2.put("floor", 2);
         revenueRoom2.put("bed_count", 1);
-        revenueRoom2.put("price_per_night", BigDecimal.valueOf(150.00));
-        revenueRoom2.put("total_reservations", 8);
-        revenueRoom2.put("days_occupied", 20);
-        revenueRoom2.put("total_revenue", BigDecimal.valueOf(3000.00));
-        revenueRoom2.put("revenue_per_day", BigDecimal.valueOf(150.00));
+        revenueRoom2.put("price_per_night", new BigDecimal("150.00"));
+        revenueRoom2.put("total_reservations", 8L);
+        revenueRoom2.put("days_occupied", 20L);
+        revenueRoom2.put("total_revenue", new BigDecimal("3000.00"));
+        revenueRoom2.put("revenue_per_day", new BigDecimal("150.00"));
 
         mockRevenuePerRoomData = List.of(revenueRoom1, revenueRoom2);
     }
 
+
     /**
-     * Utworzenie mockowanej instancji JdbcTemplate, która zwraca różne dane
-     * w zależności od numeru wywołania
+     * Ustawia odpowiedzi zamockowanego JdbcTemplate dla trzech zapytań raportu.
+     * Zapytania są wykonywane równolegle, więc odpowiedzi są rozróżniane po mapperze wierszy,
+     * a nie po kolejności wywołań.
      */
-    private void setupMockJdbcTemplate() {
-        when(jdbcTemplate.queryForList(anyString()))
-                .thenReturn(mockRoomStatusData)
-                .thenReturn(mockRoomsNeedingMaintenanceData)
-                .thenReturn(mockRevenuePerRoomData);
+    private void setupMockJdbcTemplate(List<Map<String, Object>> roomStatus,
+                                       List<Map<String, Object>> roomsNeedingMaintenance,
+                                       List<Map<String, Object>> revenuePerRoom) {
+        when(jdbcTemplate.query(anyString(), eq(RoomStatusReportService.ROOM_STATUS_MAPPER)))
+                .thenAnswer(ReportRows.rows(roomStatus.toArray(Map[]::new)));
+        when(jdbcTemplate.query(anyString(), eq(RoomStatusReportService.MAINTENANCE_ROOM_MAPPER)))
+                .thenAnswer(ReportRows.rows(roomsNeedingMaintenance.toArray(Map[]::new)));
+        when(jdbcTemplate.query(anyString(), eq(RoomStatusReportService.ROOM_REVENUE_MAPPER)))
+                .thenAnswer(ReportRows.rows(revenuePerRoom.toArray(Map[]::new)));
     }
 
     /**
@@ -149,22 +163,16 @@ class RoomStatusReportServiceTest {
      */
     @Test
     void generateRoomStatusReport_shouldReturnCompleteReport() {
-        setupMockJdbcTemplate();
+        setupMockJdbcTemplate(mockRoomStatusData, mockRoomsNeedingMaintenanceData, mockRevenuePerRoomData);
 
-        Map<String, Object> report = roomStatusReportService.generateRoomStatusReport();
+        RoomStatusReportDTO report = roomStatusReportService.generateRoomStatusReport();
 
         assertNotNull(report);
-        assertEquals(3, report.size());
-
-        assertTrue(report.containsKey("roomStatus"));
-        assertTrue(report.containsKey("roomsNeedingMaintenance"));
-        assertTrue(report.containsKey("revenuePerRoom"));
-
-        assertEquals(mockRoomStatusData, report.get("roomStatus"));
-        assertEquals(mockRoomsNeedingMaintenanceData, report.get("roomsNeedingMaintenance"));
-        assertEquals(mockRevenuePerRoomData, report.get("revenuePerRoom"));
+        assertEquals(3, report.getRoomStatus().size());
+        assertEquals(2, report.getRoomsNeedingMaintenance().size());
+        assertEquals(2, report.getRevenuePerRoom().size());
 
-        verify(jdbcTemplate, times(3)).queryForList(anyString());
+        verify(jdbcTemplate, times(3)).query(anyString(), any(RowMapper.class));
     }
 
     /**
@@ -179,15 +187,11 @@ class RoomStatusReportServiceTest {
      */
     @Test
     void generateRoomStatusReport_shouldReturnCorrectRoomStatusStatistics() {
-        doReturn(mockRoomStatusData)
-                .doReturn(List.of())
-                .doReturn(List.of())
-                .when(jdbcTemplate).queryForList(anyString());
+        setupMockJdbcTemplate(mockRoomStatusData, List.of(), List.of());
 
-        Map<String, Object> report = roomStatusReportService.generateRoomStatusReport();
+        RoomStatusReportDTO report = roomStatusReportService.generateRoomStatusReport();
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> roomStatus = (List<Map<String, Object>>) report.get("roomStatus");
+        List<RoomStatusCount> roomStatus = report.getRoomStatus();
         assertNotNull(roomStatus);
         assertEquals(3, roomStatus.size());
 
@@ -195,19 +199,18 @@ class RoomStatusReportServiceTest {
         boolean foundOccupied = false;
         boolean foundOutOfService = false;
 
-        for (Map<String, Object> status : roomStatus) {
-            String statusName = (String) status.get("status");
-            if ("AVAILABLE".equals(statusName)) {
-                assertEquals(10, status.get("count"));
-                assertEquals(50.00, status.get("percentage"));
+        for (RoomStatusCount status : roomStatus) {
+            if ("AVAILABLE".equals(status.status())) {
+                assertEquals(10L, status.count());
+                assertEquals(new BigDecimal("50.00"), status.percentage());
                 foundAvailable = true;
-            } else if ("OCCUPIED".equals(statusName)) {
-                assertEquals(8, status.get("count"));
-                assertEquals(40.00, status.get("percentage"));
+            } else if ("OCCUPIED".equals(status.status())) {
+                assertEquals(8L, status.count());
+                assertEquals(new BigDecimal("40.00"), status.percentage());
                 foundOccupied = true;
-            } else if ("OUT_OF_SERVICE".equals(statusName)) {
-                assertEquals(2, status.get("count"));
-                assertEquals(10.00, status.get("percentage"));
+            } else if ("OUT_OF_SERVICE".equals(status.status())) {
+                assertEquals(2L, status.count());
+                assertEquals(new BigDecimal("10.00"), status.percentage());
                 foundOutOfService = true;
             }
         }
@@ -228,31 +231,28 @@ class RoomStatusReportServiceTest {
      */
     @Test
     void generateRoomStatusReport_shouldReturnCorrectMaintenanceData() {
-        doReturn(List.of())
-                .doReturn(mockRoomsNeedingMaintenanceData)
-                .doReturn(List.of())
-                .when(jdbcTemplate).queryForList(anyString());
+        setupMockJdbcTemplate(List.of(), mockRoomsNeedingMaintenanceData, List.of());
 
-        Map<String, Object> report = roomStatusReportService.generateRoomStatusReport();
+        RoomStatusReportDTO report = roomStatusReportService.generateRoomStatusReport();
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> maintenanceData = (List<Map<String, Object>>) report.get("roomsNeedingMaintenance");
+        List<MaintenanceRoom> maintenanceData = report.getRoomsNeedingMaintenance();
         assertNotNull(maintenanceData);
         assertEquals(2, maintenanceData.size());
 
-        Map<String, Object> request1 = maintenanceData.get(0);
-        assertEquals(1, request1.get("room_id"));
-        assertEquals("101", request1.get("room_number"));
-        assertEquals("Zepsuty kran", request1.get("maintenance_issue"));
-        assertEquals("IN_PROGRESS", request1.get("maintenance_status"));
-        assertEquals("Jan Kowalski", request1.get("assignee"));
-
-        Map<String, Object> request2 = maintenanceData.get(1);
-        assertEquals(2, request2.get("room_id"));
-        assertEquals("102", request2.get("room_number"));
-        assertEquals("Uszkodzona klimatyzacja", request2.get("maintenance_issue"));
-        assertEquals("PENDING", request2.get("maintenance_status"));
-        assertNull(request2.get("assignee"));
+        MaintenanceRoom request1 = maintenanceData.get(0);
+        assertEquals(1L, request1.roomId());
+        assertEquals("101", request1.roomNumber());
+        assertEquals("Zepsuty kran", request1.maintenanceIssue());
+        assertEquals(LocalDate.now().minusDays(2).atTime(9, 30), request1.requestDate());
+        assertEquals("IN_PROGRESS", request1.maintenanceStatus());
+        assertEquals("Jan Kowalski", request1.assignee());
+
+        MaintenanceRoom request2 = maintenanceData.get(1);
+        assertEquals(2L, request2.roomId());
+        assertEquals("102", request2.roomNumber());
+        assertEquals("Uszkodzona klimatyzacja", request2.maintenanceIssue());
+        assertEquals("PENDING", request2.maintenanceStatus());
+        assertNull(request2.assignee());
     }
 
     /**
@@ -267,31 +267,27 @@ class RoomStatusReportServiceTest {
      */
     @Test
     void generateRoomStatusReport_shouldReturnCorrectRevenueData() {
-        doReturn(List.of())
-                .doReturn(List.of())
-                .doReturn(mockRevenuePerRoomData)
-                .when(jdbcTemplate).queryForList(anyString());
+        setupMockJdbcTemplate(List.of(), List.of(), mockRevenuePerRoomData);
 
-        Map<String, Object> report = roomStatusReportService.generateRoomStatusReport();
+        RoomStatusReportDTO report = roomStatusReportService.generateRoomStatusReport();
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> revenueData = (List<Map<String, Object>>) report.get("revenuePerRoom");
+        List<RoomRevenue> revenueData = report.getRevenuePerRoom();
         assertNotNull(revenueData);
         assertEquals(2, revenueData.size());
 
-        Map<String, Object> room1 = revenueData.get(0);
-        assertEquals(3, room1.get("room_id"));
-        assertEquals("201", room1.get("room_number"));
-        assertEquals(2, room1.get("bed_count"));
-        assertEquals(BigDecimal.valueOf(200.00), room1.get("price_per_night"));
-        assertEquals(10, room1.get("total_reservations"));
-        assertEquals(30, room1.get("days_occupied"));
-        assertEquals(BigDecimal.valueOf(6000.00), room1.get("total_revenue"));
-        assertEquals(BigDecimal.valueOf(200.00), room1.get("revenue_per_day"));
-
-        Map<String, Object> room2 = revenueData.get(1);
-        assertEquals(4, room2.get("room_id"));
-        assertEquals("202", room2.get("room_number"));
-        assertEquals(1, room2.get("bed_count"));
+        RoomRevenue room1 = revenueData.get(0);
+        assertEquals(3L, room1.roomId());
+        assertEquals("201", room1.roomNumber());
+        assertEquals(2, room1.bedCount());
+        assertEquals(new BigDecimal("200.00"), room1.pricePerNight());
+        assertEquals(10L, room1.totalReservations());
+        assertEquals(30L, room1.daysOccupied());
+        assertEquals(new BigDecimal("6000.00"), room1.totalRevenue());
+        assertEquals(new BigDecimal("200.00"), room1.revenuePerDay());
+
+        RoomRevenue room2 = revenueData.get(1);
+        assertEquals(4L, room2.roomId());
+        assertEquals("202", room2.roomNumber());
+        assertEquals(1, room2.bedCount());
     }
-}
\ No newline at end of file
+}
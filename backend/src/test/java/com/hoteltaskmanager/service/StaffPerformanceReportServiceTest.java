@@ -1,5 +1,7 @@
 package com.hoteltaskmanager.service;
 
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO;
+import com.hoteltaskmanager.dto.StaffPerformanceReportDTO.EmployeePerformance;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,8 +10,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,17 +32,16 @@ class StaffPerformanceReportServiceTest {
 
     private LocalDate startDate;
     private LocalDate endDate;
-    private List<Map<String, Object>> sampleTasksByEmployee;
+    private Map<String, Object> employee1;
+    private Map<String, Object> employee2;
 
     @BeforeEach
     void setUp() {
         startDate = LocalDate.of(2025, 4, 1);
         endDate = LocalDate.of(2025, 5, 1);
 
-        // Przygotowanie przykładowych danych
-        sampleTasksByEmployee = new ArrayList<>();
-        // Symulujemy dane, które mógłby zwrócić JdbcTemplate
-        Map<String, Object> employee1 = Map.of(
+        // Symulujemy wiersze, które mógłby zwrócić JdbcTemplate
+        employee1 = Map.of(
                 "employee_id", 1L,
                 "employee_name", "Jan Kowalski",
                 "role_name", "HOUSEKEEPER",
@@ -47,79 +49,77 @@ class StaffPerformanceReportServiceTest {
                 "housekeeping_tasks", 15L,
                 "maintenance_tasks", 0L,
                 "total_tasks", 15L,
-                "completed", 13L,
-                "success_rate", 86.67,
-                "avg_hours_to_complete", 1.5
+                "completed", new BigDecimal("13"),
+                "success_rate", new BigDecimal("86.67"),
+                "avg_hours_to_complete", new BigDecimal("1.5000")
         );
 
-        Map<String, Object> employee2 = Map.of(
-                "employee_id", 2L,
-                "employee_name", "Anna Nowak",
-                "role_name", "MAINTENANCE",
-                "avatar_filename", "anna.jpg",
-                "housekeeping_tasks", 0L,
-                "maintenance_tasks", 10L,
-                "total_tasks", 10L,
-                "completed", 9L,
-                "success_rate", 90.0,
-                "avg_hours_to_complete", 3.2
-        );
-
-        sampleTasksByEmployee.add(employee1);
-        sampleTasksByEmployee.add(employee2);
+        employee2 = new HashMap<>();
+        employee2.put("employee_id", 2L);
+        employee2.put("employee_name", "Anna Nowak");
+        employee2.put("role_name", "MAINTENANCE");
+        employee2.put("avatar_filename", null);
+        employee2.put("housekeeping_tasks", 0L);
+        employee2.put("maintenance_tasks", 10L);
+        employee2.put("total_tasks", 10L);
+        employee2.put("completed", new BigDecimal("9"));
+        employee2.put("success_rate", new BigDecimal("90.00"));
+        employee2.put("avg_hours_to_complete", null);
     }
 
     @Test
     void generateStaffPerformanceReport_ShouldReturnCorrectData() {
         // Given
-        when(jdbcTemplate.queryForList(
+        when(jdbcTemplate.query(
                 any(String.class),
+                eq(StaffPerformanceReportService.EMPLOYEE_PERFORMANCE_MAPPER),
                 eq(startDate), eq(endDate), eq(startDate), eq(endDate)
-        )).thenReturn(sampleTasksByEmployee);
+        )).thenAnswer(ReportRows.rows(employee1, employee2));
 
         // When
-        Map<String, Object> result = staffPerformanceReportService.generateStaffPerformanceReport(startDate, endDate);
+        StaffPerformanceReportDTO result = staffPerformanceReportService.generateStaffPerformanceReport(startDate, endDate);
 
         // Then
         assertNotNull(result);
-        assertTrue(result.containsKey("tasksByEmployee"));
 
-        List<Map<String, Object>> tasksByEmployee = (List<Map<String, Object>>) result.get("tasksByEmployee");
+        List<EmployeePerformance> tasksByEmployee = result.getTasksByEmployee();
         assertEquals(2, tasksByEmployee.size());
 
         // Sprawdzamy dane pierwszego pracownika
-        Map<String, Object> firstEmployee = tasksByEmployee.get(0);
-        assertEquals(1L, firstEmployee.get("employee_id"));
-        assertEquals("Jan Kowalski", firstEmployee.get("employee_name"));
-        assertEquals("HOUSEKEEPER", firstEmployee.get("role_name"));
-        assertEquals(15L, firstEmployee.get("total_tasks"));
-        assertEquals(86.67, firstEmployee.get("success_rate"));
-
-        // Sprawdzamy dane drugiego pracownika
-        Map<String, Object> secondEmployee = tasksByEmployee.get(1);
-        assertEquals(2L, secondEmployee.get("employee_id"));
-        assertEquals("Anna Nowak", secondEmployee.get("employee_name"));
-        assertEquals("MAINTENANCE", secondEmployee.get("role_name"));
-        assertEquals(10L, secondEmployee.get("total_tasks"));
-        assertEquals(90.0, secondEmployee.get("success_rate"));
+        EmployeePerformance firstEmployee = tasksByEmployee.get(0);
+        assertEquals(1L, firstEmployee.employeeId());
+        assertEquals("Jan Kowalski", firstEmployee.employeeName());
+        assertEquals("HOUSEKEEPER", firstEmployee.roleName());
+        assertEquals("jan.jpg", firstEmployee.avatarFilename());
+        assertEquals(15L, firstEmployee.totalTasks());
+        assertEquals(13L, firstEmployee.completed());
+        assertEquals(new BigDecimal("86.67"), firstEmployee.successRate());
+
+        // Sprawdzamy dane drugiego pracownika - kolumny NULL pozostają puste
+        EmployeePerformance secondEmployee = tasksByEmployee.get(1);
+        assertEquals(2L, secondEmployee.employeeId());
+        assertEquals("Anna Nowak", secondEmployee.employeeName());
+        assertEquals("MAINTENANCE", secondEmployee.roleName());
+        assertEquals(10L, secondEmployee.totalTasks());
+        assertEquals(new BigDecimal("90.00"), secondEmployee.successRate());
+        assertNull(secondEmployee.avatarFilename());
+        assertNull(secondEmployee.avgHoursToComplete());
     }
 
     @Test
     void generateStaffPerformanceReport_WithEmptyData_ShouldReturnEmptyList() {
         // Given
-        when(jdbcTemplate.queryForList(
+        when(jdbcTemplate.query(
                 any(String.class),
+                eq(StaffPerformanceReportService.EMPLOYEE_PERFORMANCE_MAPPER),
                 eq(startDate), eq(endDate), eq(startDate), eq(endDate)
-        )).thenReturn(new ArrayList<>());
+        )).thenAnswer(ReportRows.rows());
 
         // When
-        Map<String, Object> result = staffPerformanceReportService.generateStaffPerformanceReport(startDate, endDate);
+        StaffPerformanceReportDTO result = staffPerformanceReportService.generateStaffPerformanceReport(startDate, endDate);
 
         // Then
         assertNotNull(result);
-        assertTrue(result.containsKey("tasksByEmployee"));
-
-        List<Map<String, Object>> tasksByEmployee = (List<Map<String, Object>>) result.get("tasksByEmployee");
-        assertTrue(tasksByEmployee.isEmpty());
+        assertTrue(result.getTasksByEmployee().isEmpty());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.hoteltaskmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe dla {@link BoundedTtlCache}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Usuwanie najdawniej używanego wpisu po przekroczeniu limitu</li>
+ *     <li>Wygasanie wpisów po czasie życia</li>
+ *     <li>Scalanie równoległych żądań o ten sam klucz</li>
+ *     <li>Pomijanie wyniku obliczenia rozpoczętego przed wyczyszczeniem</li>
+ * </ul>
+ */
+class BoundedTtlCacheTest {
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntry() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 2, 60_000);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void get_shouldDropExpiredEntry() throws Exception {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, 20);
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a").get());
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldComputeValueOnceForConcurrentRequests() throws Exception {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, 60_000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("key", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "raport";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> second = executor.submit(() -> cache.get("key", () -> {
+                calls.incrementAndGet();
+                return "inny";
+            }));
+            release.countDown();
+
+            assertEquals("raport", first.get(5, TimeUnit.SECONDS));
+            assertEquals("raport", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_shouldNotStoreValueComputedBeforeClear() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, 60_000);
+
+        String value = cache.get("key", () -> {
+            cache.clear();
+            return "nieaktualny";
+        });
+
+        assertEquals("nieaktualny", value);
+        assertNull(cache.get("key"));
+        assertEquals("nowy", cache.get("key", () -> "nowy"));
+        assertEquals("nowy", cache.get("key").get());
+    }
+}
@@ -0,0 +1,95 @@
+package com.hoteltaskmanager.util;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe dla {@link PdfFontRegistry}.
+ * <p>
+ * Testowane scenariusze:
+ * <ul>
+ *     <li>Jednokrotne wczytanie czcionki i współdzielenie instancji</li>
+ *     <li>Niemodyfikowalność współdzielonych czcionek</li>
+ *     <li>Osadzanie podzbioru glifów w PDF</li>
+ *     <li>Równoległe generowanie dokumentów z tą samą czcionką</li>
+ * </ul>
+ */
+class PdfFontRegistryTest {
+
+    private final PdfFontRegistry fontRegistry = new PdfFontRegistry();
+
+    @Test
+    void getFont_shouldReturnSharedInstances() {
+        Font font = fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 12, Font.BOLD);
+
+        assertSame(font, fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 12, Font.BOLD, BaseColor.BLACK));
+        assertSame(fontRegistry.getBaseFont(PdfFontRegistry.DEJAVU_SANS), font.getBaseFont());
+        assertNotSame(font, fontRegistry.getFont(PdfFontRegistry.DEJAVU_SANS, 12, Font.BOLD, BaseColor.WHITE));
+        assertTrue(font.getBaseFont().isSubset());
+    }
+
+    @Test
+    void getFont_shouldRejectModification() {
+        Font font = fontRegistry.getFont(BaseFont.HELVETICA, 10, Font.NORMAL);
+
+        assertThrows(UnsupportedOperationException.class, () -> font.setSize(20));
+        assertThrows(UnsupportedOperationException.class, () -> font.setColor(BaseColor.RED));
+        assertEquals(10, new Font(font).getSize());
+    }
+
+    @Test
+    void getBaseFont_shouldFailForMissingFile() {
+        assertThrows(IllegalStateException.class, () -> fontRegistry.getBaseFont("fonts/missing.ttf"));
+    }
+
+    @Test
+    void generatedPdf_shouldEmbedFontSubset() throws Exception {
+        String pdf = new String(render("Faktura"), StandardCharsets.ISO_8859_1);
+
+        // Nazwa osadzonego podzbioru ma postać "ABCDEF+NazwaCzcionki"
+        assertTrue(pdf.matches("(?s).*/FontName\\s*/[A-Z]{6}\\+.*"));
+    }
+
+    @Test
+    void render_shouldProduceSameDocumentsInParallel() throws Exception {
+        byte[] expected = render("Zażółć gęślą jaźń");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> render("Zażółć gęślą jaźń")));
+            }
+            for (Future<byte[]> result : results) {
+                assertEquals(expected.length, result.get().length);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private byte[] render(String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph(text, fontRegistry.getFont(PdfFontRegistry.LEXEND_PETA, 12, Font.NORMAL)));
+        document.close();
+        return out.toByteArray();
+    }
+}
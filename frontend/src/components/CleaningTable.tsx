@@ -24,7 +24,7 @@ const CleaningTable = () => {
   useEffect(() => {
     const fetchCleaningTasks = async () => {
       try {
-        const response = await api.get("/housekeeping-tasks");
+        const response = await api.get("/housekeeping-tasks?view=summary");
         setTasks(response.data);
       } catch (err) {
         console.error("Błąd podczas pobierania zadań sprzątania:", err);
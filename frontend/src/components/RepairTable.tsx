@@ -25,7 +25,7 @@ const RepairTable = () => {
   useEffect(() => {
     const fetchRepairs = async () => {
       try {
-        const response = await api.get("/maintenance-requests");
+        const response = await api.get("/maintenance-requests?view=summary");
         setRepairs(response.data);
       } catch (err) {
         console.error("Błąd podczas pobierania zgłoszeń serwisowych:", err);
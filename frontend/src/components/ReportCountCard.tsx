@@ -8,8 +8,8 @@ const ReportCountCard = () => {
   useEffect(() => {
     const fetchReports = async () => {
       try {
-        const response = await api.get("/reports/saved");
-        setReportCount(response.data.length);
+        const response = await api.get("/reports/saved/count");
+        setReportCount(response.data.count);
       } catch (error) {
         console.error("Błąd podczas pobierania raportów:", error);
         setReportCount(0);
@@ -33,9 +33,12 @@ const ReportsTable = () => {
   const [reports, setReports] = useState<Report[]>([]);
   const [loading, setLoading] = useState(true);
   const [search, setSearch] = useState("");
-  const [currentPage, setCurrentPage] = useState(1);
   const [itemsPerPage, setItemsPerPage] = useState(8);
   const [filterReportType, setFilterReportType] = useState("ALL");
+  // Kursory odwiedzonych stron (stronicowanie kluczem) - ostatni to kursor bieżącej strony
+  const [pageCursors, setPageCursors] = useState<(number | null)[]>([null]);
+  const [nextCursor, setNextCursor] = useState<number | null>(null);
+  const [totalCount, setTotalCount] = useState(0);
 
   const [showDeleteModal, setShowDeleteModal] = useState(false);
   const [reportToDelete, setReportToDelete] = useState<number | null>(null);
@@ -45,9 +48,14 @@ const ReportsTable = () => {
   const [currentReport, setCurrentReport] = useState<Report | null>(null);
   const [reportLoading, setReportLoading] = useState(false);
 
+  const currentPage = pageCursors.length;
+  const currentCursor = pageCursors[pageCursors.length - 1];
+
   useEffect(() => {
-    fetchReports();
-  }, []);
+    setPageCursors([null]);
+    fetchReports(null);
+    fetchReportCount();
+  }, [itemsPerPage, filterReportType]);
 
   useEffect(() => {
     return () => {
@@ -57,20 +65,51 @@ const ReportsTable = () => {
     };
   }, [pdfUrl]);
 
-  const fetchReports = async () => {
+  const reportTypeParam = () => (filterReportType === "ALL" ? undefined : filterReportType);
+
+  const fetchReports = async (cursor: number | null) => {
     try {
       setLoading(true);
-      const response = await api.get("/reports/saved");
-      setReports(response.data);
+      const response = await api.get("/reports/saved", {
+        limit: itemsPerPage,
+        cursor: cursor ?? undefined,
+        reportType: reportTypeParam(),
+      });
+      setReports(response.data.items);
+      setNextCursor(response.data.nextCursor);
     } catch (err) {
       console.error("Błąd podczas pobierania raportów:", err);
       showNotification("error", "Nie udało się pobrać listy raportów");
       setReports([]);
+      setNextCursor(null);
     } finally {
       setLoading(false);
     }
   };
 
+  const fetchReportCount = async () => {
+    try {
+      const response = await api.get("/reports/saved/count", { reportType: reportTypeParam() });
+      setTotalCount(response.data.count);
+    } catch (err) {
+      console.error("Błąd podczas pobierania liczby raportów:", err);
+      setTotalCount(0);
+    }
+  };
+
+  const goToNextPage = () => {
+    if (nextCursor === null) return;
+    setPageCursors((cursors) => [...cursors, nextCursor]);
+    fetchReports(nextCursor);
+  };
+
+  const goToPreviousPage = () => {
+    if (pageCursors.length === 1) return;
+    const cursors = pageCursors.slice(0, -1);
+    setPageCursors(cursors);
+    fetchReports(cursors[cursors.length - 1]);
+  };
+
   const viewReport = async (report) => {
     try {
       setReportLoading(true);
@@ -140,7 +179,8 @@ const ReportsTable = () => {
 
       if (response.data.success) {
         showNotification("success", "Raport został pomyślnie usunięty");
-        fetchReports();
+        fetchReports(currentCursor);
+        fetchReportCount();
       } else {
         showNotification(
           "error",
@@ -162,35 +202,25 @@ const ReportsTable = () => {
     setSearch("");
     setItemsPerPage(8);
     setFilterReportType("ALL");
-    setCurrentPage(1);
   };
 
   const safeReports = Array.isArray(reports) ? reports : [];
 
-  const filteredReports = safeReports
-    .filter((report) => {
-      if (!report) return false;
+  // Typ raportu filtruje serwer, wyszukiwanie działa w obrębie bieżącej strony
+  const filteredReports = safeReports.filter((report) => {
+    if (!report) return false;
 
-      const reportFile = report.reportFile || "";
-      const employeeName = `${report.createdBy?.firstName || ""} ${report.createdBy?.lastName || ""}`;
+    const reportFile = report.reportFile || "";
+    const employeeName = `${report.createdBy?.firstName || ""} ${report.createdBy?.lastName || ""}`;
 
-      return (
-        reportFile.toLowerCase().includes(search.toLowerCase()) ||
-        employeeName.toLowerCase().includes(search.toLowerCase())
-      );
-    })
-    .filter((report) => {
-      if (!report) return false;
-      if (filterReportType === "ALL") return true;
-
-      return report.reportType === filterReportType;
-    });
-
-  const totalPages = Math.max(1, Math.ceil(filteredReports.length / itemsPerPage));
-  const currentData = filteredReports.slice(
-    (currentPage - 1) * itemsPerPage,
-    currentPage * itemsPerPage,
-  );
+    return (
+      reportFile.toLowerCase().includes(search.toLowerCase()) ||
+      employeeName.toLowerCase().includes(search.toLowerCase())
+    );
+  });
+
+  const currentData = filteredReports;
+  const firstItemNumber = (currentPage - 1) * itemsPerPage + 1;
 
   const getReportTypeDisplay = (type) => {
     switch (type) {
@@ -423,22 +453,22 @@ const ReportsTable = () => {
 
       <div className="card-footer d-flex align-items-center">
         <p className="m-0 text-secondary">
-          {filteredReports.length > 0 ? (
+          {safeReports.length > 0 ? (
             <>
-              Wyświetlono <span>{(currentPage - 1) * itemsPerPage + 1}</span> do{" "}
-              <span>{Math.min(currentPage * itemsPerPage, filteredReports.length)}</span> z{" "}
-              <span>{filteredReports.length}</span> raportów
+              Wyświetlono <span>{firstItemNumber}</span> do{" "}
+              <span>{firstItemNumber + safeReports.length - 1}</span> z <span>{totalCount}</span>{" "}
+              raportów
             </>
           ) : (
             "Brak raportów do wyświetlenia"
           )}
         </p>
-        {filteredReports.length > 0 && (
+        {(safeReports.length > 0 || currentPage > 1) && (
           <ul className="pagination m-0 ms-auto">
             <li className={`page-item ${currentPage === 1 ? "disabled" : ""}`}>
               <button
                 className="page-link"
-                onClick={() => setCurrentPage((p) => p - 1)}
+                onClick={goToPreviousPage}
                 disabled={currentPage === 1}
               >
                 <svg
@@ -458,18 +488,14 @@ const ReportsTable = () => {
                 poprzednia
               </button>
             </li>
-            {Array.from({ length: totalPages }, (_, i) => (
-              <li className={`page-item ${i + 1 === currentPage ? "active" : ""}`} key={i}>
-                <button className="page-link" onClick={() => setCurrentPage(i + 1)}>
-                  {i + 1}
-                </button>
-              </li>
-            ))}
-            <li className={`page-item ${currentPage === totalPages ? "disabled" : ""}`}>
+            <li className="page-item active">
+              <button className="page-link">{currentPage}</button>
+            </li>
+            <li className={`page-item ${nextCursor === null ? "disabled" : ""}`}>
               <button
                 className="page-link"
-                onClick={() => setCurrentPage((p) => p + 1)}
-                disabled={currentPage === totalPages}
+                onClick={goToNextPage}
+                disabled={nextCursor === null}
               >
                 następna
                 <svg
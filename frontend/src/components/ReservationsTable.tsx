@@ -18,7 +18,7 @@ const ReservationsTable = () => {
 
   const getReservations = async () => {
     try {
-      const response = await api.get("/reservations");
+      const response = await api.get("/reservations?view=summary");
       setReservations(response.data);
     } catch (error) {
       console.error("Błąd podczas pobierania rezerwacji:", error);
@@ -0,0 +1,101 @@
+import { createAxiosInstance } from "./api";
+
+/**
+ * Zdarzenie zmiany zadania sprzątania lub zgłoszenia serwisowego wysyłane przez backend (SSE).
+ */
+export type TaskEvent = {
+  id: number;
+  entity: "HOUSEKEEPING_TASK" | "MAINTENANCE_REQUEST";
+  type: "CREATED" | "UPDATED" | "DELETED" | "RESYNC";
+  entityId: number | null;
+  data: any;
+};
+
+type Handlers = {
+  /** Wywoływane dla każdej zmiany (delta). */
+  onEvent: (event: TaskEvent) => void;
+  /** Wywoływane, gdy klient powinien pobrać pełną listę ponownie. */
+  onResync: () => void;
+};
+
+/** Odstęp przed ponownym połączeniem po zerwaniu strumienia (ms). */
+const RECONNECT_DELAY_MS = 3000;
+
+/**
+ * Otwiera strumień zdarzeń `/api/events/stream`.
+ * Strumień otwiera się jednorazowym biletem (`POST /api/events/ticket`), a nie tokenem JWT,
+ * żeby token nie trafiał do logów. Bilet działa tylko raz, więc po zerwaniu połączenia
+ * klient sam pobiera nowy bilet i wznawia strumień od ostatniego zdarzenia (`lastEventId`),
+ * a backend dosyła tylko pominięte zmiany.
+ *
+ * @returns Funkcja zamykająca połączenie
+ */
+export async function subscribeToTaskEvents({ onEvent, onResync }: Handlers): Promise<() => void> {
+  const instance = await createAxiosInstance();
+  let source: EventSource | null = null;
+  let lastEventId: string | null = null;
+  let closed = false;
+  let reconnectTimer: ReturnType<typeof setTimeout> | undefined;
+
+  const scheduleReconnect = () => {
+    if (!closed) {
+      reconnectTimer = setTimeout(connect, RECONNECT_DELAY_MS);
+    }
+  };
+
+  async function connect() {
+    let stream: EventSource;
+    try {
+      const { data } = await instance.post("/events/ticket");
+      if (closed) return;
+
+      const params = new URLSearchParams({ ticket: data.ticket });
+      if (lastEventId) params.set("lastEventId", lastEventId);
+      stream = new EventSource(`${instance.defaults.baseURL}/events/stream?${params}`);
+      source = stream;
+    } catch {
+      scheduleReconnect();
+      return;
+    }
+
+    stream.addEventListener("task", (message: MessageEvent) => {
+      lastEventId = message.lastEventId || lastEventId;
+      const event: TaskEvent = JSON.parse(message.data);
+      if (event.type === "RESYNC") {
+        onResync();
+      } else {
+        onEvent(event);
+      }
+    });
+
+    stream.addEventListener("resync", () => onResync());
+
+    // Automatyczne wznowienie EventSource użyłoby zużytego biletu
+    stream.onerror = () => {
+      stream.close();
+      scheduleReconnect();
+    };
+  }
+
+  await connect();
+
+  return () => {
+    closed = true;
+    clearTimeout(reconnectTimer);
+    source?.close();
+  };
+}
+
+/**
+ * Nakłada zdarzenie na lokalną listę encji (wstawienie, podmiana lub usunięcie po ID).
+ */
+export function applyTaskEvent<T extends { id: number }>(list: T[], event: TaskEvent): T[] {
+  if (event.type === "DELETED") {
+    return list.filter((item) => item.id !== event.entityId);
+  }
+
+  const exists = list.some((item) => item.id === event.entityId);
+  return exists
+    ? list.map((item) => (item.id === event.entityId ? event.data : item))
+    : [...list, event.data];
+}
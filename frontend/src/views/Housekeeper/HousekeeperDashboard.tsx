@@ -2,6 +2,7 @@
 
 import { useEffect, useRef, useState } from "react";
 import { api } from "../../services/api";
+import { applyTaskEvent, subscribeToTaskEvents } from "../../services/events";
 import { useUser } from "../../contexts/user";
 import CleaningTable from "../../components/CleaningTable";
 import { useNotification } from "../../contexts/notification";
@@ -13,81 +14,85 @@ const HousekeeperCleaningTasks = () => {
   const [tasks, setTasks] = useState([]);
   const navigate = useNavigate();
   const knownTaskIdsRef = useRef<Set<number>>(new Set());
+  const tasksRef = useRef([]);
+
+  const updateTasks = (current) => {
+    const newAssignedTasks = current.filter(
+      (task) => !knownTaskIdsRef.current.has(task.id) && task.employee?.id === userId,
+    );
+
+    const newUnassignedTasks = current.filter(
+      (task) => !knownTaskIdsRef.current.has(task.id) && !task.employee,
+    );
+
+    tasksRef.current = current;
+    setTasks(current);
+
+    if (Notification.permission === "granted") {
+      if (knownTaskIdsRef.current.size > 0 && newAssignedTasks.length > 0) {
+        const firstNew = newAssignedTasks[0];
+        const room = firstNew.room?.roomNumber;
+        const date = new Date(firstNew.requestDate).toLocaleDateString();
+        const description = firstNew.description ?? "Brak opisu";
+
+        const statusMap = {
+          PENDING: "Do wykonania",
+          IN_PROGRESS: "W trakcie",
+          COMPLETED: "Ukończono",
+        };
+        const status = statusMap[firstNew.status] ?? firstNew.status;
+
+        const bodyLines = [
+          room ? `📍 Pokój: ${room}` : null,
+          `📅 Data: ${date}`,
+          `📌 Status: ${status}`,
+          `📝 ${description}`,
+        ]
+          .filter(Boolean)
+          .join("\n");
+
+        const notif = new Notification("🧽 Nowe zadanie sprzątania", {
+          body: bodyLines,
+        });
+
+        notif.onclick = () => {
+          window.electronAPI?.focusWindow();
+        };
+      }
+
+      if (knownTaskIdsRef.current.size > 0 && newUnassignedTasks.length > 0) {
+        const firstUnassigned = newUnassignedTasks[0];
+        const room = firstUnassigned.room?.roomNumber;
+        const date = new Date(firstUnassigned.requestDate).toLocaleDateString();
+        const description = firstUnassigned.description ?? "Brak opisu";
+
+        const bodyLines = [
+          room ? `📍 Pokój: ${room}` : null,
+          `📅 Data zgłoszenia: ${date}`,
+          `📝 ${description}`,
+        ]
+          .filter(Boolean)
+          .join("\n");
+
+        const notif = new Notification("🧼 Nowe nieprzypisane zadanie sprzątania", {
+          body: bodyLines,
+        });
+
+        notif.onclick = () => {
+          window.electronAPI?.focusWindow();
+        };
+      }
+    }
+
+    [...newAssignedTasks, ...newUnassignedTasks].forEach((task) =>
+      knownTaskIdsRef.current.add(task.id),
+    );
+  };
 
   const fetchTasks = async () => {
     try {
       const response = await api.get(`/housekeeping-tasks?employeeId=${userId}`);
-      const current = response.data;
-
-      const newAssignedTasks = current.filter(
-        (task) => !knownTaskIdsRef.current.has(task.id) && task.employee?.id === userId,
-      );
-
-      const newUnassignedTasks = current.filter(
-        (task) => !knownTaskIdsRef.current.has(task.id) && !task.employee,
-      );
-
-      setTasks(current);
-
-      if (Notification.permission === "granted") {
-        if (knownTaskIdsRef.current.size > 0 && newAssignedTasks.length > 0) {
-          const firstNew = newAssignedTasks[0];
-          const room = firstNew.room?.roomNumber;
-          const date = new Date(firstNew.requestDate).toLocaleDateString();
-          const description = firstNew.description ?? "Brak opisu";
-
-          const statusMap = {
-            PENDING: "Do wykonania",
-            IN_PROGRESS: "W trakcie",
-            COMPLETED: "Ukończono",
-          };
-          const status = statusMap[firstNew.status] ?? firstNew.status;
-
-          const bodyLines = [
-            room ? `📍 Pokój: ${room}` : null,
-            `📅 Data: ${date}`,
-            `📌 Status: ${status}`,
-            `📝 ${description}`,
-          ]
-            .filter(Boolean)
-            .join("\n");
-
-          const notif = new Notification("🧽 Nowe zadanie sprzątania", {
-            body: bodyLines,
-          });
-
-          notif.onclick = () => {
-            window.electronAPI?.focusWindow();
-          };
-        }
-
-        if (knownTaskIdsRef.current.size > 0 && newUnassignedTasks.length > 0) {
-          const firstUnassigned = newUnassignedTasks[0];
-          const room = firstUnassigned.room?.roomNumber;
-          const date = new Date(firstUnassigned.requestDate).toLocaleDateString();
-          const description = firstUnassigned.description ?? "Brak opisu";
-
-          const bodyLines = [
-            room ? `📍 Pokój: ${room}` : null,
-            `📅 Data zgłoszenia: ${date}`,
-            `📝 ${description}`,
-          ]
-            .filter(Boolean)
-            .join("\n");
-
-          const notif = new Notification("🧼 Nowe nieprzypisane zadanie sprzątania", {
-            body: bodyLines,
-          });
-
-          notif.onclick = () => {
-            window.electronAPI?.focusWindow();
-          };
-        }
-      }
-
-      [...newAssignedTasks, ...newUnassignedTasks].forEach((task) =>
-        knownTaskIdsRef.current.add(task.id),
-      );
+      updateTasks(response.data);
     } catch (error) {
       console.error("Błąd ładowania zadań:", error);
       showNotification("error", "Nie udało się pobrać zadań sprzątania.");
@@ -95,9 +100,26 @@ const HousekeeperCleaningTasks = () => {
   };
 
   useEffect(() => {
-    fetchTasks(); // pierwszy fetch
-    const interval = setInterval(fetchTasks, 10000); // odświeżanie co 10s
-    return () => clearInterval(interval);
+    let closeStream = () => {};
+    let cancelled = false;
+
+    fetchTasks(); // pierwszy fetch, dalej tylko zmiany z serwera (SSE)
+    subscribeToTaskEvents({
+      onEvent: (event) => {
+        if (event.entity === "HOUSEKEEPING_TASK") {
+          updateTasks(applyTaskEvent(tasksRef.current, event));
+        }
+      },
+      onResync: fetchTasks,
+    }).then((close) => {
+      if (cancelled) close();
+      else closeStream = close;
+    });
+
+    return () => {
+      cancelled = true;
+      closeStream();
+    };
   }, [userId]);
 
   return (
@@ -2,6 +2,7 @@
 
 import { useEffect, useRef, useState } from "react";
 import { api } from "../../services/api";
+import { applyTaskEvent, subscribeToTaskEvents } from "../../services/events";
 import { useUser } from "../../contexts/user";
 import RepairTable from "../../components/RepairTable";
 import { useNotification } from "../../contexts/notification";
@@ -13,105 +14,127 @@ const MaintenanceDashboard = () => {
   const [requests, setRequests] = useState([]);
   const navigate = useNavigate();
   const knownRequestIdsRef = useRef<Set<number>>(new Set());
+  const allRequestsRef = useRef([]);
 
   useEffect(() => {
+    const updateRequests = (current) => {
+      allRequestsRef.current = current;
+
+      const newTasks = current.filter((task) => !knownRequestIdsRef.current.has(task.id));
+
+      const assignedTasks = current.filter((task) => task.assignee?.id === userId);
+
+      setRequests(assignedTasks);
+
+      if (
+        knownRequestIdsRef.current.size > 0 &&
+        Notification.permission === "granted" &&
+        userNotificationsEnabled
+      ) {
+        const newAssignedTasks = newTasks.filter((task) => task.assignee?.id === userId);
+
+        if (newAssignedTasks.length > 0) {
+          const firstNew = newAssignedTasks[0];
+          const description = firstNew.description ?? "Brak opisu";
+          const requester =
+            `${firstNew.requester?.firstName ?? ""} ${firstNew.requester?.lastName ?? ""}`.trim();
+          const statusMap = {
+            PENDING: "Do wykonania",
+            IN_PROGRESS: "W trakcie",
+            COMPLETED: "Ukończono",
+          };
+          const status = statusMap[firstNew.status] ?? firstNew.status;
+          const date = new Date(firstNew.requestDate).toLocaleDateString();
+
+          const lines = [
+            firstNew.room ? `📍 Pokój: ${firstNew.room.roomNumber}` : null,
+            `📝 Opis: ${description}`,
+            `👤 Zgłaszający: ${requester}`,
+            `📌 Status: ${status}`,
+            `📅 Data: ${date}`,
+          ]
+            .filter(Boolean)
+            .join("\n");
+
+          const notif = new Notification("🛠️ Nowe zlecenie naprawy", {
+            body: lines,
+            icon: firstNew.requester?.avatarUrl ?? "",
+          });
+
+          notif.onclick = () => {
+            window.electronAPI?.focusWindow();
+          };
+        }
+
+        const newUnassignedTasks = newTasks.filter((task) => !task.assignee);
+
+        if (newUnassignedTasks.length > 0) {
+          const firstNew = newUnassignedTasks[0];
+          const description = firstNew.description ?? "Brak opisu";
+          const requester =
+            `${firstNew.requester?.firstName ?? ""} ${firstNew.requester?.lastName ?? ""}`.trim();
+          const statusMap = {
+            PENDING: "Do wykonania",
+            IN_PROGRESS: "W trakcie",
+            COMPLETED: "Ukończono",
+          };
+          const status = statusMap[firstNew.status] ?? firstNew.status;
+          const date = new Date(firstNew.requestDate).toLocaleDateString();
+
+          const lines = [
+            firstNew.room ? `📍 Pokój: ${firstNew.room.roomNumber}` : null,
+            `📝 Opis: ${description}`,
+            `👤 Zgłaszający: ${requester}`,
+            `📌 Status: ${status}`,
+            `📅 Data: ${date}`,
+          ]
+            .filter(Boolean)
+            .join("\n");
+
+          const notif = new Notification("🛠️ Nowe nieprzypisane zlecenie naprawy", {
+            body: lines,
+            icon: firstNew.requester?.avatarUrl ?? "",
+          });
+
+          notif.onclick = () => {
+            window.electronAPI?.focusWindow();
+          };
+        }
+      }
+
+      newTasks.forEach((task) => knownRequestIdsRef.current.add(task.id));
+    };
+
     const fetchRequests = async () => {
       try {
         const response = await api.get("/maintenance-requests");
-        const current = response.data;
-
-        const newTasks = current.filter((task) => !knownRequestIdsRef.current.has(task.id));
-
-        const assignedTasks = current.filter((task) => task.assignee?.id === userId);
-
-        setRequests(assignedTasks);
-
-        if (
-          knownRequestIdsRef.current.size > 0 &&
-          Notification.permission === "granted" &&
-          userNotificationsEnabled
-        ) {
-          const newAssignedTasks = newTasks.filter((task) => task.assignee?.id === userId);
-
-          if (newAssignedTasks.length > 0) {
-            const firstNew = newAssignedTasks[0];
-            const description = firstNew.description ?? "Brak opisu";
-            const requester =
-              `${firstNew.requester?.firstName ?? ""} ${firstNew.requester?.lastName ?? ""}`.trim();
-            const statusMap = {
-              PENDING: "Do wykonania",
-              IN_PROGRESS: "W trakcie",
-              COMPLETED: "Ukończono",
-            };
-            const status = statusMap[firstNew.status] ?? firstNew.status;
-            const date = new Date(firstNew.requestDate).toLocaleDateString();
-
-            const lines = [
-              firstNew.room ? `📍 Pokój: ${firstNew.room.roomNumber}` : null,
-              `📝 Opis: ${description}`,
-              `👤 Zgłaszający: ${requester}`,
-              `📌 Status: ${status}`,
-              `📅 Data: ${date}`,
-            ]
-              .filter(Boolean)
-              .join("\n");
-
-            const notif = new Notification("🛠️ Nowe zlecenie naprawy", {
-              body: lines,
-              icon: firstNew.requester?.avatarUrl ?? "",
-            });
-
-            notif.onclick = () => {
-              window.electronAPI?.focusWindow();
-            };
-          }
-
-          const newUnassignedTasks = newTasks.filter((task) => !task.assignee);
-
-          if (newUnassignedTasks.length > 0) {
-            const firstNew = newUnassignedTasks[0];
-            const description = firstNew.description ?? "Brak opisu";
-            const requester =
-              `${firstNew.requester?.firstName ?? ""} ${firstNew.requester?.lastName ?? ""}`.trim();
-            const statusMap = {
-              PENDING: "Do wykonania",
-              IN_PROGRESS: "W trakcie",
-              COMPLETED: "Ukończono",
-            };
-            const status = statusMap[firstNew.status] ?? firstNew.status;
-            const date = new Date(firstNew.requestDate).toLocaleDateString();
-
-            const lines = [
-              firstNew.room ? `📍 Pokój: ${firstNew.room.roomNumber}` : null,
-              `📝 Opis: ${description}`,
-              `👤 Zgłaszający: ${requester}`,
-              `📌 Status: ${status}`,
-              `📅 Data: ${date}`,
-            ]
-              .filter(Boolean)
-              .join("\n");
-
-            const notif = new Notification("🛠️ Nowe nieprzypisane zlecenie naprawy", {
-              body: lines,
-              icon: firstNew.requester?.avatarUrl ?? "",
-            });
-
-            notif.onclick = () => {
-              window.electronAPI?.focusWindow();
-            };
-          }
-        }
-
-        newTasks.forEach((task) => knownRequestIdsRef.current.add(task.id));
+        updateRequests(response.data);
       } catch (error) {
         console.error("Błąd ładowania zgłoszeń:", error);
         showNotification("error", "Nie udało się pobrać zgłoszeń napraw.");
       }
     };
 
-    fetchRequests();
-    const interval = setInterval(fetchRequests, 10000); // co 10 sekund
-    return () => clearInterval(interval);
+    let closeStream = () => {};
+    let cancelled = false;
+
+    fetchRequests(); // pełna lista raz, dalej tylko zmiany z serwera (SSE)
+    subscribeToTaskEvents({
+      onEvent: (event) => {
+        if (event.entity === "MAINTENANCE_REQUEST") {
+          updateRequests(applyTaskEvent(allRequestsRef.current, event));
+        }
+      },
+      onResync: fetchRequests,
+    }).then((close) => {
+      if (cancelled) close();
+      else closeStream = close;
+    });
+
+    return () => {
+      cancelled = true;
+      closeStream();
+    };
   }, [userId]);
 
   return (